@@ -0,0 +1,41 @@
+package com.project.diagram_service.client;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Recognizes failures that mean a caller gave up on a call, not that the core service failed.
+ *
+ * A call whose thread was interrupted or whose future was cancelled says nothing about the
+ * health of the core service, so it is neither counted by the {@link CircuitBreaker} nor
+ * reported as an error by {@link CoreServiceMetrics}. Timeouts are still failures.
+ */
+final class Cancellations {
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private Cancellations() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Checks whether a failure, or any of its causes, is an interrupt or a cancellation.
+     *
+     * @param failure the failure of a call
+     * @return true if the call was cancelled rather than failed
+     */
+    static boolean isCancellation(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException
+                    || cause instanceof CancellationException
+                    || cause instanceof ClosedByInterruptException
+                    || (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
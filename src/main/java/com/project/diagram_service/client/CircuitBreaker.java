@@ -0,0 +1,117 @@
+package com.project.diagram_service.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Minimal circuit breaker guarding calls to the core service.
+ *
+ * After {@code failureThreshold} consecutive failures the breaker opens and rejects calls
+ * immediately with a {@link CircuitBreakerOpenException}, so callers fail fast instead of
+ * each waiting out connect and read timeouts while the core service is down. Once
+ * {@code openDuration} has passed a single trial call is let through (half-open); its
+ * success closes the breaker, its failure opens it again.
+ *
+ * Client errors (4xx) mean the core service answered and do not count as failures. Calls
+ * that were interrupted or cancelled by their caller count as neither success nor failure;
+ * a cancelled trial call leaves the breaker open, ready to let the next call through.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    /**
+     * The breaker states.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the call if the breaker permits it and records its outcome.
+     *
+     * @param call the core service call
+     * @return the call's result
+     * @throws CircuitBreakerOpenException if the breaker is open
+     */
+    public <T> T call(Supplier<T> call) {
+        acquirePermission();
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (HttpClientErrorException e) {
+            onSuccess();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            if (Cancellations.isCancellation(e)) {
+                onCancelled();
+            } else {
+                onFailure(e);
+            }
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            log.info("Core service circuit breaker half-open, letting a trial call through");
+            state = State.HALF_OPEN;
+            return;
+        }
+        throw new CircuitBreakerOpenException("Core service circuit breaker is open");
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Core service circuit breaker closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    private synchronized void onCancelled() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    private synchronized void onFailure(Throwable failure) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Core service circuit breaker opened after {} consecutive failures: {}",
+                         consecutiveFailures, failure.getMessage());
+            }
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+}
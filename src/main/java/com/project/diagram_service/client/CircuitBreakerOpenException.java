@@ -0,0 +1,11 @@
+package com.project.diagram_service.client;
+
+/**
+ * Thrown instead of calling the core service while its circuit breaker is open.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
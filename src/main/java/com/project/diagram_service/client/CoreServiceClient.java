@@ -1,14 +1,38 @@
 package com.project.diagram_service.client;
 
-import com.project.diagram_service.dto.SystemDependencyDTO;
+import com.project.diagram_service.dto.SystemDependencyChangesDTO;
 import com.project.diagram_service.dto.BusinessCapabilityDiagramDTO;
 import com.project.diagram_service.dto.BusinessCapabilityDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Client for communicating with the Core Service API.
@@ -16,15 +40,70 @@ import java.util.List;
  * This client provides methods to interact with the core service's REST endpoints,
  * specifically for retrieving system dependency information. It uses Spring RestTemplate
  * for synchronous HTTP communication, which is appropriate for traditional Spring MVC applications.
+ * The RestTemplate is backed by the pooled transport configured in
+ * {@link com.project.diagram_service.config.CoreServiceHttpConfig}.
  *
  * The client is configured with a base URL from application properties and provides
  * simple, blocking HTTP operations that integrate well with the service layer.
+ *
+ * Concurrent calls to the same endpoint are coalesced: while a request is in flight,
+ * further callers wait for it and share its deserialized result instead of issuing
+ * their own request. The shared request runs on its own virtual thread, so cancelling one
+ * caller never fails the request for the others. The number of coalesced calls is published as the
+ * {@code core.service.client.coalesced} counter, tagged by client method.
+ *
+ * Requests are conditional: the client remembers the {@code ETag} and {@code Last-Modified}
+ * validators of each resource together with the model parsed from it, and sends them back as
+ * {@code If-None-Match} / {@code If-Modified-Since}. When the core service answers
+ * {@code 304 Not Modified} the previously parsed model is returned without reading or
+ * deserializing a body.
+ *
+ * The system dependencies feed can additionally be consumed as a stream through
+ * {@link #streamSystemDependencies(boolean, SystemDependencySink)}, which hands each system to the
+ * caller while the response is still being read instead of binding the whole array first. When the
+ * core service tags that response with a landscape version ({@value #LANDSCAPE_VERSION_HEADER}),
+ * later refreshes can ask {@link #getSystemDependencyChanges(long)} for only what changed since.
+ *
+ * Every request that reaches the network goes through a {@link CircuitBreaker}, so calls
+ * fail fast with a {@link CircuitBreakerOpenException} while the core service is unavailable.
+ *
+ * Each call is instrumented through {@link CoreServiceMetrics}: overall latency, the time spent
+ * transferring and deserializing the body, body size, record count and errors are published per
+ * client method. Response bodies are bound with Jackson directly from the metered network stream
+ * so the two phases can be told apart without buffering the body.
  */
 @Component
+@Slf4j
 public class CoreServiceClient {
     
+    private static final String COALESCED_METRIC = "core.service.client.coalesced";
+    private static final String METHOD_TAG = "method";
+
+    /** Response header carrying the landscape version of a full system dependencies response. */
+    public static final String LANDSCAPE_VERSION_HEADER = "X-Landscape-Version";
+
     private final RestTemplate restTemplate;
     private final String baseUrl;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final CircuitBreaker circuitBreaker;
+    private final CoreServiceMetrics metrics;
+    private final Map<String, CompletableFuture<Object>> inFlightRequests = new ConcurrentHashMap<>();
+    private final Map<String, CachedResource<?>> cachedResources = new ConcurrentHashMap<>();
+    private final SystemDependencyStreamParser streamParser;
+    private final AtomicReference<Validators> streamValidators = new AtomicReference<>();
+
+    /**
+     * Validators and parsed model of the last full response received for a resource.
+     */
+    private record CachedResource<T>(String etag, String lastModified, T body) {
+    }
+
+    /**
+     * Validators of the last fully streamed system dependencies response.
+     */
+    private record Validators(String etag, String lastModified) {
+    }
     
     /**
      * Constructs a new CoreServiceClient with the specified base URL.
@@ -34,37 +113,137 @@ public class CoreServiceClient {
      * across different environments (dev, staging, production).
      *
      * @param baseUrl the base URL of the core service, injected from application properties
+     * @param restTemplate the RestTemplate backed by the core service transport
+     * @param meterRegistry the registry used to publish client metrics
+     * @param objectMapper the mapper used to bind response bodies
+     * @param circuitBreaker the breaker guarding calls to the core service
      */
-    public CoreServiceClient(@Value("${services.core-service.url}") String baseUrl) {
-        this.restTemplate = new RestTemplate();
+    public CoreServiceClient(@Value("${services.core-service.url}") String baseUrl,
+                             RestTemplate restTemplate,
+                             MeterRegistry meterRegistry,
+                             ObjectMapper objectMapper,
+                             CircuitBreaker circuitBreaker) {
+        this.restTemplate = restTemplate;
         this.baseUrl = baseUrl;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = new CoreServiceMetrics(meterRegistry);
+        this.streamParser = new SystemDependencyStreamParser(objectMapper);
     }
     
     /**
-     * Retrieves all system dependencies from the core service.
-     *
-     * This method makes an HTTP GET request to the core service's system dependencies
-     * endpoint and returns a list of all systems with their associated metadata,
-     * solution overviews, and integration flows.
+     * Streams all system dependencies from the core service to the given consumer.
      *
-     * The method uses RestTemplate for synchronous HTTP communication, which is
-     * well-suited for traditional Spring MVC applications and provides simple
-     * blocking operations.
+     * Each system is passed to the consumer as soon as it has been parsed from the
+     * response, so the full array is never held as an intermediate list. When
+     * {@code conditional} is set and a previous stream completed with validators, they are
+     * sent back to the core service; a {@code 304 Not Modified} answer is reported by
+     * returning {@code false} without invoking the consumer. Validators are only updated once
+     * a response has been consumed completely. If the response carries a landscape version the
+     * sink is told about it before the first system.
      *
-     * @return a {@link List} of {@link SystemDependencyDTO} containing all system dependency data
-     * @throws org.springframework.web.client.RestClientException if the HTTP request fails
-     * @throws RuntimeException if there's an error during the request or response processing
+     * @param conditional whether the caller still holds the result of the last complete stream
+     * @param consumer    receives each system dependency in response order
+     * @return true if a full response was streamed, false if the data was not modified
+     * @throws org.springframework.web.client.RestClientException if the HTTP request or parsing fails
+     * @throws IllegalStateException if the core service returns no data or an unexpected 304
+     * @throws CircuitBreakerOpenException if the circuit breaker is open
      */
-    public List<SystemDependencyDTO> getSystemDependencies() {
+    public boolean streamSystemDependencies(boolean conditional, SystemDependencySink consumer) {
         String url = baseUrl + "/api/v1/solution-review/system-dependencies";
-        return restTemplate.exchange(
+        Validators validators = conditional ? streamValidators.get() : null;
+
+        Boolean modified = metrics.record("streamSystemDependencies", call -> circuitBreaker.call(() -> restTemplate.execute(
             url,
             HttpMethod.GET,
-            null,
-            new ParameterizedTypeReference<List<SystemDependencyDTO>>() {}
-        ).getBody();
+            request -> {
+                request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                if (validators != null) {
+                    if (validators.etag() != null) {
+                        request.getHeaders().setIfNoneMatch(validators.etag());
+                    }
+                    if (validators.lastModified() != null) {
+                        request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, validators.lastModified());
+                    }
+                }
+            },
+            response -> {
+                call.status(response.getStatusCode());
+                if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                    if (validators == null) {
+                        throw new IllegalStateException("Core service returned 304 for " + url + " without a cached response");
+                    }
+                    return false;
+                }
+                Long landscapeVersion = landscapeVersion(response.getHeaders());
+                if (landscapeVersion != null) {
+                    consumer.landscapeVersion(landscapeVersion);
+                }
+                int count = streamParser.parse(call.body(response.getBody()), call.sink(consumer));
+                call.bodyRead(count);
+                String etag = response.getHeaders().getETag();
+                String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+                streamValidators.set(etag != null || lastModified != null ? new Validators(etag, lastModified) : null);
+                return true;
+            })));
+        return Boolean.TRUE.equals(modified);
     }
-    
+
+    /**
+     * Reads the landscape version header. A value that is not a number is logged and treated
+     * as absent, so the refresh still succeeds but has no base for the change feed.
+     */
+    private static Long landscapeVersion(HttpHeaders headers) {
+        String value = headers.getFirst(LANDSCAPE_VERSION_HEADER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed {} header: '{}'", LANDSCAPE_VERSION_HEADER, value);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the systems added, updated or removed since the given landscape version.
+     *
+     * The change feed lets a refresh download only what changed instead of the whole landscape.
+     * An empty result means the feed cannot describe the changes since that version, either
+     * because the core service answered {@code 410 Gone} or {@code 404 Not Found}, or because it
+     * flagged that a full resync is required; the caller should then reload everything.
+     *
+     * @param sinceVersion the landscape version the caller currently holds
+     * @return the changes, or empty if a full reload is needed
+     * @throws org.springframework.web.client.RestClientException if the HTTP request fails
+     * @throws CircuitBreakerOpenException if the circuit breaker is open
+     */
+    public Optional<SystemDependencyChangesDTO> getSystemDependencyChanges(long sinceVersion) {
+        String url = baseUrl + "/api/v1/solution-review/system-dependencies/changes?since=" + sinceVersion;
+        JavaType changesType = objectMapper.constructType(SystemDependencyChangesDTO.class);
+        return metrics.record("getSystemDependencyChanges", call -> circuitBreaker.call(() -> {
+            try {
+                SystemDependencyChangesDTO changes = restTemplate.execute(url, HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                    response -> {
+                        call.status(response.getStatusCode());
+                        SystemDependencyChangesDTO body = readBody(call, response.getBody(), changesType);
+                        call.bodyRead(body == null ? 0 : size(body.getUpserted()) + size(body.getRemoved()));
+                        return body;
+                    });
+                if (changes == null || changes.isResyncRequired()) {
+                    return Optional.<SystemDependencyChangesDTO>empty();
+                }
+                return Optional.of(changes);
+            } catch (HttpClientErrorException.Gone | HttpClientErrorException.NotFound e) {
+                call.status(e.getStatusCode());
+                return Optional.<SystemDependencyChangesDTO>empty();
+            }
+        }));
+    }
+
     /**
      * Retrieves all business capability solution reviews from the core service.
      *
@@ -82,12 +261,11 @@ public class CoreServiceClient {
      */
     public List<BusinessCapabilityDiagramDTO> getBusinessCapabilities() {
         String url = baseUrl + "/api/v1/solution-review/business-capabilities";
-        return restTemplate.exchange(
+        return coalesce("getBusinessCapabilities", () -> metrics.record("getBusinessCapabilities", call -> circuitBreaker.call(() -> conditionalGet(
+            call,
             url,
-            HttpMethod.GET,
-            null,
             new ParameterizedTypeReference<List<BusinessCapabilityDiagramDTO>>() {}
-        ).getBody();
+        ))));
     }
     
     /**
@@ -107,11 +285,153 @@ public class CoreServiceClient {
      */
     public List<BusinessCapabilityDTO> getAllBusinessCapabilities() {
         String url = baseUrl + "/api/v1/dropdowns/business-capabilities";
-        return restTemplate.exchange(
+        return coalesce("getAllBusinessCapabilities", () -> metrics.record("getAllBusinessCapabilities", call -> circuitBreaker.call(() -> conditionalGet(
+            call,
             url,
-            HttpMethod.GET,
-            null,
             new ParameterizedTypeReference<List<BusinessCapabilityDTO>>() {}
-        ).getBody();
+        ))));
+    }
+
+    /**
+     * Executes the given fetch, or joins an identical fetch that is already in flight.
+     *
+     * The first caller for a key starts the request on its own virtual thread and publishes
+     * its outcome to a shared future; every caller, the first one included, waits on that
+     * future and receives the same result or the same exception. Because no caller runs the
+     * exchange itself, interrupting a caller only ends its own wait: the request keeps going
+     * for the others and is not recorded as a failure. The entry is removed as soon as the
+     * request completes, so later calls always issue a fresh request.
+     *
+     * @param key   the client method name, used as the coalescing key and metric tag
+     * @param fetch the request to execute
+     * @return the shared result
+     * @throws CancellationException if the calling thread is interrupted while it waits
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String key, Supplier<T> fetch) {
+        CompletableFuture<Object> ownFuture = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightRequests.putIfAbsent(key, ownFuture);
+        if (inFlight != null) {
+            coalescedCounter(key).increment();
+            return (T) awaitShared(inFlight);
+        }
+
+        Thread.ofVirtual().name("core-service-" + key).start(() -> {
+            try {
+                ownFuture.complete(fetch.get());
+            } catch (Throwable e) {
+                ownFuture.completeExceptionally(e);
+            } finally {
+                inFlightRequests.remove(key, ownFuture);
+            }
+        });
+        return (T) awaitShared(ownFuture);
+    }
+
+    /**
+     * Performs a conditional GET for the given resource.
+     *
+     * Sends the validators remembered from the last full response, if any. A {@code 304}
+     * answer returns the cached model; a full response replaces the cache entry when it
+     * carries at least one validator and clears it otherwise.
+     *
+     * @param call         the metrics of the call this request belongs to
+     * @param url          the resource URL
+     * @param responseType the type to deserialize a full response into
+     * @return the current model of the resource
+     * @throws IllegalStateException if the core service answers 304 without a cached response
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T conditionalGet(CoreServiceMetrics.Call call, String url, ParameterizedTypeReference<T> responseType) {
+        CachedResource<T> cached = (CachedResource<T>) cachedResources.get(url);
+        JavaType javaType = objectMapper.constructType(responseType.getType());
+
+        return restTemplate.execute(url, HttpMethod.GET,
+            request -> {
+                HttpHeaders headers = request.getHeaders();
+                headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+                if (cached != null) {
+                    if (cached.etag() != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                    if (cached.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+                    }
+                }
+            },
+            response -> {
+                call.status(response.getStatusCode());
+                if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                    if (cached == null) {
+                        throw new IllegalStateException("Core service returned 304 for " + url + " without a cached response");
+                    }
+                    return cached.body();
+                }
+
+                T body = readBody(call, response.getBody(), javaType);
+                call.bodyRead(body instanceof Collection<?> records ? records.size() : body == null ? 0 : 1);
+                String etag = response.getHeaders().getETag();
+                String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+                if (body != null && (etag != null || lastModified != null)) {
+                    cachedResources.put(url, new CachedResource<>(etag, lastModified, body));
+                } else {
+                    cachedResources.remove(url);
+                }
+                return body;
+            });
+    }
+
+    /**
+     * Binds a response body read through the call's metered stream.
+     *
+     * @return the bound body, or null if the response has no body
+     * @throws RestClientException if the body is not valid JSON for the requested type
+     */
+    private <T> T readBody(CoreServiceMetrics.Call call, InputStream body, JavaType type) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(call.body(body));
+        int first = in.read();
+        if (first == -1) {
+            return null;
+        }
+        in.unread(first);
+        try {
+            return objectMapper.readValue(in, type);
+        } catch (JsonProcessingException e) {
+            throw new RestClientException("Could not read core service response: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static int size(Collection<?> values) {
+        return values == null ? 0 : values.size();
+    }
+
+    /**
+     * Waits for a shared in-flight request and rethrows its original exception on failure.
+     * An interrupt ends the wait without affecting the request.
+     */
+    private static Object awaitShared(CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CancellationException cancelled = new CancellationException("Stopped waiting for the core service");
+            cancelled.initCause(e);
+            throw cancelled;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private Counter coalescedCounter(String method) {
+        return Counter.builder(COALESCED_METRIC)
+            .description("Calls to the core service that were served by an already in-flight request")
+            .tag(METHOD_TAG, method)
+            .register(meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,279 @@
+package com.project.diagram_service.client;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Micrometer instrumentation for the calls made by {@link CoreServiceClient}.
+ *
+ * A call is recorded through {@link #record(String, Function)}, which hands the call a
+ * {@link Call} to report the response status, wrap the response body and report how many
+ * records were read. Time spent blocked on the body stream counts as transfer. A streamed
+ * body also hands each record to the caller's sink as soon as it is parsed, and the time
+ * spent in the sink is timed separately; the rest of the time spent reading the body counts
+ * as deserialization. For a streamed body that is tokenizing and binding each record to its
+ * DTO, and transfer, deserialization and sink time add up to the body phase without any of
+ * them including another. Coalesced callers share one call and are not recorded again.
+ *
+ * Meters, all tagged with the client {@code method}:
+ *   core.service.client.requests: whole call duration with a percentile histogram, tagged by {@code status}
+ *   core.service.client.transfer: time blocked reading the response body from the network
+ *   core.service.client.deserialization: time binding the body, excluding transfer and sink time
+ *   core.service.client.sink: time the caller's sink spent on the records of a streamed body
+ *   core.service.client.response.size: bytes read per response body, after content decoding
+ *   core.service.client.response.records: records read per response body
+ *   core.service.client.errors: failed calls, tagged by {@code status} and {@code exception}
+ *
+ * The status tag is the HTTP status code when a response was received, {@code IO_ERROR} when
+ * the exchange failed on the network, {@code CANCELLED} when the caller was interrupted or
+ * cancelled the call, and {@code NONE} when no request was made. Cancelled calls are not
+ * counted as errors.
+ */
+final class CoreServiceMetrics {
+
+    static final String REQUESTS_METRIC = "core.service.client.requests";
+    static final String TRANSFER_METRIC = "core.service.client.transfer";
+    static final String DESERIALIZATION_METRIC = "core.service.client.deserialization";
+    static final String SINK_METRIC = "core.service.client.sink";
+    static final String RESPONSE_SIZE_METRIC = "core.service.client.response.size";
+    static final String RESPONSE_RECORDS_METRIC = "core.service.client.response.records";
+    static final String ERRORS_METRIC = "core.service.client.errors";
+
+    private static final String METHOD_TAG = "method";
+    private static final String STATUS_TAG = "status";
+    private static final String EXCEPTION_TAG = "exception";
+    private static final String NO_STATUS = "NONE";
+    private static final String IO_ERROR_STATUS = "IO_ERROR";
+    private static final String CANCELLED_STATUS = "CANCELLED";
+
+    private final MeterRegistry meterRegistry;
+
+    CoreServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs one call to the core service and records its metrics.
+     *
+     * @param method the client method name, used as the method tag
+     * @param call   the call, which reports its progress to the given {@link Call}
+     * @return the result of the call
+     */
+    <T> T record(String method, Function<Call, T> call) {
+        Call progress = new Call(method);
+        long start = System.nanoTime();
+        try {
+            T result = call.apply(progress);
+            requestTimer(method, progress.status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (Cancellations.isCancellation(e)) {
+                requestTimer(method, CANCELLED_STATUS).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            String status = failureStatus(e, progress);
+            requestTimer(method, status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Counter.builder(ERRORS_METRIC)
+                .description("Failed calls to the core service")
+                .tag(METHOD_TAG, method)
+                .tag(STATUS_TAG, status)
+                .tag(EXCEPTION_TAG, e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+            throw e;
+        }
+    }
+
+    private static String failureStatus(Throwable e, Call progress) {
+        if (e instanceof RestClientResponseException responseException) {
+            return String.valueOf(responseException.getStatusCode().value());
+        }
+        if (e instanceof ResourceAccessException) {
+            return IO_ERROR_STATUS;
+        }
+        return progress.status;
+    }
+
+    private Timer requestTimer(String method, String status) {
+        return Timer.builder(REQUESTS_METRIC)
+            .description("Calls to the core service, from sending the request to binding the response")
+            .tag(METHOD_TAG, method)
+            .tag(STATUS_TAG, status)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private Timer timer(String name, String description, String method) {
+        return Timer.builder(name)
+            .description(description)
+            .tag(METHOD_TAG, method)
+            .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, String description, String baseUnit, String method) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .baseUnit(baseUnit)
+            .tag(METHOD_TAG, method)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Progress of a single call, reported by the client while the exchange runs.
+     */
+    final class Call {
+
+        private final String method;
+        private String status = NO_STATUS;
+        private MeteredInputStream body;
+        private long bodyStart;
+        private MeteredSink sink;
+
+        private Call(String method) {
+            this.method = method;
+        }
+
+        /**
+         * Records the status of the response that was received.
+         *
+         * @param statusCode the response status
+         */
+        void status(HttpStatusCode statusCode) {
+            this.status = String.valueOf(statusCode.value());
+        }
+
+        /**
+         * Wraps the response body so reads from it are counted as transfer.
+         *
+         * @param in the raw response body
+         * @return the metered body to read from
+         */
+        InputStream body(InputStream in) {
+            body = new MeteredInputStream(in);
+            bodyStart = System.nanoTime();
+            return body;
+        }
+
+        /**
+         * Wraps the sink a streamed body is parsed into so the time it spends on each record
+         * is not counted as deserialization.
+         *
+         * @param consumer the caller's sink
+         * @return the metered sink to parse into
+         */
+        SystemDependencySink sink(SystemDependencySink consumer) {
+            sink = new MeteredSink(consumer);
+            return sink;
+        }
+
+        /**
+         * Records the transfer, deserialization, sink time, size and record count of the body
+         * passed to {@link #body(InputStream)} once it has been read.
+         *
+         * @param records the number of records read from the body
+         */
+        void bodyRead(int records) {
+            if (body == null) {
+                return;
+            }
+            long elapsed = System.nanoTime() - bodyStart;
+            long transfer = body.readNanos;
+            long sinkNanos = sink != null ? sink.acceptNanos : 0;
+            timer(TRANSFER_METRIC, "Time blocked reading core service response bodies", method)
+                .record(transfer, TimeUnit.NANOSECONDS);
+            timer(DESERIALIZATION_METRIC, "Time binding core service response bodies, excluding transfer", method)
+                .record(Math.max(0, elapsed - transfer - sinkNanos), TimeUnit.NANOSECONDS);
+            if (sink != null) {
+                timer(SINK_METRIC, "Time spent processing streamed core service records", method)
+                    .record(sinkNanos, TimeUnit.NANOSECONDS);
+            }
+            summary(RESPONSE_SIZE_METRIC, "Decoded size of core service response bodies", "bytes", method)
+                .record(body.bytesRead);
+            summary(RESPONSE_RECORDS_METRIC, "Records per core service response body", "records", method)
+                .record(records);
+        }
+    }
+
+    /**
+     * Sink that times the records handed to the caller's sink.
+     */
+    private static final class MeteredSink implements SystemDependencySink {
+
+        private final SystemDependencySink delegate;
+        private long acceptNanos;
+
+        MeteredSink(SystemDependencySink delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void landscapeVersion(long version) {
+            delegate.landscapeVersion(version);
+        }
+
+        @Override
+        public void accept(SystemDependencyDTO dependency) {
+            long start = System.nanoTime();
+            try {
+                delegate.accept(dependency);
+            } finally {
+                acceptNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Input stream that counts the bytes read through it and the time spent waiting for them.
+     */
+    private static final class MeteredInputStream extends FilterInputStream {
+
+        private long bytesRead;
+        private long readNanos;
+
+        MeteredInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int b = super.read();
+            readNanos += System.nanoTime() - start;
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            int n = super.read(buffer, offset, length);
+            readNanos += System.nanoTime() - start;
+            if (n > 0) {
+                bytesRead += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long start = System.nanoTime();
+            long skipped = super.skip(n);
+            readNanos += System.nanoTime() - start;
+            bytesRead += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.project.diagram_service.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces an overall deadline on a core service exchange.
+ *
+ * Connect and read timeouts bound individual waits, but a slow upstream that keeps
+ * trickling bytes can still hold a thread for a long time while a large body is read.
+ * This interceptor starts a clock when the request is sent and schedules an abort for the
+ * moment the deadline passes: while the response headers are awaited it interrupts the
+ * calling thread, which cancels the pending exchange, and once a response has arrived it
+ * closes the response, which fails a read blocked on the body. Either way the caller gets a
+ * {@link SocketTimeoutException}, as it does when it reads on after the deadline.
+ */
+public class DeadlineInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+    private final long deadlineNanos;
+
+    public DeadlineInterceptor(Duration deadline) {
+        this.deadlineNanos = deadline.toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Exchange exchange = new Exchange(Thread.currentThread(), System.nanoTime() + deadlineNanos);
+        exchange.scheduleAbort(deadlineNanos);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            if (exchange.finish()) {
+                throw deadlineExceeded(e);
+            }
+            throw e;
+        }
+        if (!exchange.received(response)) {
+            response.close();
+            throw deadlineExceeded(null);
+        }
+        return new DeadlineResponse(response, exchange);
+    }
+
+    private static SocketTimeoutException deadlineExceeded(Throwable cause) {
+        SocketTimeoutException exception = new SocketTimeoutException("Core service exchange exceeded its deadline");
+        exception.initCause(cause);
+        return exception;
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                Thread.ofPlatform().name("core-service-deadline").daemon().factory());
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * State of one exchange, shared between the calling thread and the scheduled abort.
+     */
+    private static final class Exchange implements Runnable {
+
+        private final Thread caller;
+        private final long expiresAt;
+        private ScheduledFuture<?> abort;
+        private ClientHttpResponse response;
+        private boolean expired;
+        private boolean interrupted;
+        private boolean finished;
+
+        Exchange(Thread caller, long expiresAt) {
+            this.caller = caller;
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized void scheduleAbort(long delayNanos) {
+            abort = SCHEDULER.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Aborts the exchange once the deadline has passed.
+         */
+        @Override
+        public synchronized void run() {
+            if (finished) {
+                return;
+            }
+            expired = true;
+            if (response == null) {
+                interrupted = true;
+                caller.interrupt();
+            } else {
+                response.close();
+            }
+        }
+
+        /**
+         * Hands over the response once its headers have arrived.
+         *
+         * @return false if the deadline passed before they did
+         */
+        synchronized boolean received(ClientHttpResponse response) {
+            if (expired || System.nanoTime() - expiresAt > 0) {
+                finish();
+                return false;
+            }
+            this.response = response;
+            return true;
+        }
+
+        /**
+         * Cancels the abort and clears the interrupt it may have raised.
+         *
+         * @return true if the deadline passed
+         */
+        synchronized boolean finish() {
+            if (!finished) {
+                finished = true;
+                abort.cancel(false);
+                if (interrupted) {
+                    Thread.interrupted();
+                }
+            }
+            return expired;
+        }
+
+        synchronized boolean expired() {
+            return expired || System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    /**
+     * Response wrapper whose body stream reports reads failed by the abort, or attempted
+     * after the deadline, as timeouts.
+     */
+    private static final class DeadlineResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Exchange exchange;
+        private InputStream body;
+
+        DeadlineResponse(ClientHttpResponse delegate, Exchange exchange) {
+            this.delegate = delegate;
+            this.exchange = exchange;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        checkDeadline();
+                        try {
+                            return super.read();
+                        } catch (IOException e) {
+                            throw expiredOr(e);
+                        }
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        checkDeadline();
+                        try {
+                            return super.read(buffer, offset, length);
+                        } catch (IOException e) {
+                            throw expiredOr(e);
+                        }
+                    }
+                };
+            }
+            return body;
+        }
+
+        private void checkDeadline() throws SocketTimeoutException {
+            if (exchange.expired()) {
+                throw deadlineExceeded(null);
+            }
+        }
+
+        private IOException expiredOr(IOException e) {
+            return exchange.expired() ? deadlineExceeded(e) : e;
+        }
+
+        @Override
+        public void close() {
+            exchange.finish();
+            delegate.close();
+        }
+    }
+}
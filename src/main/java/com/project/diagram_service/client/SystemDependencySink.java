@@ -0,0 +1,22 @@
+package com.project.diagram_service.client;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import java.util.function.Consumer;
+
+/**
+ * Receives the systems of a streamed system dependencies response.
+ *
+ * Besides each system, a sink can be told the landscape version the core service reported
+ * for the response, which is what later requests to the change feed are based on.
+ */
+@FunctionalInterface
+public interface SystemDependencySink extends Consumer<SystemDependencyDTO> {
+
+    /**
+     * Called once, before any system, when the response carries a landscape version.
+     *
+     * @param version the landscape version reported by the core service
+     */
+    default void landscapeVersion(long version) {
+    }
+}
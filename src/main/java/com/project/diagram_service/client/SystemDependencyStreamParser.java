@@ -0,0 +1,142 @@
+package com.project.diagram_service.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.diagram_service.dto.CommonSolutionReviewDTO;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Token-level parser for the core service system dependencies response.
+ *
+ * The response is a single JSON array that can hold thousands of systems. Instead of
+ * binding the whole array into a list before any of it can be used, this parser walks
+ * the token stream and hands each system to a consumer as soon as its closing brace has
+ * been read, so callers can index it and let the parser move on. Integration flows, which
+ * make up most of the payload, are read field by field without going through data binding;
+ * unknown fields are skipped without being materialized.
+ */
+public class SystemDependencyStreamParser {
+
+    private final ObjectMapper objectMapper;
+
+    public SystemDependencyStreamParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parses a system dependencies array and passes each system to the consumer in order.
+     * A {@code null} element is passed on as {@code null}, as data binding would keep it.
+     *
+     * @param body     the response body
+     * @param consumer receives each parsed system, or null for a null element
+     * @return the number of elements parsed, null ones included
+     * @throws IOException if the body cannot be read or is not valid JSON
+     * @throws IllegalStateException if the body is {@code null} or not a JSON array
+     */
+    public int parse(InputStream body, Consumer<SystemDependencyDTO> consumer) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                throw new IllegalStateException("Core service returned no system dependencies");
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("Expected a JSON array of system dependencies but found " + token);
+            }
+
+            int count = 0;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == JsonToken.VALUE_NULL) {
+                    consumer.accept(null);
+                } else {
+                    expect(parser, JsonToken.START_OBJECT);
+                    consumer.accept(readSystem(parser));
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private SystemDependencyDTO readSystem(JsonParser parser) throws IOException {
+        SystemDependencyDTO system = new SystemDependencyDTO();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "systemCode" -> system.setSystemCode(readText(parser, value));
+                case "solutionOverview" -> system.setSolutionOverview(value == JsonToken.VALUE_NULL
+                        ? null
+                        : parser.readValueAs(CommonSolutionReviewDTO.SolutionOverview.class));
+                case "integrationFlows" -> system.setIntegrationFlows(readIntegrationFlows(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return system;
+    }
+
+    private List<SystemDependencyDTO.IntegrationFlow> readIntegrationFlows(JsonParser parser, JsonToken value)
+            throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_ARRAY);
+        List<SystemDependencyDTO.IntegrationFlow> flows = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_NULL) {
+                flows.add(null);
+                continue;
+            }
+            expect(parser, JsonToken.START_OBJECT);
+            flows.add(readIntegrationFlow(parser));
+        }
+        return flows;
+    }
+
+    private SystemDependencyDTO.IntegrationFlow readIntegrationFlow(JsonParser parser) throws IOException {
+        SystemDependencyDTO.IntegrationFlow flow = new SystemDependencyDTO.IntegrationFlow();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> flow.setId(readText(parser, value));
+                case "componentName" -> flow.setComponentName(readText(parser, value));
+                case "counterpartSystemCode" -> flow.setCounterpartSystemCode(readText(parser, value));
+                case "counterpartSystemRole" -> flow.setCounterpartSystemRole(readText(parser, value));
+                case "integrationMethod" -> flow.setIntegrationMethod(readText(parser, value));
+                case "frequency" -> flow.setFrequency(readText(parser, value));
+                case "purpose" -> flow.setPurpose(readText(parser, value));
+                case "middleware" -> flow.setMiddleware(readText(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return flow;
+    }
+
+    /**
+     * Reads a scalar field as text, matching Jackson's coercion of numbers and booleans to String.
+     */
+    private static String readText(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw new IllegalStateException("Expected a scalar value for field '" + parser.currentName()
+                    + "' but found " + value);
+        }
+        return parser.getValueAsString();
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected) {
+        if (parser.currentToken() != expected) {
+            throw new IllegalStateException("Expected " + expected + " but found " + parser.currentToken()
+                    + " at " + parser.currentLocation());
+        }
+    }
+}
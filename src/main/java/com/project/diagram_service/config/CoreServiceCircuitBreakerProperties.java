@@ -0,0 +1,18 @@
+package com.project.diagram_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import java.time.Duration;
+
+/**
+ * Circuit breaker settings for calls to the core service.
+ *
+ * Bound from {@code services.core-service.circuit-breaker.*}:
+ *   failure-threshold: consecutive failures that open the breaker
+ *   open-duration: how long the breaker rejects calls before letting a trial call through
+ */
+@ConfigurationProperties(prefix = "services.core-service.circuit-breaker")
+public record CoreServiceCircuitBreakerProperties(
+        @DefaultValue("5") int failureThreshold,
+        @DefaultValue("30s") Duration openDuration) {
+}
@@ -0,0 +1,67 @@
+package com.project.diagram_service.config;
+
+import com.project.diagram_service.client.CircuitBreaker;
+import com.project.diagram_service.client.ConcurrencyLimitInterceptor;
+import com.project.diagram_service.client.DeadlineInterceptor;
+import com.project.diagram_service.client.GzipDecodingInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import java.net.http.HttpClient;
+import java.time.Clock;
+
+/**
+ * Builds the pooled HTTP transport used by {@link com.project.diagram_service.client.CoreServiceClient}.
+ *
+ * The transport is based on the JDK {@link HttpClient}, which keeps connections alive in a
+ * pool, supports HTTP/2 and lets the connect and response timeouts be set per client. At
+ * most {@code max-connections} exchanges are in flight at once; further calls wait for one
+ * to finish, up to the exchange deadline.
+ *
+ * The JDK client reads its idle pool size and keep-alive time only from JVM-wide system
+ * properties, so they are left to the command line rather than set from here, for example
+ * {@code -Djdk.httpclient.connectionPoolSize=20 -Djdk.httpclient.keepalive.timeout=60}
+ * (seconds). The pool is unbounded by default, which is safe because the exchanges in
+ * flight are already bounded by {@code max-connections}; the image sets both flags.
+ *
+ * Calls made through the transport are guarded by a {@link CircuitBreaker}.
+ */
+@Configuration
+@EnableConfigurationProperties({CoreServiceHttpProperties.class, CoreServiceCircuitBreakerProperties.class})
+@Slf4j
+public class CoreServiceHttpConfig {
+
+    @Bean
+    public RestTemplate coreServiceRestTemplate(CoreServiceHttpProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.connectTimeout())
+                .version(properties.http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.readTimeout());
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(new ConcurrencyLimitInterceptor(properties.maxConnections(), properties.deadline()));
+        restTemplate.getInterceptors().add(new DeadlineInterceptor(properties.deadline()));
+        if (properties.compression()) {
+            restTemplate.getInterceptors().add(new GzipDecodingInterceptor());
+        }
+
+        log.info("Core service transport: {}, connect timeout {}, read timeout {}, deadline {}, max connections {}, compression {}",
+                httpClient.version(), properties.connectTimeout(), properties.readTimeout(), properties.deadline(),
+                properties.maxConnections(), properties.compression());
+        return restTemplate;
+    }
+
+    @Bean
+    public CircuitBreaker coreServiceCircuitBreaker(CoreServiceCircuitBreakerProperties properties) {
+        log.info("Core service circuit breaker: failure threshold {}, open duration {}",
+                properties.failureThreshold(), properties.openDuration());
+        return new CircuitBreaker(properties.failureThreshold(), properties.openDuration(), Clock.systemUTC());
+    }
+}
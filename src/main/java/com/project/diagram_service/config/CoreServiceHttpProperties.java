@@ -0,0 +1,29 @@
+package com.project.diagram_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import java.time.Duration;
+
+/**
+ * Transport settings for the HTTP client used to call the core service.
+ *
+ * Bound from {@code services.core-service.http.*}:
+ *   connect-timeout: maximum time to establish a TCP/TLS connection
+ *   read-timeout: maximum time to wait for the response headers
+ *   deadline: overall budget for one exchange, including reading the body
+ *   max-connections: maximum number of exchanges in flight at once
+ *   compression: request gzip-compressed responses and decode them as a stream
+ *   http2: negotiate HTTP/2, falling back to HTTP/1.1 when unsupported
+ *
+ * The idle pool size and keep-alive time of the JDK client are JVM-wide and are set with the
+ * jdk.httpclient.connectionPoolSize and jdk.httpclient.keepalive.timeout system properties.
+ */
+@ConfigurationProperties(prefix = "services.core-service.http")
+public record CoreServiceHttpProperties(
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("10s") Duration readTimeout,
+        @DefaultValue("30s") Duration deadline,
+        @DefaultValue("20") int maxConnections,
+        @DefaultValue("true") boolean compression,
+        @DefaultValue("false") boolean http2) {
+}
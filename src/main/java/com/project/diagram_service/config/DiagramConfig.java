@@ -0,0 +1,9 @@
+package com.project.diagram_service.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PathSearchProperties.class)
+public class DiagramConfig {
+}
@@ -0,0 +1,30 @@
+package com.project.diagram_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import java.time.Duration;
+
+/**
+ * Server-side ceilings for path finding between two systems.
+ *
+ * The number of simple paths in a densely connected landscape grows exponentially with
+ * their length, so every search is bounded. Callers may ask for tighter limits but never
+ * looser ones.
+ *
+ * Bound from {@code diagram.path-search.*}:
+ *   max-depth: most hops a returned path may have
+ *   max-paths: most paths returned by one search
+ *   timeout: time budget of one search
+ */
+@ConfigurationProperties(prefix = "diagram.path-search")
+public record PathSearchProperties(
+        @DefaultValue("10") int maxDepth,
+        @DefaultValue("1000") int maxPaths,
+        @DefaultValue("5s") Duration timeout) {
+
+    public PathSearchProperties {
+        if (maxDepth < 1 || maxPaths < 1 || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Path search ceilings must be positive");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.diagram_service.config;
 
+import com.project.diagram_service.controllers.DiagramController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
@@ -41,6 +42,7 @@ public class SecurityConfig {
         ));
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         cfg.setAllowedHeaders(List.of("*"));
+        cfg.setExposedHeaders(List.of(DiagramController.SNAPSHOT_AGE_HEADER, DiagramController.SNAPSHOT_STALE_HEADER));
         cfg.setAllowCredentials(true);
         cfg.setMaxAge(3600L);
 
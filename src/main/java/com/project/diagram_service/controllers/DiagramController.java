@@ -1,30 +1,59 @@
 package com.project.diagram_service.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.diagram_service.dto.SystemDependencyDTO;
 import com.project.diagram_service.dto.BusinessCapabilityDiagramDTO;
 import com.project.diagram_service.dto.BusinessCapabilitiesTreeDTO;
 import com.project.diagram_service.dto.OverallSystemDependenciesDiagramDTO;
 import com.project.diagram_service.dto.SpecificSystemDependenciesDiagramDTO;
 import com.project.diagram_service.dto.PathDiagramDTO;
+import com.project.diagram_service.dto.MiddlewareDiagramDTO;
+import com.project.diagram_service.dto.PathStreamDTO;
 import com.project.diagram_service.services.DiagramService;
+import com.project.diagram_service.services.PathSearchLimits;
+import com.project.diagram_service.services.PathStream;
+import com.project.diagram_service.snapshot.SnapshotSelector;
+import com.project.diagram_service.snapshot.SnapshotStatus;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
+/**
+ * Diagram endpoints.
+ *
+ * Endpoints that read the dependency snapshot accept an optional {@code version} or
+ * {@code asOf} (ISO-8601 instant) query parameter to draw the landscape as it was at a
+ * retained earlier snapshot version or point in time, and answer HTTP 400 when that snapshot
+ * is no longer retained. Without either parameter they read the current snapshot.
+ */
 @RestController
 @RequestMapping("/api/v1/diagram")
 @Slf4j
 public class DiagramController {
+
+    /** Seconds since the served dependency snapshot was fetched from the core service. */
+    public static final String SNAPSHOT_AGE_HEADER = "X-Snapshot-Age";
+    /** Whether the served dependency snapshot is older than the staleness threshold. */
+    public static final String SNAPSHOT_STALE_HEADER = "X-Snapshot-Stale";
     
     private final DiagramService diagramService;
+    private final ObjectMapper objectMapper;
     
-    public DiagramController(DiagramService diagramService) {
+    public DiagramController(DiagramService diagramService, ObjectMapper objectMapper) {
         this.diagramService = diagramService;
+        this.objectMapper = objectMapper;
     }
     
     /**
@@ -39,16 +68,25 @@ public class DiagramController {
      *   Integration flows and counterpart system relationships
      *   Concerns and follow-up items
      *
+     * @param version the snapshot version to read, or null for the current snapshot
+     * @param asOf    the instant whose then-current snapshot to read, or null for the current snapshot
      * @return a {@link ResponseEntity} containing a list of {@link SystemDependencyDTO}
-     *         with HTTP 200 on success, or HTTP 500 on internal server error
+     *         with HTTP 200 on success, HTTP 400 if the requested snapshot is not retained,
+     *         or HTTP 500 on internal server error
      */
     @GetMapping("/system-dependencies")
-    public ResponseEntity<List<SystemDependencyDTO>> getSystemDependencies() {
+    public ResponseEntity<List<SystemDependencyDTO>> getSystemDependencies(
+            @RequestParam(required = false) Long version,
+            @RequestParam(required = false) Instant asOf) {
         log.info("Received request for system dependencies");
         
         try {
-            List<SystemDependencyDTO> dependencies = diagramService.getSystemDependencies();
-            return ResponseEntity.ok(dependencies);
+            SnapshotSelector selector = new SnapshotSelector(version, asOf);
+            List<SystemDependencyDTO> dependencies = diagramService.getSystemDependencies(selector);
+            return okWithSnapshotHeaders(dependencies, selector);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request for system dependencies: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error getting system dependencies: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -167,17 +205,27 @@ public class DiagramController {
      * and outgoing dependencies (systems that the target system depends on).
      *
      * @param systemCode the unique identifier of the system to generate the diagram for
+     * @param version    the snapshot version to read, or null for the current snapshot
+     * @param asOf       the instant whose then-current snapshot to read, or null for the current snapshot
      * @return a {@link ResponseEntity} containing a {@link SpecificSystemDependenciesDiagramDTO} with the complete diagram
-     *         structure, HTTP 200 on success, or HTTP 500 on internal server error
-     * @throws RuntimeException if the specified system code is not found
+     *         structure, HTTP 200 on success, HTTP 400 if the system or the requested snapshot
+     *         is not found, or HTTP 500 on internal server error
      */
     @GetMapping("/system-dependencies/{systemCode}")
-    public ResponseEntity<SpecificSystemDependenciesDiagramDTO> getSystemDependenciesDiagram(@PathVariable String systemCode) {
+    public ResponseEntity<SpecificSystemDependenciesDiagramDTO> getSystemDependenciesDiagram(
+            @PathVariable String systemCode,
+            @RequestParam(required = false) Long version,
+            @RequestParam(required = false) Instant asOf) {
         log.info("Received request for system dependencies diagram for system: {}", systemCode);
         
         try {
-            SpecificSystemDependenciesDiagramDTO diagram = diagramService.generateSystemDependenciesDiagram(systemCode);
-            return ResponseEntity.ok(diagram);
+            SnapshotSelector selector = new SnapshotSelector(version, asOf);
+            SpecificSystemDependenciesDiagramDTO diagram = diagramService.generateSystemDependenciesDiagram(systemCode,
+                    selector);
+            return okWithSnapshotHeaders(diagram, selector);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request for system dependencies diagram for {}: {}", systemCode, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error generating system dependencies diagram for {}: {}", systemCode, e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -185,12 +233,19 @@ public class DiagramController {
     }
 
     @GetMapping("/system-dependencies/all")
-    public ResponseEntity<OverallSystemDependenciesDiagramDTO> getAllSystemDependenciesDiagrams() {
+    public ResponseEntity<OverallSystemDependenciesDiagramDTO> getAllSystemDependenciesDiagrams(
+            @RequestParam(required = false) Long version,
+            @RequestParam(required = false) Instant asOf) {
         log.info("Received request for all system dependencies diagrams");
         
         try {
-            OverallSystemDependenciesDiagramDTO diagram = diagramService.generateAllSystemDependenciesDiagrams();
-            return ResponseEntity.ok(diagram);
+            SnapshotSelector selector = new SnapshotSelector(version, asOf);
+            OverallSystemDependenciesDiagramDTO diagram = diagramService.generateAllSystemDependenciesDiagrams(
+                    selector);
+            return okWithSnapshotHeaders(diagram, selector);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request for all system dependencies diagrams: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error generating all system dependencies diagrams: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -216,21 +271,56 @@ public class DiagramController {
      *   Multi-hop paths through intermediate systems
      *   Producer-consumer relationships and data flow direction
      *
+     * The search is bounded by server-side ceilings on path length, number of paths and
+     * time, which the optional limit parameters can only lower. When a limit cuts the search
+     * short, the metadata reports {@code complete=false} and names the limit in {@code truncatedBy}.
+     *
+     * With {@code mode=kshortest} only the {@code k} shortest paths by hop count are returned,
+     * without enumerating every path between the two systems; {@code k} then takes the place
+     * of {@code maxPaths}.
+     *
      * @param start the source system code to start path finding from
      * @param end the target system code to find paths to
-     * @return a {@link ResponseEntity} containing a {@link PathDiagramDTO} with all discovered paths
-     *         visualized as a diagram, HTTP 200 on success, or HTTP 500 on internal server error
-     * @throws IllegalArgumentException if either system code is invalid or systems are the same
+     * @param mode {@code all} for every path, or {@code kshortest} for the k shortest paths
+     * @param k the number of shortest paths to return, required with {@code mode=kshortest}
+     * @param version the snapshot version to read, or null for the current snapshot
+     * @param asOf the instant whose then-current snapshot to read, or null for the current snapshot
+     * @param maxDepth the most hops a returned path may have, or null for the server ceiling
+     * @param maxPaths the most paths to return, or null for the server ceiling
+     * @param timeoutMs the time budget of the search in milliseconds, or null for the server ceiling
+     * @return a {@link ResponseEntity} containing a {@link PathDiagramDTO} with the discovered paths
+     *         visualized as a diagram, HTTP 200 on success, HTTP 400 on invalid parameters,
+     *         or HTTP 500 on internal server error
      */
     @GetMapping("/system-dependencies/path")
     public ResponseEntity<PathDiagramDTO> findPathsBetweenSystems(
             @RequestParam String start, 
-            @RequestParam String end) {
+            @RequestParam String end,
+            @RequestParam(defaultValue = "all") String mode,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) Long version,
+            @RequestParam(required = false) Instant asOf,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(required = false) Integer maxPaths,
+            @RequestParam(required = false) Long timeoutMs) {
         log.info("Received request to find paths from {} to {}", start, end);
         
         try {
-            PathDiagramDTO pathDiagram = diagramService.findAllPathsDiagram(start, end);
-            return ResponseEntity.ok(pathDiagram);
+            Duration timeout = timeoutMs != null ? Duration.ofMillis(timeoutMs) : null;
+            SnapshotSelector selector = new SnapshotSelector(version, asOf);
+            PathDiagramDTO pathDiagram = switch (mode) {
+                case "all" -> diagramService.findAllPathsDiagram(start, end, selector,
+                        new PathSearchLimits(maxDepth, maxPaths, timeout));
+                case "kshortest" -> {
+                    if (k == null) {
+                        throw new IllegalArgumentException("k is required with mode kshortest");
+                    }
+                    yield diagramService.findShortestPathsDiagram(start, end, selector,
+                            new PathSearchLimits(maxDepth, k, timeout));
+                }
+                default -> throw new IllegalArgumentException("Unknown path search mode: " + mode);
+            };
+            return okWithSnapshotHeaders(pathDiagram, selector);
         } catch (IllegalArgumentException e) {
             log.error("Invalid request for path finding from {} to {}: {}", start, end, e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -239,4 +329,134 @@ public class DiagramController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams every path between two systems as newline-delimited JSON.
+     *
+     * Each path is written as a line as soon as the search finds it, with the links from the
+     * start system to the end system, and a last summary line carries the metadata the path
+     * diagram would have, including whether a limit cut the search short. Clients see the
+     * first paths before the search ends, and the server holds no paths once written. When
+     * the client disconnects, the next write fails and the search stops.
+     *
+     * Parameters are checked before the response starts, so invalid ones still answer
+     * HTTP 400; an error during the search ends the stream without a summary line.
+     *
+     * @param start the source system code to start path finding from
+     * @param end the target system code to find paths to
+     * @param version the snapshot version to read, or null for the current snapshot
+     * @param asOf the instant whose then-current snapshot to read, or null for the current snapshot
+     * @param maxDepth the most hops a returned path may have, or null for the server ceiling
+     * @param maxPaths the most paths to return, or null for the server ceiling
+     * @param timeoutMs the time budget of the search in milliseconds, or null for the server ceiling
+     * @return a {@link ResponseEntity} streaming {@link PathStreamDTO} lines, HTTP 200 once the
+     *         search starts, HTTP 400 on invalid parameters, or HTTP 500 on internal server error
+     */
+    @GetMapping(value = "/system-dependencies/path/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPathsBetweenSystems(
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false) Long version,
+            @RequestParam(required = false) Instant asOf,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(required = false) Integer maxPaths,
+            @RequestParam(required = false) Long timeoutMs) {
+        log.info("Received request to stream paths from {} to {}", start, end);
+
+        try {
+            PathSearchLimits limits = new PathSearchLimits(maxDepth, maxPaths,
+                    timeoutMs != null ? Duration.ofMillis(timeoutMs) : null);
+            SnapshotSelector selector = new SnapshotSelector(version, asOf);
+            PathStream paths = diagramService.openPathStream(start, end, selector, limits);
+            StreamingResponseBody body = out -> {
+                try {
+                    PathStreamDTO.SummaryLineDTO summary = paths.run(line -> writeLine(out, line));
+                    writeLine(out, summary);
+                } catch (UncheckedIOException e) {
+                    log.info("Stopped streaming paths from {} to {}: {}", start, end, e.getCause().getMessage());
+                    throw e.getCause();
+                }
+            };
+            return okWithSnapshotHeaders(body, selector);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request for path streaming from {} to {}: {}", start, end, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error streaming paths from {} to {}: {}", start, end, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Writes one NDJSON line and flushes it, so the client receives it right away and a
+     * client that went away is noticed at once.
+     */
+    private void writeLine(OutputStream out, Object line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Generates a diagram of every integration flow that goes through a middleware.
+     *
+     * This endpoint shows which systems integrate through a given middleware such as the
+     * OSB or an API gateway, without fetching the whole landscape.
+     *
+     * The generated diagram includes:
+     *   Nodes: The middleware and every producer (suffix -P) and consumer (suffix -C) using it
+     *   Links: Producer → middleware → consumer pairs with patterns, frequencies, and roles
+     *   Metadata: The middleware name and snapshot details
+     *
+     * @param name    the middleware name, with or without a -P/-C suffix
+     * @param version the snapshot version to read, or null for the current snapshot
+     * @param asOf    the instant whose then-current snapshot to read, or null for the current snapshot
+     * @return a {@link ResponseEntity} containing a {@link MiddlewareDiagramDTO} with the complete diagram
+     *         structure, HTTP 200 on success, HTTP 400 if no flow goes through the middleware
+     *         or the requested snapshot is not retained, or HTTP 500 on internal server error
+     */
+    @GetMapping("/middleware/{name}")
+    public ResponseEntity<MiddlewareDiagramDTO> getMiddlewareDiagram(
+            @PathVariable String name,
+            @RequestParam(required = false) Long version,
+            @RequestParam(required = false) Instant asOf) {
+        log.info("Received request for middleware diagram for middleware: {}", name);
+
+        try {
+            SnapshotSelector selector = new SnapshotSelector(version, asOf);
+            MiddlewareDiagramDTO diagram = diagramService.generateMiddlewareDiagram(name, selector);
+            return okWithSnapshotHeaders(diagram, selector);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request for middleware diagram for {}: {}", name, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error generating middleware diagram for {}: {}", name, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Builds a 200 response carrying headers that describe how stale the dependency snapshot is.
+     * While the core service is unavailable the last good snapshot keeps being served, and these
+     * headers let clients tell how old it is.
+     *
+     * The headers describe the current snapshot, so they are left out when the request
+     * selected an earlier version or point in time.
+     */
+    private <T> ResponseEntity<T> okWithSnapshotHeaders(T body, SnapshotSelector selector) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!selector.isLatest()) {
+            return response.body(body);
+        }
+        SnapshotStatus status = diagramService.getSnapshotStatus();
+        if (status != null) {
+            response.header(SNAPSHOT_AGE_HEADER, String.valueOf(status.ageSeconds()));
+            response.header(SNAPSHOT_STALE_HEADER, String.valueOf(status.stale()));
+        }
+        return response.body(body);
+    }
+}
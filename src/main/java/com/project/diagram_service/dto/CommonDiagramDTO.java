@@ -1,6 +1,7 @@
 package com.project.diagram_service.dto;
 
 import lombok.Data;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -59,6 +60,8 @@ public class CommonDiagramDTO {
     @Data
     public static class BasicMetadataDTO {
         private LocalDate generatedDate;
+        private Long snapshotVersion;
+        private Instant snapshotFetchedAt;
     }
 
     /**
@@ -70,5 +73,11 @@ public class CommonDiagramDTO {
         private String review;
         private List<String> integrationMiddleware;
         private LocalDate generatedDate;
+        private Long snapshotVersion;
+        private Instant snapshotFetchedAt;
+        /** Path diagrams only: whether the search finished without reaching a limit. */
+        private Boolean complete;
+        /** Path diagrams only: the search limit that cut the result short, if any. */
+        private String truncatedBy;
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.project.diagram_service.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * DTO for middleware diagrams: every producer → middleware → consumer flow that
+ * goes through one middleware, in the same node and link format as the
+ * single-system diagram.
+ */
+@Data
+public class MiddlewareDiagramDTO {
+    private List<CommonDiagramDTO.NodeDTO> nodes;
+    private List<CommonDiagramDTO.DetailedLinkDTO> links;
+    private CommonDiagramDTO.ExtendedMetadataDTO metadata;
+}
@@ -0,0 +1,37 @@
+package com.project.diagram_service.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * Lines of a streamed path search, written as newline-delimited JSON: one line per path
+ * as soon as it is found, then one summary line.
+ */
+public class PathStreamDTO {
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private PathStreamDTO() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * One path, as the links from the start system to the end system
+     */
+    @Data
+    public static class PathLineDTO {
+        private final String type = "path";
+        private int index;
+        private List<PathDiagramDTO.PathLinkDTO> links;
+    }
+
+    /**
+     * The last line of the stream, with the same metadata a path diagram has
+     */
+    @Data
+    public static class SummaryLineDTO {
+        private final String type = "summary";
+        private CommonDiagramDTO.ExtendedMetadataDTO metadata;
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.diagram_service.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the core service system dependencies change feed.
+ * Describes the systems added, updated or removed between two landscape versions.
+ */
+@Data
+public class SystemDependencyChangesDTO {
+    private Long fromVersion;
+    private Long toVersion;
+    private boolean resyncRequired;
+    private List<SystemDependencyDTO> upserted;
+    private List<String> removed;
+}
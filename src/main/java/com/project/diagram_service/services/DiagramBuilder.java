@@ -0,0 +1,75 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.dto.CommonDiagramDTO;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Collects the nodes and links of a diagram, dropping duplicates as they are added.
+ *
+ * Nodes are keyed by their id and links by a key chosen by the diagram, normally a record
+ * of the fields that make two links the same. Both are kept in insertion-ordered hash maps,
+ * so each duplicate check is a single lookup and the finished diagram lists nodes and links
+ * in the order they were first added.
+ *
+ * @param <K> the link key type
+ * @param <L> the link DTO type
+ */
+final class DiagramBuilder<K, L> {
+
+    private final Map<String, CommonDiagramDTO.NodeDTO> nodes = new LinkedHashMap<>();
+    private final Map<K, L> links = new LinkedHashMap<>();
+
+    /**
+     * Checks whether a node with the given id has been added.
+     *
+     * @param nodeId the node id
+     * @return true if the node exists
+     */
+    boolean containsNode(String nodeId) {
+        return nodes.containsKey(nodeId);
+    }
+
+    /**
+     * Adds a node unless one with the same id exists.
+     *
+     * @param nodeId  the node id
+     * @param factory creates the node from its id, only called if the node is new
+     * @return the node with that id
+     */
+    CommonDiagramDTO.NodeDTO addNodeIfAbsent(String nodeId, Function<String, CommonDiagramDTO.NodeDTO> factory) {
+        return nodes.computeIfAbsent(nodeId, factory);
+    }
+
+    /**
+     * Checks whether a link with the given key has been added.
+     *
+     * @param key the link key
+     * @return true if the link exists
+     */
+    boolean containsLink(K key) {
+        return links.containsKey(key);
+    }
+
+    /**
+     * Adds a link unless one with the same key exists.
+     *
+     * @param key     the link key
+     * @param factory creates the link from its key, only called if the link is new
+     * @return the link with that key
+     */
+    L addLinkIfAbsent(K key, Function<K, L> factory) {
+        return links.computeIfAbsent(key, factory);
+    }
+
+    List<CommonDiagramDTO.NodeDTO> nodes() {
+        return new ArrayList<>(nodes.values());
+    }
+
+    List<L> links() {
+        return new ArrayList<>(links.values());
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.diagram_service.services;
 
 import com.project.diagram_service.client.CoreServiceClient;
+import com.project.diagram_service.config.PathSearchProperties;
 import com.project.diagram_service.dto.SystemDependencyDTO;
 import com.project.diagram_service.dto.BusinessCapabilityDiagramDTO;
 import com.project.diagram_service.dto.BusinessCapabilitiesTreeDTO;
@@ -8,7 +9,17 @@ import com.project.diagram_service.dto.BusinessCapabilityDTO;
 import com.project.diagram_service.dto.SpecificSystemDependenciesDiagramDTO;
 import com.project.diagram_service.dto.OverallSystemDependenciesDiagramDTO;
 import com.project.diagram_service.dto.PathDiagramDTO;
+import com.project.diagram_service.dto.PathStreamDTO;
+import com.project.diagram_service.dto.MiddlewareDiagramDTO;
 import com.project.diagram_service.dto.CommonDiagramDTO;
+import com.project.diagram_service.snapshot.DependencySnapshot;
+import com.project.diagram_service.snapshot.DependencySnapshotHolder;
+import com.project.diagram_service.snapshot.FlowStore;
+import com.project.diagram_service.snapshot.IntegrationFlowUtils;
+import com.project.diagram_service.snapshot.IntegrationGraph;
+import com.project.diagram_service.snapshot.SnapshotSelector;
+import com.project.diagram_service.snapshot.SnapshotStatus;
+import com.project.diagram_service.snapshot.SystemIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
@@ -18,9 +29,8 @@ import java.util.HashMap;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.util.Objects;
+import java.util.Comparator;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
@@ -44,9 +54,6 @@ public class DiagramService {
     private static final String PRODUCER_ROLE = "PRODUCER";
     private static final String CONSUMER_ROLE = "CONSUMER";
 
-    // Middleware Constants
-    private static final String NONE_MIDDLEWARE = "NONE";
-
     // Node Suffixes
     private static final String PRODUCER_SUFFIX = "-P";
     private static final String CONSUMER_SUFFIX = "-C";
@@ -64,26 +71,53 @@ public class DiagramService {
     private static final String UNDER_SEPARATOR = "-under-";
 
     private final CoreServiceClient coreServiceClient;
+    private final DependencySnapshotHolder snapshotHolder;
+    private final PathSearchProperties pathSearchCeilings;
 
-    public DiagramService(CoreServiceClient coreServiceClient) {
+    public DiagramService(CoreServiceClient coreServiceClient, DependencySnapshotHolder snapshotHolder,
+            PathSearchProperties pathSearchCeilings) {
         this.coreServiceClient = coreServiceClient;
+        this.snapshotHolder = snapshotHolder;
+        this.pathSearchCeilings = pathSearchCeilings;
     }
 
     /**
-     * Retrieves all system dependencies from the core service.
+     * Retrieves all system dependencies from the current dependency snapshot.
      *
      * @return list of system dependencies with solution overviews and integration
      *         flows
      * @throws IllegalStateException if the core service call fails
      */
     public List<SystemDependencyDTO> getSystemDependencies() {
-        log.info("Calling core service for system dependencies");
+        return getSystemDependencies(SnapshotSelector.LATEST);
+    }
 
-        List<SystemDependencyDTO> result = coreServiceClient.getSystemDependencies();
-        log.info("Retrieved {} system dependencies", result.size());
+    /**
+     * Retrieves all system dependencies from the selected dependency snapshot.
+     *
+     * @param selector the snapshot to read
+     * @return list of system dependencies with solution overviews and integration
+     *         flows
+     * @throws IllegalArgumentException if the selected snapshot is not retained
+     */
+    public List<SystemDependencyDTO> getSystemDependencies(SnapshotSelector selector) {
+        log.info("Reading system dependencies from snapshot");
+
+        DependencySnapshot snapshot = snapshotHolder.select(selector);
+        List<SystemDependencyDTO> result = snapshot.getDependencies();
+        log.info("Retrieved {} system dependencies from snapshot version {}", result.size(), snapshot.getVersion());
         return result;
     }
 
+    /**
+     * Reports how fresh the dependency snapshot served by the diagram endpoints is.
+     *
+     * @return the snapshot status, or null if no snapshot has been loaded yet
+     */
+    public SnapshotStatus getSnapshotStatus() {
+        return snapshotHolder.status();
+    }
+
     /**
      * Retrieves all business capability solution reviews from the core service.
      *
@@ -108,6 +142,8 @@ public class DiagramService {
      * 2. Add systems to the existing capability nodes from solution reviews
      * 
      * This ensures all business capabilities appear in the tree, even those without systems.
+     * The two core service calls are issued concurrently on virtual threads; if either fails,
+     * the other is cancelled and the failure is reported.
      *
      * @return BusinessCapabilitiesTreeDTO containing the hierarchical tree structure
      * @throws IllegalStateException if the core service call fails
@@ -115,12 +151,19 @@ public class DiagramService {
     public BusinessCapabilitiesTreeDTO getBusinessCapabilitiesTree() {
         log.info("Generating business capabilities tree structure");
 
-        try {
+        try (UpstreamCalls upstream = new UpstreamCalls()) {
             BusinessCapabilitiesTreeDTO tree = new BusinessCapabilitiesTreeDTO();
             Map<String, BusinessCapabilitiesTreeDTO.BusinessCapabilityNode> uniqueNodes = new HashMap<>();
+
+            // Both downloads are independent, so start them together; the second one
+            // keeps running while phase 1 builds the hierarchy from the first
+            UpstreamCalls.Call<List<BusinessCapabilityDTO>> allCapabilitiesCall =
+                    upstream.fork(coreServiceClient::getAllBusinessCapabilities);
+            UpstreamCalls.Call<List<BusinessCapabilityDiagramDTO>> systemCapabilitiesCall =
+                    upstream.fork(coreServiceClient::getBusinessCapabilities);
             
             // Phase 1: Build complete capability tree from all business capabilities
-            List<BusinessCapabilityDTO> allCapabilities = coreServiceClient.getAllBusinessCapabilities();
+            List<BusinessCapabilityDTO> allCapabilities = allCapabilitiesCall.join();
             log.info("Retrieved {} business capabilities from dropdown endpoint", allCapabilities.size());
             
             for (BusinessCapabilityDTO capability : allCapabilities) {
@@ -130,7 +173,7 @@ public class DiagramService {
             log.info("Built base tree with {} capability nodes", uniqueNodes.size());
             
             // Phase 2: Add systems to the existing capability nodes
-            List<BusinessCapabilityDiagramDTO> systemCapabilities = coreServiceClient.getBusinessCapabilities();
+            List<BusinessCapabilityDiagramDTO> systemCapabilities = systemCapabilitiesCall.join();
             log.info("Retrieved {} solution reviews with business capabilities", systemCapabilities.size());
             
             for (BusinessCapabilityDiagramDTO system : systemCapabilities) {
@@ -528,26 +571,144 @@ public class DiagramService {
      * @throws IllegalArgumentException if system not found or systemCode is invalid
      */
     public SpecificSystemDependenciesDiagramDTO generateSystemDependenciesDiagram(String systemCode) {
+        return generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST);
+    }
+
+    /**
+     * Generates the system dependencies diagram of a system from the selected snapshot.
+     *
+     * @param systemCode the system to generate the diagram for (must not be null or
+     *                   blank)
+     * @param selector   the snapshot to read
+     * @return diagram with nodes, links, and metadata for D3.js Sankey
+     *         visualization
+     * @throws IllegalArgumentException if system not found, systemCode is invalid or the
+     *                                  selected snapshot is not retained
+     * @see #generateSystemDependenciesDiagram(String)
+     */
+    public SpecificSystemDependenciesDiagramDTO generateSystemDependenciesDiagram(String systemCode,
+            SnapshotSelector selector) {
         if (systemCode == null || systemCode.trim().isEmpty()) {
             throw new IllegalArgumentException("System code must not be null or blank");
         }
         log.info("Generating system dependencies diagram for system: {}", systemCode);
 
-        List<SystemDependencyDTO> allDependencies = getSystemDependencies();
-        SystemDependencyDTO primarySystem = findPrimarySystem(systemCode, allDependencies);
+        DependencySnapshot snapshot = snapshotHolder.select(selector);
+        SystemIndex systemIndex = snapshot.getSystemIndex();
+        SystemDependencyDTO primarySystem = findPrimarySystem(systemCode, systemIndex);
 
         DiagramComponents components = initializeDiagramComponents(systemCode, primarySystem);
-        processAllIntegrationFlows(systemCode, allDependencies, components);
+        processIncidentIntegrationFlows(systemCode, snapshot.getFlows(), systemIndex, components);
 
-        CommonDiagramDTO.ExtendedMetadataDTO metadata = buildMetadata(systemCode, primarySystem, components.nodes());
-        SpecificSystemDependenciesDiagramDTO diagram = assembleDiagram(components, metadata);
+        List<CommonDiagramDTO.NodeDTO> nodes = components.builder().nodes();
+        CommonDiagramDTO.ExtendedMetadataDTO metadata = buildMetadata(systemCode, systemIndex, nodes, snapshot);
+        SpecificSystemDependenciesDiagramDTO diagram = assembleDiagram(nodes, components.builder().links(), metadata);
 
         log.info("Generated diagram with {} nodes and {} links for system {}",
-            components.nodes().size(), components.links().size(), systemCode);
+            diagram.getNodes().size(), diagram.getLinks().size(), systemCode);
         
         return diagram;
     }
 
+    /**
+     * Generates a Sankey diagram of every integration flow that goes through a middleware.
+     *
+     * The flows are taken from the snapshot's middleware index, so only the flows through
+     * that middleware are visited. Nodes and links follow the single-system diagram:
+     * - Middleware: the central node, with the name as requested minus any -P/-C suffix
+     * - Producers: system code with "-P" suffix
+     * - Consumers: system code with "-C" suffix
+     * - Links: producer → middleware with role PRODUCER, middleware → consumer with role CONSUMER
+     *
+     * @param middlewareName the middleware to generate the diagram for (must not be null or blank)
+     * @return diagram with nodes, links, and metadata for D3.js Sankey visualization
+     * @throws IllegalArgumentException if no flow goes through the middleware or the name is invalid
+     */
+    public MiddlewareDiagramDTO generateMiddlewareDiagram(String middlewareName) {
+        return generateMiddlewareDiagram(middlewareName, SnapshotSelector.LATEST);
+    }
+
+    /**
+     * Generates the diagram of a middleware from the selected snapshot.
+     *
+     * @param middlewareName the middleware to generate the diagram for (must not be null or blank)
+     * @param selector       the snapshot to read
+     * @return diagram with nodes, links, and metadata for D3.js Sankey visualization
+     * @throws IllegalArgumentException if no flow goes through the middleware, the name is invalid
+     *                                  or the selected snapshot is not retained
+     * @see #generateMiddlewareDiagram(String)
+     */
+    public MiddlewareDiagramDTO generateMiddlewareDiagram(String middlewareName, SnapshotSelector selector) {
+        if (middlewareName == null || middlewareName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Middleware name must not be null or blank");
+        }
+        log.info("Generating middleware diagram for middleware: {}", middlewareName);
+
+        DependencySnapshot snapshot = snapshotHolder.select(selector);
+        int[] middlewareFlows = snapshot.getMiddlewareIndex().flowsThrough(middlewareName);
+        if (middlewareFlows.length == 0) {
+            throw new IllegalArgumentException("Middleware not found: " + middlewareName);
+        }
+
+        String middlewareNodeId = IntegrationFlowUtils.normalizeNodeId(middlewareName);
+        DiagramBuilder<FlowLinkKey, CommonDiagramDTO.DetailedLinkDTO> builder = new DiagramBuilder<>();
+        addMiddlewareNodeIfNeeded(builder, middlewareNodeId, middlewareNodeId);
+        for (int flow : middlewareFlows) {
+            processMiddlewareFlow(snapshot.getFlows(), flow, middlewareNodeId, snapshot.getSystemIndex(), builder);
+        }
+
+        CommonDiagramDTO.ExtendedMetadataDTO metadata = new CommonDiagramDTO.ExtendedMetadataDTO();
+        metadata.setCode(middlewareNodeId);
+        metadata.setIntegrationMiddleware(List.of(middlewareNodeId));
+        metadata.setGeneratedDate(LocalDate.now());
+        metadata.setSnapshotVersion(snapshot.getVersion());
+        metadata.setSnapshotFetchedAt(snapshot.getFetchedAt());
+
+        MiddlewareDiagramDTO diagram = new MiddlewareDiagramDTO();
+        diagram.setNodes(builder.nodes());
+        diagram.setLinks(builder.links());
+        diagram.setMetadata(metadata);
+
+        log.info("Generated middleware diagram with {} nodes and {} links for middleware {}",
+            diagram.getNodes().size(), diagram.getLinks().size(), middlewareNodeId);
+
+        return diagram;
+    }
+
+    /**
+     * Adds one flow to a middleware diagram as a producer → middleware → consumer pair of links.
+     *
+     * @param flows            the flow store of the current snapshot
+     * @param flow             the index of the integration flow
+     * @param middlewareNodeId the id of the middleware node
+     * @param systemIndex      the system index of the current snapshot
+     * @param builder          the diagram builder to add to
+     */
+    private void processMiddlewareFlow(FlowStore flows, int flow, String middlewareNodeId,
+            SystemIndex systemIndex, DiagramBuilder<FlowLinkKey, CommonDiagramDTO.DetailedLinkDTO> builder) {
+        String ownerCode = flows.owner(flow);
+        String counterpartCode = flows.counterpart(flow);
+        boolean ownerProduces = CONSUMER_ROLE.equals(flows.role(flow));
+        String producerCode = ownerProduces ? ownerCode : counterpartCode;
+        String consumerCode = ownerProduces ? counterpartCode : ownerCode;
+        String producer = producerCode + PRODUCER_SUFFIX;
+        String consumer = consumerCode + CONSUMER_SUFFIX;
+
+        FlowLinkKey linkKey = new FlowLinkKey(ownerCode, producer, consumer, flows.method(flow), 0);
+        if (builder.containsLink(linkKey)) {
+            return;
+        }
+
+        builder.addNodeIfAbsent(producer,
+                id -> createSystemNode(id, producerCode, systemIndex.system(producerCode), systemIndex));
+        builder.addNodeIfAbsent(consumer,
+                id -> createSystemNode(id, consumerCode, systemIndex.system(consumerCode), systemIndex));
+        builder.addLinkIfAbsent(linkKey,
+                key -> createLink(producer, middlewareNodeId, flows, flow, PRODUCER_ROLE));
+        builder.addLinkIfAbsent(linkKey.secondHop(),
+                key -> createLink(middlewareNodeId, consumer, flows, flow, CONSUMER_ROLE));
+    }
+
     /**
      * Finds all paths from startSystem to endSystem and returns them in diagram
      * format.
@@ -559,9 +720,10 @@ public class DiagramService {
      * intermediate systems and middleware components.
      *
      * The algorithm:
-     * 1. Builds a directed graph of all integration flows
+     * 1. Uses the directed graph of all integration flows built with the snapshot
      * 2. Uses DFS with visited set to prevent infinite loops
-     * 3. Explores all possible paths from source to target
+     * 3. Explores all possible paths from source to target, within the configured
+     * path search ceilings
      * 4. Handles middleware as intermediate nodes in the path
      * 5. Converts discovered paths to Sankey diagram format
      *
@@ -573,65 +735,158 @@ public class DiagramService {
      *                                  are the same, or systems not found
      */
     public PathDiagramDTO findAllPathsDiagram(String startSystem, String endSystem) {
-        long startTime = System.currentTimeMillis();
+        return findAllPathsDiagram(startSystem, endSystem, SnapshotSelector.LATEST, PathSearchLimits.NONE);
+    }
 
+    /**
+     * Finds paths from startSystem to endSystem in the selected snapshot, within the given
+     * limits. Limits above the configured ceilings are lowered to them. When a limit cuts
+     * the search short, the metadata reports the result as incomplete and names the limit.
+     *
+     * @param startSystem the source system code to start path finding from
+     * @param endSystem   the target system code to find paths to
+     * @param selector    the snapshot to read
+     * @param limits      the limits the caller asks for
+     * @return diagram with the discovered paths visualized as nodes and links with
+     *         middleware as metadata
+     * @throws IllegalArgumentException if either system code is invalid, systems
+     *                                  are the same, systems not found, or the
+     *                                  selected snapshot is not retained
+     * @see #findAllPathsDiagram(String, String)
+     */
+    public PathDiagramDTO findAllPathsDiagram(String startSystem, String endSystem, SnapshotSelector selector,
+            PathSearchLimits limits) {
         validatePathFindingInput(startSystem, endSystem);
 
         log.info("Finding all paths from {} to {}", startSystem, endSystem);
 
-        // Get all system dependencies
-        List<SystemDependencyDTO> allDependencies = getSystemDependencies();
-
-        // Validate systems exist
-        validateSystemsExist(startSystem, endSystem, allDependencies);
-
-        // Build the integration graph
-        IntegrationGraph graph = buildIntegrationGraph(allDependencies);
+        return findPathsDiagram(startSystem, endSystem, selector, limits, PathFinder::find);
+    }
 
-        // Find all paths using DFS with loop prevention
-        List<Path> paths = findPaths(graph, startSystem, endSystem);
+    /**
+     * Finds the k shortest paths from startSystem to endSystem in the selected snapshot, by
+     * hop count, shortest first. Unlike {@link #findAllPathsDiagram(String, String,
+     * SnapshotSelector, PathSearchLimits)} this does not enumerate every path between the
+     * two systems, so its cost grows with k rather than with the size of the path space.
+     *
+     * @param startSystem the source system code to start path finding from
+     * @param endSystem   the target system code to find paths to
+     * @param selector    the snapshot to read
+     * @param limits      the limits the caller asks for; the maximum number of paths is k
+     * @return diagram with the shortest paths visualized as nodes and links with
+     *         middleware as metadata
+     * @throws IllegalArgumentException if either system code is invalid, systems
+     *                                  are the same, systems not found, or the
+     *                                  selected snapshot is not retained
+     */
+    public PathDiagramDTO findShortestPathsDiagram(String startSystem, String endSystem, SnapshotSelector selector,
+            PathSearchLimits limits) {
+        validatePathFindingInput(startSystem, endSystem);
 
-        log.info("Found {} paths from {} to {} in {}ms",
-                paths.size(), startSystem, endSystem, System.currentTimeMillis() - startTime);
+        log.info("Finding the {} shortest paths from {} to {}", limits.maxPaths(), startSystem, endSystem);
 
-        // Convert paths to diagram format with direct system-to-system links
-        return convertPathsToPathDiagram(paths, startSystem, endSystem, allDependencies);
+        return findPathsDiagram(startSystem, endSystem, selector, limits, ShortestPathFinder::find);
     }
 
     /**
-     * Record to hold flow direction information.
+     * Prepares a search for all paths from startSystem to endSystem in the selected snapshot
+     * that hands over each path as soon as it is found, rather than drawing them all as one
+     * diagram, so no path is held after it is written. The inputs are checked and the
+     * snapshot is selected now, so errors surface before a response starts; the search runs
+     * when the returned stream is run.
+     *
+     * Each path carries its own links, so links shared by several paths are repeated. The
+     * summary has the metadata the path diagram would have.
+     *
+     * @param startSystem the source system code to start path finding from
+     * @param endSystem   the target system code to find paths to
+     * @param selector    the snapshot to read
+     * @param limits      the limits the caller asks for
+     * @return the search, ready to run
+     * @throws IllegalArgumentException if either system code is invalid, systems
+     *                                  are the same, systems not found, or the
+     *                                  selected snapshot is not retained
      */
-    private record FlowDirection(String producer, String consumer, String producerSystemCode,
-            String consumerSystemCode) {
-    }
+    public PathStream openPathStream(String startSystem, String endSystem, SnapshotSelector selector,
+            PathSearchLimits limits) {
+        validatePathFindingInput(startSystem, endSystem);
 
-    // Record types for path finding algorithm
+        DependencySnapshot snapshot = snapshotHolder.select(selector);
+        validateSystemsExist(startSystem, endSystem, snapshot.getSystemIndex());
+        PathSearchLimits bounded = limits.within(pathSearchCeilings);
 
-    /**
-     * Represents a node in the integration graph with its connections.
-     */
-    record IntegrationGraph(Map<String, Set<EdgeDetails>> adjacencyMap) {
+        return paths -> streamPaths(startSystem, endSystem, snapshot, bounded, paths);
     }
 
     /**
-     * Represents an edge in the integration graph with metadata.
-     * Includes original flow data for accurate visualization.
+     * Runs an all-paths search, converting each path to links as the search finds it.
      */
-    record EdgeDetails(String target, String middleware, SystemDependencyDTO.IntegrationFlow originalFlow) {
+    private PathStreamDTO.SummaryLineDTO streamPaths(String startSystem, String endSystem,
+            DependencySnapshot snapshot, PathSearchLimits limits, Consumer<PathStreamDTO.PathLineDTO> paths) {
+        long startTime = System.currentTimeMillis();
+        log.info("Streaming all paths from {} to {}", startSystem, endSystem);
+
+        IntegrationGraph graph = snapshot.getGraph();
+        FlowStore flows = snapshot.getFlows();
+        int start = graph.nodeId(startSystem);
+        int target = graph.nodeId(endSystem);
+        Set<String> middlewareNames = new HashSet<>();
+        int[] pathCount = new int[1];
+
+        PathSearchLimits.Limit truncatedBy = null;
+        if (start >= 0 && target >= 0) {
+            truncatedBy = PathFinder.stream(graph, start, target, limits, path -> {
+                PathStreamDTO.PathLineDTO line = new PathStreamDTO.PathLineDTO();
+                line.setIndex(pathCount[0]++);
+                line.setLinks(createPathLinks(start, path, graph, flows, middlewareNames));
+                paths.accept(line);
+            });
+        }
+
+        log.info("Streamed {} paths from {} to {} in {}ms{}",
+                pathCount[0], startSystem, endSystem, System.currentTimeMillis() - startTime,
+                truncatedBy != null ? ", truncated by " + truncatedBy : "");
+
+        PathStreamDTO.SummaryLineDTO summary = new PathStreamDTO.SummaryLineDTO();
+        summary.setMetadata(createPathDiagramMetadata(startSystem, endSystem, pathCount[0], truncatedBy,
+                middlewareNames, snapshot));
+        return summary;
     }
 
     /**
-     * Represents a segment of a path with source, target and connection details.
-     * Includes original flow data for accurate visualization.
+     * Runs a path search in the selected snapshot, within the given limits lowered to the
+     * configured ceilings, and draws the paths it finds.
      */
-    record PathSegment(String source, String target, String middleware,
-            SystemDependencyDTO.IntegrationFlow originalFlow) {
+    private PathDiagramDTO findPathsDiagram(String startSystem, String endSystem, SnapshotSelector selector,
+            PathSearchLimits limits, PathFinder.Search search) {
+        long startTime = System.currentTimeMillis();
+
+        // Get all system dependencies from the selected snapshot
+        DependencySnapshot snapshot = snapshotHolder.select(selector);
+
+        // Validate systems exist
+        validateSystemsExist(startSystem, endSystem, snapshot.getSystemIndex());
+
+        // The integration graph is built once per snapshot while it is ingested
+        IntegrationGraph graph = snapshot.getGraph();
+
+        // Find paths, stopping at the first limit reached
+        PathFinder.Result result = findPaths(graph, startSystem, endSystem, limits.within(pathSearchCeilings),
+                search);
+
+        log.info("Found {} paths from {} to {} in {}ms{}",
+                result.paths().size(), startSystem, endSystem, System.currentTimeMillis() - startTime,
+                result.truncatedBy() != null ? ", truncated by " + result.truncatedBy() : "");
+
+        // Convert paths to diagram format with direct system-to-system links
+        return convertPathsToPathDiagram(result, startSystem, endSystem, snapshot);
     }
 
     /**
-     * Represents a complete path from source to destination.
+     * Record to hold flow direction information.
      */
-    record Path(List<PathSegment> segments) {
+    private record FlowDirection(String producer, String consumer, String producerSystemCode,
+            String consumerSystemCode) {
     }
 
     // Validation methods for path finding
@@ -676,205 +931,46 @@ public class DiagramService {
     }
 
     /**
-     * Validates that both systems exist in the dependency data.
+     * Validates that both systems exist in the dependency data, either as a system
+     * or as the counterpart of a flow.
      * 
-     * @param startSystem     the source system to validate
-     * @param endSystem       the target system to validate
-     * @param allDependencies the list of all system dependencies
+     * @param startSystem the source system to validate
+     * @param endSystem   the target system to validate
+     * @param systemIndex the system index of the current snapshot
      * @throws IllegalArgumentException if either system is not found
      */
-    private void validateSystemsExist(String startSystem, String endSystem, List<SystemDependencyDTO> allDependencies) {
-        Set<String> allSystems = extractAllSystemCodes(allDependencies);
-
-        validateSystemExists(startSystem, allSystems, "Start system");
-        validateSystemExists(endSystem, allSystems, "End system");
-    }
-
-    /**
-     * Extracts all system codes from dependencies including counterpart systems.
-     * 
-     * @param dependencies the list of system dependencies
-     * @return set of all system codes found
-     */
-    private Set<String> extractAllSystemCodes(List<SystemDependencyDTO> dependencies) {
-        return dependencies.stream()
-                .flatMap(this::extractSystemCodesFromDependency)
-                .collect(Collectors.toSet());
-    }
-
-    /**
-     * Extracts system codes from a single dependency including integration flows.
-     * 
-     * @param dependency the system dependency to process
-     * @return stream of system codes
-     */
-    private Stream<String> extractSystemCodesFromDependency(SystemDependencyDTO dependency) {
-        Set<String> systems = new HashSet<>();
-        systems.add(dependency.getSystemCode());
-
-        if (dependency.getIntegrationFlows() != null) {
-            dependency.getIntegrationFlows().forEach(flow -> {
-                String normalizedCounterpart = normalizeNodeId(flow.getCounterpartSystemCode());
-                systems.add(normalizedCounterpart);
-                systems.add(flow.getCounterpartSystemCode());
-            });
-        }
-
-        return systems.stream();
+    private void validateSystemsExist(String startSystem, String endSystem, SystemIndex systemIndex) {
+        validateSystemExists(startSystem, systemIndex, "Start system");
+        validateSystemExists(endSystem, systemIndex, "End system");
     }
 
     /**
-     * Validates that a specific system exists in the system set.
+     * Validates that a specific system is known to the snapshot.
      * 
-     * @param systemCode the system code to check
-     * @param allSystems the set of all available systems
-     * @param systemType the type of system for error messaging
+     * @param systemCode  the system code to check
+     * @param systemIndex the system index of the current snapshot
+     * @param systemType  the type of system for error messaging
      * @throws IllegalArgumentException if system is not found
      */
-    private void validateSystemExists(String systemCode, Set<String> allSystems, String systemType) {
-        if (!allSystems.contains(systemCode)) {
+    private void validateSystemExists(String systemCode, SystemIndex systemIndex, String systemType) {
+        if (!systemIndex.isKnown(systemCode)) {
             throw new IllegalArgumentException(systemType + " '" + systemCode + "' not found");
         }
     }
 
-    // Graph building methods
-
-    /**
-     * Normalizes node IDs by removing -P/-C suffixes for middleware nodes.
-     * This allows middleware to act as both producers and consumers in paths.
-     */
-    private String normalizeNodeId(String nodeId) {
-        if (nodeId != null && (nodeId.endsWith("-P") || nodeId.endsWith("-C"))) {
-            return nodeId.substring(0, nodeId.length() - 2);
-        }
-        return nodeId;
-    }
-
-    /**
-     * Builds a directed graph from system dependencies.
-     * Each integration flow represents a specific point-to-point connection.
-     * Middleware is just the transport mechanism, not a routing hub.
-     */
-    /**
-     * Builds a directed graph from system dependencies for path finding.
-     * 
-     * @param dependencies the list of system dependencies
-     * @return the integration graph
-     */
-    private IntegrationGraph buildIntegrationGraph(List<SystemDependencyDTO> dependencies) {
-        Map<String, Set<EdgeDetails>> adjacencyMap = new HashMap<>();
-
-        for (SystemDependencyDTO dependency : dependencies) {
-            if (dependency.getIntegrationFlows() != null) {
-                processIntegrationFlowsForGraph(dependency, adjacencyMap);
-            }
-        }
-
-        return new IntegrationGraph(adjacencyMap);
-    }
-
-    /**
-     * Processes integration flows for a single system dependency.
-     * 
-     * @param dependency   the system dependency to process
-     * @param adjacencyMap the graph adjacency map to populate
-     */
-    private void processIntegrationFlowsForGraph(SystemDependencyDTO dependency,
-            Map<String, Set<EdgeDetails>> adjacencyMap) {
-        String currentSystem = dependency.getSystemCode();
-
-        for (SystemDependencyDTO.IntegrationFlow flow : dependency.getIntegrationFlows()) {
-            ProducerConsumerPair pair = determineProducerConsumer(currentSystem, flow);
-            if (pair != null) {
-                addEdgeToGraph(adjacencyMap, pair.producer(), pair.consumer(), flow);
-            }
-        }
-    }
-
-    /**
-     * Determines producer and consumer from flow information.
-     * 
-     * @param currentSystem the current system code
-     * @param flow          the integration flow
-     * @return producer-consumer pair or null if role is unclear
-     */
-    private ProducerConsumerPair determineProducerConsumer(String currentSystem,
-            SystemDependencyDTO.IntegrationFlow flow) {
-        String counterpartSystem = normalizeNodeId(flow.getCounterpartSystemCode());
-        String counterpartRole = flow.getCounterpartSystemRole();
-
-        if (PRODUCER_ROLE.equals(counterpartRole)) {
-            return new ProducerConsumerPair(counterpartSystem, currentSystem);
-        } else if (CONSUMER_ROLE.equals(counterpartRole)) {
-            return new ProducerConsumerPair(currentSystem, counterpartSystem);
-        }
-
-        return null; // Skip if role is unclear
-    }
-
-    /**
-     * Adds an edge to the integration graph.
-     * 
-     * @param adjacencyMap the graph adjacency map
-     * @param producer     the producer system
-     * @param consumer     the consumer system
-     * @param flow         the integration flow
-     */
-    private void addEdgeToGraph(Map<String, Set<EdgeDetails>> adjacencyMap,
-            String producer, String consumer,
-            SystemDependencyDTO.IntegrationFlow flow) {
-        String middleware = hasValidMiddleware(flow.getMiddleware())
-                ? normalizeNodeId(flow.getMiddleware())
-                : null;
-
-        adjacencyMap.computeIfAbsent(producer, k -> new HashSet<>())
-                .add(new EdgeDetails(consumer, middleware, flow));
-    }
-
-    /**
-     * Record to hold producer-consumer pair information.
-     */
-    private record ProducerConsumerPair(String producer, String consumer) {
-    }
-
     // Path finding methods
 
     /**
-     * Finds all paths between two systems using depth-first search.
-     */
-    private List<Path> findPaths(IntegrationGraph graph, String startSystem, String endSystem) {
-        List<Path> allPaths = new ArrayList<>();
-        List<PathSegment> currentPath = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
-
-        findPathsDFS(graph, startSystem, endSystem, currentPath, visited, allPaths);
-
-        return allPaths;
-    }
-
-    /**
-     * Recursive DFS implementation for path finding with loop prevention.
+     * Finds paths between two systems in the snapshot graph, within the given limits.
      */
-    private void findPathsDFS(IntegrationGraph graph, String current, String target,
-            List<PathSegment> currentPath, Set<String> visited,
-            List<Path> allPaths) {
-        if (current.equals(target)) {
-            allPaths.add(new Path(new ArrayList<>(currentPath)));
-            return;
-        }
-
-        visited.add(current);
-
-        Set<EdgeDetails> neighbors = graph.adjacencyMap().getOrDefault(current, Set.of());
-        for (EdgeDetails edge : neighbors) {
-            if (!visited.contains(edge.target())) {
-                currentPath.add(new PathSegment(current, edge.target(), edge.middleware(), edge.originalFlow()));
-                findPathsDFS(graph, edge.target(), target, currentPath, visited, allPaths);
-                currentPath.remove(currentPath.size() - 1);
-            }
+    private PathFinder.Result findPaths(IntegrationGraph graph, String startSystem, String endSystem,
+            PathSearchLimits limits, PathFinder.Search search) {
+        int start = graph.nodeId(startSystem);
+        int target = graph.nodeId(endSystem);
+        if (start < 0 || target < 0) {
+            return new PathFinder.Result(start, List.of(), null);
         }
-
-        visited.remove(current);
+        return search.find(graph, start, target, limits);
     }
 
     /**
@@ -896,21 +992,22 @@ public class DiagramService {
      * Converts discovered paths to PathDiagramDTO format with direct
      * system-to-system links.
      * 
-     * @param paths           the list of discovered paths
+     * @param result          the discovered paths and the limit that cut the search short
      * @param startSystem     the source system
      * @param endSystem       the target system
-     * @param allDependencies all system dependencies
+     * @param snapshot        the snapshot the paths were computed from
      * @return the complete PathDiagramDTO
      */
-    private PathDiagramDTO convertPathsToPathDiagram(List<Path> paths, String startSystem,
-            String endSystem, List<SystemDependencyDTO> allDependencies) {
-        if (paths.isEmpty()) {
-            return createEmptyPathDiagramDTO(startSystem, endSystem);
+    private PathDiagramDTO convertPathsToPathDiagram(PathFinder.Result result, String startSystem,
+            String endSystem, DependencySnapshot snapshot) {
+        if (result.paths().isEmpty()) {
+            return createEmptyPathDiagramDTO(startSystem, endSystem, result, snapshot);
         }
 
-        PathDiagramComponents components = buildPathDiagramComponentsWithDirectLinks(paths, allDependencies);
-        CommonDiagramDTO.ExtendedMetadataDTO metadata = createPathDiagramMetadata(startSystem, endSystem, paths.size(),
-                components.middleware());
+        PathDiagramComponents components = buildPathDiagramComponentsWithDirectLinks(result, snapshot.getGraph(),
+                snapshot.getFlows(), snapshot.getSystemIndex());
+        CommonDiagramDTO.ExtendedMetadataDTO metadata = createPathDiagramMetadata(startSystem, endSystem,
+                result.paths().size(), result.truncatedBy(), components.middleware(), snapshot);
 
         return assemblePathDiagram(components, metadata);
     }
@@ -920,15 +1017,19 @@ public class DiagramService {
      * 
      * @param startSystem the source system
      * @param endSystem   the target system
+     * @param result      the empty search result
+     * @param snapshot    the snapshot the search ran against
      * @return empty diagram with appropriate metadata
      */
-    private PathDiagramDTO createEmptyPathDiagramDTO(String startSystem, String endSystem) {
+    private PathDiagramDTO createEmptyPathDiagramDTO(String startSystem, String endSystem, PathFinder.Result result,
+            DependencySnapshot snapshot) {
         log.warn("No paths found from {} to {}", startSystem, endSystem);
 
         PathDiagramDTO diagram = new PathDiagramDTO();
         diagram.setNodes(List.of());
         diagram.setLinks(List.of());
-        diagram.setMetadata(createPathDiagramMetadata(startSystem, endSystem, 0, Set.of()));
+        diagram.setMetadata(createPathDiagramMetadata(startSystem, endSystem, 0, result.truncatedBy(), Set.of(),
+                snapshot));
 
         return diagram;
     }
@@ -938,17 +1039,23 @@ public class DiagramService {
      * 
      * @param startSystem the source system
      * @param endSystem   the target system
-     * @param pathCount   the number of paths found
+     * @param pathCount   the number of discovered paths
+     * @param truncatedBy the limit that cut the search short, or null
      * @param middleware  the set of middleware components used
+     * @param snapshot    the snapshot the paths were computed from
      * @return the metadata DTO
      */
     private CommonDiagramDTO.ExtendedMetadataDTO createPathDiagramMetadata(String startSystem, String endSystem,
-            int pathCount, Set<String> middleware) {
+            int pathCount, PathSearchLimits.Limit truncatedBy, Set<String> middleware, DependencySnapshot snapshot) {
         CommonDiagramDTO.ExtendedMetadataDTO metadata = new CommonDiagramDTO.ExtendedMetadataDTO();
         metadata.setCode(startSystem + PATH_SEPARATOR + endSystem);
         metadata.setReview(formatPathCount(pathCount));
+        metadata.setComplete(truncatedBy == null);
+        metadata.setTruncatedBy(truncatedBy != null ? truncatedBy.name() : null);
         metadata.setIntegrationMiddleware(new ArrayList<>(middleware));
         metadata.setGeneratedDate(LocalDate.now());
+        metadata.setSnapshotVersion(snapshot.getVersion());
+        metadata.setSnapshotFetchedAt(snapshot.getFetchedAt());
 
         return metadata;
     }
@@ -956,10 +1063,42 @@ public class DiagramService {
     /**
      * Record to hold diagram components during construction.
      */
-    private record DiagramComponents(List<CommonDiagramDTO.NodeDTO> nodes,
-            List<CommonDiagramDTO.DetailedLinkDTO> links,
-            Set<String> middleware,
-            Set<String> processedLinks) {
+    private record DiagramComponents(DiagramBuilder<FlowLinkKey, CommonDiagramDTO.DetailedLinkDTO> builder,
+            Set<String> middleware) {
+    }
+
+    /**
+     * Identifies a link of a single-system diagram by the flow it was drawn for. A flow
+     * through middleware is drawn as two links, the hop into the middleware node (0) and
+     * the hop out of it (1); a direct flow only has hop 0.
+     */
+    private record FlowLinkKey(String ownerCode, String producer, String consumer, String integrationMethod,
+            int hop) {
+
+        FlowLinkKey secondHop() {
+            return new FlowLinkKey(ownerCode, producer, consumer, integrationMethod, 1);
+        }
+    }
+
+    /**
+     * Identifies a link of a path diagram. Only links with identical source, target,
+     * pattern, frequency, middleware and role are considered duplicates.
+     */
+    private record PathLinkKey(String source, String target, String pattern, String frequency,
+            String middleware, String role) {
+    }
+
+    /**
+     * Identifies a link of the overall diagram by the two systems it connects, regardless
+     * of which of them owns the flow.
+     */
+    private record SystemPairKey(String first, String second) {
+
+        private static final Comparator<String> ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+        static SystemPairKey of(String a, String b) {
+            return ORDER.compare(a, b) <= 0 ? new SystemPairKey(a, b) : new SystemPairKey(b, a);
+        }
     }
 
     /**
@@ -973,28 +1112,24 @@ public class DiagramService {
     /**
      * Builds path diagram components with direct system-to-system links.
      * 
-     * @param paths           the discovered paths
-     * @param allDependencies all system dependencies
+     * @param result      the discovered paths
+     * @param graph       the graph the paths were found in
+     * @param flows       the flow store of the current snapshot
+     * @param systemIndex the system index of the current snapshot
      * @return path diagram components
      */
-    private PathDiagramComponents buildPathDiagramComponentsWithDirectLinks(List<Path> paths,
-            List<SystemDependencyDTO> allDependencies) {
-        Set<String> allSystemsInPaths = new HashSet<>();
+    private PathDiagramComponents buildPathDiagramComponentsWithDirectLinks(PathFinder.Result result,
+            IntegrationGraph graph, FlowStore flows, SystemIndex systemIndex) {
+        DiagramBuilder<PathLinkKey, PathDiagramDTO.PathLinkDTO> builder = new DiagramBuilder<>();
         Set<String> middlewareNames = new HashSet<>();
-        Map<String, PathDiagramDTO.PathLinkDTO> uniqueLinks = new HashMap<>();
 
         // Process all path segments to create direct system-to-system links with deduplication
-        for (Path path : paths) {
-            processPathForDirectLinksWithDeduplication(path, allSystemsInPaths, middlewareNames, uniqueLinks);
+        for (int[] path : result.paths()) {
+            processPathForDirectLinksWithDeduplication(result.start(), path, graph, flows, systemIndex,
+                    middlewareNames, builder);
         }
 
-        // Convert map to list
-        List<PathDiagramDTO.PathLinkDTO> links = new ArrayList<>(uniqueLinks.values());
-
-        // Create nodes only for systems (not middleware)
-        List<CommonDiagramDTO.NodeDTO> nodes = createPathNodes(allSystemsInPaths, allDependencies);
-
-        return new PathDiagramComponents(nodes, links, middlewareNames);
+        return new PathDiagramComponents(builder.nodes(), builder.links(), middlewareNames);
     }
 
     /**
@@ -1015,52 +1150,67 @@ public class DiagramService {
     /**
      * Processes a path to create direct system-to-system links with deduplication and middleware as metadata.
      * 
-     * @param path              the path to process
-     * @param allSystemsInPaths set to collect all system IDs
-     * @param middlewareNames   set to collect middleware names
-     * @param uniqueLinks       map to store unique links by identifier
-     */
-    private void processPathForDirectLinksWithDeduplication(Path path, Set<String> allSystemsInPaths,
-            Set<String> middlewareNames, Map<String, PathDiagramDTO.PathLinkDTO> uniqueLinks) {
-        for (PathSegment segment : path.segments()) {
-            String source = segment.source();
-            String target = segment.target();
-            String middleware = segment.middleware();
-            SystemDependencyDTO.IntegrationFlow originalFlow = segment.originalFlow();
-
-            allSystemsInPaths.add(source);
-            allSystemsInPaths.add(target);
-
-            if (hasValidMiddleware(middleware)) {
-                middlewareNames.add(normalizeNodeId(middleware));
+     * @param start           the start node id of the path
+     * @param path            the ids of the edges the path takes
+     * @param graph           the graph the path was found in
+     * @param flows           the flow store of the current snapshot
+     * @param systemIndex     the system index of the current snapshot
+     * @param middlewareNames set to collect middleware names
+     * @param builder         the builder collecting nodes for systems (not middleware) and unique links
+     */
+    private void processPathForDirectLinksWithDeduplication(int start, int[] path, IntegrationGraph graph,
+            FlowStore flows, SystemIndex systemIndex, Set<String> middlewareNames,
+            DiagramBuilder<PathLinkKey, PathDiagramDTO.PathLinkDTO> builder) {
+        int sourceNode = start;
+        for (int edge : path) {
+            int targetNode = graph.edgeTarget(edge);
+            String source = graph.nodeName(sourceNode);
+            String target = graph.nodeName(targetNode);
+            String middleware = graph.edgeMiddleware(edge);
+            int flow = graph.edgeFlow(edge);
+            sourceNode = targetNode;
+
+            builder.addNodeIfAbsent(source, id -> createPathDiagramNode(id, systemIndex));
+            builder.addNodeIfAbsent(target, id -> createPathDiagramNode(id, systemIndex));
+
+            // The graph only keeps middleware that passed the validity check, so null means a direct flow
+            if (middleware != null) {
+                middlewareNames.add(IntegrationFlowUtils.normalizeNodeId(middleware));
             }
 
-            // Create link identifier for deduplication - include all distinguishing properties
-            // Only truly identical links (same source, target, pattern, frequency, middleware, role) are deduplicated
-            String linkId = createPathLinkIdentifier(source, target, originalFlow);
-            
             // Only add the link if we haven't seen this exact link before
-            uniqueLinks.computeIfAbsent(linkId, key -> createPathDiagramLink(source, target, originalFlow));
+            builder.addLinkIfAbsent(
+                    new PathLinkKey(source, target, flows.method(flow), flows.frequency(flow),
+                            flows.middleware(flow), flows.role(flow)),
+                    key -> createPathDiagramLink(source, target, flows, flow));
         }
     }
 
     /**
-     * Creates nodes for systems in paths.
-     * 
-     * @param allSystemsInPaths all system IDs found in paths
-     * @param allDependencies   all system dependencies
-     * @return list of created path nodes
-     */
-    private List<CommonDiagramDTO.NodeDTO> createPathNodes(Set<String> allSystemsInPaths,
-            List<SystemDependencyDTO> allDependencies) {
-        List<CommonDiagramDTO.NodeDTO> nodes = new ArrayList<>();
-
-        for (String systemId : allSystemsInPaths) {
-            CommonDiagramDTO.NodeDTO node = createPathDiagramNode(systemId, allDependencies);
-            nodes.add(node);
+     * Creates the links of one path, in order, collecting the middleware it goes through.
+     *
+     * @param start           the start node id of the path
+     * @param path            the ids of the edges the path takes
+     * @param graph           the graph the path was found in
+     * @param flows           the flow store of the current snapshot
+     * @param middlewareNames set to collect middleware names
+     * @return one link per hop
+     */
+    private List<PathDiagramDTO.PathLinkDTO> createPathLinks(int start, int[] path, IntegrationGraph graph,
+            FlowStore flows, Set<String> middlewareNames) {
+        List<PathDiagramDTO.PathLinkDTO> links = new ArrayList<>(path.length);
+        int sourceNode = start;
+        for (int edge : path) {
+            int targetNode = graph.edgeTarget(edge);
+            String middleware = graph.edgeMiddleware(edge);
+            if (middleware != null) {
+                middlewareNames.add(IntegrationFlowUtils.normalizeNodeId(middleware));
+            }
+            links.add(createPathDiagramLink(graph.nodeName(sourceNode), graph.nodeName(targetNode), flows,
+                    graph.edgeFlow(edge)));
+            sourceNode = targetNode;
         }
-
-        return nodes;
+        return links;
     }
 
     /**
@@ -1068,35 +1218,35 @@ public class DiagramService {
      * 
      * @param source the source system
      * @param target the target system
-     * @param flow   the integration flow
+     * @param flows  the flow store of the current snapshot
+     * @param flow   the index of the integration flow
      * @return the created link DTO
      */
     private PathDiagramDTO.PathLinkDTO createPathDiagramLink(String source, String target,
-            SystemDependencyDTO.IntegrationFlow flow) {
+            FlowStore flows, int flow) {
         PathDiagramDTO.PathLinkDTO link = new PathDiagramDTO.PathLinkDTO();
         link.setSource(source);
         link.setTarget(target);
-        link.setPattern(flow.getIntegrationMethod());
-        link.setFrequency(flow.getFrequency());
-        link.setRole(flow.getCounterpartSystemRole());
-        link.setMiddleware(hasValidMiddleware(flow.getMiddleware()) ? flow.getMiddleware() : null);
+        link.setPattern(flows.method(flow));
+        link.setFrequency(flows.frequency(flow));
+        link.setRole(flows.role(flow));
+        link.setMiddleware(flows.hasValidMiddleware(flow) ? flows.middleware(flow) : null);
         return link;
     }
 
     /**
      * Creates a PathDiagramDTO node for a system.
      * 
-     * @param systemId        the system ID
-     * @param allDependencies all system dependencies
+     * @param systemId    the system ID
+     * @param systemIndex the system index of the current snapshot
      * @return the created node DTO
      */
-    private CommonDiagramDTO.NodeDTO createPathDiagramNode(String systemId, List<SystemDependencyDTO> allDependencies) {
+    private CommonDiagramDTO.NodeDTO createPathDiagramNode(String systemId, SystemIndex systemIndex) {
         CommonDiagramDTO.NodeDTO node = new CommonDiagramDTO.NodeDTO();
         node.setId(systemId);
 
-        String systemName = findSystemNameFromDependencies(systemId, allDependencies);
-        node.setName(systemName);
-        node.setType(determineSystemType(systemId, allDependencies));
+        node.setName(systemIndex.nameOrCode(systemId));
+        node.setType(determineSystemType(systemId, systemIndex));
         node.setCriticality(MAJOR_CRITICALITY);
         node.setUrl(systemId + JSON_EXTENSION);
 
@@ -1104,18 +1254,19 @@ public class DiagramService {
     }
 
     /**
-     * Finds the primary system in the dependencies list.
+     * Finds the primary system in the system index.
      * 
-     * @param systemCode      the system code to find
-     * @param allDependencies list of all system dependencies
+     * @param systemCode  the system code to find
+     * @param systemIndex the system index of the current snapshot
      * @return the primary system
      * @throws IllegalArgumentException if system not found
      */
-    private SystemDependencyDTO findPrimarySystem(String systemCode, List<SystemDependencyDTO> allDependencies) {
-        return allDependencies.stream()
-                .filter(system -> systemCode.equals(system.getSystemCode()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("System not found: " + systemCode));
+    private SystemDependencyDTO findPrimarySystem(String systemCode, SystemIndex systemIndex) {
+        SystemDependencyDTO system = systemIndex.system(systemCode);
+        if (system == null) {
+            throw new IllegalArgumentException("System not found: " + systemCode);
+        }
+        return system;
     }
 
     /**
@@ -1126,113 +1277,85 @@ public class DiagramService {
      * @return initialized diagram components
      */
     private DiagramComponents initializeDiagramComponents(String systemCode, SystemDependencyDTO primarySystem) {
-        List<CommonDiagramDTO.NodeDTO> nodes = new ArrayList<>();
-        nodes.add(createPrimarySystemNode(systemCode, primarySystem));
+        DiagramBuilder<FlowLinkKey, CommonDiagramDTO.DetailedLinkDTO> builder = new DiagramBuilder<>();
+        builder.addNodeIfAbsent(systemCode, id -> createPrimarySystemNode(id, primarySystem));
 
-        return new DiagramComponents(
-                nodes,
-                new ArrayList<>(),
-                new HashSet<>(),
-                new HashSet<>());
-    }
-
-    /**
-     * Processes all integration flows from all systems.
-     * 
-     * @param systemCode      the target system code
-     * @param allDependencies all system dependencies
-     * @param components      diagram components to populate
-     */
-    private void processAllIntegrationFlows(String systemCode,
-            List<SystemDependencyDTO> allDependencies,
-            DiagramComponents components) {
-        for (SystemDependencyDTO system : allDependencies) {
-            if (system.getIntegrationFlows() != null) {
-                processSystemIntegrationFlows(systemCode, system, allDependencies, components);
-            }
-        }
+        return new DiagramComponents(builder, new HashSet<>());
     }
 
     /**
-     * Processes integration flows for a single system.
+     * Processes the integration flows incident to the target system, taken from the
+     * snapshot's system index so only that system's flows are visited.
      * 
-     * @param targetSystemCode the target system code
-     * @param system           the system whose flows to process
-     * @param allDependencies  all system dependencies
-     * @param components       diagram components to populate
-     */
-    private void processSystemIntegrationFlows(String targetSystemCode,
-            SystemDependencyDTO system,
-            List<SystemDependencyDTO> allDependencies,
+     * @param systemCode  the target system code
+     * @param flows       the flow store of the current snapshot
+     * @param systemIndex the system index of the current snapshot
+     * @param components  diagram components to populate
+     */
+    private void processIncidentIntegrationFlows(String systemCode,
+            FlowStore flows,
+            SystemIndex systemIndex,
             DiagramComponents components) {
-        for (SystemDependencyDTO.IntegrationFlow flow : system.getIntegrationFlows()) {
-            if (isFlowRelevant(targetSystemCode, system.getSystemCode(), flow.getCounterpartSystemCode())) {
-                processSingleFlow(targetSystemCode, system.getSystemCode(), flow, allDependencies, components);
-            }
+        for (int flow : systemIndex.incidentFlows(systemCode)) {
+            processSingleFlow(systemCode, flows.owner(flow), flows, flow, systemIndex, components);
         }
     }
 
-    /**
-     * Checks if a flow is relevant to the target system.
-     * 
-     * @param targetSystemCode      the target system code
-     * @param currentSystemCode     the current system code
-     * @param counterpartSystemCode the counterpart system code
-     * @return true if flow involves target system
-     */
-    private static boolean isFlowRelevant(String targetSystemCode, String currentSystemCode,
-            String counterpartSystemCode) {
-        return targetSystemCode.equals(currentSystemCode) || targetSystemCode.equals(counterpartSystemCode);
-    }
-
     /**
      * Processes a single integration flow.
      * 
      * @param targetSystemCode  the target system code
      * @param currentSystemCode the current system code
-     * @param flow              the integration flow to process
-     * @param allDependencies   all system dependencies
+     * @param flows             the flow store of the current snapshot
+     * @param flow              the index of the integration flow to process
+     * @param systemIndex       the system index of the current snapshot
      * @param components        diagram components to populate
      */
     private void processSingleFlow(String targetSystemCode,
             String currentSystemCode,
-            SystemDependencyDTO.IntegrationFlow flow,
-            List<SystemDependencyDTO> allDependencies,
+            FlowStore flows,
+            int flow,
+            SystemIndex systemIndex,
             DiagramComponents components) {
         FlowDirection flowDirection = determineFlowDirection(targetSystemCode, currentSystemCode,
-                flow.getCounterpartSystemCode(), flow.getCounterpartSystemRole());
+                flows.counterpart(flow), flows.role(flow));
 
-        String linkId = createLinkIdentifier(currentSystemCode, flowDirection, flow.getIntegrationMethod());
-        if (components.processedLinks().contains(linkId)) {
+        // Every drawn flow has a first hop, so its key tells whether the flow was seen before
+        FlowLinkKey linkKey = new FlowLinkKey(currentSystemCode, flowDirection.producer(), flowDirection.consumer(),
+                flows.method(flow), 0);
+        if (components.builder().containsLink(linkKey)) {
             return;
         }
-        components.processedLinks().add(linkId);
 
-        addSystemNodeIfNeeded(components.nodes(), flowDirection.producer(),
-                flowDirection.producerSystemCode(), targetSystemCode, allDependencies);
-        addSystemNodeIfNeeded(components.nodes(), flowDirection.consumer(),
-                flowDirection.consumerSystemCode(), targetSystemCode, allDependencies);
+        addSystemNodeIfNeeded(components.builder(), flowDirection.producer(),
+                flowDirection.producerSystemCode(), targetSystemCode, systemIndex);
+        addSystemNodeIfNeeded(components.builder(), flowDirection.consumer(),
+                flowDirection.consumerSystemCode(), targetSystemCode, systemIndex);
 
-        processFlow(flow, flowDirection, targetSystemCode, components.middleware(),
-                components.nodes(), components.links());
+        processFlow(flows, flow, flowDirection, linkKey, targetSystemCode, components.middleware(),
+                components.builder());
     }
 
     /**
      * Builds metadata for the diagram.
      * 
-     * @param systemCode    the system code
-     * @param primarySystem the primary system data
-     * @param nodes         the diagram nodes
+     * @param systemCode  the system code
+     * @param systemIndex the system index of the current snapshot
+     * @param nodes       the diagram nodes
+     * @param snapshot    the snapshot the diagram was built from
      * @return the metadata
      */
     private CommonDiagramDTO.ExtendedMetadataDTO buildMetadata(String systemCode,
-            SystemDependencyDTO primarySystem,
-            List<CommonDiagramDTO.NodeDTO> nodes) {
+            SystemIndex systemIndex,
+            List<CommonDiagramDTO.NodeDTO> nodes,
+            DependencySnapshot snapshot) {
         CommonDiagramDTO.ExtendedMetadataDTO metadata = new CommonDiagramDTO.ExtendedMetadataDTO();
         metadata.setCode(systemCode);
-        metadata.setReview(primarySystem.getSolutionOverview().getSolutionDetails().getSolutionReviewCode());
+        metadata.setReview(systemIndex.reviewCode(systemCode));
         metadata.setIntegrationMiddleware(extractMiddlewareList(nodes));
         metadata.setGeneratedDate(LocalDate.now());
+        metadata.setSnapshotVersion(snapshot.getVersion());
+        metadata.setSnapshotFetchedAt(snapshot.getFetchedAt());
         return metadata;
     }
 
@@ -1250,17 +1373,18 @@ public class DiagramService {
     }
 
     /**
-     * Assembles the final diagram from components and metadata.
+     * Assembles the final diagram from its nodes, links and metadata.
      * 
-     * @param components the diagram components
-     * @param metadata   the diagram metadata
+     * @param nodes    the diagram nodes
+     * @param links    the diagram links
+     * @param metadata the diagram metadata
      * @return the complete diagram
      */
-    private static SpecificSystemDependenciesDiagramDTO assembleDiagram(DiagramComponents components,
-            CommonDiagramDTO.ExtendedMetadataDTO metadata) {
+    private static SpecificSystemDependenciesDiagramDTO assembleDiagram(List<CommonDiagramDTO.NodeDTO> nodes,
+            List<CommonDiagramDTO.DetailedLinkDTO> links, CommonDiagramDTO.ExtendedMetadataDTO metadata) {
         SpecificSystemDependenciesDiagramDTO diagram = new SpecificSystemDependenciesDiagramDTO();
-        diagram.setNodes(components.nodes());
-        diagram.setLinks(components.links());
+        diagram.setNodes(nodes);
+        diagram.setLinks(links);
         diagram.setMetadata(metadata);
         return diagram;
     }
@@ -1319,49 +1443,6 @@ public class DiagramService {
         }
     }
 
-    /**
-     * Creates a unique link identifier.
-     */
-    private String createLinkIdentifier(String currentSystemCode, FlowDirection flowDirection,
-            String integrationMethod) {
-        return currentSystemCode + ":" + flowDirection.producer() + "->" + flowDirection.consumer() + ":"
-                + integrationMethod;
-    }
-
-    /**
-     * Creates a unique identifier for path diagram links to enable proper deduplication.
-     * Only links with identical source, target, pattern, frequency, middleware, and role are considered duplicates.
-     * 
-     * @param source       the source system
-     * @param target       the target system
-     * @param originalFlow the original integration flow containing link properties
-     * @return unique identifier for the link
-     */
-    private String createPathLinkIdentifier(String source, String target, SystemDependencyDTO.IntegrationFlow originalFlow) {
-        String pattern = originalFlow.getIntegrationMethod();
-        String frequency = originalFlow.getFrequency();
-        String middleware = originalFlow.getMiddleware();
-        String role = originalFlow.getCounterpartSystemRole();
-        
-        // Create identifier that includes all distinguishing properties
-        // Use null-safe strings to handle null values consistently
-        return String.format("%s->%s:%s:%s:%s:%s", 
-                source, 
-                target, 
-                pattern != null ? pattern : "null",
-                frequency != null ? frequency : "null", 
-                middleware != null ? middleware : "null",
-                role != null ? role : "null");
-    }
-
-    /**
-     * Checks if middleware is valid (not null, not empty, not "NONE").
-     */
-    private boolean hasValidMiddleware(String middleware) {
-        return middleware != null && !middleware.trim().isEmpty()
-                && !NONE_MIDDLEWARE.equalsIgnoreCase(middleware.trim());
-    }
-
     /**
      * Determines the middleware node ID based on flow direction.
      */
@@ -1378,18 +1459,13 @@ public class DiagramService {
     /**
      * Adds a middleware node if it doesn't already exist.
      * 
-     * @param nodes            the nodes list to add to
+     * @param builder          the diagram builder to add to
      * @param middlewareNodeId the middleware node ID
      * @param middlewareName   the middleware name
      */
-    private void addMiddlewareNodeIfNeeded(List<CommonDiagramDTO.NodeDTO> nodes,
+    private void addMiddlewareNodeIfNeeded(DiagramBuilder<?, ?> builder,
             String middlewareNodeId, String middlewareName) {
-        if (nodeExists(nodes, middlewareNodeId)) {
-            return;
-        }
-
-        CommonDiagramDTO.NodeDTO middlewareNode = createMiddlewareNode(middlewareNodeId, middlewareName);
-        nodes.add(middlewareNode);
+        builder.addNodeIfAbsent(middlewareNodeId, id -> createMiddlewareNode(id, middlewareName));
     }
 
     /**
@@ -1412,12 +1488,12 @@ public class DiagramService {
      * Creates a link DTO.
      */
     private CommonDiagramDTO.DetailedLinkDTO createLink(String source, String target,
-            SystemDependencyDTO.IntegrationFlow flow, String role) {
+            FlowStore flows, int flow, String role) {
         CommonDiagramDTO.DetailedLinkDTO link = new CommonDiagramDTO.DetailedLinkDTO();
         link.setSource(source);
         link.setTarget(target);
-        link.setPattern(flow.getIntegrationMethod());
-        link.setFrequency(flow.getFrequency());
+        link.setPattern(flows.method(flow));
+        link.setFrequency(flows.frequency(flow));
         link.setRole(role);
         return link;
     }
@@ -1426,47 +1502,21 @@ public class DiagramService {
      * Adds a system node if it doesn't already exist and it's not the primary
      * system.
      * 
-     * @param nodes             the nodes list to add to
+     * @param builder           the diagram builder to add to
      * @param nodeId            the ID of the node to add
      * @param systemCode        the system code
      * @param primarySystemCode the primary system code
-     * @param allDependencies   all system dependencies
+     * @param systemIndex       the system index of the current snapshot
      */
-    private void addSystemNodeIfNeeded(List<CommonDiagramDTO.NodeDTO> nodes, String nodeId,
+    private void addSystemNodeIfNeeded(DiagramBuilder<?, ?> builder, String nodeId,
             String systemCode, String primarySystemCode,
-            List<SystemDependencyDTO> allDependencies) {
-        if (systemCode.equals(primarySystemCode) || nodeExists(nodes, nodeId)) {
+            SystemIndex systemIndex) {
+        if (systemCode.equals(primarySystemCode)) {
             return;
         }
 
-        SystemDependencyDTO systemData = findSystemData(systemCode, allDependencies);
-        CommonDiagramDTO.NodeDTO node = createSystemNode(nodeId, systemCode, systemData, allDependencies);
-        nodes.add(node);
-    }
-
-    /**
-     * Checks if a node with the given ID already exists.
-     * 
-     * @param nodes  the nodes list
-     * @param nodeId the node ID to check
-     * @return true if node exists
-     */
-    private static boolean nodeExists(List<CommonDiagramDTO.NodeDTO> nodes, String nodeId) {
-        return nodes.stream().anyMatch(node -> nodeId.equals(node.getId()));
-    }
-
-    /**
-     * Finds system data by system code.
-     * 
-     * @param systemCode      the system code
-     * @param allDependencies all system dependencies
-     * @return the system data or null if not found
-     */
-    private static SystemDependencyDTO findSystemData(String systemCode, List<SystemDependencyDTO> allDependencies) {
-        return allDependencies.stream()
-                .filter(s -> systemCode.equals(s.getSystemCode()))
-                .findFirst()
-                .orElse(null);
+        builder.addNodeIfAbsent(nodeId,
+                id -> createSystemNode(id, systemCode, systemIndex.system(systemCode), systemIndex));
     }
 
     /**
@@ -1474,18 +1524,18 @@ public class DiagramService {
      * 
      * @param nodeId          the node ID
      * @param systemCode      the system code
-     * @param systemData      the system data (may be null)
-     * @param allDependencies all system dependencies
+     * @param systemData  the system data (may be null)
+     * @param systemIndex the system index of the current snapshot
      * @return the created node
      */
     private CommonDiagramDTO.NodeDTO createSystemNode(String nodeId, String systemCode,
             SystemDependencyDTO systemData,
-            List<SystemDependencyDTO> allDependencies) {
+            SystemIndex systemIndex) {
         CommonDiagramDTO.NodeDTO node = new CommonDiagramDTO.NodeDTO();
         node.setId(nodeId);
         node.setName(systemData != null ? systemData.getSolutionOverview().getSolutionDetails().getSolutionName()
                 : systemCode);
-        node.setType(determineSystemType(systemCode, allDependencies));
+        node.setType(determineSystemType(systemCode, systemIndex));
         node.setCriticality(MAJOR_CRITICALITY);
         return node;
     }
@@ -1493,13 +1543,13 @@ public class DiagramService {
     /**
      * Processes a flow, handling both middleware and direct connections.
      */
-    private void processFlow(SystemDependencyDTO.IntegrationFlow flow, FlowDirection flowDirection,
-            String primarySystemCode, Set<String> middleware,
-            List<CommonDiagramDTO.NodeDTO> nodes, List<CommonDiagramDTO.DetailedLinkDTO> links) {
+    private void processFlow(FlowStore flows, int flow, FlowDirection flowDirection,
+            FlowLinkKey linkKey, String primarySystemCode, Set<String> middleware,
+            DiagramBuilder<FlowLinkKey, CommonDiagramDTO.DetailedLinkDTO> builder) {
 
         // Handle middleware
-        if (hasValidMiddleware(flow.getMiddleware())) {
-            String middlewareName = flow.getMiddleware();
+        if (flows.hasValidMiddleware(flow)) {
+            String middlewareName = flows.middleware(flow);
             middleware.add(middlewareName);
 
             // Determine which middleware node we need based on the flow direction
@@ -1507,30 +1557,30 @@ public class DiagramService {
                     primarySystemCode);
 
             // Add the required middleware node
-            addMiddlewareNodeIfNeeded(nodes, middlewareNodeId, middlewareName);
+            addMiddlewareNodeIfNeeded(builder, middlewareNodeId, middlewareName);
 
             // Create middleware links for each flow
-            links.add(createLink(flowDirection.producer(), middlewareNodeId, flow, PRODUCER_ROLE));
-            links.add(createLink(middlewareNodeId, flowDirection.consumer(), flow, CONSUMER_ROLE));
+            builder.addLinkIfAbsent(linkKey,
+                    key -> createLink(flowDirection.producer(), middlewareNodeId, flows, flow, PRODUCER_ROLE));
+            builder.addLinkIfAbsent(linkKey.secondHop(),
+                    key -> createLink(middlewareNodeId, flowDirection.consumer(), flows, flow, CONSUMER_ROLE));
 
         } else {
             // Direct connection without middleware
-            links.add(createLink(flowDirection.producer(), flowDirection.consumer(), flow,
-                    flow.getCounterpartSystemRole()));
+            builder.addLinkIfAbsent(linkKey, key -> createLink(flowDirection.producer(), flowDirection.consumer(),
+                    flows, flow, flows.role(flow)));
         }
     }
 
     /**
      * Determines system type based on data availability.
      * 
-     * @param systemCode      system to check
-     * @param allDependencies all known systems
+     * @param systemCode  system to check
+     * @param systemIndex the system index of the current snapshot
      * @return "IncomeSystem" if system exists in our data, "External" otherwise
      */
-    private String determineSystemType(String systemCode, List<SystemDependencyDTO> allDependencies) {
-        boolean existsInOurData = allDependencies.stream()
-                .anyMatch(system -> system.getSystemCode().equals(systemCode));
-        return existsInOurData ? INCOME_SYSTEM_TYPE : EXTERNAL_SYSTEM_TYPE;
+    private String determineSystemType(String systemCode, SystemIndex systemIndex) {
+        return systemIndex.contains(systemCode) ? INCOME_SYSTEM_TYPE : EXTERNAL_SYSTEM_TYPE;
     }
 
 
@@ -1538,39 +1588,48 @@ public class DiagramService {
      * 
      */
     public OverallSystemDependenciesDiagramDTO generateAllSystemDependenciesDiagrams() {
+        return generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST);
+    }
+
+    /**
+     * Generates the overall diagram of every system from the selected snapshot.
+     *
+     * @param selector the snapshot to read
+     * @return diagram with one node per system and one link per connected system pair
+     * @throws IllegalArgumentException if the selected snapshot is not retained
+     */
+    public OverallSystemDependenciesDiagramDTO generateAllSystemDependenciesDiagrams(SnapshotSelector selector) {
         log.info("Generating diagrams for all systems");
         
-        List<SystemDependencyDTO> allDependencies = getSystemDependencies();
-        OverallSystemDependenciesDiagramDTO results = extractUniqueLinksAndNodes(allDependencies);
+        DependencySnapshot snapshot = snapshotHolder.select(selector);
+        OverallSystemDependenciesDiagramDTO results = extractUniqueLinksAndNodes(snapshot);
         CommonDiagramDTO.BasicMetadataDTO metadata = new CommonDiagramDTO.BasicMetadataDTO();
         metadata.setGeneratedDate(LocalDate.now());
+        metadata.setSnapshotVersion(snapshot.getVersion());
+        metadata.setSnapshotFetchedAt(snapshot.getFetchedAt());
         results.setMetadata(metadata);
         return results;
     }
 
-    private OverallSystemDependenciesDiagramDTO extractUniqueLinksAndNodes(List<SystemDependencyDTO> allDependencies) {
-        List<CommonDiagramDTO.SimpleLinkDTO> uniqueLinks = new ArrayList<>();
-        List<CommonDiagramDTO.NodeDTO> uniqueNodes = new ArrayList<>();
-        Map<String, Integer> linkIdentifiers = new HashMap<>();
-        Set<String> nodeIdentifiers = new HashSet<>();
+    private OverallSystemDependenciesDiagramDTO extractUniqueLinksAndNodes(DependencySnapshot snapshot) {
+        DiagramBuilder<SystemPairKey, CommonDiagramDTO.SimpleLinkDTO> builder = new DiagramBuilder<>();
 
-        processSystemDependenciesForOverallDiagram(allDependencies, uniqueLinks, uniqueNodes, linkIdentifiers, nodeIdentifiers);
-        updateLinkCounts(uniqueLinks, linkIdentifiers);
+        processSystemDependenciesForOverallDiagram(snapshot, builder);
 
-        return createOverallDiagram(uniqueLinks, uniqueNodes);
+        return createOverallDiagram(builder.links(), builder.nodes());
     }
 
     /**
      * Processes all system dependencies to extract unique links and nodes.
      */
-    private void processSystemDependenciesForOverallDiagram(List<SystemDependencyDTO> allDependencies,
-                                                           List<CommonDiagramDTO.SimpleLinkDTO> uniqueLinks,
-                                                           List<CommonDiagramDTO.NodeDTO> uniqueNodes,
-                                                           Map<String, Integer> linkIdentifiers,
-                                                           Set<String> nodeIdentifiers) {
-        for (SystemDependencyDTO system : allDependencies) {
-            if (system.getIntegrationFlows() != null) {
-                processSystemFlowsForOverallDiagram(system, allDependencies, uniqueLinks, uniqueNodes, linkIdentifiers, nodeIdentifiers);
+    private void processSystemDependenciesForOverallDiagram(DependencySnapshot snapshot,
+                                                           DiagramBuilder<SystemPairKey, CommonDiagramDTO.SimpleLinkDTO> builder) {
+        List<SystemDependencyDTO> systems = snapshot.getSystems();
+        for (int i = 0; i < systems.size(); i++) {
+            SystemDependencyDTO system = systems.get(i);
+            if (system != null) {
+                processSystemFlowsForOverallDiagram(system, snapshot.firstFlow(i), snapshot.endFlow(i),
+                        snapshot.getFlows(), snapshot.getSystemIndex(), builder);
             }
         }
     }
@@ -1579,94 +1638,42 @@ public class DiagramService {
      * Processes integration flows for a single system in overall diagram context.
      */
     private void processSystemFlowsForOverallDiagram(SystemDependencyDTO system,
-                                                    List<SystemDependencyDTO> allDependencies,
-                                                    List<CommonDiagramDTO.SimpleLinkDTO> uniqueLinks,
-                                                    List<CommonDiagramDTO.NodeDTO> uniqueNodes,
-                                                    Map<String, Integer> linkIdentifiers,
-                                                    Set<String> nodeIdentifiers) {
-        for (SystemDependencyDTO.IntegrationFlow flow : system.getIntegrationFlows()) {
-            processIntegrationFlow(system, flow, uniqueLinks, linkIdentifiers);
-            addSystemNodeIfNotExists(system, uniqueNodes, nodeIdentifiers);
-            addCounterpartNodeIfNotExists(flow, allDependencies, uniqueNodes, nodeIdentifiers);
+                                                    int firstFlow,
+                                                    int endFlow,
+                                                    FlowStore flows,
+                                                    SystemIndex systemIndex,
+                                                    DiagramBuilder<SystemPairKey, CommonDiagramDTO.SimpleLinkDTO> builder) {
+        for (int flow = firstFlow; flow < endFlow; flow++) {
+            String counterpartCode = flows.counterpart(flow);
+            processIntegrationFlow(system, counterpartCode, builder);
+            builder.addNodeIfAbsent(system.getSystemCode(), id -> createSystemNodeFromDependency(system));
+            builder.addNodeIfAbsent(counterpartCode, id -> createCounterpartNode(id, systemIndex));
         }
     }
 
     /**
      * Processes a single integration flow to handle link creation and counting.
+     * Flows in either direction between the same two systems share one link, which keeps
+     * the direction of the first flow and counts all of them.
      */
     private void processIntegrationFlow(SystemDependencyDTO system,
-                                      SystemDependencyDTO.IntegrationFlow flow,
-                                      List<CommonDiagramDTO.SimpleLinkDTO> uniqueLinks,
-                                      Map<String, Integer> linkIdentifiers) {
-        String linkId = system.getSystemCode() + "-" + flow.getCounterpartSystemCode();
-        String reverseLinkId = flow.getCounterpartSystemCode() + "-" + system.getSystemCode();
-
-        if (!linkExists(linkId, reverseLinkId, linkIdentifiers)) {
-            createNewLink(system, flow, uniqueLinks, linkIdentifiers, linkId);
-        } else {
-            incrementExistingLinkCount(linkId, reverseLinkId, linkIdentifiers);
-        }
-    }
+                                      String target,
+                                      DiagramBuilder<SystemPairKey, CommonDiagramDTO.SimpleLinkDTO> builder) {
+        String source = system.getSystemCode();
 
-    /**
-     * Checks if a link already exists in either direction.
-     */
-    private boolean linkExists(String linkId, String reverseLinkId, Map<String, Integer> linkIdentifiers) {
-        return linkIdentifiers.containsKey(linkId) || linkIdentifiers.containsKey(reverseLinkId);
+        CommonDiagramDTO.SimpleLinkDTO link = builder.addLinkIfAbsent(SystemPairKey.of(source, target),
+                key -> createNewLink(source, target));
+        link.setCount(link.getCount() + 1);
     }
 
     /**
-     * Creates a new link and adds it to the collection.
+     * Creates a new link that has not been counted yet.
      */
-    private void createNewLink(SystemDependencyDTO system,
-                             SystemDependencyDTO.IntegrationFlow flow,
-                             List<CommonDiagramDTO.SimpleLinkDTO> uniqueLinks,
-                             Map<String, Integer> linkIdentifiers,
-                             String linkId) {
-        linkIdentifiers.put(linkId, 1);
+    private CommonDiagramDTO.SimpleLinkDTO createNewLink(String source, String target) {
         CommonDiagramDTO.SimpleLinkDTO link = new CommonDiagramDTO.SimpleLinkDTO();
-        link.setSource(system.getSystemCode());
-        link.setTarget(flow.getCounterpartSystemCode());
-        uniqueLinks.add(link);
-    }
-
-    /**
-     * Increments the count for an existing link.
-     */
-    private void incrementExistingLinkCount(String linkId, String reverseLinkId, Map<String, Integer> linkIdentifiers) {
-        if (linkIdentifiers.containsKey(linkId)) {
-            linkIdentifiers.put(linkId, linkIdentifiers.get(linkId) + 1);
-        } else {
-            linkIdentifiers.put(reverseLinkId, linkIdentifiers.get(reverseLinkId) + 1);
-        }
-    }
-
-    /**
-     * Adds a system node if it doesn't already exist.
-     */
-    private void addSystemNodeIfNotExists(SystemDependencyDTO system,
-                                        List<CommonDiagramDTO.NodeDTO> uniqueNodes,
-                                        Set<String> nodeIdentifiers) {
-        if (!nodeIdentifiers.contains(system.getSystemCode())) {
-            nodeIdentifiers.add(system.getSystemCode());
-            CommonDiagramDTO.NodeDTO node = createSystemNodeFromDependency(system);
-            uniqueNodes.add(node);
-        }
-    }
-
-    /**
-     * Adds a counterpart system node if it doesn't already exist.
-     */
-    private void addCounterpartNodeIfNotExists(SystemDependencyDTO.IntegrationFlow flow,
-                                             List<SystemDependencyDTO> allDependencies,
-                                             List<CommonDiagramDTO.NodeDTO> uniqueNodes,
-                                             Set<String> nodeIdentifiers) {
-        String counterpartCode = flow.getCounterpartSystemCode();
-        if (!nodeIdentifiers.contains(counterpartCode)) {
-            nodeIdentifiers.add(counterpartCode);
-            CommonDiagramDTO.NodeDTO node = createCounterpartNode(counterpartCode, allDependencies);
-            uniqueNodes.add(node);
-        }
+        link.setSource(source);
+        link.setTarget(target);
+        return link;
     }
 
     /**
@@ -1683,25 +1690,16 @@ public class DiagramService {
 
     /**
      * Creates a counterpart system node.
-     * Looks up the system name from allDependencies if the system exists in our database.
+     * Looks up the system name in the system index if the system exists in our database.
      */
-    private CommonDiagramDTO.NodeDTO createCounterpartNode(String counterpartCode, List<SystemDependencyDTO> allDependencies) {
+    private CommonDiagramDTO.NodeDTO createCounterpartNode(String counterpartCode, SystemIndex systemIndex) {
         CommonDiagramDTO.NodeDTO node = new CommonDiagramDTO.NodeDTO();
         node.setId(counterpartCode);
         
-        // Try to find the system in our dependencies to get the proper name
-        String systemName = counterpartCode; // Default to counterpartCode
+        // Use the proper name if the system is in our dependencies, otherwise the counterpart code
+        String systemName = counterpartCode;
         if (counterpartCode != null && !counterpartCode.isEmpty()) {
-            systemName = allDependencies.stream()
-                    .filter(dep -> dep.getSystemCode() != null && counterpartCode.equals(dep.getSystemCode()))
-                    .map(dep -> dep.getSolutionOverview())
-                    .filter(Objects::nonNull)
-                    .map(overview -> overview.getSolutionDetails())
-                    .filter(Objects::nonNull)
-                    .map(details -> details.getSolutionName())
-                    .filter(Objects::nonNull)
-                    .findFirst()
-                    .orElse(counterpartCode); // Use counterpartCode if system not found
+            systemName = systemIndex.nameOrCode(counterpartCode);
         }
         
         node.setName(systemName);
@@ -1710,25 +1708,6 @@ public class DiagramService {
         return node;
     }
 
-    /**
-     * Updates link counts based on the link identifiers map.
-     */
-    private void updateLinkCounts(List<CommonDiagramDTO.SimpleLinkDTO> uniqueLinks,
-                                Map<String, Integer> linkIdentifiers) {
-        for (CommonDiagramDTO.SimpleLinkDTO link : uniqueLinks) {
-            String linkId = link.getSource() + "-" + link.getTarget();
-            String reverseLinkId = link.getTarget() + "-" + link.getSource();
-            
-            if (linkIdentifiers.containsKey(linkId)) {
-                link.setCount(linkIdentifiers.get(linkId));
-            } else if (linkIdentifiers.containsKey(reverseLinkId)) {
-                link.setCount(linkIdentifiers.get(reverseLinkId));
-            } else {
-                link.setCount(1);
-            }
-        }
-    }
-
     /**
      * Creates the final overall diagram with links and nodes.
      */
@@ -1739,24 +1718,4 @@ public class DiagramService {
         diagram.setNodes(uniqueNodes);
         return diagram;
     }
-
-    /**
-     * Finds system name from dependencies or returns nodeId if not found.
-     * 
-     * @param nodeId          the node ID to find name for
-     * @param allDependencies all system dependencies
-     * @return system name or nodeId as fallback
-     */
-    private String findSystemNameFromDependencies(String nodeId, List<SystemDependencyDTO> allDependencies) {
-        return allDependencies.stream()
-                .filter(dep -> dep.getSystemCode().equals(nodeId))
-                .map(dep -> dep.getSolutionOverview())
-                .filter(Objects::nonNull)
-                .map(overview -> overview.getSolutionDetails())
-                .filter(Objects::nonNull)
-                .map(details -> details.getSolutionName())
-                .filter(Objects::nonNull)
-                .findFirst()
-                .orElse(nodeId);
-    }
 }
\ No newline at end of file
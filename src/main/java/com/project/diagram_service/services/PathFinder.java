@@ -0,0 +1,187 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.snapshot.IntegrationGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Enumerates the simple paths between two nodes of an {@link IntegrationGraph}.
+ *
+ * The search is a depth-first search with an explicit stack, so long chains cannot
+ * overflow the thread stack. A stack frame is one slot in each of three int arrays (the
+ * node, the next edge to try from it and the edge taken out of it), the visited nodes are
+ * one bitset that is cleared again on backtracking, and a path is kept as the edge ids it
+ * takes from the start node. Nothing is allocated per step; each path found costs one int
+ * array, and names, middleware and flows are only looked up when the response is built.
+ *
+ * A reverse breadth-first search from the target first gives every node's distance to it.
+ * The DFS then never enters a node that cannot reach the target, or one whose shortest
+ * remaining route would exceed the maximum depth, so it only walks branches that still
+ * lead to a path.
+ *
+ * Paths are handed to a consumer as they are found, so a caller can stream them instead of
+ * holding them all; an exception thrown by the consumer ends the search.
+ */
+final class PathFinder {
+
+    // Number of DFS steps between two checks of the time budget
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /**
+     * The paths found by one search, and the limit that cut it short, if any.
+     *
+     * @param start       the start node id
+     * @param paths       each path as the ids of the edges it takes from the start node, in
+     *                    the order the DFS found them
+     * @param truncatedBy the limit that cut the search short, or null if it completed
+     */
+    record Result(int start, List<int[]> paths, PathSearchLimits.Limit truncatedBy) {
+    }
+
+    /**
+     * A search over the integration graph that returns paths as edge ids, so diagrams are
+     * built the same way whichever search found them.
+     */
+    @FunctionalInterface
+    interface Search {
+        Result find(IntegrationGraph graph, int start, int target, PathSearchLimits limits);
+    }
+
+    private final IntegrationGraph graph;
+    private final int start;
+    private final int target;
+    private final int maxDepth;
+    private final int maxPaths;
+    private final long deadline;
+    private final int[] distances;
+    private final BitSet visited;
+    private final int[] nodes;
+    private final int[] cursors;
+    private final int[] edges;
+    private final Consumer<int[]> sink;
+    private int found;
+    private PathSearchLimits.Limit stoppedBy;
+    private boolean depthLimited;
+    private long steps;
+
+    private PathFinder(IntegrationGraph graph, int start, int target, PathSearchLimits limits,
+                       Consumer<int[]> sink) {
+        this.graph = graph;
+        this.start = start;
+        this.target = target;
+        this.maxDepth = limits.maxDepth();
+        this.maxPaths = limits.maxPaths();
+        this.deadline = System.nanoTime() + limits.timeout().toNanos();
+        this.distances = graph.distancesTo(target);
+        this.visited = new BitSet(graph.nodeCount());
+        int frames = Math.min(maxDepth, graph.nodeCount());
+        this.nodes = new int[frames];
+        this.cursors = new int[frames];
+        this.edges = new int[frames];
+        this.sink = sink;
+    }
+
+    /**
+     * Finds the paths from one node to another, stopping once more than the maximum number
+     * of paths exist or the time budget runs out. A node skipped for depth alone means longer
+     * paths may exist, and is reported as {@link PathSearchLimits.Limit#MAX_DEPTH}.
+     *
+     * @param graph  the graph to search
+     * @param start  the start node id
+     * @param target the target node id, different from the start
+     * @param limits the limits, with every value set
+     * @return the paths found
+     */
+    static Result find(IntegrationGraph graph, int start, int target, PathSearchLimits limits) {
+        List<int[]> paths = new ArrayList<>();
+        PathSearchLimits.Limit truncatedBy = stream(graph, start, target, limits, paths::add);
+        return new Result(start, paths, truncatedBy);
+    }
+
+    /**
+     * Finds the paths from one node to another like {@link #find}, handing each path to a
+     * consumer as soon as it is found instead of collecting them.
+     *
+     * @param graph  the graph to search
+     * @param start  the start node id
+     * @param target the target node id, different from the start
+     * @param limits the limits, with every value set
+     * @param sink   receives the edge ids of each path; the array is not reused
+     * @return the limit that cut the search short, or null if it completed
+     */
+    static PathSearchLimits.Limit stream(IntegrationGraph graph, int start, int target, PathSearchLimits limits,
+                                         Consumer<int[]> sink) {
+        PathFinder finder = new PathFinder(graph, start, target, limits, sink);
+        int distance = finder.distances[start];
+        if (distance < 0) {
+            return null;
+        }
+        if (distance > finder.maxDepth) {
+            return PathSearchLimits.Limit.MAX_DEPTH;
+        }
+        finder.search();
+
+        if (finder.stoppedBy == null && finder.depthLimited) {
+            return PathSearchLimits.Limit.MAX_DEPTH;
+        }
+        return finder.stoppedBy;
+    }
+
+    private void search() {
+        int depth = 0;
+        push(depth, start);
+
+        while (depth >= 0 && !stopped()) {
+            int node = nodes[depth];
+            int edge = cursors[depth];
+            if (edge == graph.endEdge(node)) {
+                visited.clear(node);
+                depth--;
+                continue;
+            }
+            cursors[depth] = edge + 1;
+
+            int next = graph.edgeTarget(edge);
+            int remaining = distances[next];
+            if (remaining < 0 || visited.get(next)) {
+                continue;
+            }
+            if (depth + 1 + remaining > maxDepth) {
+                depthLimited = true;
+                continue;
+            }
+
+            edges[depth] = edge;
+            if (next == target) {
+                if (found == maxPaths) {
+                    stoppedBy = PathSearchLimits.Limit.MAX_PATHS;
+                } else {
+                    found++;
+                    sink.accept(Arrays.copyOf(edges, depth + 1));
+                }
+            } else {
+                push(++depth, next);
+            }
+        }
+    }
+
+    private void push(int depth, int node) {
+        nodes[depth] = node;
+        cursors[depth] = graph.firstEdge(node);
+        visited.set(node);
+    }
+
+    /**
+     * Checks whether a limit has stopped the search, checking the time budget every
+     * {@link #DEADLINE_CHECK_INTERVAL} steps.
+     */
+    private boolean stopped() {
+        if (stoppedBy == null && ++steps % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+            stoppedBy = PathSearchLimits.Limit.TIMEOUT;
+        }
+        return stoppedBy != null;
+    }
+}
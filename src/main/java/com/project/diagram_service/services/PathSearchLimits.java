@@ -0,0 +1,58 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.config.PathSearchProperties;
+import java.time.Duration;
+
+/**
+ * Limits a caller asks for on one path search.
+ *
+ * Every limit is optional. A missing limit, or one above the configured ceiling, is
+ * replaced by the ceiling from {@link PathSearchProperties}, so callers can only narrow a
+ * search.
+ *
+ * @param maxDepth the most hops a returned path may have, or null
+ * @param maxPaths the most paths to return, or null
+ * @param timeout  the time budget of the search, or null
+ */
+public record PathSearchLimits(Integer maxDepth, Integer maxPaths, Duration timeout) {
+
+    /** Searches up to the configured ceilings. */
+    public static final PathSearchLimits NONE = new PathSearchLimits(null, null, null);
+
+    /**
+     * A limit that cut a search short.
+     */
+    public enum Limit {
+        /** Some branches were not followed past the maximum depth. */
+        MAX_DEPTH,
+        /** More paths exist than the maximum number returned. */
+        MAX_PATHS,
+        /** The time budget ran out before the search finished. */
+        TIMEOUT
+    }
+
+    public PathSearchLimits {
+        if (maxDepth != null && maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+        if (maxPaths != null && maxPaths < 1) {
+            throw new IllegalArgumentException("maxPaths must be at least 1");
+        }
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+    }
+
+    /**
+     * Applies the server-side ceilings.
+     *
+     * @param ceilings the configured ceilings
+     * @return limits with every value set and none above its ceiling
+     */
+    PathSearchLimits within(PathSearchProperties ceilings) {
+        return new PathSearchLimits(
+                maxDepth != null ? Math.min(maxDepth, ceilings.maxDepth()) : ceilings.maxDepth(),
+                maxPaths != null ? Math.min(maxPaths, ceilings.maxPaths()) : ceilings.maxPaths(),
+                timeout != null && timeout.compareTo(ceilings.timeout()) < 0 ? timeout : ceilings.timeout());
+    }
+}
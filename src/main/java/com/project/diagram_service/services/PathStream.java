@@ -0,0 +1,22 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.dto.PathStreamDTO;
+import java.util.function.Consumer;
+
+/**
+ * A path search whose systems and snapshot have been checked, ready to run while its
+ * response is written.
+ */
+@FunctionalInterface
+public interface PathStream {
+
+    /**
+     * Runs the search, handing each path to the consumer as soon as it is found. An
+     * exception thrown by the consumer, such as a failed write to a client that went away,
+     * stops the search and is rethrown.
+     *
+     * @param paths receives each path
+     * @return the summary of the search
+     */
+    PathStreamDTO.SummaryLineDTO run(Consumer<PathStreamDTO.PathLineDTO> paths);
+}
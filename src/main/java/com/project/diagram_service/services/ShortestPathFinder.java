@@ -0,0 +1,210 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.snapshot.IntegrationGraph;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Finds the k shortest simple paths between two nodes of an {@link IntegrationGraph}, by
+ * hop count, with Yen's algorithm.
+ *
+ * The shortest path comes from a breadth-first search. Each further path is the shortest
+ * candidate that deviates from an accepted path at one of its nodes: for every node of the
+ * last accepted path, the search is repeated from that node with the nodes before it
+ * blocked and the edges the accepted paths take out of it banned. The work therefore grows
+ * with k and the path length rather than with the number of paths between the two nodes,
+ * which is what the all-paths {@link PathFinder} enumerates.
+ *
+ * Paths are returned shortest first, ties in the order they were found, as edge ids like
+ * {@link PathFinder} returns them. The maximum number of paths of the limits is k; paths
+ * longer than the maximum depth are not returned.
+ */
+final class ShortestPathFinder {
+
+    /**
+     * A path that deviates from an accepted one, in the order it was found.
+     */
+    private record Candidate(int[] edges, long order) {
+    }
+
+    private final IntegrationGraph graph;
+    private final int start;
+    private final int target;
+    private final int k;
+    private final int maxDepth;
+    private final long deadline;
+    private final int[] distances;
+    // Breadth-first search state, reused by every search; a node is reached when its mark is the current one
+    private final int[] marks;
+    private final int[] hops;
+    private final int[] parentEdges;
+    private final int[] parentNodes;
+    private final int[] queue;
+    private final BitSet blockedNodes;
+    private final BitSet bannedEdges;
+    private final List<int[]> paths = new ArrayList<>();
+    private final PriorityQueue<Candidate> candidates = new PriorityQueue<>(
+            Comparator.comparingInt((Candidate candidate) -> candidate.edges().length)
+                    .thenComparingLong(Candidate::order));
+    private final Set<IntBuffer> found = new HashSet<>();
+    private int mark;
+    private long order;
+    private boolean depthLimited;
+    private boolean timedOut;
+
+    private ShortestPathFinder(IntegrationGraph graph, int start, int target, PathSearchLimits limits) {
+        this.graph = graph;
+        this.start = start;
+        this.target = target;
+        this.k = limits.maxPaths();
+        this.maxDepth = limits.maxDepth();
+        this.deadline = System.nanoTime() + limits.timeout().toNanos();
+        this.distances = graph.distancesTo(target);
+        this.marks = new int[graph.nodeCount()];
+        this.hops = new int[graph.nodeCount()];
+        this.parentEdges = new int[graph.nodeCount()];
+        this.parentNodes = new int[graph.nodeCount()];
+        this.queue = new int[graph.nodeCount()];
+        this.blockedNodes = new BitSet(graph.nodeCount());
+        this.bannedEdges = new BitSet(graph.edgeCount());
+    }
+
+    /**
+     * Finds the k shortest paths from one node to another. The result is truncated by
+     * {@link PathSearchLimits.Limit#MAX_PATHS} when more than k paths exist, and by
+     * {@link PathSearchLimits.Limit#MAX_DEPTH} when fewer were found but longer ones may exist.
+     *
+     * @param graph  the graph to search
+     * @param start  the start node id
+     * @param target the target node id, different from the start
+     * @param limits the limits, with every value set; the maximum number of paths is k
+     * @return the paths found, shortest first
+     */
+    static PathFinder.Result find(IntegrationGraph graph, int start, int target, PathSearchLimits limits) {
+        ShortestPathFinder finder = new ShortestPathFinder(graph, start, target, limits);
+        int distance = finder.distances[start];
+        if (distance < 0) {
+            return new PathFinder.Result(start, List.of(), null);
+        }
+        if (distance > finder.maxDepth) {
+            return new PathFinder.Result(start, List.of(), PathSearchLimits.Limit.MAX_DEPTH);
+        }
+        return new PathFinder.Result(start, finder.paths, finder.search());
+    }
+
+    /**
+     * Accepts paths until k are found or no candidate is left.
+     *
+     * @return the limit that cut the search short, or null if every path was found
+     */
+    private PathSearchLimits.Limit search() {
+        int[] shortest = shortestPath(start, maxDepth);
+        paths.add(shortest);
+        found.add(IntBuffer.wrap(shortest));
+
+        while (true) {
+            if (paths.size() == k && !candidates.isEmpty()) {
+                return PathSearchLimits.Limit.MAX_PATHS;
+            }
+            addDeviations(paths.get(paths.size() - 1));
+            if (timedOut) {
+                return PathSearchLimits.Limit.TIMEOUT;
+            }
+            if (candidates.isEmpty()) {
+                return depthLimited ? PathSearchLimits.Limit.MAX_DEPTH : null;
+            }
+            if (paths.size() == k) {
+                return PathSearchLimits.Limit.MAX_PATHS;
+            }
+            paths.add(candidates.poll().edges());
+        }
+    }
+
+    /**
+     * Adds the shortest deviation from an accepted path at each of its nodes as a candidate.
+     */
+    private void addDeviations(int[] path) {
+        int spurNode = start;
+        for (int i = 0; i < path.length; i++) {
+            if (System.nanoTime() > deadline) {
+                timedOut = true;
+                break;
+            }
+            bannedEdges.clear();
+            for (int[] accepted : paths) {
+                if (accepted.length > i && Arrays.equals(accepted, 0, i, path, 0, i)) {
+                    bannedEdges.set(accepted[i]);
+                }
+            }
+
+            int[] spur = shortestPath(spurNode, maxDepth - i);
+            if (spur != null) {
+                int[] candidate = Arrays.copyOf(path, i + spur.length);
+                System.arraycopy(spur, 0, candidate, i, spur.length);
+                if (found.add(IntBuffer.wrap(candidate))) {
+                    candidates.add(new Candidate(candidate, order++));
+                }
+            }
+
+            blockedNodes.set(spurNode);
+            spurNode = graph.edgeTarget(path[i]);
+        }
+        blockedNodes.clear();
+    }
+
+    /**
+     * Finds the shortest path from a node to the target with a breadth-first search that
+     * avoids the blocked nodes and banned edges, and skips nodes that cannot reach the
+     * target within the given number of hops.
+     *
+     * @return the edge ids of the path, or null if there is none within {@code maxHops}
+     */
+    private int[] shortestPath(int source, int maxHops) {
+        mark++;
+        marks[source] = mark;
+        hops[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int node = queue[head++];
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                if (marks[next] == mark || distances[next] < 0 || blockedNodes.get(next) || bannedEdges.get(edge)) {
+                    continue;
+                }
+                if (hops[node] + 1 + distances[next] > maxHops) {
+                    depthLimited = true;
+                    continue;
+                }
+                marks[next] = mark;
+                hops[next] = hops[node] + 1;
+                parentEdges[next] = edge;
+                parentNodes[next] = node;
+                if (next == target) {
+                    return trace();
+                }
+                queue[tail++] = next;
+            }
+        }
+        return null;
+    }
+
+    private int[] trace() {
+        int[] edges = new int[hops[target]];
+        int node = target;
+        for (int i = edges.length - 1; i >= 0; i--) {
+            edges[i] = parentEdges[node];
+            node = parentNodes[node];
+        }
+        return edges;
+    }
+}
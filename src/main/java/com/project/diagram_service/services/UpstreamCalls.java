@@ -0,0 +1,116 @@
+package com.project.diagram_service.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs independent core service calls concurrently on virtual threads.
+ *
+ * Calls forked into the same group fail together: as soon as one call throws, every other
+ * call in the group is cancelled and its thread interrupted, so a request never keeps waiting
+ * on a download whose result can no longer be used. Closing the group cancels calls that were
+ * not joined and waits for their threads to finish.
+ *
+ * The interrupt only ends the forked call's wait. {@link com.project.diagram_service.client.CoreServiceClient}
+ * runs each shared request on a thread of its own, so a download that another caller joined
+ * keeps going for that caller and is not counted as a core service failure.
+ */
+final class UpstreamCalls implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Call<?>> calls = new ArrayList<>();
+
+    /**
+     * Starts a call on its own virtual thread.
+     *
+     * @param task the call to run
+     * @return a handle to join the call's result
+     */
+    <T> Call<T> fork(Callable<T> task) {
+        Call<T> call = new Call<>(task);
+        synchronized (calls) {
+            calls.add(call);
+        }
+        executor.execute(call);
+        return call;
+    }
+
+    private void cancelAll() {
+        synchronized (calls) {
+            calls.forEach(call -> call.cancel(true));
+        }
+    }
+
+    private Throwable firstFailure() {
+        synchronized (calls) {
+            for (Call<?> call : calls) {
+                if (call.state() == Future.State.FAILED) {
+                    return call.exceptionNow();
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    /**
+     * A forked call whose failure cancels the rest of its group.
+     */
+    final class Call<T> extends FutureTask<T> {
+
+        private Call(Callable<T> task) {
+            super(task);
+        }
+
+        @Override
+        protected void setException(Throwable failure) {
+            super.setException(failure);
+            cancelAll();
+        }
+
+        /**
+         * Waits for the call and returns its result.
+         *
+         * If this call was cancelled because another call in the group failed, the other
+         * call's exception is rethrown instead, so callers always see the root cause.
+         *
+         * @return the call's result
+         * @throws Exception the exception thrown by the failed call
+         */
+        T join() throws Exception {
+            try {
+                return get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            } catch (CancellationException e) {
+                Throwable failure = firstFailure();
+                if (failure != null) {
+                    throw rethrow(failure);
+                }
+                throw e;
+            }
+        }
+
+        private static Exception rethrow(Throwable failure) {
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            return (Exception) failure;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.client.SystemDependencySink;
+import com.project.diagram_service.dto.CommonSolutionReviewDTO;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable, versioned copy of the system dependency landscape.
+ *
+ * A snapshot is created once per successful fetch from the core service and is
+ * then shared by every diagram request until the next refresh swaps in a newer
+ * instance. The systems are kept without their integration flows, which live in a
+ * column-oriented {@link FlowStore}; the flows of system {@code i} are the store indexes
+ * {@code firstFlow(i)} (inclusive) to {@code endFlow(i)} (exclusive). Their solution
+ * overviews are reduced to the solution name and review code that diagrams read, while the
+ * full overview is kept encoded and decoded by {@link #getSolutionOverview(int)}. The
+ * {@link IntegrationGraph}, {@link SystemIndex} and {@link MiddlewareIndex} derived from
+ * them are built as the upstream response is ingested. Full DTOs are only recreated by
+ * {@link #getDependencies()} for responses that serve them. Callers must treat the
+ * contained data as read-only.
+ *
+ * When the core service reports a landscape version, the snapshot remembers it as its
+ * upstream version so later refreshes can apply only the changes since then.
+ */
+public final class DependencySnapshot {
+
+    private final long version;
+    private final Instant fetchedAt;
+    private final Long upstreamVersion;
+    private final List<SystemDependencyDTO> systems;
+    private final int[] flowOffsets;
+    private final BitSet nullFlowLists;
+    private final byte[][] overviews;
+    private final FlowStore flows;
+    private final IntegrationGraph graph;
+    private final SystemIndex systemIndex;
+    private final MiddlewareIndex middlewareIndex;
+
+    private DependencySnapshot(long version, Instant fetchedAt, DependencySnapshot data) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.upstreamVersion = data.upstreamVersion;
+        this.systems = data.systems;
+        this.flowOffsets = data.flowOffsets;
+        this.nullFlowLists = data.nullFlowLists;
+        this.overviews = data.overviews;
+        this.flows = data.flows;
+        this.graph = data.graph;
+        this.systemIndex = data.systemIndex;
+        this.middlewareIndex = data.middlewareIndex;
+    }
+
+    private DependencySnapshot(long version, Instant fetchedAt, Builder builder) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.upstreamVersion = builder.upstreamVersion;
+        this.systems = Collections.unmodifiableList(builder.systems);
+        this.flowOffsets = builder.flowOffsets.toArray();
+        this.nullFlowLists = builder.nullFlowLists;
+        this.overviews = builder.overviews.toArray(byte[][]::new);
+        this.flows = builder.flows.build();
+        this.graph = IntegrationGraph.of(flows);
+        this.systemIndex = builder.systemIndex.build();
+        this.middlewareIndex = MiddlewareIndex.of(flows);
+    }
+
+    /**
+     * Creates a snapshot from an already materialized list of dependencies.
+     *
+     * @param version      monotonically increasing snapshot version
+     * @param fetchedAt    the instant the data was fetched from the core service
+     * @param dependencies the system dependencies contained in this snapshot
+     * @return the new snapshot
+     */
+    public static DependencySnapshot of(long version, Instant fetchedAt, List<SystemDependencyDTO> dependencies) {
+        Builder builder = new Builder();
+        dependencies.forEach(builder);
+        return builder.build(version, fetchedAt);
+    }
+
+    /**
+     * Returns a copy of this snapshot with the same version and data but a new fetch time,
+     * used when the core service confirmed the data is still current.
+     *
+     * @param fetchedAt the instant the data was revalidated
+     * @return the revalidated snapshot
+     */
+    public DependencySnapshot revalidated(Instant fetchedAt) {
+        return new DependencySnapshot(version, fetchedAt, this);
+    }
+
+    /**
+     * Returns a new snapshot with a batch of changes from the core service applied.
+     *
+     * Upserted systems replace the system with the same code in place, or are appended when
+     * they are new; removed codes are dropped, and a code that is both upserted and removed
+     * ends up removed. The flows of unchanged systems are copied column by column into a
+     * new store that keeps this snapshot's dictionary codes and storage, so only the flows
+     * of changed systems are encoded again, and the graph and system index are derived from
+     * the result. The new store drops the codes no flow uses any more once there are too
+     * many of them, see {@link FlowStore}.
+     *
+     * @param version         monotonically increasing snapshot version
+     * @param fetchedAt       the instant the changes were fetched from the core service
+     * @param upstreamVersion the landscape version the changes bring this snapshot to
+     * @param upserted        systems that were created or updated
+     * @param removedCodes    codes of systems that were deleted
+     * @return the updated snapshot
+     */
+    public DependencySnapshot withChanges(long version, Instant fetchedAt, long upstreamVersion,
+                                          Collection<SystemDependencyDTO> upserted,
+                                          Collection<String> removedCodes) {
+        Set<String> removed = new HashSet<>(removedCodes);
+        Map<String, SystemDependencyDTO> changed = new LinkedHashMap<>();
+        for (SystemDependencyDTO system : upserted) {
+            if (system != null && !removed.contains(system.getSystemCode())) {
+                changed.put(system.getSystemCode(), system);
+            }
+        }
+
+        Builder next = nextBuilder();
+        next.landscapeVersion(upstreamVersion);
+        Set<String> replaced = new HashSet<>();
+        for (int i = 0; i < systems.size(); i++) {
+            SystemDependencyDTO system = systems.get(i);
+            String code = system != null ? system.getSystemCode() : null;
+            SystemDependencyDTO replacement = changed.get(code);
+            if (replacement != null || (code != null && removed.contains(code))) {
+                if (replacement != null && replaced.add(code)) {
+                    next.accept(replacement);
+                }
+            } else {
+                next.copySystem(this, i);
+            }
+        }
+        changed.forEach((code, system) -> {
+            if (!replaced.contains(code)) {
+                next.accept(system);
+            }
+        });
+        return next.build(version, fetchedAt);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Returns the landscape version reported by the core service for this data.
+     *
+     * @return the upstream version, or null if the core service did not report one
+     */
+    public Long getUpstreamVersion() {
+        return upstreamVersion;
+    }
+
+    /**
+     * Recreates the full system dependency DTOs, flows and solution overviews included, in
+     * the order the core service returned them. Every call builds new objects, so this is
+     * meant for responses that serve the dependencies as they are; diagram code reads
+     * {@link #getSystems()} and {@link #getFlows()} instead.
+     *
+     * @return the system dependencies
+     */
+    public List<SystemDependencyDTO> getDependencies() {
+        List<SystemDependencyDTO> dependencies = new ArrayList<>(systems.size());
+        for (int i = 0; i < systems.size(); i++) {
+            dependencies.add(toDto(i));
+        }
+        return Collections.unmodifiableList(dependencies);
+    }
+
+    /**
+     * Returns the systems of the snapshot without their integration flows, each with an
+     * overview that only holds the solution name and review code.
+     *
+     * @return the systems, in the order the core service returned them
+     */
+    public List<SystemDependencyDTO> getSystems() {
+        return systems;
+    }
+
+    public FlowStore getFlows() {
+        return flows;
+    }
+
+    /**
+     * Returns the store index of the first flow of a system.
+     *
+     * @param system the position of the system in {@link #getSystems()}
+     * @return the first flow index, equal to {@link #endFlow(int)} if the system has no flows
+     */
+    public int firstFlow(int system) {
+        return flowOffsets[system];
+    }
+
+    /**
+     * Returns the store index one past the last flow of a system.
+     *
+     * @param system the position of the system in {@link #getSystems()}
+     * @return the exclusive end of the system's flow indexes
+     */
+    public int endFlow(int system) {
+        return flowOffsets[system + 1];
+    }
+
+    /**
+     * Decodes the full solution overview of a system, for views that show more than the
+     * solution name and review code.
+     *
+     * @param system the position of the system in {@link #getSystems()}
+     * @return a new overview, or null if the system has none
+     */
+    public CommonSolutionReviewDTO.SolutionOverview getSolutionOverview(int system) {
+        return SolutionOverviews.decode(overviews[system]);
+    }
+
+    public IntegrationGraph getGraph() {
+        return graph;
+    }
+
+    public SystemIndex getSystemIndex() {
+        return systemIndex;
+    }
+
+    public MiddlewareIndex getMiddlewareIndex() {
+        return middlewareIndex;
+    }
+
+    /**
+     * Returns an empty builder for a snapshot derived from this one, which keeps this
+     * snapshot's dictionary codes and storage so its systems can be copied over with
+     * {@link Builder#copySystem(DependencySnapshot, int)}.
+     *
+     * @return the builder
+     */
+    Builder nextBuilder() {
+        return new Builder(flows.nextBuilder());
+    }
+
+    /**
+     * Checks whether a system holds the same data as a system of another snapshot: the same
+     * code, solution overview, and flows in the same order.
+     *
+     * @param system      the position of the system in this snapshot
+     * @param other       the other snapshot
+     * @param otherSystem the position of the system in the other snapshot
+     * @return true if both systems are equal
+     */
+    boolean sameSystem(int system, DependencySnapshot other, int otherSystem) {
+        SystemDependencyDTO stored = systems.get(system);
+        SystemDependencyDTO otherStored = other.systems.get(otherSystem);
+        if (stored == null || otherStored == null) {
+            return stored == otherStored;
+        }
+        int flowCount = endFlow(system) - firstFlow(system);
+        if (!Objects.equals(stored.getSystemCode(), otherStored.getSystemCode())
+                || nullFlowLists.get(system) != other.nullFlowLists.get(otherSystem)
+                || flowCount != other.endFlow(otherSystem) - other.firstFlow(otherSystem)
+                || !Arrays.equals(overviews[system], other.overviews[otherSystem])) {
+            return false;
+        }
+        for (int i = 0; i < flowCount; i++) {
+            if (!flows.sameFlow(firstFlow(system) + i, other.flows, other.firstFlow(otherSystem) + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recreates the full DTO of one system.
+     *
+     * @param system the position of the system in {@link #getSystems()}
+     * @return a new DTO, or null if the core service returned null at that position
+     */
+    SystemDependencyDTO toDto(int system) {
+        SystemDependencyDTO stored = systems.get(system);
+        if (stored == null) {
+            return null;
+        }
+        SystemDependencyDTO dto = new SystemDependencyDTO();
+        dto.setSystemCode(stored.getSystemCode());
+        dto.setSolutionOverview(getSolutionOverview(system));
+        if (!nullFlowLists.get(system)) {
+            List<SystemDependencyDTO.IntegrationFlow> integrationFlows = new ArrayList<>(endFlow(system) - firstFlow(system));
+            for (int flow = firstFlow(system); flow < endFlow(system); flow++) {
+                integrationFlows.add(flows.toDto(flow));
+            }
+            dto.setIntegrationFlows(integrationFlows);
+        }
+        return dto;
+    }
+
+    /**
+     * Returns the encoded full solution overview of a system.
+     *
+     * @param system the position of the system in {@link #getSystems()}
+     * @return the encoded overview, or null if the system has none
+     */
+    byte[] encodedOverview(int system) {
+        return overviews[system];
+    }
+
+    /**
+     * Checks whether the core service returned no flow list at all for a system, as opposed
+     * to an empty one.
+     *
+     * @param system the position of the system in {@link #getSystems()}
+     * @return true if the flow list was null
+     */
+    boolean hasNullFlowList(int system) {
+        return nullFlowLists.get(system);
+    }
+
+    private static SystemDependencyDTO summary(SystemDependencyDTO dependency) {
+        SystemDependencyDTO system = new SystemDependencyDTO();
+        system.setSystemCode(dependency.getSystemCode());
+        system.setSolutionOverview(SolutionOverviews.summary(dependency.getSolutionOverview()));
+        return system;
+    }
+
+    /**
+     * Collects systems as they are parsed from the upstream response and indexes each one
+     * immediately, so the snapshot is ready as soon as the last system has been read.
+     */
+    public static final class Builder implements SystemDependencySink {
+
+        private final List<SystemDependencyDTO> systems = new ArrayList<>();
+        private final IntList flowOffsets = new IntList();
+        private final BitSet nullFlowLists = new BitSet();
+        private final List<byte[]> overviews = new ArrayList<>();
+        private final FlowStore.Builder flows;
+        private final SystemIndex.Builder systemIndex = new SystemIndex.Builder();
+        private Long upstreamVersion;
+
+        public Builder() {
+            this(SnapshotStorage.HEAP);
+        }
+
+        /**
+         * Creates a builder whose snapshot keeps its flow and graph columns as configured.
+         *
+         * @param storage where the columns are held
+         */
+        public Builder(SnapshotStorage storage) {
+            this(new FlowStore.Builder(storage));
+        }
+
+        private Builder(FlowStore.Builder flows) {
+            this.flows = flows;
+        }
+
+        @Override
+        public void landscapeVersion(long version) {
+            this.upstreamVersion = version;
+        }
+
+        @Override
+        public void accept(SystemDependencyDTO dependency) {
+            flowOffsets.add(flows.size());
+            if (dependency == null) {
+                systems.add(null);
+                overviews.add(null);
+                return;
+            }
+            SystemDependencyDTO system = summary(dependency);
+            systems.add(system);
+            overviews.add(SolutionOverviews.encode(dependency.getSolutionOverview()));
+            systemIndex.addSystem(system);
+            if (dependency.getIntegrationFlows() == null) {
+                nullFlowLists.set(systems.size() - 1);
+                return;
+            }
+            for (SystemDependencyDTO.IntegrationFlow flow : dependency.getIntegrationFlows()) {
+                if (flow != null) {
+                    int index = flows.add(system.getSystemCode(), flow);
+                    systemIndex.addFlow(system.getSystemCode(), flow.getCounterpartSystemCode(), index);
+                }
+            }
+        }
+
+        /**
+         * Adds a system of a previous snapshot without decoding it. When the builder comes
+         * from {@link DependencySnapshot#nextBuilder()} of that snapshot, the flows are copied
+         * code for code.
+         *
+         * @param previous the snapshot to copy from
+         * @param system   the position of the system in the previous snapshot
+         */
+        void copySystem(DependencySnapshot previous, int system) {
+            addStored(previous.systems.get(system), previous.overviews[system], previous.nullFlowLists.get(system),
+                    previous.flows, previous.firstFlow(system), previous.endFlow(system));
+        }
+
+        /**
+         * Adds a system that is held in the form a snapshot stores it.
+         *
+         * @param stored    the system without flows and with a summary overview, or null
+         * @param overview  the encoded full overview, or null
+         * @param nullFlows whether the core service returned no flow list for the system
+         * @param source    the store holding the system's flows
+         * @param firstFlow the index of the first flow in the source (inclusive)
+         * @param endFlow   the index one past the last flow in the source (exclusive)
+         */
+        void addStored(SystemDependencyDTO stored, byte[] overview, boolean nullFlows,
+                       FlowStore source, int firstFlow, int endFlow) {
+            flowOffsets.add(flows.size());
+            systems.add(stored);
+            overviews.add(overview);
+            if (stored == null) {
+                return;
+            }
+            systemIndex.addSystem(stored);
+            if (nullFlows) {
+                nullFlowLists.set(systems.size() - 1);
+            }
+            for (int flow = firstFlow; flow < endFlow; flow++) {
+                int index = flows.copy(source, flow);
+                systemIndex.addFlow(stored.getSystemCode(), source.counterpart(flow), index);
+            }
+        }
+
+        /**
+         * Creates the snapshot from the systems collected so far.
+         *
+         * @param version   monotonically increasing snapshot version
+         * @param fetchedAt the instant the data was fetched from the core service
+         * @return the new snapshot
+         */
+        public DependencySnapshot build(long version, Instant fetchedAt) {
+            flowOffsets.add(flows.size());
+            return new DependencySnapshot(version, fetchedAt, this);
+        }
+    }
+}
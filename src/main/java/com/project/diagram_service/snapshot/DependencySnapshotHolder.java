@@ -0,0 +1,285 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.client.CoreServiceClient;
+import com.project.diagram_service.dto.SystemDependencyChangesDTO;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link DependencySnapshot} and refreshes it in the background.
+ *
+ * Diagram endpoints read the snapshot through {@link #current()} instead of calling
+ * the core service themselves, so every request works on one consistent copy of the
+ * landscape and no upstream call happens on the request path once the first snapshot
+ * has been loaded. The upstream response is streamed straight into a
+ * {@link DependencySnapshot.Builder}, so the graph and indexes are built while the body
+ * is read. A refresh builds the new snapshot completely before swapping it in,
+ * so readers never observe a partially loaded state. When the core service reports the
+ * data as unchanged the current snapshot is kept under its version and only its fetch
+ * time moves forward.
+ *
+ * Once a snapshot carries the landscape version reported by the core service, refreshes ask
+ * the change feed for what changed since that version and apply it to a copy of the snapshot
+ * rather than downloading the whole landscape. When the feed cannot continue from the held
+ * version (the core service no longer has it, requests a resync, or answers from a different
+ * base) the holder falls back to a full, unconditional reload.
+ *
+ * Reads never wait on the core service once a snapshot exists (stale-while-revalidate).
+ * When the snapshot served is older than {@code services.core-service.snapshot.stale-after},
+ * for example because scheduled refreshes are failing, the read still returns it immediately
+ * and triggers a single background refresh. {@link #status()} reports how old the served data is.
+ *
+ * Every newly fetched snapshot is handed to {@link SnapshotFileStore}, which persists it in the
+ * background so a refresh never waits for the landscape to be serialized. On startup the
+ * persisted snapshot is loaded before the first request, so a restarted instance serves
+ * immediately and the scheduled refresh brings it up to date in the background.
+ *
+ * The last {@code services.core-service.snapshot.retained-versions} versions replaced by a
+ * newer one are kept in a {@link SnapshotHistory}, so diagrams can be drawn from the landscape
+ * as it was at an earlier version or point in time through {@link #select(SnapshotSelector)}.
+ *
+ * The refresh schedule is configured through {@code services.core-service.snapshot.refresh-interval}
+ * and {@code services.core-service.snapshot.initial-delay}, and where snapshots keep their
+ * flow and graph columns through {@code services.core-service.snapshot.storage}.
+ */
+@Component
+@Slf4j
+public class DependencySnapshotHolder {
+
+    private final CoreServiceClient coreServiceClient;
+    private final SnapshotFileStore fileStore;
+    private final AtomicReference<DependencySnapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final Object loadLock = new Object();
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+    private final Duration staleAfter;
+    private final SnapshotStorage storage;
+    private final SnapshotHistory history;
+
+    public DependencySnapshotHolder(CoreServiceClient coreServiceClient,
+                                    SnapshotFileStore fileStore,
+                                    @Value("${services.core-service.snapshot.stale-after:PT2M}") Duration staleAfter,
+                                    @Value("${services.core-service.snapshot.storage:HEAP}") SnapshotStorage storage,
+                                    @Value("${services.core-service.snapshot.retained-versions:10}") int retainedVersions) {
+        this.coreServiceClient = coreServiceClient;
+        this.fileStore = fileStore;
+        this.staleAfter = staleAfter;
+        this.storage = storage;
+        this.history = new SnapshotHistory(retainedVersions);
+    }
+
+    /**
+     * Installs the persisted snapshot, if any, so requests can be served before the
+     * first refresh from the core service has completed.
+     */
+    @PostConstruct
+    public void warmStart() {
+        fileStore.read(storage).ifPresent(snapshot -> {
+            synchronized (loadLock) {
+                if (current.compareAndSet(null, snapshot)) {
+                    history.record(snapshot);
+                    versionSequence.accumulateAndGet(snapshot.getVersion(), Math::max);
+                    log.info("Warm-started from persisted dependency snapshot version {} fetched at {} with {} systems",
+                             snapshot.getVersion(), snapshot.getFetchedAt(), snapshot.getSystems().size());
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the current snapshot, loading it synchronously if none has been loaded yet.
+     *
+     * Concurrent callers that arrive before the first snapshot exists wait for a single load
+     * instead of each calling the core service. A stale snapshot is returned as-is while a
+     * background refresh is started.
+     *
+     * @return the current dependency snapshot
+     * @throws IllegalStateException if the core service returns no data
+     */
+    public DependencySnapshot current() {
+        DependencySnapshot snapshot = current.get();
+        if (snapshot != null) {
+            if (isStale(snapshot, Instant.now())) {
+                revalidateInBackground();
+            }
+            return snapshot;
+        }
+        synchronized (loadLock) {
+            snapshot = current.get();
+            if (snapshot == null) {
+                snapshot = load();
+                install(snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the snapshot a request asked for: the current one, a retained version, or the
+     * version that was current at an instant.
+     *
+     * @param selector the requested snapshot
+     * @return the snapshot
+     * @throws IllegalArgumentException if the requested version or instant is not retained
+     * @throws IllegalStateException    if the current snapshot is requested and the core service returns no data
+     */
+    public DependencySnapshot select(SnapshotSelector selector) {
+        if (selector.isLatest()) {
+            return current();
+        }
+        if (selector.version() != null) {
+            return history.version(selector.version())
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Snapshot version " + selector.version() + " is not retained"));
+        }
+        return history.asOf(selector.asOf())
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No snapshot retained as of " + selector.asOf()));
+    }
+
+    /**
+     * Fetches a fresh snapshot from the core service and atomically replaces the current one.
+     *
+     * @return the newly installed snapshot
+     * @throws IllegalStateException if the core service returns no data
+     */
+    public DependencySnapshot refresh() {
+        synchronized (loadLock) {
+            DependencySnapshot snapshot = load();
+            install(snapshot);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Reports the freshness of the snapshot currently being served.
+     *
+     * @return the snapshot status, or null if no snapshot has been loaded yet
+     */
+    public SnapshotStatus status() {
+        DependencySnapshot snapshot = current.get();
+        if (snapshot == null) {
+            return null;
+        }
+        Instant now = Instant.now();
+        long ageSeconds = Math.max(0, Duration.between(snapshot.getFetchedAt(), now).toSeconds());
+        return new SnapshotStatus(snapshot.getVersion(), snapshot.getFetchedAt(), ageSeconds, isStale(snapshot, now));
+    }
+
+    /**
+     * Scheduled background refresh. Failures are logged and the previous snapshot is kept.
+     */
+    @Scheduled(fixedDelayString = "${services.core-service.snapshot.refresh-interval:PT1M}",
+               initialDelayString = "${services.core-service.snapshot.initial-delay:PT0S}")
+    public void scheduledRefresh() {
+        try {
+            DependencySnapshot snapshot = refresh();
+            log.info("Refreshed dependency snapshot to version {} with {} systems",
+                     snapshot.getVersion(), snapshot.getSystems().size());
+        } catch (Exception e) {
+            log.warn("Failed to refresh dependency snapshot, keeping previous version: {}", e.getMessage());
+        }
+    }
+
+    private void install(DependencySnapshot snapshot) {
+        current.set(snapshot);
+        history.record(snapshot);
+    }
+
+    private boolean isStale(DependencySnapshot snapshot, Instant now) {
+        return snapshot.getFetchedAt().plus(staleAfter).isBefore(now);
+    }
+
+    /**
+     * Starts a refresh on a virtual thread unless one is already running.
+     */
+    private void revalidateInBackground() {
+        if (!revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("snapshot-revalidate").start(() -> {
+            try {
+                DependencySnapshot snapshot = refresh();
+                log.info("Revalidated stale dependency snapshot, now at version {}", snapshot.getVersion());
+            } catch (Exception e) {
+                log.warn("Failed to revalidate stale dependency snapshot, still serving previous version: {}",
+                         e.getMessage());
+            } finally {
+                revalidating.set(false);
+            }
+        });
+    }
+
+    private DependencySnapshot load() {
+        DependencySnapshot previous = current.get();
+        if (previous != null && previous.getUpstreamVersion() != null) {
+            Optional<DependencySnapshot> updated = applyChanges(previous);
+            if (updated.isPresent()) {
+                return updated.get();
+            }
+            log.info("Change feed cannot continue from landscape version {}, reloading all system dependencies",
+                     previous.getUpstreamVersion());
+            return loadAll(null);
+        }
+        return loadAll(previous);
+    }
+
+    /**
+     * Brings the snapshot up to date from the core service change feed.
+     *
+     * @return the updated snapshot, or empty if the feed has a gap and everything must be reloaded
+     */
+    private Optional<DependencySnapshot> applyChanges(DependencySnapshot previous) {
+        long since = previous.getUpstreamVersion();
+        Optional<SystemDependencyChangesDTO> feed = coreServiceClient.getSystemDependencyChanges(since);
+        if (feed.isEmpty()) {
+            return Optional.empty();
+        }
+        SystemDependencyChangesDTO changes = feed.get();
+        if (changes.getFromVersion() != null && changes.getFromVersion() != since) {
+            return Optional.empty();
+        }
+
+        List<SystemDependencyDTO> upserted = changes.getUpserted() != null ? changes.getUpserted() : List.of();
+        List<String> removed = changes.getRemoved() != null ? changes.getRemoved() : List.of();
+        long toVersion = changes.getToVersion() != null ? changes.getToVersion() : since;
+        if (upserted.isEmpty() && removed.isEmpty() && toVersion == since) {
+            return Optional.of(previous.revalidated(Instant.now()));
+        }
+
+        DependencySnapshot snapshot = previous.withChanges(versionSequence.incrementAndGet(), Instant.now(),
+                toVersion, upserted, removed);
+        log.debug("Applied {} upserted and {} removed systems, landscape version {} -> {}",
+                  upserted.size(), removed.size(), since, toVersion);
+        fileStore.writeLater(snapshot);
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Streams the whole landscape, conditionally when a previous snapshot is given.
+     */
+    private DependencySnapshot loadAll(DependencySnapshot previous) {
+        DependencySnapshot.Builder builder = new DependencySnapshot.Builder(storage);
+        boolean modified = coreServiceClient.streamSystemDependencies(previous != null, builder);
+        if (!modified) {
+            if (previous == null) {
+                throw new IllegalStateException("Core service reported unchanged data before any snapshot was loaded");
+            }
+            return previous.revalidated(Instant.now());
+        }
+        DependencySnapshot snapshot = builder.build(versionSequence.incrementAndGet(), Instant.now());
+        fileStore.writeLater(snapshot);
+        return snapshot;
+    }
+}
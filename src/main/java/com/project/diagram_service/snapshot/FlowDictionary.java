@@ -0,0 +1,145 @@
+package com.project.diagram_service.snapshot;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of the integration flow attributes that repeat across a landscape.
+ *
+ * System codes, integration methods, frequencies, middleware, counterpart roles and
+ * component names come from a small vocabulary but are parsed into a separate String for
+ * every flow. While a snapshot is ingested each distinct value gets a small int code, which
+ * is what the {@link FlowStore} columns hold, so the vocabulary is held once per snapshot.
+ *
+ * The two counterpart roles always have the codes {@link #PRODUCER_ROLE_CODE} and
+ * {@link #CONSUMER_ROLE_CODE}, and whether a value names real middleware is decided once
+ * per code, so role and middleware checks on encoded flows are int comparisons and bit
+ * lookups. Codes are only ever appended, so a dictionary extended for a batch of changes
+ * keeps every code of the one it was derived from, until the {@link FlowStore} built with it
+ * finds too many codes unused and replaces it with a compacted one.
+ */
+public final class FlowDictionary {
+
+    /** Code of a missing (null) value. */
+    public static final int NULL_CODE = -1;
+    public static final int PRODUCER_ROLE_CODE = 0;
+    public static final int CONSUMER_ROLE_CODE = 1;
+
+    private final Map<String, Integer> codes;
+    private final String[] values;
+    private final BitSet validMiddleware;
+
+    private FlowDictionary(Map<String, Integer> codes, String[] values, BitSet validMiddleware) {
+        this.codes = codes;
+        this.values = values;
+        this.validMiddleware = validMiddleware;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the code of a value.
+     *
+     * @param value the attribute value
+     * @return the code, or {@link #NULL_CODE} if the value is null or not in the dictionary
+     */
+    public int code(String value) {
+        Integer code = value != null ? codes.get(value) : null;
+        return code != null ? code : NULL_CODE;
+    }
+
+    /**
+     * Decodes a code.
+     *
+     * @param code the code
+     * @return the value, or null for {@link #NULL_CODE}
+     */
+    public String value(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    /**
+     * Checks whether a code names real middleware, as decided by
+     * {@link IntegrationFlowUtils#hasValidMiddleware(String)}.
+     *
+     * @param code the middleware code
+     * @return true if the code is neither null, blank nor "NONE"
+     */
+    public boolean isValidMiddleware(int code) {
+        return code != NULL_CODE && validMiddleware.get(code);
+    }
+
+    /**
+     * Returns a builder holding every code of this dictionary, to extend it with new values.
+     *
+     * @return the builder
+     */
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Incrementally builds a {@link FlowDictionary} as flows are ingested.
+     */
+    static final class Builder {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final BitSet validMiddleware = new BitSet();
+
+        Builder() {
+            encode(IntegrationFlowUtils.PRODUCER_ROLE);
+            encode(IntegrationFlowUtils.CONSUMER_ROLE);
+        }
+
+        private Builder(FlowDictionary dictionary) {
+            codes.putAll(dictionary.codes);
+            values.addAll(List.of(dictionary.values));
+            validMiddleware.or(dictionary.validMiddleware);
+        }
+
+        /**
+         * Returns the code of a value, assigning the next free code if the value is new.
+         *
+         * @param value the attribute value
+         * @return the code, or {@link #NULL_CODE} for null
+         */
+        int encode(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                if (IntegrationFlowUtils.hasValidMiddleware(value)) {
+                    validMiddleware.set(code);
+                }
+            }
+            return code;
+        }
+
+        boolean isValidMiddleware(int code) {
+            return code != NULL_CODE && validMiddleware.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        String value(int code) {
+            return code == NULL_CODE ? null : values.get(code);
+        }
+
+        FlowDictionary build() {
+            return new FlowDictionary(Map.copyOf(codes), values.toArray(String[]::new),
+                    (BitSet) validMiddleware.clone());
+        }
+    }
+}
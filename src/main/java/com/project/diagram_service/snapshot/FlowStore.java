@@ -0,0 +1,388 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Column-oriented store of every integration flow in a snapshot.
+ *
+ * Flows are addressed by a dense int index in {@code [0, size())}, in the order the core
+ * service returned them. Each attribute is a column: the repeated ones (owner, counterpart,
+ * role, method, frequency, middleware and component name) are {@link FlowDictionary} codes
+ * in int arrays, while the flow id and purpose, which rarely repeat, stay String arrays. A
+ * flow therefore costs a few array slots instead of an object with eight references, and
+ * graph and diagram code read primitive columns. Integration flow DTOs are only created by
+ * {@link #toDto(int)} when a response needs them.
+ *
+ * Besides the raw attributes the store keeps the middleware node of each flow, the
+ * normalized middleware used for graph edges, or {@link FlowDictionary#NULL_CODE} if the
+ * flow has no valid middleware.
+ *
+ * Columns are held as configured by {@link SnapshotStorage}, on the heap or in direct
+ * buffers; the accessors are the same either way.
+ *
+ * A store derived from the previous one for a batch of changes inherits its whole
+ * dictionary, including the values of flows that have since been removed. Once more than a
+ * quarter of the codes are no longer used by any flow, building the store re-encodes its
+ * columns with a dictionary of only the values in use, so a landscape refreshed from the
+ * change feed for a long time does not keep every value it ever held.
+ */
+public final class FlowStore {
+
+    /** Share of unused dictionary codes above which a derived store compacts its dictionary. */
+    private static final double MAX_UNUSED_CODE_SHARE = 0.25;
+
+    /**
+     * The attributes that make two flows equal, as two equal flow DTOs were.
+     */
+    private record Row(int owner, int counterpart, int role, int method, int frequency, int middleware,
+                       int componentName, String id, String purpose) {
+    }
+
+    private final SnapshotStorage storage;
+    private final FlowDictionary dictionary;
+    private final int size;
+    private final IntBuffer owners;
+    private final IntBuffer counterparts;
+    private final IntBuffer roles;
+    private final IntBuffer methods;
+    private final IntBuffer frequencies;
+    private final IntBuffer middleware;
+    private final IntBuffer middlewareNodes;
+    private final IntBuffer componentNames;
+    private final SnapshotStorage.StringColumn ids;
+    private final SnapshotStorage.StringColumn purposes;
+
+    private FlowStore(Builder builder) {
+        this.storage = builder.storage;
+        this.dictionary = builder.dictionary.build();
+        this.size = builder.size();
+        this.owners = storage.ints(builder.owners.toArray());
+        this.counterparts = storage.ints(builder.counterparts.toArray());
+        this.roles = storage.ints(builder.roles.toArray());
+        this.methods = storage.ints(builder.methods.toArray());
+        this.frequencies = storage.ints(builder.frequencies.toArray());
+        this.middleware = storage.ints(builder.middleware.toArray());
+        this.middlewareNodes = storage.ints(builder.middlewareNodes.toArray());
+        this.componentNames = storage.ints(builder.componentNames.toArray());
+        this.ids = storage.strings(builder.ids);
+        this.purposes = storage.strings(builder.purposes);
+    }
+
+    /**
+     * Stores the flows of an already materialized list of systems.
+     *
+     * @param systems the systems whose flows to store
+     * @return the store
+     */
+    static FlowStore of(List<SystemDependencyDTO> systems) {
+        Builder builder = new Builder(SnapshotStorage.HEAP);
+        for (SystemDependencyDTO system : systems) {
+            if (system != null && system.getIntegrationFlows() != null) {
+                system.getIntegrationFlows().forEach(flow -> builder.add(system.getSystemCode(), flow));
+            }
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public FlowDictionary dictionary() {
+        return dictionary;
+    }
+
+    public SnapshotStorage storage() {
+        return storage;
+    }
+
+    /**
+     * Returns the code of the system whose flow list contains the flow.
+     *
+     * @param flow the flow index
+     * @return the owner system code
+     */
+    public String owner(int flow) {
+        return dictionary.value(owners.get(flow));
+    }
+
+    public String counterpart(int flow) {
+        return dictionary.value(counterparts.get(flow));
+    }
+
+    public String role(int flow) {
+        return dictionary.value(roles.get(flow));
+    }
+
+    /**
+     * Returns the dictionary code of the counterpart role, which is
+     * {@link FlowDictionary#PRODUCER_ROLE_CODE} or {@link FlowDictionary#CONSUMER_ROLE_CODE}
+     * for the two known roles.
+     *
+     * @param flow the flow index
+     * @return the role code
+     */
+    public int roleCode(int flow) {
+        return roles.get(flow);
+    }
+
+    public String method(int flow) {
+        return dictionary.value(methods.get(flow));
+    }
+
+    public String frequency(int flow) {
+        return dictionary.value(frequencies.get(flow));
+    }
+
+    /**
+     * Returns the middleware exactly as the core service reported it.
+     *
+     * @param flow the flow index
+     * @return the raw middleware, possibly null, blank or "NONE"
+     */
+    public String middleware(int flow) {
+        return dictionary.value(middleware.get(flow));
+    }
+
+    /**
+     * Checks whether a flow goes through real middleware, as decided by
+     * {@link IntegrationFlowUtils#hasValidMiddleware(String)}.
+     *
+     * @param flow the flow index
+     * @return true if the flow has valid middleware
+     */
+    public boolean hasValidMiddleware(int flow) {
+        return dictionary.isValidMiddleware(middleware.get(flow));
+    }
+
+    /**
+     * Returns the dictionary code of the normalized middleware of a flow.
+     *
+     * @param flow the flow index
+     * @return the middleware node code, or {@link FlowDictionary#NULL_CODE} if the flow has no valid middleware
+     */
+    public int middlewareNodeCode(int flow) {
+        return middlewareNodes.get(flow);
+    }
+
+    public String componentName(int flow) {
+        return dictionary.value(componentNames.get(flow));
+    }
+
+    public String id(int flow) {
+        return ids.get(flow);
+    }
+
+    public String purpose(int flow) {
+        return purposes.get(flow);
+    }
+
+    /**
+     * Creates the DTO of a flow, for responses that serve flows as objects.
+     *
+     * @param flow the flow index
+     * @return a new DTO with the flow's attributes
+     */
+    public SystemDependencyDTO.IntegrationFlow toDto(int flow) {
+        SystemDependencyDTO.IntegrationFlow dto = new SystemDependencyDTO.IntegrationFlow();
+        dto.setId(ids.get(flow));
+        dto.setComponentName(componentName(flow));
+        dto.setCounterpartSystemCode(counterpart(flow));
+        dto.setCounterpartSystemRole(role(flow));
+        dto.setIntegrationMethod(method(flow));
+        dto.setFrequency(frequency(flow));
+        dto.setPurpose(purposes.get(flow));
+        dto.setMiddleware(middleware(flow));
+        return dto;
+    }
+
+    /**
+     * Returns a key that is equal for two flows exactly when their attributes are.
+     *
+     * @param flow the flow index
+     * @return the key
+     */
+    Object rowKey(int flow) {
+        return new Row(owners.get(flow), counterparts.get(flow), roles.get(flow), methods.get(flow),
+                frequencies.get(flow), middleware.get(flow), componentNames.get(flow), ids.get(flow),
+                purposes.get(flow));
+    }
+
+    /**
+     * Checks whether a flow has the same attributes as a flow of another store, which may
+     * use different dictionary codes.
+     *
+     * @param flow      the flow index in this store
+     * @param other     the other store
+     * @param otherFlow the flow index in the other store
+     * @return true if every attribute, the owner included, is equal
+     */
+    boolean sameFlow(int flow, FlowStore other, int otherFlow) {
+        return Objects.equals(owner(flow), other.owner(otherFlow))
+                && Objects.equals(counterpart(flow), other.counterpart(otherFlow))
+                && Objects.equals(role(flow), other.role(otherFlow))
+                && Objects.equals(method(flow), other.method(otherFlow))
+                && Objects.equals(frequency(flow), other.frequency(otherFlow))
+                && Objects.equals(middleware(flow), other.middleware(otherFlow))
+                && Objects.equals(componentName(flow), other.componentName(otherFlow))
+                && Objects.equals(id(flow), other.id(otherFlow))
+                && Objects.equals(purpose(flow), other.purpose(otherFlow));
+    }
+
+    /**
+     * Returns an empty builder whose dictionary starts with every code of this store, so
+     * flows can be copied over with {@link Builder#copy(FlowStore, int)}. The store it builds
+     * keeps those codes unless it compacts its dictionary.
+     *
+     * @return the builder
+     */
+    Builder nextBuilder() {
+        return new Builder(dictionary.toBuilder(), dictionary, storage);
+    }
+
+    /**
+     * Incrementally builds a {@link FlowStore} as flows are ingested.
+     */
+    static final class Builder {
+
+        private final SnapshotStorage storage;
+        private FlowDictionary.Builder dictionary;
+        /** The dictionary this builder's codes extend, or null if it started empty. */
+        private final FlowDictionary base;
+        private final IntList owners = new IntList();
+        private final IntList counterparts = new IntList();
+        private final IntList roles = new IntList();
+        private final IntList methods = new IntList();
+        private final IntList frequencies = new IntList();
+        private final IntList middleware = new IntList();
+        private final IntList middlewareNodes = new IntList();
+        private final IntList componentNames = new IntList();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> purposes = new ArrayList<>();
+
+        Builder(SnapshotStorage storage) {
+            this(new FlowDictionary.Builder(), null, storage);
+        }
+
+        private Builder(FlowDictionary.Builder dictionary, FlowDictionary base, SnapshotStorage storage) {
+            this.dictionary = dictionary;
+            this.base = base;
+            this.storage = storage;
+        }
+
+        int size() {
+            return owners.size();
+        }
+
+        /**
+         * Appends a flow.
+         *
+         * @param ownerCode the code of the system whose flow list contains the flow
+         * @param flow      the flow as parsed from the core service
+         * @return the index of the flow
+         */
+        int add(String ownerCode, SystemDependencyDTO.IntegrationFlow flow) {
+            int middlewareCode = dictionary.encode(flow.getMiddleware());
+            int middlewareNode = dictionary.isValidMiddleware(middlewareCode)
+                    ? dictionary.encode(IntegrationFlowUtils.normalizeNodeId(flow.getMiddleware()))
+                    : FlowDictionary.NULL_CODE;
+            return append(dictionary.encode(ownerCode), dictionary.encode(flow.getCounterpartSystemCode()),
+                    dictionary.encode(flow.getCounterpartSystemRole()), dictionary.encode(flow.getIntegrationMethod()),
+                    dictionary.encode(flow.getFrequency()), middlewareCode, middlewareNode,
+                    dictionary.encode(flow.getComponentName()), flow.getId(), flow.getPurpose());
+        }
+
+        /**
+         * Appends a flow of another store. Flows of the store this builder was created from
+         * with {@link FlowStore#nextBuilder()} are copied code for code; flows of any other
+         * store are encoded again with this builder's dictionary.
+         *
+         * @param source the store to copy from
+         * @param flow   the index of the flow in the source
+         * @return the index of the flow in this builder
+         */
+        int copy(FlowStore source, int flow) {
+            if (source.dictionary != base) {
+                return recode(source, flow);
+            }
+            return append(source.owners.get(flow), source.counterparts.get(flow), source.roles.get(flow),
+                    source.methods.get(flow), source.frequencies.get(flow), source.middleware.get(flow),
+                    source.middlewareNodes.get(flow), source.componentNames.get(flow), source.ids.get(flow),
+                    source.purposes.get(flow));
+        }
+
+        private int recode(FlowStore source, int flow) {
+            return append(dictionary.encode(source.owner(flow)), dictionary.encode(source.counterpart(flow)),
+                    dictionary.encode(source.role(flow)), dictionary.encode(source.method(flow)),
+                    dictionary.encode(source.frequency(flow)), dictionary.encode(source.middleware(flow)),
+                    dictionary.encode(source.dictionary.value(source.middlewareNodes.get(flow))),
+                    dictionary.encode(source.componentName(flow)), source.ids.get(flow), source.purposes.get(flow));
+        }
+
+        private int append(int owner, int counterpart, int role, int method, int frequency, int middlewareCode,
+                           int middlewareNode, int componentName, String id, String purpose) {
+            int index = owners.size();
+            owners.add(owner);
+            counterparts.add(counterpart);
+            roles.add(role);
+            methods.add(method);
+            frequencies.add(frequency);
+            middleware.add(middlewareCode);
+            middlewareNodes.add(middlewareNode);
+            componentNames.add(componentName);
+            ids.add(id);
+            purposes.add(purpose);
+            return index;
+        }
+
+        FlowStore build() {
+            if (base != null) {
+                compactDictionary();
+            }
+            return new FlowStore(this);
+        }
+
+        /**
+         * Re-encodes the code columns with a dictionary of only the values they use, when
+         * too many of the inherited codes are no longer used. The role codes stay fixed.
+         */
+        private void compactDictionary() {
+            IntList[] columns = {owners, counterparts, roles, methods, frequencies, middleware, middlewareNodes,
+                    componentNames};
+            BitSet used = new BitSet(dictionary.size());
+            used.set(FlowDictionary.PRODUCER_ROLE_CODE);
+            used.set(FlowDictionary.CONSUMER_ROLE_CODE);
+            for (IntList column : columns) {
+                for (int i = 0; i < column.size(); i++) {
+                    int code = column.get(i);
+                    if (code != FlowDictionary.NULL_CODE) {
+                        used.set(code);
+                    }
+                }
+            }
+            if (dictionary.size() - used.cardinality() <= dictionary.size() * MAX_UNUSED_CODE_SHARE) {
+                return;
+            }
+
+            FlowDictionary.Builder compacted = new FlowDictionary.Builder();
+            int[] codes = new int[dictionary.size()];
+            for (int code = used.nextSetBit(0); code >= 0; code = used.nextSetBit(code + 1)) {
+                codes[code] = compacted.encode(dictionary.value(code));
+            }
+            for (IntList column : columns) {
+                for (int i = 0; i < column.size(); i++) {
+                    int code = column.get(i);
+                    if (code != FlowDictionary.NULL_CODE) {
+                        column.set(i, codes[code]);
+                    }
+                }
+            }
+            dictionary = compacted;
+        }
+    }
+}
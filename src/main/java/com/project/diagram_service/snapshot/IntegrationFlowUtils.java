@@ -0,0 +1,42 @@
+package com.project.diagram_service.snapshot;
+
+/**
+ * Shared rules for interpreting integration flow attributes.
+ * Used both when a snapshot indexes the landscape and when diagrams are rendered,
+ * so the two always agree on roles, node ids and middleware.
+ */
+public final class IntegrationFlowUtils {
+
+    public static final String PRODUCER_ROLE = "PRODUCER";
+    public static final String CONSUMER_ROLE = "CONSUMER";
+
+    private static final String NONE_MIDDLEWARE = "NONE";
+    private static final String PRODUCER_SUFFIX = "-P";
+    private static final String CONSUMER_SUFFIX = "-C";
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private IntegrationFlowUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Normalizes node IDs by removing -P/-C suffixes for middleware nodes.
+     * This allows middleware to act as both producers and consumers in paths.
+     */
+    public static String normalizeNodeId(String nodeId) {
+        if (nodeId != null && (nodeId.endsWith(PRODUCER_SUFFIX) || nodeId.endsWith(CONSUMER_SUFFIX))) {
+            return nodeId.substring(0, nodeId.length() - 2);
+        }
+        return nodeId;
+    }
+
+    /**
+     * Checks if middleware is valid (not null, not empty, not "NONE").
+     */
+    public static boolean hasValidMiddleware(String middleware) {
+        return middleware != null && !middleware.trim().isEmpty()
+                && !NONE_MIDDLEWARE.equalsIgnoreCase(middleware.trim());
+    }
+}
@@ -0,0 +1,329 @@
+package com.project.diagram_service.snapshot;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Directed producer → consumer graph of all integration flows in a snapshot.
+ *
+ * Each integration flow represents a specific point-to-point connection.
+ * Middleware is just the transport mechanism, not a routing hub, so it is kept
+ * as an edge attribute rather than as a node.
+ *
+ * Every system that produces or consumes a flow gets a dense integer id in
+ * {@code [0, nodeCount())}, and the adjacency is stored in compressed sparse row form:
+ * the outgoing edges of node {@code n} are the edge ids {@code firstEdge(n)} (inclusive)
+ * to {@code endEdge(n)} (exclusive), and each edge id indexes the parallel target,
+ * middleware and flow columns. Traversals therefore walk primitive columns and never
+ * allocate. The incoming edges are laid out the same way, keyed by consumer, so searches
+ * can also walk the graph backwards. The graph is derived from the snapshot's
+ * {@link FlowStore} in one pass over its columns and is read-only afterwards; changes
+ * produce a new graph.
+ *
+ * Edge middleware is stored as a {@link FlowDictionary} code and each edge refers to the
+ * flow it came from by its index in the store. The edge columns are held as configured by
+ * the store's {@link SnapshotStorage}.
+ */
+public final class IntegrationGraph {
+
+    /**
+     * An edge as collected during construction, before it is laid out in the arrays.
+     * Edges of one producer with the same target, middleware and flow attributes are
+     * duplicates; the flow index is not part of the key, so only the first is kept.
+     */
+    private record Edge(String target, int middleware, Object flowKey) {
+    }
+
+    private final FlowDictionary dictionary;
+    private final Map<String, Integer> nodeIds;
+    private final String[] nodeNames;
+    private final int edgeCount;
+    private final IntBuffer edgeOffsets;
+    private final IntBuffer edgeTargets;
+    private final IntBuffer edgeMiddleware;
+    private final IntBuffer edgeFlows;
+    private final IntBuffer incomingOffsets;
+    private final IntBuffer incomingSources;
+
+    private IntegrationGraph(FlowDictionary dictionary, Map<String, Integer> nodeIds, String[] nodeNames,
+                             int edgeCount, IntBuffer edgeOffsets, IntBuffer edgeTargets, IntBuffer edgeMiddleware,
+                             IntBuffer edgeFlows, IntBuffer incomingOffsets, IntBuffer incomingSources) {
+        this.dictionary = dictionary;
+        this.nodeIds = nodeIds;
+        this.nodeNames = nodeNames;
+        this.edgeCount = edgeCount;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.edgeMiddleware = edgeMiddleware;
+        this.edgeFlows = edgeFlows;
+        this.incomingOffsets = incomingOffsets;
+        this.incomingSources = incomingSources;
+    }
+
+    /**
+     * Derives the graph of all flows in a store.
+     *
+     * @param flows the flows of the snapshot
+     * @return the graph
+     */
+    static IntegrationGraph of(FlowStore flows) {
+        Builder builder = new Builder(flows.dictionary(), flows.storage());
+        for (int flow = 0; flow < flows.size(); flow++) {
+            builder.addFlow(flows, flow);
+        }
+        return builder.build();
+    }
+
+    public FlowDictionary dictionary() {
+        return dictionary;
+    }
+
+    public int nodeCount() {
+        return nodeNames.length;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the dense id of a node.
+     *
+     * @param node the system code
+     * @return the node id, or -1 if the system takes part in no integration flow
+     */
+    public int nodeId(String node) {
+        Integer id = nodeIds.get(node);
+        return id != null ? id : -1;
+    }
+
+    public String nodeName(int node) {
+        return nodeNames[node];
+    }
+
+    /**
+     * Returns the id of the first outgoing edge of a node.
+     *
+     * @param node the producer node id
+     * @return the first edge id, equal to {@link #endEdge(int)} if the node produces nothing
+     */
+    public int firstEdge(int node) {
+        return edgeOffsets.get(node);
+    }
+
+    /**
+     * Returns the id one past the last outgoing edge of a node.
+     *
+     * @param node the producer node id
+     * @return the exclusive end of the node's edge ids
+     */
+    public int endEdge(int node) {
+        return edgeOffsets.get(node + 1);
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTargets.get(edge);
+    }
+
+    /**
+     * Returns the normalized middleware of an edge.
+     *
+     * @param edge the edge id
+     * @return the middleware, or null if the flow is a direct connection
+     */
+    public String edgeMiddleware(int edge) {
+        return dictionary.value(edgeMiddleware.get(edge));
+    }
+
+    /**
+     * Returns the dictionary code of the normalized middleware of an edge.
+     *
+     * @param edge the edge id
+     * @return the middleware code, or {@link FlowDictionary#NULL_CODE} for a direct connection
+     */
+    public int edgeMiddlewareCode(int edge) {
+        return edgeMiddleware.get(edge);
+    }
+
+    /**
+     * Returns the flow an edge came from.
+     *
+     * @param edge the edge id
+     * @return the index of the flow in the snapshot's {@link FlowStore}
+     */
+    public int edgeFlow(int edge) {
+        return edgeFlows.get(edge);
+    }
+
+    /**
+     * Returns the position of the first incoming edge of a node.
+     *
+     * @param node the consumer node id
+     * @return the first position, equal to {@link #endIncoming(int)} if the node consumes nothing
+     */
+    public int firstIncoming(int node) {
+        return incomingOffsets.get(node);
+    }
+
+    /**
+     * Returns the position one past the last incoming edge of a node.
+     *
+     * @param node the consumer node id
+     * @return the exclusive end of the node's incoming edge positions
+     */
+    public int endIncoming(int node) {
+        return incomingOffsets.get(node + 1);
+    }
+
+    /**
+     * Returns the producer of an incoming edge.
+     *
+     * @param position the position of the edge, between {@link #firstIncoming(int)} and
+     *                 {@link #endIncoming(int)} of its consumer
+     * @return the producer node id
+     */
+    public int incomingSource(int position) {
+        return incomingSources.get(position);
+    }
+
+    /**
+     * Computes how many hops every node is from a target, with one breadth-first search
+     * over the incoming edges.
+     *
+     * @param target the target node id
+     * @return the length of the shortest path from each node to the target, 0 for the
+     *         target itself and -1 for nodes that cannot reach it
+     */
+    public int[] distancesTo(int target) {
+        int[] distances = new int[nodeCount()];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[nodeCount()];
+        int head = 0;
+        int tail = 0;
+        distances[target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int position = firstIncoming(node); position < endIncoming(node); position++) {
+                int source = incomingSource(position);
+                if (distances[source] < 0) {
+                    distances[source] = distances[node] + 1;
+                    queue[tail++] = source;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Collects the edges of a {@link FlowStore} and lays them out into the compressed arrays.
+     *
+     * Edges are collected per producer, dropping duplicates, and node ids follow the order
+     * in which systems first appear as producers, then as consumers.
+     */
+    private static final class Builder {
+
+        private final FlowDictionary dictionary;
+        private final SnapshotStorage storage;
+        private final Map<String, Map<Edge, Integer>> adjacencyMap = new LinkedHashMap<>();
+        private final Set<String> consumers = new LinkedHashSet<>();
+
+        private Builder(FlowDictionary dictionary, SnapshotStorage storage) {
+            this.dictionary = dictionary;
+            this.storage = storage;
+        }
+
+        /**
+         * Adds the edge of one flow, skipping flows whose counterpart role is unclear.
+         */
+        private void addFlow(FlowStore flows, int flow) {
+            String owner = flows.owner(flow);
+            String counterpart = IntegrationFlowUtils.normalizeNodeId(flows.counterpart(flow));
+            int role = flows.roleCode(flow);
+
+            String producer;
+            String consumer;
+            if (role == FlowDictionary.PRODUCER_ROLE_CODE) {
+                producer = counterpart;
+                consumer = owner;
+            } else if (role == FlowDictionary.CONSUMER_ROLE_CODE) {
+                producer = owner;
+                consumer = counterpart;
+            } else {
+                return;
+            }
+
+            Edge edge = new Edge(consumer, flows.middlewareNodeCode(flow), flows.rowKey(flow));
+            adjacencyMap.computeIfAbsent(producer, k -> new LinkedHashMap<>()).putIfAbsent(edge, flow);
+            consumers.add(consumer);
+        }
+
+        private IntegrationGraph build() {
+            Map<String, Integer> nodeIds = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            int edgeCount = 0;
+            for (Map.Entry<String, Map<Edge, Integer>> entry : adjacencyMap.entrySet()) {
+                assignId(entry.getKey(), nodeIds, names);
+                edgeCount += entry.getValue().size();
+            }
+            for (String consumer : consumers) {
+                assignId(consumer, nodeIds, names);
+            }
+
+            int nodeCount = names.size();
+            int[] offsets = new int[nodeCount + 1];
+            int[] targets = new int[edgeCount];
+            int[] middleware = new int[edgeCount];
+            int[] flows = new int[edgeCount];
+
+            // Producers were numbered first and in map order, so their edges are laid out contiguously
+            int edge = 0;
+            int node = 0;
+            for (Map<Edge, Integer> edges : adjacencyMap.values()) {
+                offsets[node++] = edge;
+                for (Map.Entry<Edge, Integer> e : edges.entrySet()) {
+                    targets[edge] = nodeIds.get(e.getKey().target());
+                    middleware[edge] = e.getKey().middleware();
+                    flows[edge] = e.getValue();
+                    edge++;
+                }
+            }
+            while (node <= nodeCount) {
+                offsets[node++] = edge;
+            }
+
+            // Incoming edges, grouped by consumer with a counting sort over the targets
+            int[] incomingOffsets = new int[nodeCount + 1];
+            for (int target : targets) {
+                incomingOffsets[target + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                incomingOffsets[i + 1] += incomingOffsets[i];
+            }
+            int[] incomingSources = new int[edgeCount];
+            int[] next = Arrays.copyOf(incomingOffsets, nodeCount);
+            for (int source = 0; source < nodeCount; source++) {
+                for (int e = offsets[source]; e < offsets[source + 1]; e++) {
+                    incomingSources[next[targets[e]]++] = source;
+                }
+            }
+
+            return new IntegrationGraph(dictionary, nodeIds, names.toArray(String[]::new), edgeCount,
+                    storage.ints(offsets), storage.ints(targets), storage.ints(middleware), storage.ints(flows),
+                    storage.ints(incomingOffsets), storage.ints(incomingSources));
+        }
+
+        private static void assignId(String node, Map<String, Integer> nodeIds, List<String> names) {
+            if (nodeIds.putIfAbsent(node, names.size()) == null) {
+                names.add(node);
+            }
+        }
+    }
+}
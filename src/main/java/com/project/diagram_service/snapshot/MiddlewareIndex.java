@@ -0,0 +1,72 @@
+package com.project.diagram_service.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Lookup table from middleware to the flows that go through it.
+ *
+ * Flows are grouped by their normalized middleware, so "OSB", "OSB-P" and "OSB-C" are one
+ * entry, and flows without valid middleware are left out. The index is keyed by the
+ * {@link FlowDictionary} code of the middleware and laid out like the
+ * {@link IntegrationGraph} adjacency: the flows of code {@code c} are the entries
+ * {@code offsets[c]} (inclusive) to {@code offsets[c + 1]} (exclusive) of one int array of
+ * store indexes. It is built in one pass over the middleware column of a
+ * {@link FlowStore}, so a middleware diagram visits only the flows it draws.
+ */
+public final class MiddlewareIndex {
+
+    private final FlowDictionary dictionary;
+    private final int[] offsets;
+    private final int[] flows;
+
+    private MiddlewareIndex(FlowDictionary dictionary, int[] offsets, int[] flows) {
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+        this.flows = flows;
+    }
+
+    /**
+     * Indexes the flows of a store by their normalized middleware.
+     *
+     * @param store the flows of the snapshot
+     * @return the index
+     */
+    static MiddlewareIndex of(FlowStore store) {
+        FlowDictionary dictionary = store.dictionary();
+        int[] offsets = new int[dictionary.size() + 1];
+        for (int flow = 0; flow < store.size(); flow++) {
+            int code = store.middlewareNodeCode(flow);
+            if (code != FlowDictionary.NULL_CODE) {
+                offsets[code + 1]++;
+            }
+        }
+        for (int code = 0; code < dictionary.size(); code++) {
+            offsets[code + 1] += offsets[code];
+        }
+
+        int[] flows = new int[offsets[dictionary.size()]];
+        int[] next = Arrays.copyOf(offsets, dictionary.size());
+        for (int flow = 0; flow < store.size(); flow++) {
+            int code = store.middlewareNodeCode(flow);
+            if (code != FlowDictionary.NULL_CODE) {
+                flows[next[code]++] = flow;
+            }
+        }
+        return new MiddlewareIndex(dictionary, offsets, flows);
+    }
+
+    /**
+     * Returns the flows that go through a middleware, in the order the core service
+     * returned them.
+     *
+     * @param middleware the middleware name, with or without a -P/-C suffix
+     * @return the store indexes of the flows, empty if no flow goes through the middleware
+     */
+    public int[] flowsThrough(String middleware) {
+        int code = dictionary.code(IntegrationFlowUtils.normalizeNodeId(middleware));
+        if (code == FlowDictionary.NULL_CODE) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(flows, offsets[code], offsets[code + 1]);
+    }
+}
@@ -0,0 +1,182 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The difference between two snapshots, stored as what is needed to rebuild one from the other.
+ *
+ * A delta lists the systems of its target snapshot in order: runs of systems that are
+ * unchanged in the base snapshot are kept as position ranges, and only the systems that
+ * differ are kept, in the form the target stored them: the system summary and encoded
+ * overview it already held, and the flows copied into a small {@link FlowStore} of the
+ * delta's own. A delta therefore holds the changed systems and a handful of ints, however
+ * large the landscape is, and no flow objects or decoded overviews.
+ * {@link #apply(DependencySnapshot)} rebuilds the target with the same version, fetch time,
+ * systems and flows, copying the unchanged systems from the base column by column.
+ */
+final class SnapshotDelta {
+
+    private sealed interface Segment permits Unchanged, Changed {
+    }
+
+    /** Systems {@code from} (inclusive) to {@code to} (exclusive) of the base snapshot. */
+    private record Unchanged(int from, int to) implements Segment {
+    }
+
+    /** Changed systems {@code from} (inclusive) to {@code to} (exclusive) of this delta. */
+    private record Changed(int from, int to) implements Segment {
+    }
+
+    private final long version;
+    private final Instant fetchedAt;
+    private final Long upstreamVersion;
+    private final List<Segment> segments;
+    private final List<SystemDependencyDTO> changedSystems;
+    private final byte[][] changedOverviews;
+    private final BitSet changedNullFlowLists;
+    private final int[] changedFlowOffsets;
+    private final FlowStore changedFlows;
+
+    private SnapshotDelta(DependencySnapshot target, List<Segment> segments, ChangedSystems changed) {
+        this.version = target.getVersion();
+        this.fetchedAt = target.getFetchedAt();
+        this.upstreamVersion = target.getUpstreamVersion();
+        this.segments = List.copyOf(segments);
+        this.changedSystems = changed.systems;
+        this.changedOverviews = changed.overviews.toArray(byte[][]::new);
+        this.changedNullFlowLists = changed.nullFlowLists;
+        changed.flowOffsets.add(changed.flows.size());
+        this.changedFlowOffsets = changed.flowOffsets.toArray();
+        this.changedFlows = changed.flows.build();
+    }
+
+    /**
+     * Computes the delta that rebuilds {@code target} from {@code base}.
+     *
+     * A system of the target is unchanged when the first system with the same code in the
+     * base holds the same overview and flows.
+     *
+     * @param base   the snapshot the delta will be applied to
+     * @param target the snapshot the delta rebuilds
+     * @return the delta
+     */
+    static SnapshotDelta between(DependencySnapshot base, DependencySnapshot target) {
+        Map<String, Integer> positions = new HashMap<>();
+        List<SystemDependencyDTO> baseSystems = base.getSystems();
+        for (int i = 0; i < baseSystems.size(); i++) {
+            SystemDependencyDTO system = baseSystems.get(i);
+            if (system != null) {
+                positions.putIfAbsent(system.getSystemCode(), i);
+            }
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        ChangedSystems changed = new ChangedSystems();
+        List<SystemDependencyDTO> targetSystems = target.getSystems();
+        for (int i = 0; i < targetSystems.size(); i++) {
+            SystemDependencyDTO system = targetSystems.get(i);
+            Integer position = system != null ? positions.get(system.getSystemCode()) : null;
+            if (position != null && target.sameSystem(i, base, position)) {
+                addUnchanged(segments, position);
+            } else {
+                addChanged(segments, changed.add(target, i));
+            }
+        }
+        return new SnapshotDelta(target, segments, changed);
+    }
+
+    private static void addUnchanged(List<Segment> segments, int position) {
+        if (!segments.isEmpty() && segments.get(segments.size() - 1) instanceof Unchanged last
+                && last.to() == position) {
+            segments.set(segments.size() - 1, new Unchanged(last.from(), position + 1));
+        } else {
+            segments.add(new Unchanged(position, position + 1));
+        }
+    }
+
+    private static void addChanged(List<Segment> segments, int position) {
+        if (!segments.isEmpty() && segments.get(segments.size() - 1) instanceof Changed last
+                && last.to() == position) {
+            segments.set(segments.size() - 1, new Changed(last.from(), position + 1));
+        } else {
+            segments.add(new Changed(position, position + 1));
+        }
+    }
+
+    long version() {
+        return version;
+    }
+
+    /**
+     * Counts the systems this delta holds.
+     *
+     * @return the number of changed systems
+     */
+    int changedSystems() {
+        return changedSystems.size();
+    }
+
+    /**
+     * Rebuilds the target snapshot.
+     *
+     * @param base the snapshot the delta was computed against
+     * @return a snapshot with the target's version, fetch time, systems and flows
+     */
+    DependencySnapshot apply(DependencySnapshot base) {
+        DependencySnapshot.Builder builder = base.nextBuilder();
+        if (upstreamVersion != null) {
+            builder.landscapeVersion(upstreamVersion);
+        }
+        for (Segment segment : segments) {
+            if (segment instanceof Unchanged unchanged) {
+                for (int system = unchanged.from(); system < unchanged.to(); system++) {
+                    builder.copySystem(base, system);
+                }
+            } else if (segment instanceof Changed changed) {
+                for (int system = changed.from(); system < changed.to(); system++) {
+                    builder.addStored(changedSystems.get(system), changedOverviews[system],
+                            changedNullFlowLists.get(system), changedFlows,
+                            changedFlowOffsets[system], changedFlowOffsets[system + 1]);
+                }
+            }
+        }
+        return builder.build(version, fetchedAt);
+    }
+
+    /**
+     * Collects the changed systems of a delta while it is computed.
+     */
+    private static final class ChangedSystems {
+
+        private final List<SystemDependencyDTO> systems = new ArrayList<>();
+        private final List<byte[]> overviews = new ArrayList<>();
+        private final BitSet nullFlowLists = new BitSet();
+        private final IntList flowOffsets = new IntList();
+        private final FlowStore.Builder flows = new FlowStore.Builder(SnapshotStorage.HEAP);
+
+        /**
+         * Adds a system of the target snapshot.
+         *
+         * @return the position of the system in the delta
+         */
+        int add(DependencySnapshot target, int system) {
+            int position = systems.size();
+            flowOffsets.add(flows.size());
+            systems.add(target.getSystems().get(system));
+            overviews.add(target.encodedOverview(system));
+            if (target.hasNullFlowList(system)) {
+                nullFlowLists.set(position);
+            }
+            for (int flow = target.firstFlow(system); flow < target.endFlow(system); flow++) {
+                flows.copy(target.getFlows(), flow);
+            }
+            return position;
+        }
+    }
+}
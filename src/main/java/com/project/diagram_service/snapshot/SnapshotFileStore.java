@@ -0,0 +1,268 @@
+package com.project.diagram_service.snapshot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.project.diagram_service.client.SystemDependencyStreamParser;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Persists the last good {@link DependencySnapshot} to a local file for warm starts.
+ *
+ * After a restart the snapshot is memory-mapped back from disk and served immediately,
+ * while the first refresh from the core service runs in the background. This avoids every
+ * instance of a rolling deploy fetching the whole landscape before it can answer a request.
+ *
+ * File layout (big-endian):
+ *   magic "DGSN" (4 bytes)
+ *   format version (int)
+ *   snapshot version (long)
+ *   fetched-at epoch seconds (long) and nanos (int)
+ *   upstream landscape version (long, -1 when the core service reported none)
+ *   payload length (int)
+ *   payload CRC32 (long)
+ *   payload: the system dependencies as a Smile-encoded (binary JSON) array
+ *
+ * The payload has the same shape as the core service response, so it is read back through
+ * the same {@link SystemDependencyStreamParser} and rebuilds the graph in one pass. A file
+ * with an unknown magic, format version or a checksum mismatch is ignored. Writes go to a
+ * temporary file that is atomically moved into place, so a crash never leaves a torn file.
+ * The payload is encoded one system at a time straight into that file, and the header is
+ * filled in once its length and checksum are known, so a write never holds the whole
+ * landscape as DTOs or as one byte array.
+ *
+ * Refreshes hand their snapshot to {@link #writeLater(DependencySnapshot)}, which returns at
+ * once. A background thread writes the latest snapshot handed over once
+ * {@code services.core-service.snapshot.write-delay} has passed, so a burst of refreshes costs
+ * one write and the refresh path never pays for serializing the landscape. Whatever is still
+ * pending is written on shutdown.
+ *
+ * The location is configured through {@code services.core-service.snapshot.file}; a blank
+ * value disables persistence.
+ */
+@Component
+@Slf4j
+public class SnapshotFileStore {
+
+    static final int MAGIC = 0x4447534E; // "DGSN"
+    static final int FORMAT_VERSION = 2;
+    private static final long NO_UPSTREAM_VERSION = -1L;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 8 + 4 + 8;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final ObjectMapper smileMapper;
+    private final ObjectWriter systemWriter;
+    private final SystemDependencyStreamParser parser;
+    private final Duration writeDelay;
+    private final ScheduledExecutorService writer;
+    private final AtomicReference<DependencySnapshot> pending = new AtomicReference<>();
+    private final Object writeLock = new Object();
+
+    public SnapshotFileStore(ObjectMapper objectMapper,
+                             @Value("${services.core-service.snapshot.file:}") String file,
+                             @Value("${services.core-service.snapshot.write-delay:PT10S}") Duration writeDelay) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.systemWriter = smileMapper.writerFor(SystemDependencyDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.parser = new SystemDependencyStreamParser(smileMapper);
+        this.writeDelay = writeDelay;
+        this.writer = this.file == null ? null : Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("snapshot-write").daemon().factory());
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Reads the persisted snapshot, if there is a valid one.
+     *
+     * @param storage where the restored snapshot keeps its flow and graph columns
+     * @return the snapshot, or empty if persistence is disabled or the file is missing or invalid
+     */
+    public Optional<DependencySnapshot> read(SnapshotStorage storage) {
+        if (file == null || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(decode(buffer, storage));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot file {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Schedules the snapshot to be written in the background and returns immediately. If
+     * another snapshot is still waiting to be written, it is replaced by this one.
+     *
+     * @param snapshot the snapshot to persist
+     */
+    public void writeLater(DependencySnapshot snapshot) {
+        if (file == null) {
+            return;
+        }
+        if (pending.getAndSet(snapshot) == null) {
+            writer.schedule(this::flush, writeDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes the snapshot waiting from {@link #writeLater(DependencySnapshot)}, if any.
+     */
+    void flush() {
+        synchronized (writeLock) {
+            DependencySnapshot snapshot = pending.getAndSet(null);
+            if (snapshot != null) {
+                write(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending snapshot before the application stops.
+     */
+    @PreDestroy
+    public void close() {
+        if (writer != null) {
+            writer.shutdownNow();
+            flush();
+        }
+    }
+
+    /**
+     * Writes the snapshot, replacing the previous file atomically. Failures are logged
+     * and never propagate, since persistence only speeds up the next start.
+     *
+     * @param snapshot the snapshot to persist
+     */
+    public void write(DependencySnapshot snapshot) {
+        if (file == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            try {
+                Path directory = file.toAbsolutePath().getParent();
+                Files.createDirectories(directory);
+                Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+                long size;
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    size = writeTo(channel, snapshot);
+                    channel.force(true);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.debug("Persisted dependency snapshot version {} ({} bytes) to {}", snapshot.getVersion(), size, file);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to persist dependency snapshot to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Streams the payload after room for the header, then writes the header at the start.
+     *
+     * @return the file size
+     */
+    private long writeTo(FileChannel channel, DependencySnapshot snapshot) throws IOException {
+        channel.position(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        OutputStream body = new CheckedOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE), crc);
+        try (JsonGenerator generator = smileMapper.getFactory().createGenerator(body)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            for (int system = 0; system < snapshot.getSystems().size(); system++) {
+                systemWriter.writeValue(generator, snapshot.toDto(system));
+            }
+            generator.writeEndArray();
+        }
+        body.flush();
+        long size = channel.position();
+        long payloadLength = size - HEADER_SIZE;
+        if (payloadLength > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Snapshot payload of " + payloadLength + " bytes is too large");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(snapshot.getVersion())
+                .putLong(snapshot.getFetchedAt().getEpochSecond())
+                .putInt(snapshot.getFetchedAt().getNano())
+                .putLong(snapshot.getUpstreamVersion() != null ? snapshot.getUpstreamVersion() : NO_UPSTREAM_VERSION)
+                .putInt((int) payloadLength)
+                .putLong(crc.getValue())
+                .flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+        return size;
+    }
+
+    private DependencySnapshot decode(ByteBuffer buffer, SnapshotStorage storage) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new IllegalStateException("Snapshot file is truncated");
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a snapshot file");
+        }
+        int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported snapshot format version " + formatVersion);
+        }
+        long version = buffer.getLong();
+        Instant fetchedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        long upstreamVersion = buffer.getLong();
+        int payloadLength = buffer.getInt();
+        long checksum = buffer.getLong();
+        if (payloadLength < 0 || payloadLength != buffer.remaining()) {
+            throw new IllegalStateException("Snapshot payload length does not match the file size");
+        }
+
+        ByteBuffer payload = buffer.slice();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if (crc.getValue() != checksum) {
+            throw new IllegalStateException("Snapshot checksum mismatch");
+        }
+
+        DependencySnapshot.Builder builder = new DependencySnapshot.Builder(storage);
+        if (upstreamVersion != NO_UPSTREAM_VERSION) {
+            builder.landscapeVersion(upstreamVersion);
+        }
+        parser.parse(new ByteBufferBackedInputStream(payload), builder);
+        return builder.build(version, fetchedAt);
+    }
+}
@@ -0,0 +1,239 @@
+package com.project.diagram_service.snapshot;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps a bounded number of earlier snapshot versions for "as of" diagram requests.
+ *
+ * Only the newest snapshot is held in full. Most earlier versions are kept as a
+ * {@link SnapshotDelta} against the version that replaced them, so they hold just the systems
+ * that differed and positions for the ones that did not. Memory therefore grows with the
+ * volume of changes between versions rather than with versions times landscape size, and
+ * dropping the oldest version is dropping its delta. An earlier version is rebuilt on demand
+ * by applying the deltas from the next newer full snapshot backwards, and the last few
+ * rebuilt versions are cached. Every {@code checkpointInterval}-th retained version is kept in
+ * full as a checkpoint, so a rebuild applies fewer deltas than that however many versions
+ * are retained.
+ *
+ * A version is current from the time it was first fetched until the next version replaces
+ * it; revalidations of the same version do not move that start. The history is thread-safe:
+ * lookups take the chain of deltas they need under the lock and rebuild the version after
+ * releasing it, so recording a new version never waits for a rebuild. Two requests for the
+ * same uncached version may both rebuild it.
+ */
+public final class SnapshotHistory {
+
+    private static final int REBUILT_VERSIONS_CACHED = 2;
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 8;
+
+    /**
+     * An earlier version, either held in full as {@code checkpoint} or rebuilt by applying
+     * {@code delta} to the next newer version.
+     */
+    private record Retained(long version, Instant since, SnapshotDelta delta, DependencySnapshot checkpoint) {
+    }
+
+    /**
+     * What a lookup needs to rebuild a version: a full snapshot and the deltas to apply to it
+     * in order, empty if the snapshot is the version itself.
+     */
+    private record Rebuild(long version, DependencySnapshot base, List<SnapshotDelta> deltas) {
+    }
+
+    private final int retainedVersions;
+    private final int checkpointInterval;
+    /** Earlier versions, newest first. */
+    private final Deque<Retained> retained = new ArrayDeque<>();
+    private final Map<Long, DependencySnapshot> rebuilt = new LinkedHashMap<>(4, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, DependencySnapshot> eldest) {
+            return size() > REBUILT_VERSIONS_CACHED;
+        }
+    };
+    private DependencySnapshot latest;
+    private Instant latestSince;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param retainedVersions how many versions to keep besides the newest one, 0 to keep none
+     */
+    public SnapshotHistory(int retainedVersions) {
+        this(retainedVersions, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Creates an empty history.
+     *
+     * @param retainedVersions   how many versions to keep besides the newest one, 0 to keep none
+     * @param checkpointInterval keep every this many retained versions in full
+     */
+    SnapshotHistory(int retainedVersions, int checkpointInterval) {
+        if (retainedVersions < 0) {
+            throw new IllegalArgumentException("Retained versions must not be negative: " + retainedVersions);
+        }
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1: " + checkpointInterval);
+        }
+        this.retainedVersions = retainedVersions;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Records a snapshot that has just become current. A new version pushes the previous one
+     * into the history, as a delta or as a checkpoint, dropping the oldest version once more
+     * than the configured number are retained; a revalidation of the newest version just
+     * replaces it.
+     *
+     * @param snapshot the snapshot now being served
+     */
+    public synchronized void record(DependencySnapshot snapshot) {
+        if (latest != null && latest.getVersion() == snapshot.getVersion()) {
+            latest = snapshot;
+            return;
+        }
+        if (latest != null && retainedVersions > 0) {
+            retained.addFirst(leadingDeltas() + 1 >= checkpointInterval
+                    ? new Retained(latest.getVersion(), latestSince, null, latest)
+                    : new Retained(latest.getVersion(), latestSince, SnapshotDelta.between(snapshot, latest), null));
+            while (retained.size() > retainedVersions) {
+                rebuilt.remove(retained.removeLast().version());
+            }
+        }
+        latest = snapshot;
+        latestSince = snapshot.getFetchedAt();
+    }
+
+    /**
+     * Returns a retained version.
+     *
+     * @param version the snapshot version
+     * @return the snapshot, or empty if the version is not retained
+     */
+    public Optional<DependencySnapshot> version(long version) {
+        return plan(version).map(this::rebuild);
+    }
+
+    /**
+     * Returns the version that was current at an instant.
+     *
+     * @param asOf the instant
+     * @return the snapshot, or empty if the instant is before the oldest retained version
+     */
+    public Optional<DependencySnapshot> asOf(Instant asOf) {
+        return planAsOf(asOf).map(this::rebuild);
+    }
+
+    /**
+     * Counts the changed systems held across all retained deltas, which is what the deltas
+     * cost on top of the newest snapshot and the checkpoints.
+     *
+     * @return the number of retained changed systems
+     */
+    public synchronized int retainedChangedSystems() {
+        return retained.stream()
+                .filter(entry -> entry.delta() != null)
+                .mapToInt(entry -> entry.delta().changedSystems())
+                .sum();
+    }
+
+    /**
+     * Counts the earlier versions held in full.
+     *
+     * @return the number of checkpoints
+     */
+    synchronized int checkpoints() {
+        return (int) retained.stream().filter(entry -> entry.checkpoint() != null).count();
+    }
+
+    private synchronized Optional<Rebuild> plan(long version) {
+        if (latest == null) {
+            return Optional.empty();
+        }
+        if (latest.getVersion() == version) {
+            return Optional.of(new Rebuild(version, latest, List.of()));
+        }
+        if (retained.stream().noneMatch(entry -> entry.version() == version)) {
+            return Optional.empty();
+        }
+        return Optional.of(chainTo(version));
+    }
+
+    private synchronized Optional<Rebuild> planAsOf(Instant asOf) {
+        if (latest == null) {
+            return Optional.empty();
+        }
+        if (!asOf.isBefore(latestSince)) {
+            return Optional.of(new Rebuild(latest.getVersion(), latest, List.of()));
+        }
+        for (Retained entry : retained) {
+            if (!asOf.isBefore(entry.since())) {
+                return Optional.of(chainTo(entry.version()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Collects the deltas that lead from the nearest newer full snapshot, checkpoint or
+     * cached rebuild to a retained version. Called with the lock held.
+     */
+    private Rebuild chainTo(long version) {
+        DependencySnapshot base = latest;
+        List<SnapshotDelta> deltas = new ArrayList<>();
+        for (Retained entry : retained) {
+            DependencySnapshot full = entry.checkpoint() != null ? entry.checkpoint() : rebuilt.get(entry.version());
+            if (full != null) {
+                base = full;
+                deltas.clear();
+            } else {
+                deltas.add(entry.delta());
+            }
+            if (entry.version() == version) {
+                return new Rebuild(version, base, List.copyOf(deltas));
+            }
+        }
+        throw new IllegalStateException("Snapshot version " + version + " is not retained");
+    }
+
+    /**
+     * Applies the deltas of a plan without holding the lock, then caches the result if the
+     * version is still retained.
+     */
+    private DependencySnapshot rebuild(Rebuild rebuild) {
+        if (rebuild.deltas().isEmpty()) {
+            return rebuild.base();
+        }
+        DependencySnapshot snapshot = rebuild.base();
+        for (SnapshotDelta delta : rebuild.deltas()) {
+            snapshot = delta.apply(snapshot);
+        }
+        synchronized (this) {
+            if (retained.stream().anyMatch(entry -> entry.version() == rebuild.version())) {
+                rebuilt.put(rebuild.version(), snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Counts the retained versions held as deltas that are newer than the newest checkpoint.
+     */
+    private int leadingDeltas() {
+        int count = 0;
+        for (Retained entry : retained) {
+            if (entry.checkpoint() != null) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.diagram_service.snapshot;
+
+import java.time.Instant;
+
+/**
+ * Which snapshot a diagram request reads: the current one, a retained version, or the version
+ * that was current at a point in time.
+ *
+ * @param version the snapshot version to read, or null
+ * @param asOf    the instant whose then-current snapshot to read, or null
+ */
+public record SnapshotSelector(Long version, Instant asOf) {
+
+    /** Selects the current snapshot. */
+    public static final SnapshotSelector LATEST = new SnapshotSelector(null, null);
+
+    public SnapshotSelector {
+        if (version != null && asOf != null) {
+            throw new IllegalArgumentException("Only one of version and asOf can be given");
+        }
+    }
+
+    public boolean isLatest() {
+        return version == null && asOf == null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.diagram_service.snapshot;
+
+import java.time.Instant;
+
+/**
+ * Freshness of the snapshot currently being served.
+ *
+ * @param version    the snapshot version
+ * @param fetchedAt  when the data was last fetched or revalidated
+ * @param ageSeconds seconds since {@code fetchedAt}
+ * @param stale      whether the age exceeds the configured staleness threshold
+ */
+public record SnapshotStatus(long version, Instant fetchedAt, long ageSeconds, boolean stale) {
+}
@@ -0,0 +1,115 @@
+package com.project.diagram_service.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Where a snapshot keeps its per-flow and per-edge columns.
+ *
+ * With {@link #HEAP} the {@link FlowStore} and {@link IntegrationGraph} columns are plain
+ * Java arrays. With {@link #OFF_HEAP} the int columns live in direct buffers and the flow
+ * ids and purposes are kept as UTF-8 bytes in a direct buffer, decoded into a String only
+ * when they are read. An enterprise-wide landscape then costs the garbage collector a few
+ * dozen buffer objects instead of hundreds of thousands of Strings, at the price of a
+ * bounds-checked read per access. The dictionary, node names and indexes stay on the heap,
+ * since they grow with the number of distinct values and systems rather than with flows.
+ *
+ * The mode is configured through {@code services.core-service.snapshot.storage}.
+ */
+public enum SnapshotStorage {
+
+    HEAP {
+        @Override
+        IntBuffer ints(int[] values) {
+            return IntBuffer.wrap(values);
+        }
+
+        @Override
+        StringColumn strings(List<String> values) {
+            return new HeapStrings(values.toArray(String[]::new));
+        }
+    },
+
+    OFF_HEAP {
+        @Override
+        IntBuffer ints(int[] values) {
+            IntBuffer buffer = ByteBuffer.allocateDirect(values.length * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+            buffer.put(values);
+            return buffer;
+        }
+
+        @Override
+        StringColumn strings(List<String> values) {
+            byte[][] encoded = new byte[values.size()][];
+            BitSet nulls = new BitSet();
+            int[] offsets = new int[values.size() + 1];
+            for (int i = 0; i < encoded.length; i++) {
+                String value = values.get(i);
+                if (value == null) {
+                    nulls.set(i);
+                    encoded[i] = new byte[0];
+                } else {
+                    encoded[i] = value.getBytes(StandardCharsets.UTF_8);
+                }
+                offsets[i + 1] = Math.addExact(offsets[i], encoded[i].length);
+            }
+            ByteBuffer bytes = ByteBuffer.allocateDirect(offsets[encoded.length]);
+            for (byte[] value : encoded) {
+                bytes.put(value);
+            }
+            return new DirectStrings(bytes, ints(offsets), nulls);
+        }
+    };
+
+    /**
+     * Freezes an int column.
+     *
+     * @param values the column, not modified afterwards
+     * @return a buffer read with absolute {@link IntBuffer#get(int)}
+     */
+    abstract IntBuffer ints(int[] values);
+
+    /**
+     * Freezes a String column.
+     *
+     * @param values the column, nulls allowed
+     * @return the column
+     */
+    abstract StringColumn strings(List<String> values);
+
+    /**
+     * Read-only column of possibly null Strings, addressed by index.
+     */
+    interface StringColumn {
+
+        String get(int index);
+    }
+
+    private record HeapStrings(String[] values) implements StringColumn {
+
+        @Override
+        public String get(int index) {
+            return values[index];
+        }
+    }
+
+    private record DirectStrings(ByteBuffer bytes, IntBuffer offsets, BitSet nulls) implements StringColumn {
+
+        @Override
+        public String get(int index) {
+            if (nulls.get(index)) {
+                return null;
+            }
+            int start = offsets.get(index);
+            byte[] value = new byte[offsets.get(index + 1) - start];
+            bytes.get(start, value);
+            return new String(value, StandardCharsets.UTF_8);
+        }
+    }
+}
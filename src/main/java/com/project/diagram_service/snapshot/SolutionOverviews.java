@@ -0,0 +1,82 @@
+package com.project.diagram_service.snapshot;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.project.diagram_service.dto.CommonSolutionReviewDTO;
+import java.io.IOException;
+
+/**
+ * Compact storage of the solution overviews held by a snapshot.
+ *
+ * Diagrams only read the solution name and review code of a system, but a full overview
+ * also carries its concerns, application users and free-text review fields. The snapshot
+ * therefore keeps each overview as Smile-encoded (binary JSON) bytes, decoded only when the
+ * full record is served, next to a summary with just the fields diagrams read.
+ */
+final class SolutionOverviews {
+
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory())
+            .findAndRegisterModules()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private SolutionOverviews() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Encodes an overview.
+     *
+     * @param overview the overview as parsed from the core service
+     * @return the encoded overview, or null if the overview is null
+     */
+    static byte[] encode(CommonSolutionReviewDTO.SolutionOverview overview) {
+        if (overview == null) {
+            return null;
+        }
+        try {
+            return SMILE_MAPPER.writeValueAsBytes(overview);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode solution overview " + overview.getId(), e);
+        }
+    }
+
+    /**
+     * Decodes an overview encoded by {@link #encode(CommonSolutionReviewDTO.SolutionOverview)}.
+     *
+     * @param encoded the encoded overview, possibly null
+     * @return a new overview, or null if {@code encoded} is null
+     */
+    static CommonSolutionReviewDTO.SolutionOverview decode(byte[] encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        try {
+            return SMILE_MAPPER.readValue(encoded, CommonSolutionReviewDTO.SolutionOverview.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode solution overview", e);
+        }
+    }
+
+    /**
+     * Creates the summary of an overview that diagrams read: the solution details with only
+     * the solution name and review code.
+     *
+     * @param overview the full overview
+     * @return the summary, or null if the overview is null
+     */
+    static CommonSolutionReviewDTO.SolutionOverview summary(CommonSolutionReviewDTO.SolutionOverview overview) {
+        if (overview == null) {
+            return null;
+        }
+        CommonSolutionReviewDTO.SolutionOverview summary = new CommonSolutionReviewDTO.SolutionOverview();
+        CommonSolutionReviewDTO.SolutionDetails details = overview.getSolutionDetails();
+        if (details != null) {
+            CommonSolutionReviewDTO.SolutionDetails summaryDetails = new CommonSolutionReviewDTO.SolutionDetails();
+            summaryDetails.setSolutionName(details.getSolutionName());
+            summaryDetails.setSolutionReviewCode(details.getSolutionReviewCode());
+            summary.setSolutionDetails(summaryDetails);
+        }
+        return summary;
+    }
+}
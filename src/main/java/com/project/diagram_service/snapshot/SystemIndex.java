@@ -0,0 +1,195 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.CommonSolutionReviewDTO;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lookup table from system code to the metadata diagram builders need for a node.
+ *
+ * Diagram builders used to scan the whole dependency list for every node they touched,
+ * which made the overall diagram quadratic in the size of the landscape. The index is
+ * built in the same pass that ingests a snapshot and answers each lookup with a single
+ * hash probe. When the same code appears more than once the first system wins, matching
+ * the order in which the core service returned them.
+ *
+ * It also keeps, per system code, the indexes in the snapshot's {@link FlowStore} of the
+ * flows incident to that system: those the system owns and those naming it as counterpart.
+ * A single-system diagram then visits only the flows of that system instead of every flow
+ * in the landscape.
+ */
+public final class SystemIndex {
+
+    /**
+     * Metadata of one system known to the core service.
+     *
+     * @param system     the system as returned by the core service
+     * @param name       the solution name, or null if the system has none
+     * @param reviewCode the solution review code, or null if the system has none
+     */
+    public record Entry(SystemDependencyDTO system, String name, String reviewCode) {
+    }
+
+    private static final int[] NO_FLOWS = new int[0];
+
+    private final Map<String, Entry> entries;
+    private final Set<String> knownCodes;
+    private final Map<String, int[]> incidentFlows;
+
+    private SystemIndex(Map<String, Entry> entries, Set<String> knownCodes, Map<String, int[]> incidentFlows) {
+        this.entries = entries;
+        this.knownCodes = knownCodes;
+        this.incidentFlows = incidentFlows;
+    }
+
+    /**
+     * Indexes an already materialized list of systems and the store of their flows.
+     *
+     * @param systems the systems to index
+     * @param flows   the flows of the systems
+     * @return the index
+     */
+    static SystemIndex of(List<SystemDependencyDTO> systems, FlowStore flows) {
+        Builder builder = new Builder();
+        systems.forEach(builder::addSystem);
+        for (int flow = 0; flow < flows.size(); flow++) {
+            builder.addFlow(flows.owner(flow), flows.counterpart(flow), flow);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the system with the given code.
+     *
+     * @param systemCode the system code
+     * @return the system, or null if the core service does not know it
+     */
+    public SystemDependencyDTO system(String systemCode) {
+        Entry entry = entries.get(systemCode);
+        return entry != null ? entry.system() : null;
+    }
+
+    /**
+     * Checks whether a system with the given code is part of the snapshot.
+     *
+     * @param systemCode the system code
+     * @return true if the core service returned the system itself
+     */
+    public boolean contains(String systemCode) {
+        return entries.containsKey(systemCode);
+    }
+
+    /**
+     * Returns the display name of a system.
+     *
+     * @param systemCode the system code
+     * @return the solution name, or the code itself if the system is unknown or unnamed
+     */
+    public String nameOrCode(String systemCode) {
+        Entry entry = entries.get(systemCode);
+        return entry != null && entry.name() != null ? entry.name() : systemCode;
+    }
+
+    /**
+     * Returns the solution review code of a system.
+     *
+     * @param systemCode the system code
+     * @return the review code, or null if the system is unknown or has none
+     */
+    public String reviewCode(String systemCode) {
+        Entry entry = entries.get(systemCode);
+        return entry != null ? entry.reviewCode() : null;
+    }
+
+    /**
+     * Checks whether a code is mentioned anywhere in the snapshot, either as a system or as
+     * the counterpart of a flow, in raw or normalized form.
+     *
+     * @param code the system code
+     * @return true if the code occurs in the snapshot
+     */
+    public boolean isKnown(String code) {
+        return knownCodes.contains(code);
+    }
+
+    /**
+     * Returns the flows a system takes part in, either as owner or as the counterpart named
+     * by its raw code, in the order the core service returned them. A flow owned by a system
+     * that also names itself as counterpart is listed once. The owner of each flow is
+     * {@link FlowStore#owner(int)}.
+     *
+     * @param systemCode the system code
+     * @return the indexes of the incident flows in the flow store, empty if there are none;
+     *         the array is shared and must not be modified
+     */
+    public int[] incidentFlows(String systemCode) {
+        return incidentFlows.getOrDefault(systemCode, NO_FLOWS);
+    }
+
+    /**
+     * Incrementally builds a {@link SystemIndex} as systems are ingested.
+     */
+    static final class Builder {
+
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final Set<String> knownCodes = new HashSet<>();
+        private final Map<String, IntList> incidentFlows = new HashMap<>();
+
+        /**
+         * Adds one system, without its flows.
+         *
+         * @param dependency the system to add
+         */
+        void addSystem(SystemDependencyDTO dependency) {
+            if (dependency == null) {
+                return;
+            }
+            String systemCode = dependency.getSystemCode();
+            knownCodes.add(systemCode);
+            if (systemCode != null) {
+                entries.putIfAbsent(systemCode, entryFor(dependency));
+            }
+        }
+
+        /**
+         * Adds one flow: the counterpart code, and the flow under both the owner and the counterpart.
+         *
+         * @param ownerCode       the code of the system whose flow list contains the flow
+         * @param counterpartCode the raw counterpart code of the flow
+         * @param flow            the index of the flow in the flow store
+         */
+        void addFlow(String ownerCode, String counterpartCode, int flow) {
+            knownCodes.add(counterpartCode);
+            knownCodes.add(IntegrationFlowUtils.normalizeNodeId(counterpartCode));
+
+            addIncident(ownerCode, flow);
+            if (counterpartCode != null && !counterpartCode.equals(ownerCode)) {
+                addIncident(counterpartCode, flow);
+            }
+        }
+
+        SystemIndex build() {
+            Map<String, int[]> flows = new HashMap<>(incidentFlows.size() * 2);
+            incidentFlows.forEach((code, list) -> flows.put(code, list.toArray()));
+            return new SystemIndex(entries, knownCodes, flows);
+        }
+
+        private void addIncident(String systemCode, int flow) {
+            if (systemCode != null) {
+                incidentFlows.computeIfAbsent(systemCode, k -> new IntList(4)).add(flow);
+            }
+        }
+
+        private static Entry entryFor(SystemDependencyDTO dependency) {
+            CommonSolutionReviewDTO.SolutionOverview overview = dependency.getSolutionOverview();
+            CommonSolutionReviewDTO.SolutionDetails details = overview != null ? overview.getSolutionDetails() : null;
+            return new Entry(dependency,
+                    details != null ? details.getSolutionName() : null,
+                    details != null ? details.getSolutionReviewCode() : null);
+        }
+    }
+}
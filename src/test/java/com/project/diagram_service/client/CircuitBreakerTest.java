@@ -0,0 +1,192 @@
+package com.project.diagram_service.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private MutableClock clock;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        circuitBreaker = new CircuitBreaker(2, Duration.ofSeconds(30), clock);
+    }
+
+    @Test
+    @DisplayName("Should pass results through while closed")
+    void testCall_Closed() {
+        // When
+        String result = circuitBreaker.call(() -> "ok");
+
+        // Then
+        assertThat(result).isEqualTo("ok");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should open after consecutive failures and reject calls without running them")
+    void testCall_OpensAfterThreshold() {
+        // Given
+        recordFailures(2);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.call(calls::incrementAndGet))
+            .isInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should reset the failure count after a success")
+    void testCall_SuccessResetsFailures() {
+        // Given
+        recordFailures(1);
+        circuitBreaker.call(() -> "ok");
+
+        // When
+        recordFailures(1);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should not count interrupted or cancelled calls as failures")
+    void testCall_CancellationNotCounted() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> circuitBreaker.call(() -> {
+                throw new ResourceAccessException("I/O error", new InterruptedIOException("interrupted"));
+            })).isInstanceOf(ResourceAccessException.class);
+            assertThatThrownBy(() -> circuitBreaker.call(() -> {
+                throw new CancellationException("cancelled");
+            })).isInstanceOf(CancellationException.class);
+        }
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should still count a timeout as a failure")
+    void testCall_TimeoutCounted() {
+        // When
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> circuitBreaker.call(() -> {
+                throw new ResourceAccessException("I/O error", new SocketTimeoutException("timed out"));
+            })).isInstanceOf(ResourceAccessException.class);
+        }
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should close again when the trial call after the open period succeeds")
+    void testCall_HalfOpenTrialSucceeds() {
+        // Given
+        recordFailures(2);
+        clock.advance(Duration.ofSeconds(30));
+
+        // When
+        String result = circuitBreaker.call(() -> "recovered");
+
+        // Then
+        assertThat(result).isEqualTo("recovered");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should reopen when the trial call fails")
+    void testCall_HalfOpenTrialFails() {
+        // Given
+        recordFailures(2);
+        clock.advance(Duration.ofSeconds(31));
+
+        // When
+        recordFailures(1);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.call(() -> "ok"))
+            .isInstanceOf(CircuitBreakerOpenException.class);
+    }
+
+    @Test
+    @DisplayName("Should not count client errors as failures")
+    void testCall_ClientErrorsDoNotOpen() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> circuitBreaker.call(() -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            })).isInstanceOf(HttpClientErrorException.class);
+        }
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should reject a threshold below one")
+    void testConstructor_InvalidThreshold() {
+        // When & Then
+        assertThatThrownBy(() -> new CircuitBreaker(0, Duration.ofSeconds(1), clock))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void recordFailures(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThatThrownBy(() -> circuitBreaker.call(() -> {
+                throw new ResourceAccessException("Connection refused");
+            })).isInstanceOf(ResourceAccessException.class);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
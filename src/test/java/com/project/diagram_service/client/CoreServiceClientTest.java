@@ -2,13 +2,16 @@ package com.project.diagram_service.client;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.diagram_service.dto.SystemDependencyChangesDTO;
 import com.project.diagram_service.dto.SystemDependencyDTO;
 import com.project.diagram_service.dto.BusinessCapabilityDiagramDTO;
 import com.project.diagram_service.dto.BusinessCapabilityDTO;
 import com.project.diagram_service.dto.CommonSolutionReviewDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -16,11 +19,23 @@ import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
 
 @DisplayName("CoreServiceClient Tests")
@@ -29,75 +44,29 @@ class CoreServiceClientTest {
     private CoreServiceClient coreServiceClient;
     private MockRestServiceServer mockServer;
     private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
     private final String baseUrl = "http://test-core-service.com";
 
     @BeforeEach
     void setUp() {
-        coreServiceClient = new CoreServiceClient(baseUrl);
-        // Access the RestTemplate through reflection for testing
+        meterRegistry = new SimpleMeterRegistry();
         RestTemplate restTemplate = new RestTemplate();
         mockServer = MockRestServiceServer.createServer(restTemplate);
         objectMapper = new ObjectMapper();
-        
-        // Replace the RestTemplate in the client
-        try {
-            var restTemplateField = CoreServiceClient.class.getDeclaredField("restTemplate");
-            restTemplateField.setAccessible(true);
-            restTemplateField.set(coreServiceClient, restTemplate);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to set up test RestTemplate", e);
-        }
-    }
-
-    @Test
-    @DisplayName("Should successfully retrieve system dependencies")
-    void testGetSystemDependencies_Success() throws JsonProcessingException {
-        // Given
-        List<SystemDependencyDTO> expectedResponse = createMockSystemDependencies();
-        String jsonResponse = objectMapper.writeValueAsString(expectedResponse);
-
-        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
-                .andExpect(method(HttpMethod.GET))
-                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON));
-
-        // When
-        List<SystemDependencyDTO> result = coreServiceClient.getSystemDependencies();
-
-        // Then
-        assertThat(result)
-            .isNotNull()
-            .hasSize(2)
-            .satisfies(systems -> {
-                assertThat(systems.get(0).getSystemCode()).isEqualTo("SYS-001");
-                assertThat(systems.get(1).getSystemCode()).isEqualTo("SYS-002");
-            });
-        mockServer.verify();
-    }
-
-    @Test
-    @DisplayName("Should handle HTTP error when retrieving system dependencies")
-    void testGetSystemDependencies_HttpError() {
-        // Given
-        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
-                .andExpect(method(HttpMethod.GET))
-                .andRespond(withServerError());
-
-        // When & Then
-        assertThatThrownBy(() -> coreServiceClient.getSystemDependencies())
-                .isInstanceOf(RestClientException.class);
-        mockServer.verify();
+        coreServiceClient = new CoreServiceClient(baseUrl, restTemplate, meterRegistry, objectMapper,
+                new CircuitBreaker(5, Duration.ofSeconds(30), Clock.systemUTC()));
     }
 
     @Test
-    @DisplayName("Should handle malformed JSON response for system dependencies")
-    void testGetSystemDependencies_MalformedJson() {
+    @DisplayName("Should handle malformed JSON response for business capabilities")
+    void testGetBusinessCapabilities_MalformedJson() {
         // Given
-        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withSuccess("invalid-json", MediaType.APPLICATION_JSON));
 
         // When & Then
-        assertThatThrownBy(() -> coreServiceClient.getSystemDependencies())
+        assertThatThrownBy(() -> coreServiceClient.getBusinessCapabilities())
                 .isInstanceOf(RestClientException.class);
         mockServer.verify();
     }
@@ -162,19 +131,527 @@ class CoreServiceClientTest {
     }
 
     @Test
-    @DisplayName("Should handle network timeout")
-    void testGetSystemDependencies_NetworkTimeout() {
+    @DisplayName("Should coalesce concurrent calls into a single upstream request")
+    void testGetBusinessCapabilities_CoalescesConcurrentCalls() throws Exception {
+        // Given - the first request blocks until released
+        String jsonResponse = objectMapper.writeValueAsString(createMockBusinessCapabilities());
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+
+        mockServer.expect(once(), requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(request -> {
+                    requestStarted.countDown();
+                    try {
+                        releaseResponse.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return withSuccess(jsonResponse, MediaType.APPLICATION_JSON).createResponse(request);
+                });
+
+        // When - a second caller arrives while the first request is in flight
+        CompletableFuture<List<BusinessCapabilityDiagramDTO>> first =
+                CompletableFuture.supplyAsync(coreServiceClient::getBusinessCapabilities);
+        assertThat(requestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<List<BusinessCapabilityDiagramDTO>> second =
+                CompletableFuture.supplyAsync(coreServiceClient::getBusinessCapabilities);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalescedCount("getBusinessCapabilities") < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        releaseResponse.countDown();
+
+        // Then - both callers share one request and one deserialized result
+        assertThat(first.get(5, TimeUnit.SECONDS)).hasSize(2);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get());
+        assertThat(coalescedCount("getBusinessCapabilities")).isEqualTo(1.0);
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should keep a shared request going when the caller that started it is cancelled")
+    void testGetBusinessCapabilities_CancelledCallerDoesNotFailOthers() throws Exception {
+        // Given - a breaker that would open on the first failure, and a request that blocks until released
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(restTemplate);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ofMinutes(1), Clock.systemUTC());
+        CoreServiceClient client = new CoreServiceClient(baseUrl, restTemplate, meterRegistry, objectMapper, circuitBreaker);
+        String jsonResponse = objectMapper.writeValueAsString(createMockBusinessCapabilities());
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+
+        server.expect(once(), requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andRespond(request -> {
+                    requestStarted.countDown();
+                    try {
+                        releaseResponse.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return withSuccess(jsonResponse, MediaType.APPLICATION_JSON).createResponse(request);
+                });
+
+        // When - a tree request forks the call, a plain caller joins it, then the tree request is cancelled
+        CountDownLatch treeCallFinished = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> treeCall = executor.submit(() -> {
+                try {
+                    return client.getBusinessCapabilities();
+                } finally {
+                    treeCallFinished.countDown();
+                }
+            });
+            assertThat(requestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<List<BusinessCapabilityDiagramDTO>> plainCall =
+                    CompletableFuture.supplyAsync(client::getBusinessCapabilities);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (coalescedCount("getBusinessCapabilities") < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            treeCall.cancel(true);
+
+            // Then - the cancelled caller stops waiting at once, the plain caller still gets the result
+            assertThat(treeCallFinished.await(5, TimeUnit.SECONDS)).isTrue();
+            releaseResponse.countDown();
+            assertThat(plainCall.get(5, TimeUnit.SECONDS)).hasSize(2);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(meterRegistry.find(CoreServiceMetrics.ERRORS_METRIC).counter()).isNull();
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Should issue a fresh request once the previous one has completed")
+    void testGetBusinessCapabilities_SequentialCallsNotCoalesced() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockBusinessCapabilities());
+        mockServer.expect(times(2), requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON));
+
+        // When
+        coreServiceClient.getBusinessCapabilities();
+        coreServiceClient.getBusinessCapabilities();
+
+        // Then
+        assertThat(coalescedCount("getBusinessCapabilities")).isZero();
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should send If-None-Match and reuse the parsed model on 304")
+    void testGetBusinessCapabilities_NotModifiedWithETag() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockBusinessCapabilities());
+        HttpHeaders validators = new HttpHeaders();
+        validators.setETag("\"v1\"");
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(validators));
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // When
+        List<BusinessCapabilityDiagramDTO> first = coreServiceClient.getBusinessCapabilities();
+        List<BusinessCapabilityDiagramDTO> second = coreServiceClient.getBusinessCapabilities();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should stream each system dependency to the consumer")
+    void testStreamSystemDependencies_Success() throws JsonProcessingException {
         // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockSystemDependencies());
+
         mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
                 .andExpect(method(HttpMethod.GET))
-                .andRespond(withServerError().body("Connection timeout"));
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON));
+
+        // When
+        List<SystemDependencyDTO> received = new ArrayList<>();
+        boolean modified = coreServiceClient.streamSystemDependencies(false, received::add);
+
+        // Then
+        assertThat(modified).isTrue();
+        assertThat(received).isEqualTo(createMockSystemDependencies());
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should report unchanged data on 304 without invoking the consumer")
+    void testStreamSystemDependencies_NotModified() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockSystemDependencies());
+        HttpHeaders validators = new HttpHeaders();
+        validators.setETag("\"v1\"");
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(validators));
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // When
+        coreServiceClient.streamSystemDependencies(true, dependency -> { });
+        List<SystemDependencyDTO> received = new ArrayList<>();
+        boolean modified = coreServiceClient.streamSystemDependencies(true, received::add);
+
+        // Then
+        assertThat(modified).isFalse();
+        assertThat(received).isEmpty();
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should not send validators for an unconditional stream")
+    void testStreamSystemDependencies_Unconditional() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockSystemDependencies());
+        HttpHeaders validators = new HttpHeaders();
+        validators.setETag("\"v1\"");
+
+        mockServer.expect(times(2), requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(validators));
+
+        // When
+        coreServiceClient.streamSystemDependencies(false, dependency -> { });
+        boolean modified = coreServiceClient.streamSystemDependencies(false, dependency -> { });
+
+        // Then
+        assertThat(modified).isTrue();
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should reject a null system dependencies body when streaming")
+    void testStreamSystemDependencies_NullBody() {
+        // Given
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+                .andRespond(withSuccess("null", MediaType.APPLICATION_JSON));
+
+        // When & Then
+        assertThatThrownBy(() -> coreServiceClient.streamSystemDependencies(false, dependency -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Core service returned no system dependencies");
+    }
+
+    @Test
+    @DisplayName("Should fail fast without calling the core service while the circuit breaker is open")
+    void testGetBusinessCapabilities_CircuitBreakerOpen() {
+        // Given
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(restTemplate);
+        CoreServiceClient client = new CoreServiceClient(baseUrl, restTemplate, meterRegistry, objectMapper,
+                new CircuitBreaker(1, Duration.ofMinutes(1), Clock.systemUTC()));
+
+        server.expect(once(), requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
 
         // When & Then
-        assertThatThrownBy(() -> coreServiceClient.getSystemDependencies())
+        assertThatThrownBy(client::getBusinessCapabilities)
                 .isInstanceOf(RestClientException.class);
+        assertThatThrownBy(() -> client.streamSystemDependencies(false, dependency -> { }))
+                .isInstanceOf(CircuitBreakerOpenException.class);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Should report the landscape version header to the sink before the first system")
+    void testStreamSystemDependencies_LandscapeVersion() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockSystemDependencies());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CoreServiceClient.LANDSCAPE_VERSION_HEADER, "42");
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(headers));
+
+        // When
+        List<String> events = new ArrayList<>();
+        coreServiceClient.streamSystemDependencies(false, new SystemDependencySink() {
+            @Override
+            public void landscapeVersion(long version) {
+                events.add("version:" + version);
+            }
+
+            @Override
+            public void accept(SystemDependencyDTO dependency) {
+                events.add(dependency.getSystemCode());
+            }
+        });
+
+        // Then
+        assertThat(events).containsExactly("version:42", "SYS-001", "SYS-002");
         mockServer.verify();
     }
 
+    @Test
+    @DisplayName("Should ignore a landscape version header that is not a number")
+    void testStreamSystemDependencies_MalformedLandscapeVersion() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockSystemDependencies());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CoreServiceClient.LANDSCAPE_VERSION_HEADER, "v42");
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(headers));
+
+        // When
+        List<String> events = new ArrayList<>();
+        boolean modified = coreServiceClient.streamSystemDependencies(false, new SystemDependencySink() {
+            @Override
+            public void landscapeVersion(long version) {
+                events.add("version:" + version);
+            }
+
+            @Override
+            public void accept(SystemDependencyDTO dependency) {
+                events.add(dependency.getSystemCode());
+            }
+        });
+
+        // Then
+        assertThat(modified).isTrue();
+        assertThat(events).containsExactly("SYS-001", "SYS-002");
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should retrieve the system dependency changes since a landscape version")
+    void testGetSystemDependencyChanges_Success() throws JsonProcessingException {
+        // Given
+        SystemDependencyChangesDTO changes = new SystemDependencyChangesDTO();
+        changes.setFromVersion(41L);
+        changes.setToVersion(43L);
+        changes.setUpserted(createMockSystemDependencies().subList(0, 1));
+        changes.setRemoved(List.of("SYS-009"));
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies/changes?since=41"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(objectMapper.writeValueAsString(changes), MediaType.APPLICATION_JSON));
+
+        // When
+        Optional<SystemDependencyChangesDTO> result = coreServiceClient.getSystemDependencyChanges(41L);
+
+        // Then
+        assertThat(result).contains(changes);
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should report no changes when the core service no longer has the requested version")
+    void testGetSystemDependencyChanges_Gone() {
+        // Given
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies/changes?since=1"))
+                .andRespond(withStatus(HttpStatus.GONE));
+
+        // When & Then
+        assertThat(coreServiceClient.getSystemDependencyChanges(1L)).isEmpty();
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should report no changes when the core service requires a full resync")
+    void testGetSystemDependencyChanges_ResyncRequired() throws JsonProcessingException {
+        // Given
+        SystemDependencyChangesDTO changes = new SystemDependencyChangesDTO();
+        changes.setResyncRequired(true);
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies/changes?since=5"))
+                .andRespond(withSuccess(objectMapper.writeValueAsString(changes), MediaType.APPLICATION_JSON));
+
+        // When & Then
+        assertThat(coreServiceClient.getSystemDependencyChanges(5L)).isEmpty();
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should send If-Modified-Since when only Last-Modified is available")
+    void testGetAllBusinessCapabilities_NotModifiedWithLastModified() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockAllBusinessCapabilities());
+        String lastModified = "Wed, 21 Oct 2026 07:28:00 GMT";
+        HttpHeaders validators = new HttpHeaders();
+        validators.set(HttpHeaders.LAST_MODIFIED, lastModified);
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/dropdowns/business-capabilities"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(validators));
+        mockServer.expect(requestTo(baseUrl + "/api/v1/dropdowns/business-capabilities"))
+                .andExpect(header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // When
+        List<BusinessCapabilityDTO> first = coreServiceClient.getAllBusinessCapabilities();
+        List<BusinessCapabilityDTO> second = coreServiceClient.getAllBusinessCapabilities();
+
+        // Then
+        assertThat(second).isSameAs(first).hasSize(3);
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should replace the cached model when the resource changed")
+    void testGetBusinessCapabilities_ModifiedReplacesCache() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockBusinessCapabilities());
+        HttpHeaders v1 = new HttpHeaders();
+        v1.setETag("\"v1\"");
+        HttpHeaders v2 = new HttpHeaders();
+        v2.setETag("\"v2\"");
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(v1));
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(v2));
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // When
+        List<BusinessCapabilityDiagramDTO> first = coreServiceClient.getBusinessCapabilities();
+        List<BusinessCapabilityDiagramDTO> second = coreServiceClient.getBusinessCapabilities();
+        List<BusinessCapabilityDiagramDTO> third = coreServiceClient.getBusinessCapabilities();
+
+        // Then
+        assertThat(second).isNotSameAs(first);
+        assertThat(third).isSameAs(second);
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should record latency, transfer, deserialization, size and record count per method")
+    void testMetrics_SuccessfulCall() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockBusinessCapabilities());
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON));
+
+        // When
+        coreServiceClient.getBusinessCapabilities();
+
+        // Then
+        assertThat(meterRegistry.get(CoreServiceMetrics.REQUESTS_METRIC)
+                .tag("method", "getBusinessCapabilities").tag("status", "200").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CoreServiceMetrics.TRANSFER_METRIC)
+                .tag("method", "getBusinessCapabilities").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CoreServiceMetrics.DESERIALIZATION_METRIC)
+                .tag("method", "getBusinessCapabilities").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CoreServiceMetrics.RESPONSE_SIZE_METRIC)
+                .tag("method", "getBusinessCapabilities").summary().totalAmount()).isEqualTo(jsonResponse.length());
+        assertThat(meterRegistry.get(CoreServiceMetrics.RESPONSE_RECORDS_METRIC)
+                .tag("method", "getBusinessCapabilities").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.find(CoreServiceMetrics.ERRORS_METRIC).counter()).isNull();
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should not record body metrics for a 304 answer")
+    void testMetrics_NotModified() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockAllBusinessCapabilities());
+        HttpHeaders validators = new HttpHeaders();
+        validators.setETag("\"v1\"");
+
+        mockServer.expect(requestTo(baseUrl + "/api/v1/dropdowns/business-capabilities"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON).headers(validators));
+        mockServer.expect(requestTo(baseUrl + "/api/v1/dropdowns/business-capabilities"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // When
+        coreServiceClient.getAllBusinessCapabilities();
+        coreServiceClient.getAllBusinessCapabilities();
+
+        // Then
+        assertThat(meterRegistry.get(CoreServiceMetrics.REQUESTS_METRIC)
+                .tag("method", "getAllBusinessCapabilities").tag("status", "304").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CoreServiceMetrics.TRANSFER_METRIC)
+                .tag("method", "getAllBusinessCapabilities").timer().count()).isEqualTo(1);
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should count errors tagged by response status and exception")
+    void testMetrics_ErrorStatus() {
+        // Given
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/business-capabilities"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // When
+        assertThatThrownBy(coreServiceClient::getBusinessCapabilities)
+                .isInstanceOf(RestClientException.class);
+
+        // Then
+        assertThat(meterRegistry.get(CoreServiceMetrics.ERRORS_METRIC)
+                .tag("method", "getBusinessCapabilities")
+                .tag("status", "503")
+                .tag("exception", "ServiceUnavailable")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get(CoreServiceMetrics.REQUESTS_METRIC)
+                .tag("method", "getBusinessCapabilities").tag("status", "503").timer().count()).isEqualTo(1);
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should count the records of a streamed response")
+    void testMetrics_Stream() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockSystemDependencies());
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON));
+
+        // When
+        coreServiceClient.streamSystemDependencies(false, dependency -> { });
+
+        // Then
+        assertThat(meterRegistry.get(CoreServiceMetrics.RESPONSE_RECORDS_METRIC)
+                .tag("method", "streamSystemDependencies").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get(CoreServiceMetrics.RESPONSE_SIZE_METRIC)
+                .tag("method", "streamSystemDependencies").summary().totalAmount()).isEqualTo(jsonResponse.length());
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should time the sink of a streamed response apart from deserialization")
+    void testMetrics_StreamSinkTimedSeparately() throws JsonProcessingException {
+        // Given
+        String jsonResponse = objectMapper.writeValueAsString(createMockSystemDependencies());
+        mockServer.expect(requestTo(baseUrl + "/api/v1/solution-review/system-dependencies"))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON));
+
+        // When - the sink takes 200ms per record
+        coreServiceClient.streamSystemDependencies(false, dependency -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Then
+        assertThat(meterRegistry.get(CoreServiceMetrics.SINK_METRIC)
+                .tag("method", "streamSystemDependencies").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(400);
+        assertThat(meterRegistry.get(CoreServiceMetrics.DESERIALIZATION_METRIC)
+                .tag("method", "streamSystemDependencies").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isLessThan(400);
+        mockServer.verify();
+    }
+
+    private double coalescedCount(String method) {
+        var counter = meterRegistry.find("core.service.client.coalesced").tag("method", method).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+
     // Helper methods
     private List<SystemDependencyDTO> createMockSystemDependencies() {
         SystemDependencyDTO system1 = new SystemDependencyDTO();
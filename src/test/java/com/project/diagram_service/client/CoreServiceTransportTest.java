@@ -0,0 +1,197 @@
+package com.project.diagram_service.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+@DisplayName("Core Service Transport Tests")
+class CoreServiceTransportTest {
+
+    private final String url = "http://test-core-service.com/api/v1/dropdowns/business-capabilities";
+
+    @Test
+    @DisplayName("Should request gzip and decode a compressed body")
+    void testGzipDecodingInterceptor_DecodesBody() throws IOException {
+        // Given
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new GzipDecodingInterceptor());
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        mockServer.expect(requestTo(url))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(gzip("[{\"l1\":\"Finance\"}]"), MediaType.APPLICATION_JSON).headers(headers));
+
+        // When
+        String body = restTemplate.getForObject(url, String.class);
+
+        // Then
+        assertThat(body).isEqualTo("[{\"l1\":\"Finance\"}]");
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should pass through an uncompressed body unchanged")
+    void testGzipDecodingInterceptor_PassesThroughIdentity() {
+        // Given
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new GzipDecodingInterceptor());
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+
+        mockServer.expect(requestTo(url))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // When
+        String body = restTemplate.getForObject(url, String.class);
+
+        // Then
+        assertThat(body).isEqualTo("[]");
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should fail the exchange once the deadline has passed")
+    void testDeadlineInterceptor_ExpiredDeadline() {
+        // Given
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new DeadlineInterceptor(Duration.ZERO));
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+
+        mockServer.expect(requestTo(url))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // When & Then
+        assertThatThrownBy(() -> restTemplate.getForObject(url, String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("deadline");
+    }
+
+    @Test
+    @DisplayName("Should complete normally within the deadline")
+    void testDeadlineInterceptor_WithinDeadline() {
+        // Given
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new DeadlineInterceptor(Duration.ofSeconds(30)));
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+
+        mockServer.expect(requestTo(url))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // When
+        String body = restTemplate.getForObject(url, String.class);
+
+        // Then
+        assertThat(body).isEqualTo("[]");
+        mockServer.verify();
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Should abort a body read that is blocked when the deadline passes")
+    void testDeadlineInterceptor_AbortsBlockedRead() {
+        // Given - a body that never delivers a byte until the response is closed
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new DeadlineInterceptor(Duration.ofMillis(200)));
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+
+        CountDownLatch closed = new CountDownLatch(1);
+        InputStream blockedBody = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                try {
+                    closed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Stream closed");
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+        mockServer.expect(requestTo(url))
+                .andRespond(request -> new MockClientHttpResponse(blockedBody, HttpStatus.OK));
+
+        // When & Then
+        assertThatThrownBy(() -> restTemplate.getForObject(url, String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("deadline");
+        assertThat(closed.getCount()).isZero();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should release the connection permit once each exchange completes")
+    void testConcurrencyLimitInterceptor_ReleasesPermit() {
+        // Given
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(1, Duration.ZERO);
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(limiter);
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+
+        mockServer.expect(ExpectedCount.twice(), requestTo(url))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // When
+        restTemplate.getForObject(url, String.class);
+        restTemplate.getForObject(url, String.class);
+
+        // Then
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+        mockServer.verify();
+    }
+
+    @Test
+    @DisplayName("Should fail an exchange when no connection permit becomes free in time")
+    void testConcurrencyLimitInterceptor_NoPermitFree() {
+        // Given
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(1, Duration.ZERO);
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(limiter);
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+
+        mockServer.expect(ExpectedCount.once(), requestTo(url))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // When & Then - a second call made while the first body is still open has to wait
+        assertThatThrownBy(() -> restTemplate.execute(url, HttpMethod.GET, null,
+                        response -> restTemplate.getForObject(url, String.class)))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("became free");
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+        mockServer.verify();
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,155 @@
+package com.project.diagram_service.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SystemDependencyStreamParser Tests")
+class SystemDependencyStreamParserTest {
+
+    private final SystemDependencyStreamParser parser = new SystemDependencyStreamParser(new ObjectMapper());
+
+    @Test
+    @DisplayName("Should parse systems with overview and integration flows")
+    void testParse_FullSystem() throws IOException {
+        // Given
+        String json = """
+            [{
+              "systemCode": "SYS-001",
+              "solutionOverview": {"solutionDetails": {"solutionName": "Payment Service", "solutionReviewCode": "REV-001"}},
+              "integrationFlows": [{
+                "id": "F-1",
+                "componentName": "payments",
+                "counterpartSystemCode": "SYS-002",
+                "counterpartSystemRole": "CONSUMER",
+                "integrationMethod": "REST_API",
+                "frequency": "Daily",
+                "purpose": "Settlement",
+                "middleware": "API_GATEWAY"
+              }]
+            }]
+            """;
+
+        // When
+        List<SystemDependencyDTO> systems = new ArrayList<>();
+        int count = parser.parse(stream(json), systems::add);
+
+        // Then
+        assertThat(count).isEqualTo(1);
+        SystemDependencyDTO system = systems.get(0);
+        assertThat(system.getSystemCode()).isEqualTo("SYS-001");
+        assertThat(system.getSolutionOverview().getSolutionDetails().getSolutionName()).isEqualTo("Payment Service");
+        assertThat(system.getIntegrationFlows()).singleElement().satisfies(flow -> {
+            assertThat(flow.getId()).isEqualTo("F-1");
+            assertThat(flow.getComponentName()).isEqualTo("payments");
+            assertThat(flow.getCounterpartSystemCode()).isEqualTo("SYS-002");
+            assertThat(flow.getCounterpartSystemRole()).isEqualTo("CONSUMER");
+            assertThat(flow.getIntegrationMethod()).isEqualTo("REST_API");
+            assertThat(flow.getFrequency()).isEqualTo("Daily");
+            assertThat(flow.getPurpose()).isEqualTo("Settlement");
+            assertThat(flow.getMiddleware()).isEqualTo("API_GATEWAY");
+        });
+    }
+
+    @Test
+    @DisplayName("Should skip unknown fields and keep nulls")
+    void testParse_UnknownFieldsAndNulls() throws IOException {
+        // Given
+        String json = """
+            [{
+              "systemCode": "SYS-001",
+              "documentState": {"state": "ACTIVE", "history": [1, 2, 3]},
+              "solutionOverview": null,
+              "integrationFlows": [{"counterpartSystemCode": "SYS-002", "tags": ["a", "b"], "middleware": null}]
+            },
+            {"systemCode": "SYS-002", "integrationFlows": null}]
+            """;
+
+        // When
+        List<SystemDependencyDTO> systems = new ArrayList<>();
+        parser.parse(stream(json), systems::add);
+
+        // Then
+        assertThat(systems).extracting(SystemDependencyDTO::getSystemCode).containsExactly("SYS-001", "SYS-002");
+        assertThat(systems.get(0).getSolutionOverview()).isNull();
+        assertThat(systems.get(0).getIntegrationFlows()).singleElement().satisfies(flow -> {
+            assertThat(flow.getCounterpartSystemCode()).isEqualTo("SYS-002");
+            assertThat(flow.getMiddleware()).isNull();
+        });
+        assertThat(systems.get(1).getIntegrationFlows()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should hand over each system before the rest of the array is read")
+    void testParse_StreamsIncrementally() throws IOException {
+        // Given
+        String json = "[{\"systemCode\": \"SYS-001\"}, {\"systemCode\": \"SYS-002\"}, {\"systemCode\": \"SYS-003\"}]";
+        List<String> seen = new ArrayList<>();
+
+        // When & Then - the consumer sees every system in order
+        int count = parser.parse(stream(json), system -> seen.add(system.getSystemCode()));
+
+        assertThat(count).isEqualTo(3);
+        assertThat(seen).containsExactly("SYS-001", "SYS-002", "SYS-003");
+    }
+
+    @Test
+    @DisplayName("Should pass null elements on in their position")
+    void testParse_NullElements() throws IOException {
+        // Given
+        String json = "[{\"systemCode\": \"SYS-001\"}, null, {\"systemCode\": \"SYS-002\"}]";
+        List<SystemDependencyDTO> systems = new ArrayList<>();
+
+        // When
+        int count = parser.parse(stream(json), systems::add);
+
+        // Then
+        assertThat(count).isEqualTo(3);
+        assertThat(systems).hasSize(3);
+        assertThat(systems.get(0).getSystemCode()).isEqualTo("SYS-001");
+        assertThat(systems.get(1)).isNull();
+        assertThat(systems.get(2).getSystemCode()).isEqualTo("SYS-002");
+    }
+
+    @Test
+    @DisplayName("Should return zero for an empty array")
+    void testParse_EmptyArray() throws IOException {
+        // When
+        int count = parser.parse(stream("[]"), system -> fail("No system expected"));
+
+        // Then
+        assertThat(count).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a null body")
+    void testParse_NullBody() {
+        // When & Then
+        assertThatThrownBy(() -> parser.parse(stream("null"), system -> { }))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Core service returned no system dependencies");
+    }
+
+    @Test
+    @DisplayName("Should reject a body that is not an array")
+    void testParse_NotAnArray() {
+        // When & Then
+        assertThatThrownBy(() -> parser.parse(stream("{\"systemCode\": \"SYS-001\"}"), system -> { }))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Expected a JSON array");
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
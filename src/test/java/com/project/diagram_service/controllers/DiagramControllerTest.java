@@ -8,7 +8,12 @@ import com.project.diagram_service.dto.CommonSolutionReviewDTO;
 import com.project.diagram_service.dto.SpecificSystemDependenciesDiagramDTO;
 import com.project.diagram_service.dto.OverallSystemDependenciesDiagramDTO;
 import com.project.diagram_service.dto.PathDiagramDTO;
+import com.project.diagram_service.dto.MiddlewareDiagramDTO;
+import com.project.diagram_service.dto.PathStreamDTO;
 import com.project.diagram_service.services.DiagramService;
+import com.project.diagram_service.services.PathSearchLimits;
+import com.project.diagram_service.snapshot.SnapshotSelector;
+import com.project.diagram_service.snapshot.SnapshotStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,14 +23,19 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -186,7 +196,7 @@ class DiagramControllerTest {
     @DisplayName("Should successfully get system dependencies")
     void testGetSystemDependencies_Success() throws Exception {
         // Given
-        when(diagramService.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        when(diagramService.getSystemDependencies(SnapshotSelector.LATEST)).thenReturn(mockSystemDependencies);
 
         // When & Then
         mockMvc.perform(get("/api/v1/diagram/system-dependencies")
@@ -198,21 +208,67 @@ class DiagramControllerTest {
                 .andExpect(jsonPath("$[0].systemCode").value("SYS-001"))
                 .andExpect(jsonPath("$[1].systemCode").value("SYS-002"));
 
-        verify(diagramService, times(1)).getSystemDependencies();
+        verify(diagramService, times(1)).getSystemDependencies(SnapshotSelector.LATEST);
+    }
+
+    @Test
+    @DisplayName("Should report snapshot staleness in response headers")
+    void testGetSystemDependencies_SnapshotHeaders() throws Exception {
+        // Given
+        when(diagramService.getSystemDependencies(SnapshotSelector.LATEST)).thenReturn(mockSystemDependencies);
+        when(diagramService.getSnapshotStatus())
+                .thenReturn(new SnapshotStatus(3L, Instant.parse("2026-01-01T00:00:00Z"), 420L, true));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(DiagramController.SNAPSHOT_AGE_HEADER, "420"))
+                .andExpect(header().string(DiagramController.SNAPSHOT_STALE_HEADER, "true"));
+    }
+
+    @Test
+    @DisplayName("Should omit snapshot headers when an earlier version is requested")
+    void testGetSystemDependencies_VersionNoSnapshotHeaders() throws Exception {
+        // Given
+        when(diagramService.getSystemDependencies(new SnapshotSelector(1L, null))).thenReturn(mockSystemDependencies);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies")
+                        .param("version", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(DiagramController.SNAPSHOT_AGE_HEADER))
+                .andExpect(header().doesNotExist(DiagramController.SNAPSHOT_STALE_HEADER));
+        verify(diagramService, never()).getSnapshotStatus();
+    }
+
+    @Test
+    @DisplayName("Should omit snapshot headers for endpoints not served from the snapshot")
+    void testGetBusinessCapabilities_NoSnapshotHeaders() throws Exception {
+        // Given
+        when(diagramService.getBusinessCapabilities()).thenReturn(mockBusinessCapabilities);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/business-capabilities")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(DiagramController.SNAPSHOT_AGE_HEADER));
+        verify(diagramService, never()).getSnapshotStatus();
     }
 
     @Test
     @DisplayName("Should handle service exception when getting system dependencies")
     void testGetSystemDependencies_ServiceException() throws Exception {
         // Given
-        when(diagramService.getSystemDependencies()).thenThrow(new RuntimeException("Service unavailable"));
+        when(diagramService.getSystemDependencies(SnapshotSelector.LATEST)).thenThrow(new RuntimeException("Service unavailable"));
 
         // When & Then
         mockMvc.perform(get("/api/v1/diagram/system-dependencies")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(diagramService, times(1)).getSystemDependencies();
+        verify(diagramService, times(1)).getSystemDependencies(SnapshotSelector.LATEST);
     }
 
     @Test
@@ -311,7 +367,7 @@ class DiagramControllerTest {
     void testGetSystemDependenciesDiagram_Success() throws Exception {
         // Given
         String systemCode = "SYS-001";
-        when(diagramService.generateSystemDependenciesDiagram(systemCode)).thenReturn(mockSystemDiagram);
+        when(diagramService.generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST)).thenReturn(mockSystemDiagram);
 
         // When & Then
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/{systemCode}", systemCode)
@@ -325,7 +381,7 @@ class DiagramControllerTest {
                 .andExpect(jsonPath("$.metadata.code").value("SYS-001"))
                 .andExpect(jsonPath("$.metadata.review").value("REV-001"));
 
-        verify(diagramService, times(1)).generateSystemDependenciesDiagram(systemCode);
+        verify(diagramService, times(1)).generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST);
     }
 
     @Test
@@ -333,7 +389,7 @@ class DiagramControllerTest {
     void testGetSystemDependenciesDiagram_ServiceException() throws Exception {
         // Given
         String systemCode = "SYS-001";
-        when(diagramService.generateSystemDependenciesDiagram(anyString()))
+        when(diagramService.generateSystemDependenciesDiagram(anyString(), eq(SnapshotSelector.LATEST)))
                 .thenThrow(new RuntimeException("Required data is null"));
 
         // When & Then
@@ -341,7 +397,7 @@ class DiagramControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(diagramService, times(1)).generateSystemDependenciesDiagram(systemCode);
+        verify(diagramService, times(1)).generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST);
     }
 
     @Test
@@ -349,7 +405,7 @@ class DiagramControllerTest {
     void testGetSystemDependenciesDiagram_SpecialCharacters() throws Exception {
         // Given
         String systemCode = "SYS-001_TEST";
-        when(diagramService.generateSystemDependenciesDiagram(systemCode)).thenReturn(mockSystemDiagram);
+        when(diagramService.generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST)).thenReturn(mockSystemDiagram);
 
         // When & Then
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/{systemCode}", systemCode)
@@ -357,14 +413,14 @@ class DiagramControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(diagramService, times(1)).generateSystemDependenciesDiagram(systemCode);
+        verify(diagramService, times(1)).generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST);
     }
 
     @Test
     @DisplayName("Should return empty list when no dependencies found")
     void testGetSystemDependencies_EmptyResult() throws Exception {
         // Given
-        when(diagramService.getSystemDependencies()).thenReturn(Collections.emptyList());
+        when(diagramService.getSystemDependencies(SnapshotSelector.LATEST)).thenReturn(Collections.emptyList());
 
         // When & Then
         mockMvc.perform(get("/api/v1/diagram/system-dependencies")
@@ -374,7 +430,7 @@ class DiagramControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(diagramService, times(1)).getSystemDependencies();
+        verify(diagramService, times(1)).getSystemDependencies(SnapshotSelector.LATEST);
     }
 
     @Test
@@ -394,7 +450,7 @@ class DiagramControllerTest {
         diagramWithNoLinks.setLinks(Collections.emptyList());
         diagramWithNoLinks.setMetadata(metadata);
         
-        when(diagramService.generateSystemDependenciesDiagram(systemCode)).thenReturn(diagramWithNoLinks);
+        when(diagramService.generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST)).thenReturn(diagramWithNoLinks);
 
         // When & Then
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/{systemCode}", systemCode)
@@ -404,7 +460,7 @@ class DiagramControllerTest {
                 .andExpect(jsonPath("$.links").isArray())
                 .andExpect(jsonPath("$.links.length()").value(0));
 
-        verify(diagramService, times(1)).generateSystemDependenciesDiagram(systemCode);
+        verify(diagramService, times(1)).generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST);
     }
 
     @Test
@@ -412,7 +468,7 @@ class DiagramControllerTest {
     void testGetSystemDependenciesDiagram_LongSystemCode() throws Exception {
         // Given
         String longSystemCode = "A".repeat(100);
-        when(diagramService.generateSystemDependenciesDiagram(longSystemCode))
+        when(diagramService.generateSystemDependenciesDiagram(longSystemCode, SnapshotSelector.LATEST))
             .thenReturn(mockSystemDiagram);
 
         // When & Then
@@ -421,7 +477,7 @@ class DiagramControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(diagramService).generateSystemDependenciesDiagram(longSystemCode);
+        verify(diagramService).generateSystemDependenciesDiagram(longSystemCode, SnapshotSelector.LATEST);
     }
 
     @Test
@@ -429,7 +485,7 @@ class DiagramControllerTest {
     void testGetSystemDependenciesDiagram_URLEncodedSystemCode() throws Exception {
         // Given
         String urlEncodedSystemCode = "SYS%20001"; // "SYS 001" URL encoded
-        when(diagramService.generateSystemDependenciesDiagram(urlEncodedSystemCode))
+        when(diagramService.generateSystemDependenciesDiagram(urlEncodedSystemCode, SnapshotSelector.LATEST))
             .thenReturn(null); // Service returns null for invalid codes
 
         // When & Then
@@ -439,7 +495,7 @@ class DiagramControllerTest {
                 .andExpect(status().isOk());
                 // Note: Content type might not be set if service returns null
 
-        verify(diagramService).generateSystemDependenciesDiagram(urlEncodedSystemCode);
+        verify(diagramService).generateSystemDependenciesDiagram(urlEncodedSystemCode, SnapshotSelector.LATEST);
     }
 
     @Test
@@ -447,7 +503,7 @@ class DiagramControllerTest {
     void testGetSystemDependenciesDiagram_NumericSystemCode() throws Exception {
         // Given
         String numericSystemCode = "12345";
-        when(diagramService.generateSystemDependenciesDiagram(numericSystemCode))
+        when(diagramService.generateSystemDependenciesDiagram(numericSystemCode, SnapshotSelector.LATEST))
             .thenReturn(mockSystemDiagram);
 
         // When & Then
@@ -456,7 +512,7 @@ class DiagramControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(diagramService).generateSystemDependenciesDiagram(numericSystemCode);
+        verify(diagramService).generateSystemDependenciesDiagram(numericSystemCode, SnapshotSelector.LATEST);
     }
 
     @Test
@@ -464,7 +520,7 @@ class DiagramControllerTest {
     void testGetSystemDependenciesDiagram_InvalidSystem() throws Exception {
         // Given
         String invalidSystemCode = "INVALID";
-        when(diagramService.generateSystemDependenciesDiagram(invalidSystemCode))
+        when(diagramService.generateSystemDependenciesDiagram(invalidSystemCode, SnapshotSelector.LATEST))
             .thenThrow(new RuntimeException("Invalid system code format"));
 
         // When & Then
@@ -472,7 +528,7 @@ class DiagramControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(diagramService).generateSystemDependenciesDiagram(invalidSystemCode);
+        verify(diagramService).generateSystemDependenciesDiagram(invalidSystemCode, SnapshotSelector.LATEST);
     }
 
     @Test
@@ -480,7 +536,7 @@ class DiagramControllerTest {
     void testGetSystemDependenciesDiagram_SystemNotFound() throws Exception {
         // Given
         String systemCode = "SYS-001";
-        when(diagramService.generateSystemDependenciesDiagram(systemCode))
+        when(diagramService.generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST))
             .thenThrow(new RuntimeException("System not found: " + systemCode));
 
         // When & Then
@@ -488,14 +544,14 @@ class DiagramControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(diagramService).generateSystemDependenciesDiagram(systemCode);
+        verify(diagramService).generateSystemDependenciesDiagram(systemCode, SnapshotSelector.LATEST);
     }
 
     @Test
     @DisplayName("Should handle database connection error")
     void testGetSystemDependencies_DatabaseError() throws Exception {
         // Given
-        when(diagramService.getSystemDependencies())
+        when(diagramService.getSystemDependencies(SnapshotSelector.LATEST))
             .thenThrow(new RuntimeException("Database connection failed"));
 
         // When & Then
@@ -503,14 +559,14 @@ class DiagramControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(diagramService).getSystemDependencies();
+        verify(diagramService).getSystemDependencies(SnapshotSelector.LATEST);
     }
 
     @Test
     @DisplayName("Should handle different content types")
     void testGetSystemDependencies_AcceptAnyContent() throws Exception {
         // Given
-        when(diagramService.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        when(diagramService.getSystemDependencies(SnapshotSelector.LATEST)).thenReturn(mockSystemDependencies);
 
         // When & Then
         mockMvc.perform(get("/api/v1/diagram/system-dependencies")
@@ -518,14 +574,14 @@ class DiagramControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(diagramService).getSystemDependencies();
+        verify(diagramService).getSystemDependencies(SnapshotSelector.LATEST);
     }
 
     @Test
     @DisplayName("Should handle JSON content type specifically")
     void testGetSystemDependencies_JSONAccept() throws Exception {
         // Given
-        when(diagramService.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        when(diagramService.getSystemDependencies(SnapshotSelector.LATEST)).thenReturn(mockSystemDependencies);
 
         // When & Then
         mockMvc.perform(get("/api/v1/diagram/system-dependencies")
@@ -533,14 +589,14 @@ class DiagramControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(diagramService).getSystemDependencies();
+        verify(diagramService).getSystemDependencies(SnapshotSelector.LATEST);
     }
     
         @Test
     @DisplayName("Should successfully find paths between two systems")
     void testGetPathsBetweenSystems_Success() throws Exception {
         // Arrange
-        when(diagramService.findAllPathsDiagram("SYS-001", "SYS-002")).thenReturn(mockPathDiagram);
+        when(diagramService.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE)).thenReturn(mockPathDiagram);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/path")
@@ -556,14 +612,14 @@ class DiagramControllerTest {
                 .andExpect(jsonPath("$.links.length()").value(1))
                 .andExpect(jsonPath("$.links[0].middleware").value("API_GATEWAY"));
 
-        verify(diagramService).findAllPathsDiagram("SYS-001", "SYS-002");
+        verify(diagramService).findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE);
     }
     
     @Test
     @DisplayName("Should return bad request when start system is invalid")
     void testGetPathsBetweenSystems_InvalidStartSystem() throws Exception {
         // Arrange
-        when(diagramService.findAllPathsDiagram("INVALID", "SYS-002"))
+        when(diagramService.findAllPathsDiagram("INVALID", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE))
                 .thenThrow(new IllegalArgumentException("Start system cannot be null or empty"));
 
         // Act & Assert
@@ -574,14 +630,14 @@ class DiagramControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
 
-        verify(diagramService).findAllPathsDiagram("INVALID", "SYS-002");
+        verify(diagramService).findAllPathsDiagram("INVALID", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE);
     }
     
     @Test
     @DisplayName("Should return bad request when end system is invalid")
     void testGetPathsBetweenSystems_InvalidEndSystem() throws Exception {
         // Arrange
-        when(diagramService.findAllPathsDiagram("SYS-001", "INVALID"))
+        when(diagramService.findAllPathsDiagram("SYS-001", "INVALID", SnapshotSelector.LATEST, PathSearchLimits.NONE))
                 .thenThrow(new IllegalArgumentException("End system cannot be null or empty"));
 
         // Act & Assert
@@ -592,14 +648,14 @@ class DiagramControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
 
-        verify(diagramService).findAllPathsDiagram("SYS-001", "INVALID");
+        verify(diagramService).findAllPathsDiagram("SYS-001", "INVALID", SnapshotSelector.LATEST, PathSearchLimits.NONE);
     }
     
     @Test
     @DisplayName("Should return bad request when start and end systems are the same")
     void testGetPathsBetweenSystems_SameSystems() throws Exception {
         // Arrange
-        when(diagramService.findAllPathsDiagram("SYS-001", "SYS-001"))
+        when(diagramService.findAllPathsDiagram("SYS-001", "SYS-001", SnapshotSelector.LATEST, PathSearchLimits.NONE))
                 .thenThrow(new IllegalArgumentException("Start and end systems cannot be the same"));
 
         // Act & Assert
@@ -610,14 +666,14 @@ class DiagramControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
 
-        verify(diagramService).findAllPathsDiagram("SYS-001", "SYS-001");
+        verify(diagramService).findAllPathsDiagram("SYS-001", "SYS-001", SnapshotSelector.LATEST, PathSearchLimits.NONE);
     }
     
     @Test
     @DisplayName("Should return not found when system doesn't exist")
     void testGetPathsBetweenSystems_SystemNotFound() throws Exception {
         // Arrange
-        when(diagramService.findAllPathsDiagram("NONEXISTENT", "SYS-002"))
+        when(diagramService.findAllPathsDiagram("NONEXISTENT", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE))
                 .thenThrow(new IllegalArgumentException("Start system 'NONEXISTENT' not found"));
 
         // Act & Assert
@@ -628,14 +684,14 @@ class DiagramControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
 
-        verify(diagramService).findAllPathsDiagram("NONEXISTENT", "SYS-002");
+        verify(diagramService).findAllPathsDiagram("NONEXISTENT", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE);
     }
     
     @Test
     @DisplayName("Should return internal server error when service throws unexpected exception")
     void testGetPathsBetweenSystems_ServiceException() throws Exception {
         // Arrange
-        when(diagramService.findAllPathsDiagram("SYS-001", "SYS-002"))
+        when(diagramService.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE))
                 .thenThrow(new RuntimeException("Database connection failed"));
 
         // Act & Assert
@@ -646,7 +702,249 @@ class DiagramControllerTest {
                 .andDo(print())
                 .andExpect(status().isInternalServerError());
 
-        verify(diagramService).findAllPathsDiagram("SYS-001", "SYS-002");
+        verify(diagramService).findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE);
+    }
+
+    @Test
+    @DisplayName("Should return the diagram of flows through a middleware")
+    void testGetMiddlewareDiagram_Success() throws Exception {
+        // Arrange
+        MiddlewareDiagramDTO diagram = new MiddlewareDiagramDTO();
+        CommonDiagramDTO.NodeDTO middlewareNode = new CommonDiagramDTO.NodeDTO();
+        middlewareNode.setId("OSB");
+        middlewareNode.setType("Middleware");
+        diagram.setNodes(List.of(middlewareNode));
+        diagram.setLinks(List.of());
+        when(diagramService.generateMiddlewareDiagram("OSB", SnapshotSelector.LATEST)).thenReturn(diagram);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/diagram/middleware/OSB")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nodes", hasSize(1)))
+                .andExpect(jsonPath("$.nodes[0].type").value("Middleware"));
+
+        verify(diagramService).generateMiddlewareDiagram("OSB", SnapshotSelector.LATEST);
+    }
+
+    @Test
+    @DisplayName("Should return bad request when no flow goes through the middleware")
+    void testGetMiddlewareDiagram_NotFound() throws Exception {
+        // Arrange
+        when(diagramService.generateMiddlewareDiagram("UNKNOWN", SnapshotSelector.LATEST))
+                .thenThrow(new IllegalArgumentException("Middleware not found: UNKNOWN"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/diagram/middleware/UNKNOWN")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return internal server error when the middleware diagram fails")
+    void testGetMiddlewareDiagram_ServiceException() throws Exception {
+        // Arrange
+        when(diagramService.generateMiddlewareDiagram("OSB", SnapshotSelector.LATEST)).thenThrow(new RuntimeException("Snapshot unavailable"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/diagram/middleware/OSB")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    @DisplayName("Should read the requested snapshot version")
+    void testGetSystemDependenciesDiagram_Version() throws Exception {
+        // Given
+        when(diagramService.generateSystemDependenciesDiagram("SYS-001", new SnapshotSelector(3L, null)))
+                .thenReturn(mockSystemDiagram);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/{systemCode}", "SYS-001")
+                        .param("version", "3")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(diagramService).generateSystemDependenciesDiagram("SYS-001", new SnapshotSelector(3L, null));
+    }
+
+    @Test
+    @DisplayName("Should read the snapshot that was current at the requested instant")
+    void testGetAllSystemDependenciesDiagrams_AsOf() throws Exception {
+        // Given
+        Instant asOf = Instant.parse("2026-01-01T12:00:00Z");
+        when(diagramService.generateAllSystemDependenciesDiagrams(new SnapshotSelector(null, asOf)))
+                .thenReturn(new OverallSystemDependenciesDiagramDTO());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/all")
+                        .param("asOf", "2026-01-01T12:00:00Z")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(diagramService).generateAllSystemDependenciesDiagrams(new SnapshotSelector(null, asOf));
+    }
+
+    @Test
+    @DisplayName("Should return bad request when the requested snapshot is not retained")
+    void testFindPathsBetweenSystems_VersionNotRetained() throws Exception {
+        // Given
+        when(diagramService.findAllPathsDiagram("SYS-001", "SYS-002", new SnapshotSelector(1L, null), PathSearchLimits.NONE))
+                .thenThrow(new IllegalArgumentException("Snapshot version 1 is not retained"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/path")
+                        .param("start", "SYS-001")
+                        .param("end", "SYS-002")
+                        .param("version", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should pass the requested path search limits to the service")
+    void testFindPathsBetweenSystems_Limits() throws Exception {
+        // Given
+        PathSearchLimits limits = new PathSearchLimits(3, 5, Duration.ofMillis(200));
+        when(diagramService.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST, limits))
+                .thenReturn(mockPathDiagram);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/path")
+                        .param("start", "SYS-001")
+                        .param("end", "SYS-002")
+                        .param("maxDepth", "3")
+                        .param("maxPaths", "5")
+                        .param("timeoutMs", "200")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(diagramService).findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST, limits);
+    }
+
+    @Test
+    @DisplayName("Should return bad request for a non-positive path search limit")
+    void testFindPathsBetweenSystems_InvalidLimit() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/path")
+                        .param("start", "SYS-001")
+                        .param("end", "SYS-002")
+                        .param("maxPaths", "0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(diagramService);
+    }
+
+    @Test
+    @DisplayName("Should find the k shortest paths when requested")
+    void testFindPathsBetweenSystems_KShortest() throws Exception {
+        // Given
+        PathSearchLimits limits = new PathSearchLimits(null, 3, null);
+        when(diagramService.findShortestPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST, limits))
+                .thenReturn(mockPathDiagram);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/path")
+                        .param("start", "SYS-001")
+                        .param("end", "SYS-002")
+                        .param("mode", "kshortest")
+                        .param("k", "3")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(diagramService).findShortestPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST, limits);
+        verify(diagramService, never()).findAllPathsDiagram(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return bad request for k shortest paths without k")
+    void testFindPathsBetweenSystems_KShortestWithoutK() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/path")
+                        .param("start", "SYS-001")
+                        .param("end", "SYS-002")
+                        .param("mode", "kshortest")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(diagramService);
+    }
+
+    @Test
+    @DisplayName("Should return bad request for an unknown path search mode")
+    void testFindPathsBetweenSystems_UnknownMode() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/path")
+                        .param("start", "SYS-001")
+                        .param("end", "SYS-002")
+                        .param("mode", "fastest")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(diagramService);
+    }
+
+    @Test
+    @DisplayName("Should stream each path and then the summary as NDJSON lines")
+    void testStreamPathsBetweenSystems() throws Exception {
+        // Given
+        PathDiagramDTO.PathLinkDTO link = new PathDiagramDTO.PathLinkDTO();
+        link.setSource("SYS-001");
+        link.setTarget("SYS-002");
+        PathStreamDTO.PathLineDTO path = new PathStreamDTO.PathLineDTO();
+        path.setLinks(List.of(link));
+        PathStreamDTO.SummaryLineDTO summary = new PathStreamDTO.SummaryLineDTO();
+        summary.setMetadata(mockPathDiagram.getMetadata());
+        when(diagramService.openPathStream("SYS-001", "SYS-002", SnapshotSelector.LATEST, PathSearchLimits.NONE))
+                .thenReturn(paths -> {
+                    paths.accept(path);
+                    return summary;
+                });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/diagram/system-dependencies/path/stream")
+                        .param("start", "SYS-001")
+                        .param("end", "SYS-002"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"type\":\"path\"", "\"source\":\"SYS-001\"");
+        assertThat(lines[1]).contains("\"type\":\"summary\"");
+    }
+
+    @Test
+    @DisplayName("Should return bad request before streaming when the path request is invalid")
+    void testStreamPathsBetweenSystems_InvalidRequest() throws Exception {
+        // Given
+        when(diagramService.openPathStream("SYS-001", "SYS-404", SnapshotSelector.LATEST, PathSearchLimits.NONE))
+                .thenThrow(new IllegalArgumentException("End system 'SYS-404' not found"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies/path/stream")
+                        .param("start", "SYS-001")
+                        .param("end", "SYS-404"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return bad request when both a version and an instant are requested")
+    void testGetSystemDependencies_VersionAndAsOf() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/diagram/system-dependencies")
+                        .param("version", "1")
+                        .param("asOf", "2026-01-01T12:00:00Z")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(diagramService);
     }
 
     // Tests for getAllSystemDependenciesDiagrams endpoint
@@ -655,7 +953,7 @@ class DiagramControllerTest {
         // Create mock overall system dependencies diagram
         OverallSystemDependenciesDiagramDTO mockDiagram = new OverallSystemDependenciesDiagramDTO();
         
-        when(diagramService.generateAllSystemDependenciesDiagrams()).thenReturn(mockDiagram);
+        when(diagramService.generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST)).thenReturn(mockDiagram);
 
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/all")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -663,12 +961,12 @@ class DiagramControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(diagramService).generateAllSystemDependenciesDiagrams();
+        verify(diagramService).generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST);
     }
 
     @Test
     void getAllSystemDependenciesDiagrams_ServiceException() throws Exception {
-        when(diagramService.generateAllSystemDependenciesDiagrams())
+        when(diagramService.generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST))
                 .thenThrow(new RuntimeException("Service error"));
 
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/all")
@@ -676,7 +974,7 @@ class DiagramControllerTest {
                 .andDo(print())
                 .andExpect(status().isInternalServerError());
 
-        verify(diagramService).generateAllSystemDependenciesDiagrams();
+        verify(diagramService).generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST);
     }
 
     @Test
@@ -685,7 +983,7 @@ class DiagramControllerTest {
         emptyDiagram.setNodes(List.of());
         emptyDiagram.setLinks(List.of());
         
-        when(diagramService.generateAllSystemDependenciesDiagrams()).thenReturn(emptyDiagram);
+        when(diagramService.generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST)).thenReturn(emptyDiagram);
 
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/all")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -696,7 +994,7 @@ class DiagramControllerTest {
                 .andExpect(jsonPath("$.links").isArray())
                 .andExpect(jsonPath("$.links").isEmpty());
 
-        verify(diagramService).generateAllSystemDependenciesDiagrams();
+        verify(diagramService).generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST);
     }
 
     @Test
@@ -731,7 +1029,7 @@ class DiagramControllerTest {
         mockDiagram.setLinks(List.of(link));
         mockDiagram.setMetadata(metadata);
         
-        when(diagramService.generateAllSystemDependenciesDiagrams()).thenReturn(mockDiagram);
+        when(diagramService.generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST)).thenReturn(mockDiagram);
 
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/all")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -756,13 +1054,13 @@ class DiagramControllerTest {
                 .andExpect(jsonPath("$.metadata").exists())
                 .andExpect(jsonPath("$.metadata.generatedDate").exists());
 
-        verify(diagramService).generateAllSystemDependenciesDiagrams();
+        verify(diagramService).generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST);
     }
 
     @Test
     void getAllSystemDependenciesDiagrams_ContentTypeSupport() throws Exception {
         OverallSystemDependenciesDiagramDTO mockDiagram = new OverallSystemDependenciesDiagramDTO();
-        when(diagramService.generateAllSystemDependenciesDiagrams()).thenReturn(mockDiagram);
+        when(diagramService.generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST)).thenReturn(mockDiagram);
 
         // Test that endpoint works without explicit Accept header
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/all"))
@@ -770,7 +1068,7 @@ class DiagramControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(diagramService).generateAllSystemDependenciesDiagrams();
+        verify(diagramService).generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST);
     }
 
     @Test
@@ -800,7 +1098,7 @@ class DiagramControllerTest {
         metadata.setGeneratedDate(LocalDate.now());
         complexDiagram.setMetadata(metadata);
         
-        when(diagramService.generateAllSystemDependenciesDiagrams()).thenReturn(complexDiagram);
+        when(diagramService.generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST)).thenReturn(complexDiagram);
 
         mockMvc.perform(get("/api/v1/diagram/system-dependencies/all")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -812,7 +1110,7 @@ class DiagramControllerTest {
                 .andExpect(jsonPath("$.nodes[?(@.type == 'External')]", hasSize(1)))
                 .andExpect(jsonPath("$.links[?(@.count > 1)]", hasSize(2)));
 
-        verify(diagramService).generateAllSystemDependenciesDiagrams();
+        verify(diagramService).generateAllSystemDependenciesDiagrams(SnapshotSelector.LATEST);
     }
 
     // ========================================
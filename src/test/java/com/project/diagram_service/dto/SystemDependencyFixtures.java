@@ -0,0 +1,138 @@
+package com.project.diagram_service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builders for the system dependencies that snapshot, graph and path search tests feed in.
+ */
+public final class SystemDependencyFixtures {
+
+    private static final String[] METHODS = {"REST_API", "SOAP", "FILE_TRANSFER", "MESSAGING"};
+    private static final String[] FREQUENCIES = {"Daily", "Hourly", "Real-time", "Weekly"};
+    private static final String[] MIDDLEWARE = {"API_GATEWAY", "NONE"};
+    private static final int COMPONENT_NAMES = 50;
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private SystemDependencyFixtures() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * A system with a solution overview named after its code and one API flow to each
+     * consumer, in order.
+     */
+    public static SystemDependencyDTO system(String code, String... consumers) {
+        CommonSolutionReviewDTO.SolutionDetails details = new CommonSolutionReviewDTO.SolutionDetails();
+        details.setSolutionName(code + " Solution");
+        CommonSolutionReviewDTO.SolutionOverview overview = new CommonSolutionReviewDTO.SolutionOverview();
+        overview.setSolutionDetails(details);
+
+        List<SystemDependencyDTO.IntegrationFlow> flows = new ArrayList<>();
+        for (String consumer : consumers) {
+            SystemDependencyDTO.IntegrationFlow flow = new SystemDependencyDTO.IntegrationFlow();
+            flow.setCounterpartSystemCode(consumer);
+            flow.setCounterpartSystemRole("CONSUMER");
+            flow.setIntegrationMethod("API");
+            flows.add(flow);
+        }
+
+        SystemDependencyDTO system = new SystemDependencyDTO();
+        system.setSystemCode(code);
+        system.setSolutionOverview(overview);
+        system.setIntegrationFlows(flows);
+        return system;
+    }
+
+    /**
+     * A system with exactly the given flows and no solution overview.
+     */
+    public static SystemDependencyDTO systemWithFlows(String code, SystemDependencyDTO.IntegrationFlow... flows) {
+        SystemDependencyDTO system = new SystemDependencyDTO();
+        system.setSystemCode(code);
+        system.setIntegrationFlows(List.of(flows));
+        return system;
+    }
+
+    /**
+     * A flow with only its counterpart, role and middleware set.
+     */
+    public static SystemDependencyDTO.IntegrationFlow flow(String counterpart, String role, String middleware) {
+        SystemDependencyDTO.IntegrationFlow flow = new SystemDependencyDTO.IntegrationFlow();
+        flow.setCounterpartSystemCode(counterpart);
+        flow.setCounterpartSystemRole(role);
+        flow.setMiddleware(middleware);
+        return flow;
+    }
+
+    /**
+     * A flow with an id and the descriptive fields filled in as well, for tests that check
+     * every column survives a round trip.
+     */
+    public static SystemDependencyDTO.IntegrationFlow flow(String id, String counterpart, String role,
+                                                           String middleware) {
+        SystemDependencyDTO.IntegrationFlow flow = flow(counterpart, role, middleware);
+        flow.setId(id);
+        flow.setIntegrationMethod("REST_API");
+        flow.setFrequency("Daily");
+        flow.setPurpose("Purpose of " + id);
+        return flow;
+    }
+
+    /**
+     * A random landscape for benchmarks, with every counterpart inside the landscape.
+     *
+     * @see #randomLandscape(int, int, long, double)
+     */
+    public static List<SystemDependencyDTO> randomLandscape(int systems, int flowsPerSystem, long seed) {
+        return randomLandscape(systems, flowsPerSystem, seed, 0);
+    }
+
+    /**
+     * A random landscape for benchmarks, the same for the same arguments. Systems are named
+     * {@code SYS-0} onwards and each has a solution overview and {@code flowsPerSystem} flows
+     * to random counterparts, half of them through an API gateway. Every attribute of every
+     * flow is a separate String, as the JSON parser produces them.
+     *
+     * @param externalShare the fraction of counterparts, 0 to 1, named {@code EXT-*} and not
+     *                      in the landscape
+     */
+    public static List<SystemDependencyDTO> randomLandscape(int systems, int flowsPerSystem, long seed,
+                                                            double externalShare) {
+        Random random = new Random(seed);
+        List<SystemDependencyDTO> landscape = new ArrayList<>(systems);
+        for (int i = 0; i < systems; i++) {
+            CommonSolutionReviewDTO.SolutionDetails details = new CommonSolutionReviewDTO.SolutionDetails();
+            details.setSolutionName("System " + i);
+            details.setSolutionReviewCode("REV-" + i);
+            CommonSolutionReviewDTO.SolutionOverview overview = new CommonSolutionReviewDTO.SolutionOverview();
+            overview.setSolutionDetails(details);
+
+            List<SystemDependencyDTO.IntegrationFlow> flows = new ArrayList<>(flowsPerSystem);
+            for (int f = 0; f < flowsPerSystem; f++) {
+                SystemDependencyDTO.IntegrationFlow flow = new SystemDependencyDTO.IntegrationFlow();
+                flow.setId("IF-" + i + "-" + f);
+                flow.setComponentName("component-" + random.nextInt(COMPONENT_NAMES));
+                flow.setCounterpartSystemCode(random.nextDouble() < externalShare
+                        ? "EXT-" + random.nextInt(systems)
+                        : "SYS-" + random.nextInt(systems));
+                flow.setCounterpartSystemRole(new String(random.nextBoolean() ? "CONSUMER" : "PRODUCER"));
+                flow.setIntegrationMethod(new String(METHODS[random.nextInt(METHODS.length)]));
+                flow.setFrequency(new String(FREQUENCIES[random.nextInt(FREQUENCIES.length)]));
+                flow.setPurpose("Synchronises records of system " + i + " for flow " + f);
+                flow.setMiddleware(new String(MIDDLEWARE[random.nextInt(MIDDLEWARE.length)]));
+                flows.add(flow);
+            }
+
+            SystemDependencyDTO system = new SystemDependencyDTO();
+            system.setSystemCode("SYS-" + i);
+            system.setSolutionOverview(overview);
+            system.setIntegrationFlows(flows);
+            landscape.add(system);
+        }
+        return landscape;
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.util.StopWatch;
@@ -28,12 +29,15 @@ import org.springframework.util.StopWatch;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
+// A fresh context per test gives each one an empty snapshot holder that loads its own stubbed data
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 @DisplayName("Diagram Service Integration Tests")
 class DiagramServiceIntegrationTest {
 
@@ -61,6 +65,17 @@ class DiagramServiceIntegrationTest {
         setupMockData();
     }
 
+    /**
+     * Stubs the streamed system dependencies feed to deliver the given systems.
+     */
+    private void stubSystemDependencies(List<SystemDependencyDTO> dependencies) {
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any())).thenAnswer(invocation -> {
+            Consumer<SystemDependencyDTO> consumer = invocation.getArgument(1);
+            dependencies.forEach(consumer);
+            return true;
+        });
+    }
+
     private void setupMockData() {
         // Create mock system dependencies
         SystemDependencyDTO system1 = createSystemDependency("SYS-001", "Payment Service", "REV-001");
@@ -106,7 +121,7 @@ class DiagramServiceIntegrationTest {
         @DisplayName("GET /system-dependencies should return all system dependencies")
         void testGetSystemDependencies_Success() {
             // Given
-            when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+            stubSystemDependencies(mockSystemDependencies);
 
             // When
             ResponseEntity<List<SystemDependencyDTO>> response = restTemplate.exchange(
@@ -121,7 +136,7 @@ class DiagramServiceIntegrationTest {
             assertThat(response.getBody()).isNotNull();
             assertThat(response.getBody()).hasSize(3);
             assertThat(response.getBody().get(0).getSystemCode()).isEqualTo("SYS-001");
-            verify(coreServiceClient, times(1)).getSystemDependencies();
+            verify(coreServiceClient, times(1)).streamSystemDependencies(anyBoolean(), any());
         }
 
         @Test
@@ -151,7 +166,7 @@ class DiagramServiceIntegrationTest {
         void testGetSystemDependenciesDiagram_Success() {
             // Given
             String systemCode = "SYS-001";
-            when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+            stubSystemDependencies(mockSystemDependencies);
 
             // When
             ResponseEntity<SpecificSystemDependenciesDiagramDTO> response = restTemplate.getForEntity(
@@ -171,7 +186,7 @@ class DiagramServiceIntegrationTest {
         @DisplayName("GET /system-dependencies/all should return overall system diagram")
         void testGetAllSystemDependenciesDiagrams_Success() {
             // Given
-            when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+            stubSystemDependencies(mockSystemDependencies);
 
             // When
             ResponseEntity<OverallSystemDependenciesDiagramDTO> response = restTemplate.getForEntity(
@@ -193,7 +208,7 @@ class DiagramServiceIntegrationTest {
             // Given
             String startSystem = "SYS-001";
             String endSystem = "SYS-002";
-            when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+            stubSystemDependencies(mockSystemDependencies);
 
             // When
             ResponseEntity<PathDiagramDTO> response = restTemplate.getForEntity(
@@ -218,7 +233,7 @@ class DiagramServiceIntegrationTest {
         @DisplayName("Should handle service errors gracefully")
         void testServiceError() {
             // Given
-            when(coreServiceClient.getSystemDependencies()).thenThrow(new RuntimeException("Core service unavailable"));
+            when(coreServiceClient.streamSystemDependencies(anyBoolean(), any())).thenThrow(new RuntimeException("Core service unavailable"));
 
             // When
             ResponseEntity<List<SystemDependencyDTO>> response = restTemplate.exchange(
@@ -230,14 +245,15 @@ class DiagramServiceIntegrationTest {
 
             // Then
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
-            verify(coreServiceClient, times(1)).getSystemDependencies();
+            verify(coreServiceClient, times(1)).streamSystemDependencies(anyBoolean(), any());
         }
 
         @Test
         @DisplayName("Should handle null responses from core service")
         void testNullResponseHandling() {
             // Given
-            when(coreServiceClient.getSystemDependencies()).thenReturn(null);
+            when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+                .thenThrow(new IllegalStateException("Core service returned no system dependencies"));
 
             // When
             ResponseEntity<List<SystemDependencyDTO>> response = restTemplate.exchange(
@@ -255,7 +271,7 @@ class DiagramServiceIntegrationTest {
         @DisplayName("Should handle empty responses gracefully")
         void testEmptyResponseHandling() {
             // Given
-            when(coreServiceClient.getSystemDependencies()).thenReturn(Collections.emptyList());
+            stubSystemDependencies(Collections.emptyList());
 
             // When
             ResponseEntity<List<SystemDependencyDTO>> response = restTemplate.exchange(
@@ -276,7 +292,7 @@ class DiagramServiceIntegrationTest {
         void testInvalidSystemCode() {
             // Given
             String invalidSystemCode = "INVALID-SYS";
-            when(coreServiceClient.getSystemDependencies()).thenReturn(Collections.emptyList());
+            stubSystemDependencies(Collections.emptyList());
 
             // When
             ResponseEntity<SpecificSystemDependenciesDiagramDTO> response = restTemplate.getForEntity(
@@ -324,7 +340,7 @@ class DiagramServiceIntegrationTest {
         void testNormalDatasetPerformance() {
             // Given - Normal dataset (50 systems)
             List<SystemDependencyDTO> dataset = createMockSystemDependencies(50);
-            when(coreServiceClient.getSystemDependencies()).thenReturn(dataset);
+            stubSystemDependencies(dataset);
 
             // When
             StopWatch stopWatch = new StopWatch();
@@ -350,7 +366,7 @@ class DiagramServiceIntegrationTest {
         void testLargeDatasetPerformance() {
             // Given - Large dataset (500 systems)
             List<SystemDependencyDTO> largeDataset = createMockSystemDependencies(500);
-            when(coreServiceClient.getSystemDependencies()).thenReturn(largeDataset);
+            stubSystemDependencies(largeDataset);
 
             // When
             StopWatch stopWatch = new StopWatch();
@@ -375,7 +391,7 @@ class DiagramServiceIntegrationTest {
         @DisplayName("Should handle concurrent requests properly")
         void testConcurrentRequests() throws InterruptedException {
             // Given
-            when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+            stubSystemDependencies(mockSystemDependencies);
 
             // When - Make multiple concurrent requests
             Thread[] threads = new Thread[5];
@@ -415,7 +431,7 @@ class DiagramServiceIntegrationTest {
         @DisplayName("Should validate JSON serialization/deserialization")
         void testJsonSerializationDeserialization() throws Exception {
             // Given
-            when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+            stubSystemDependencies(mockSystemDependencies);
 
             // When
             ResponseEntity<String> response = restTemplate.getForEntity(
@@ -441,7 +457,7 @@ class DiagramServiceIntegrationTest {
         @DisplayName("Should validate HTTP headers and content type")
         void testHttpHeadersAndContentType() {
             // Given
-            when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+            stubSystemDependencies(mockSystemDependencies);
 
             // When
             ResponseEntity<List<SystemDependencyDTO>> response = restTemplate.exchange(
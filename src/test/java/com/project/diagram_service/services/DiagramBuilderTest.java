@@ -0,0 +1,79 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.dto.CommonDiagramDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("DiagramBuilder Tests")
+class DiagramBuilderTest {
+
+    private record LinkKey(String source, String target) {
+    }
+
+    @Test
+    @DisplayName("Should keep the first node for an id and list nodes in insertion order")
+    void testAddNodeIfAbsent() {
+        // Given
+        DiagramBuilder<LinkKey, String> builder = new DiagramBuilder<>();
+        AtomicInteger created = new AtomicInteger();
+
+        // When
+        CommonDiagramDTO.NodeDTO first = builder.addNodeIfAbsent("SYS-002", id -> node(id, created));
+        builder.addNodeIfAbsent("SYS-001", id -> node(id, created));
+        CommonDiagramDTO.NodeDTO again = builder.addNodeIfAbsent("SYS-002", id -> node(id, created));
+
+        // Then
+        assertThat(again).isSameAs(first);
+        assertThat(created.get()).isEqualTo(2);
+        assertThat(builder.containsNode("SYS-001")).isTrue();
+        assertThat(builder.containsNode("SYS-404")).isFalse();
+        assertThat(builder.nodes()).extracting(CommonDiagramDTO.NodeDTO::getId)
+            .containsExactly("SYS-002", "SYS-001");
+    }
+
+    @Test
+    @DisplayName("Should dedupe links by structured key and list them in insertion order")
+    void testAddLinkIfAbsent() {
+        // Given
+        DiagramBuilder<LinkKey, String> builder = new DiagramBuilder<>();
+
+        // When
+        builder.addLinkIfAbsent(new LinkKey("A-B", "C"), key -> "first");
+        builder.addLinkIfAbsent(new LinkKey("A", "B-C"), key -> "second");
+        String duplicate = builder.addLinkIfAbsent(new LinkKey("A-B", "C"), key -> "duplicate");
+
+        // Then
+        assertThat(duplicate).isEqualTo("first");
+        assertThat(builder.containsLink(new LinkKey("A", "B-C"))).isTrue();
+        assertThat(builder.containsLink(new LinkKey("C", "A-B"))).isFalse();
+        assertThat(builder.links()).containsExactly("first", "second");
+    }
+
+    @Test
+    @DisplayName("Should accept null node ids and link key fields")
+    void testNullKeys() {
+        // Given
+        DiagramBuilder<LinkKey, String> builder = new DiagramBuilder<>();
+
+        // When
+        builder.addNodeIfAbsent(null, id -> new CommonDiagramDTO.NodeDTO());
+        builder.addLinkIfAbsent(new LinkKey("SYS-001", null), key -> "link");
+
+        // Then
+        assertThat(builder.containsNode(null)).isTrue();
+        assertThat(builder.containsLink(new LinkKey("SYS-001", null))).isTrue();
+        assertThat(builder.nodes()).hasSize(1);
+        assertThat(builder.links()).containsExactly("link");
+    }
+
+    private static CommonDiagramDTO.NodeDTO node(String id, AtomicInteger created) {
+        created.incrementAndGet();
+        CommonDiagramDTO.NodeDTO node = new CommonDiagramDTO.NodeDTO();
+        node.setId(id);
+        return node;
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.diagram_service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.diagram_service.client.CoreServiceClient;
+import com.project.diagram_service.config.PathSearchProperties;
+import com.project.diagram_service.client.SystemDependencySink;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import com.project.diagram_service.snapshot.DependencySnapshotHolder;
+import com.project.diagram_service.snapshot.SnapshotFileStore;
+import com.project.diagram_service.snapshot.SnapshotStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.randomLandscape;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures how the overall dependencies diagram scales with the size of the landscape.
+ *
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("DiagramService Scaling Benchmark")
+@Slf4j
+class DiagramServiceScalingBenchmarkTest {
+
+    private static final int FLOWS_PER_SYSTEM = 8;
+    /** A few counterparts are outside the landscape so external nodes are exercised too. */
+    private static final double EXTERNAL_SHARE = 0.1;
+    private static final int[] LANDSCAPE_SIZES = {1_000, 2_000, 4_000, 8_000, 16_000};
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    @DisplayName("Overall diagram cost per flow should stay flat as the landscape grows")
+    void testOverallDiagram_ScalesLinearly() {
+        double[] nanosPerFlow = new double[LANDSCAPE_SIZES.length];
+
+        for (int i = 0; i < LANDSCAPE_SIZES.length; i++) {
+            int systems = LANDSCAPE_SIZES[i];
+            DiagramService diagramService = serviceFor(randomLandscape(systems, FLOWS_PER_SYSTEM, systems, EXTERNAL_SHARE));
+            diagramService.generateAllSystemDependenciesDiagrams();
+
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                diagramService.generateAllSystemDependenciesDiagrams();
+            }
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                diagramService.generateAllSystemDependenciesDiagrams();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+
+            nanosPerFlow[i] = (double) best / ((long) systems * FLOWS_PER_SYSTEM);
+            log.info(String.format("systems=%6d flows=%7d best=%8.2fms perFlow=%7.1fns",
+                    systems, systems * FLOWS_PER_SYSTEM, best / 1_000_000.0, nanosPerFlow[i]));
+        }
+
+        // A quadratic builder would cost 16x more per flow at the largest size; allow noise, not growth
+        assertThat(nanosPerFlow[nanosPerFlow.length - 1]).isLessThan(nanosPerFlow[0] * 4);
+    }
+
+    private DiagramService serviceFor(List<SystemDependencyDTO> landscape) {
+        CoreServiceClient coreServiceClient = mock(CoreServiceClient.class);
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any())).thenAnswer(invocation -> {
+            SystemDependencySink sink = invocation.getArgument(1);
+            landscape.forEach(sink);
+            return true;
+        });
+        DependencySnapshotHolder snapshotHolder = new DependencySnapshotHolder(coreServiceClient,
+                new SnapshotFileStore(new ObjectMapper(), "", Duration.ZERO), Duration.ofHours(1), SnapshotStorage.HEAP, 0);
+        return new DiagramService(coreServiceClient, snapshotHolder,
+                new PathSearchProperties(10, 1000, Duration.ofSeconds(5)));
+    }
+}
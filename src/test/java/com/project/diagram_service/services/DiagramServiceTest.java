@@ -1,16 +1,24 @@
 package com.project.diagram_service.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.diagram_service.client.CoreServiceClient;
+import com.project.diagram_service.config.PathSearchProperties;
 import com.project.diagram_service.dto.SystemDependencyDTO;
 import com.project.diagram_service.dto.SpecificSystemDependenciesDiagramDTO;
 import com.project.diagram_service.dto.OverallSystemDependenciesDiagramDTO;
 import com.project.diagram_service.dto.PathDiagramDTO;
+import com.project.diagram_service.dto.MiddlewareDiagramDTO;
+import com.project.diagram_service.dto.PathStreamDTO;
 import com.project.diagram_service.dto.CommonSolutionReviewDTO;
 import com.project.diagram_service.dto.CommonDiagramDTO;
 import com.project.diagram_service.dto.CommonDiagramDTO.NodeDTO;
 import com.project.diagram_service.dto.BusinessCapabilityDiagramDTO;
 import com.project.diagram_service.dto.BusinessCapabilitiesTreeDTO;
 import com.project.diagram_service.dto.BusinessCapabilityDTO;
+import com.project.diagram_service.snapshot.DependencySnapshotHolder;
+import com.project.diagram_service.snapshot.SnapshotFileStore;
+import com.project.diagram_service.snapshot.SnapshotSelector;
+import com.project.diagram_service.snapshot.SnapshotStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,18 +26,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -40,10 +55,12 @@ import static org.mockito.Mockito.*;
 @DisplayName("DiagramService Unit Tests")
 class DiagramServiceTest {
 
+    private static final PathSearchProperties PATH_SEARCH_CEILINGS =
+            new PathSearchProperties(10, 1000, Duration.ofSeconds(5));
+
     @Mock
     private CoreServiceClient coreServiceClient;
 
-    @InjectMocks
     private DiagramService diagramService;
 
     private List<SystemDependencyDTO> mockSystemDependencies;
@@ -52,6 +69,10 @@ class DiagramServiceTest {
 
     @BeforeEach
     void setUp() {
+        DependencySnapshotHolder snapshotHolder = new DependencySnapshotHolder(coreServiceClient,
+                new SnapshotFileStore(new ObjectMapper(), "", Duration.ZERO), Duration.ofMinutes(2), SnapshotStorage.HEAP, 0);
+        diagramService = new DiagramService(coreServiceClient, snapshotHolder, PATH_SEARCH_CEILINGS);
+
         // Setup primary system
         primarySystem = createSystemDependency("SYS-001", "Primary System", "REV-001");
         
@@ -65,7 +86,7 @@ class DiagramServiceTest {
     @DisplayName("Should retrieve system dependencies successfully")
     void testGetSystemDependencies_Success() {
         // Given
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         List<SystemDependencyDTO> result = diagramService.getSystemDependencies();
@@ -75,21 +96,21 @@ class DiagramServiceTest {
                 .isNotNull()
                 .hasSize(2)
                 .containsExactly(primarySystem, externalSystem);
-        verify(coreServiceClient, times(1)).getSystemDependencies();
+        verify(coreServiceClient, times(1)).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
     @DisplayName("Should throw RuntimeException when core service fails")
     void testGetSystemDependencies_CoreServiceFailure() {
         // Given
-        when(coreServiceClient.getSystemDependencies()).thenThrow(new RuntimeException("Core service unavailable"));
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any())).thenThrow(new RuntimeException("Core service unavailable"));
 
         // When & Then
         assertThatThrownBy(() -> diagramService.getSystemDependencies())
             .isInstanceOf(RuntimeException.class)
             .hasMessage("Core service unavailable");
         
-        verify(coreServiceClient, times(1)).getSystemDependencies();
+        verify(coreServiceClient, times(1)).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -102,7 +123,7 @@ class DiagramServiceTest {
         );
         primarySystem.setIntegrationFlows(Collections.singletonList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -146,7 +167,7 @@ class DiagramServiceTest {
         );
         primarySystem.setIntegrationFlows(Collections.singletonList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -191,7 +212,7 @@ class DiagramServiceTest {
         );
         externalSystem.setIntegrationFlows(Collections.singletonList(incomingFlow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -228,7 +249,7 @@ class DiagramServiceTest {
         );
         primarySystem.setIntegrationFlows(Collections.singletonList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -253,7 +274,7 @@ class DiagramServiceTest {
         );
         primarySystem.setIntegrationFlows(Collections.singletonList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -270,7 +291,7 @@ class DiagramServiceTest {
     void testGenerateSystemDependenciesDiagram_SystemNotFound() {
         // Given
         String nonExistentSystemCode = "SYS-999";
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When & Then
         assertThatThrownBy(() -> diagramService.generateSystemDependenciesDiagram(nonExistentSystemCode))
@@ -286,7 +307,7 @@ class DiagramServiceTest {
         primarySystem.setIntegrationFlows(Collections.emptyList());
         externalSystem.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -306,7 +327,7 @@ class DiagramServiceTest {
         primarySystem.setIntegrationFlows(null);
         externalSystem.setIntegrationFlows(null);
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -326,7 +347,7 @@ class DiagramServiceTest {
         systemWithNullFlows.setIntegrationFlows(null); // Null flows
         
         List<SystemDependencyDTO> systemsWithNullFlows = Arrays.asList(systemWithNullFlows);
-        when(coreServiceClient.getSystemDependencies()).thenReturn(systemsWithNullFlows);
+        stubSystemDependencies(systemsWithNullFlows);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -371,7 +392,7 @@ class DiagramServiceTest {
         systemWithEmptyFlows.setIntegrationFlows(Collections.emptyList());
         
         List<SystemDependencyDTO> systemsWithEmptyFlows = Arrays.asList(systemWithEmptyFlows);
-        when(coreServiceClient.getSystemDependencies()).thenReturn(systemsWithEmptyFlows);
+        stubSystemDependencies(systemsWithEmptyFlows);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -393,7 +414,7 @@ class DiagramServiceTest {
         primarySystem.setIntegrationFlows(Arrays.asList(
             createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", null) // Null middleware
         ));
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -417,7 +438,7 @@ class DiagramServiceTest {
         primarySystem.setIntegrationFlows(Arrays.asList(
             createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", "") // Empty middleware
         ));
-        when(coreServiceClient.getSystemDependencies()).thenReturn(mockSystemDependencies);
+        stubSystemDependencies(mockSystemDependencies);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -444,7 +465,7 @@ class DiagramServiceTest {
         systemWithNullOverview.setIntegrationFlows(Collections.emptyList());
         
         List<SystemDependencyDTO> systems = Arrays.asList(systemWithNullOverview);
-        when(coreServiceClient.getSystemDependencies()).thenReturn(systems);
+        stubSystemDependencies(systems);
 
         // When & Then
         assertThatThrownBy(() -> diagramService.generateSystemDependenciesDiagram(targetSystemCode))
@@ -465,7 +486,7 @@ class DiagramServiceTest {
         systemWithNullDetails.setIntegrationFlows(Collections.emptyList());
         
         List<SystemDependencyDTO> systems = Arrays.asList(systemWithNullDetails);
-        when(coreServiceClient.getSystemDependencies()).thenReturn(systems);
+        stubSystemDependencies(systems);
 
         // When & Then
         assertThatThrownBy(() -> diagramService.generateSystemDependenciesDiagram(targetSystemCode))
@@ -489,7 +510,7 @@ class DiagramServiceTest {
         ));
         
         List<SystemDependencyDTO> complexSystems = Arrays.asList(primarySystem, secondarySystem);
-        when(coreServiceClient.getSystemDependencies()).thenReturn(complexSystems);
+        stubSystemDependencies(complexSystems);
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -514,7 +535,306 @@ class DiagramServiceTest {
         assertThat(result.getLinks()).hasSizeGreaterThan(6);
     }
 
+    @Test
+    @DisplayName("Should generate a middleware diagram from every flow through the middleware")
+    void testGenerateMiddlewareDiagram_ProducerMiddlewareConsumer() {
+        // Given
+        SystemDependencyDTO thirdSystem = createSystemDependency("SYS-003", "Reporting", "REV-003");
+        primarySystem.setIntegrationFlows(Arrays.asList(
+            createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", "OSB"),
+            createIntegrationFlow("SYS-003", "CONSUMER", "REST_API", "Daily", "API_GATEWAY")));
+        thirdSystem.setIntegrationFlows(Arrays.asList(
+            createIntegrationFlow("SYS-001", "PRODUCER", "SOAP", "Hourly", "OSB-C"),
+            createIntegrationFlow("SYS-004", "CONSUMER", "FILE", "Weekly", "NONE")));
+        stubSystemDependencies(Arrays.asList(primarySystem, externalSystem, thirdSystem));
+
+        // When
+        MiddlewareDiagramDTO result = diagramService.generateMiddlewareDiagram("OSB");
+
+        // Then
+        assertThat(result.getNodes()).extracting(CommonDiagramDTO.NodeDTO::getId)
+            .containsExactly("OSB", "SYS-001-P", "SYS-002-C", "SYS-003-C");
+        assertThat(findNodeById(result.getNodes(), "OSB").getType()).isEqualTo("Middleware");
+        assertThat(findNodeById(result.getNodes(), "SYS-002-C").getName()).isEqualTo("External System");
+        assertThat(result.getLinks())
+            .extracting(CommonDiagramDTO.DetailedLinkDTO::getSource, CommonDiagramDTO.DetailedLinkDTO::getTarget,
+                CommonDiagramDTO.DetailedLinkDTO::getPattern, CommonDiagramDTO.DetailedLinkDTO::getRole)
+            .containsExactly(
+                tuple("SYS-001-P", "OSB", "REST_API", "PRODUCER"),
+                tuple("OSB", "SYS-002-C", "REST_API", "CONSUMER"),
+                tuple("SYS-001-P", "OSB", "SOAP", "PRODUCER"),
+                tuple("OSB", "SYS-003-C", "SOAP", "CONSUMER"));
+        assertThat(result.getMetadata().getCode()).isEqualTo("OSB");
+        assertThat(result.getMetadata().getIntegrationMiddleware()).containsExactly("OSB");
+    }
+
+    @Test
+    @DisplayName("Should reject a middleware that no flow goes through")
+    void testGenerateMiddlewareDiagram_UnknownMiddleware() {
+        // Given
+        primarySystem.setIntegrationFlows(Collections.singletonList(
+            createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", "NONE")));
+        stubSystemDependencies(mockSystemDependencies);
+
+        // When & Then
+        assertThatThrownBy(() -> diagramService.generateMiddlewareDiagram("NONE"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Middleware not found: NONE");
+        assertThatThrownBy(() -> diagramService.generateMiddlewareDiagram(" "))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should generate a diagram from a retained earlier snapshot version")
+    void testGenerateSystemDependenciesDiagram_RetainedVersion() {
+        // Given
+        DependencySnapshotHolder retainingHolder = new DependencySnapshotHolder(coreServiceClient,
+                new SnapshotFileStore(new ObjectMapper(), "", Duration.ZERO), Duration.ofMinutes(2), SnapshotStorage.HEAP, 5);
+        DiagramService service = new DiagramService(coreServiceClient, retainingHolder, PATH_SEARCH_CEILINGS);
+        primarySystem.setIntegrationFlows(Collections.singletonList(
+            createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", null)));
+        stubSystemDependencies(mockSystemDependencies);
+        long initialVersion = retainingHolder.current().getVersion();
+        primarySystem.setIntegrationFlows(Collections.emptyList());
+        retainingHolder.refresh();
+
+        // When
+        SpecificSystemDependenciesDiagramDTO earlier = service.generateSystemDependenciesDiagram("SYS-001",
+            new SnapshotSelector(initialVersion, null));
+        SpecificSystemDependenciesDiagramDTO latest = service.generateSystemDependenciesDiagram("SYS-001");
+
+        // Then
+        assertThat(earlier.getMetadata().getSnapshotVersion()).isEqualTo(initialVersion);
+        assertThat(earlier.getLinks()).hasSize(1);
+        assertThat(latest.getLinks()).isEmpty();
+        assertThatThrownBy(() -> service.generateSystemDependenciesDiagram("SYS-001",
+                new SnapshotSelector(initialVersion - 1, null)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should report a complete path search when no limit is reached")
+    void testFindAllPathsDiagram_Complete() {
+        // Given
+        stubSystemDependencies(createFanOutLandscape());
+
+        // When
+        PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
+
+        // Then
+        assertThat(result.getMetadata().getReview()).isEqualTo("4 paths found");
+        assertThat(result.getMetadata().getComplete()).isTrue();
+        assertThat(result.getMetadata().getTruncatedBy()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should stop the path search at the requested number of paths")
+    void testFindAllPathsDiagram_MaxPaths() {
+        // Given
+        stubSystemDependencies(createFanOutLandscape());
+
+        // When
+        PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST,
+            new PathSearchLimits(null, 2, null));
+
+        // Then
+        assertThat(result.getMetadata().getReview()).isEqualTo("2 paths found");
+        assertThat(result.getMetadata().getComplete()).isFalse();
+        assertThat(result.getMetadata().getTruncatedBy()).isEqualTo("MAX_PATHS");
+    }
+
+    @Test
+    @DisplayName("Should report a complete search when exactly the requested number of paths exists")
+    void testFindAllPathsDiagram_MaxPathsNotExceeded() {
+        // Given
+        stubSystemDependencies(createFanOutLandscape());
+
+        // When
+        PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST,
+            new PathSearchLimits(null, 4, null));
+
+        // Then
+        assertThat(result.getMetadata().getReview()).isEqualTo("4 paths found");
+        assertThat(result.getMetadata().getComplete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not follow paths past the requested depth")
+    void testFindAllPathsDiagram_MaxDepth() {
+        // Given
+        stubSystemDependencies(createFanOutLandscape());
+
+        // When
+        PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST,
+            new PathSearchLimits(1, null, null));
+
+        // Then
+        assertThat(result.getMetadata().getReview()).isEqualTo("1 path found");
+        assertThat(result.getLinks())
+            .extracting(PathDiagramDTO.PathLinkDTO::getSource, PathDiagramDTO.PathLinkDTO::getTarget)
+            .containsExactly(tuple("SYS-001", "SYS-002"));
+        assertThat(result.getMetadata().getComplete()).isFalse();
+        assertThat(result.getMetadata().getTruncatedBy()).isEqualTo("MAX_DEPTH");
+    }
+
+    @Test
+    @DisplayName("Should report a complete search when the depth limit only cuts off dead ends")
+    void testFindAllPathsDiagram_MaxDepthOnlyDeadEnds() {
+        // Given - SYS-A also feeds a chain that never reaches SYS-002
+        List<SystemDependencyDTO> landscape = createFanOutLandscape();
+        landscape.set(1, createProducer("SYS-A", "SYS-002", "SYS-X"));
+        landscape.add(createProducer("SYS-X", "SYS-Y"));
+        stubSystemDependencies(landscape);
+
+        // When
+        PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST,
+            new PathSearchLimits(2, null, null));
+
+        // Then
+        assertThat(result.getMetadata().getReview()).isEqualTo("4 paths found");
+        assertThat(result.getMetadata().getComplete()).isTrue();
+        assertThat(result.getMetadata().getTruncatedBy()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should report the depth limit when the end system is only reachable beyond it")
+    void testFindAllPathsDiagram_EndBeyondMaxDepth() {
+        // Given
+        stubSystemDependencies(List.of(createProducer("SYS-001", "SYS-A"), createProducer("SYS-A", "SYS-B"),
+            createProducer("SYS-B", "SYS-002")));
+
+        // When
+        PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST,
+            new PathSearchLimits(2, null, null));
+
+        // Then
+        assertThat(result.getMetadata().getReview()).isEqualTo("No paths found");
+        assertThat(result.getMetadata().getTruncatedBy()).isEqualTo("MAX_DEPTH");
+    }
+
+        @Test
+    @DisplayName("Should draw only the k shortest paths")
+    void testFindShortestPathsDiagram() {
+        // Given
+        stubSystemDependencies(createFanOutLandscape());
+
+        // When
+        PathDiagramDTO result = diagramService.findShortestPathsDiagram("SYS-001", "SYS-002",
+            SnapshotSelector.LATEST, new PathSearchLimits(null, 2, null));
+
+        // Then
+        assertThat(result.getMetadata().getReview()).isEqualTo("2 paths found");
+        assertThat(result.getLinks())
+            .extracting(PathDiagramDTO.PathLinkDTO::getSource, PathDiagramDTO.PathLinkDTO::getTarget)
+            .containsExactly(tuple("SYS-001", "SYS-002"), tuple("SYS-001", "SYS-A"), tuple("SYS-A", "SYS-002"));
+        assertThat(result.getMetadata().getTruncatedBy()).isEqualTo("MAX_PATHS");
+    }
+
+    @Test
+    @DisplayName("Should stream each path with its links and end with the summary")
+    void testOpenPathStream() {
+        // Given
+        stubSystemDependencies(createFanOutLandscape());
+        List<PathStreamDTO.PathLineDTO> lines = new ArrayList<>();
+
+        // When
+        PathStream stream = diagramService.openPathStream("SYS-001", "SYS-002", SnapshotSelector.LATEST,
+            new PathSearchLimits(null, 3, null));
+        PathStreamDTO.SummaryLineDTO summary = stream.run(lines::add);
+
+        // Then
+        assertThat(lines).extracting(PathStreamDTO.PathLineDTO::getIndex).containsExactly(0, 1, 2);
+        assertThat(lines.get(0).getLinks())
+            .extracting(PathDiagramDTO.PathLinkDTO::getSource, PathDiagramDTO.PathLinkDTO::getTarget)
+            .containsExactly(tuple("SYS-001", "SYS-A"), tuple("SYS-A", "SYS-002"));
+        assertThat(summary.getMetadata().getReview()).isEqualTo("3 paths found");
+        assertThat(summary.getMetadata().getTruncatedBy()).isEqualTo("MAX_PATHS");
+    }
+
+    @Test
+    @DisplayName("Should stop the path search when writing a path fails")
+    void testOpenPathStream_StopsOnFailedWrite() {
+        // Given
+        stubSystemDependencies(createFanOutLandscape());
+        PathStream stream = diagramService.openPathStream("SYS-001", "SYS-002", SnapshotSelector.LATEST,
+            PathSearchLimits.NONE);
+        List<PathStreamDTO.PathLineDTO> written = new ArrayList<>();
+
+        // When & Then
+        assertThatThrownBy(() -> stream.run(line -> {
+            written.add(line);
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        })).isInstanceOf(UncheckedIOException.class);
+        assertThat(written).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid path stream before it runs")
+    void testOpenPathStream_UnknownSystem() {
+        // Given
+        stubSystemDependencies(createFanOutLandscape());
+
+        // When & Then
+        assertThatThrownBy(() -> diagramService.openPathStream("SYS-001", "SYS-404", SnapshotSelector.LATEST,
+            PathSearchLimits.NONE))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("SYS-404");
+    }
+
+    @Test
+    @DisplayName("Should cap requested path search limits at the server ceilings")
+    void testFindAllPathsDiagram_LimitsAboveCeilings() {
+        // Given
+        DependencySnapshotHolder snapshotHolder = new DependencySnapshotHolder(coreServiceClient,
+                new SnapshotFileStore(new ObjectMapper(), "", Duration.ZERO), Duration.ofMinutes(2), SnapshotStorage.HEAP, 0);
+        DiagramService service = new DiagramService(coreServiceClient, snapshotHolder,
+                new PathSearchProperties(10, 3, Duration.ofSeconds(5)));
+        stubSystemDependencies(createFanOutLandscape());
+
+        // When
+        PathDiagramDTO result = service.findAllPathsDiagram("SYS-001", "SYS-002", SnapshotSelector.LATEST,
+            new PathSearchLimits(100, 1000, Duration.ofMinutes(10)));
+
+        // Then
+        assertThat(result.getMetadata().getReview()).isEqualTo("3 paths found");
+        assertThat(result.getMetadata().getTruncatedBy()).isEqualTo("MAX_PATHS");
+    }
+
     // Helper methods
+    /**
+     * Stubs the streamed system dependencies feed to deliver the given systems.
+     */
+    private void stubSystemDependencies(List<SystemDependencyDTO> dependencies) {
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any())).thenAnswer(invocation -> {
+            Consumer<SystemDependencyDTO> consumer = invocation.getArgument(1);
+            dependencies.forEach(consumer);
+            return true;
+        });
+    }
+
+    /**
+     * SYS-001 produces for SYS-002 directly and through each of SYS-A, SYS-B and SYS-C,
+     * giving one path of 1 hop and three of 2 hops.
+     */
+    private List<SystemDependencyDTO> createFanOutLandscape() {
+        List<SystemDependencyDTO> landscape = new ArrayList<>();
+        landscape.add(createProducer("SYS-001", "SYS-A", "SYS-B", "SYS-C", "SYS-002"));
+        landscape.add(createProducer("SYS-A", "SYS-002"));
+        landscape.add(createProducer("SYS-B", "SYS-002"));
+        landscape.add(createProducer("SYS-C", "SYS-002"));
+        return landscape;
+    }
+
+    private SystemDependencyDTO createProducer(String systemCode, String... consumers) {
+        SystemDependencyDTO system = createSystemDependency(systemCode, systemCode + " System", "REV-" + systemCode);
+        List<SystemDependencyDTO.IntegrationFlow> flows = new ArrayList<>();
+        for (String consumer : consumers) {
+            flows.add(createIntegrationFlow(consumer, "CONSUMER", "REST_API", "Daily", null));
+        }
+        system.setIntegrationFlows(flows);
+        return system;
+    }
+
     private SystemDependencyDTO createSystemDependency(String systemCode, String systemName, String reviewCode) {
         SystemDependencyDTO system = new SystemDependencyDTO();
         system.setSystemCode(systemCode);
@@ -554,7 +874,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow = createIntegrationFlow("SYS-999", "CONSUMER", "REST_API", "Daily", null);
         systemWithMissingDep.setIntegrationFlows(Arrays.asList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(systemWithMissingDep));
+        stubSystemDependencies(Arrays.asList(systemWithMissingDep));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(systemCode);
@@ -587,7 +907,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow producerFlow = createIntegrationFlow("SYS-001", "CONSUMER", "MQ", "Hourly", "MESSAGE_QUEUE");
         externalProducer.setIntegrationFlows(Arrays.asList(producerFlow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(primarySystem, externalProducer));
+        stubSystemDependencies(Arrays.asList(primarySystem, externalProducer));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(systemCode);
@@ -630,7 +950,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow primaryFlow2 = createIntegrationFlow("SYS-003", "PRODUCER", "REST_API", "Daily", "API_GATEWAY");
         primarySystem.setIntegrationFlows(Arrays.asList(primaryFlow1, primaryFlow2));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(primarySystem, system1, system2));
+        stubSystemDependencies(Arrays.asList(primarySystem, system1, system2));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(systemCode);
@@ -672,7 +992,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow2 = createIntegrationFlow("SYS-001", "CONSUMER", "SOAP", "Hourly", "SHARED_GATEWAY");
         system2.setIntegrationFlows(Arrays.asList(flow2));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(primarySystem, system1, system2));
+        stubSystemDependencies(Arrays.asList(primarySystem, system1, system2));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(systemCode);
@@ -713,7 +1033,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow reverseFlow = createIntegrationFlow("SYS-001", "PRODUCER", "REST_API", "Daily", null);
         externalSystem2.setIntegrationFlows(Arrays.asList(reverseFlow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(primarySystem, externalSystem2));
+        stubSystemDependencies(Arrays.asList(primarySystem, externalSystem2));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(systemCode);
@@ -748,7 +1068,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow = createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", null);
         systemWithFlow.setIntegrationFlows(Arrays.asList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(systemWithFlow));
+        stubSystemDependencies(Arrays.asList(systemWithFlow));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -779,7 +1099,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow = createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", "API_GATEWAY");
         systemWithFlow.setIntegrationFlows(Arrays.asList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(systemWithFlow));
+        stubSystemDependencies(Arrays.asList(systemWithFlow));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -802,7 +1122,7 @@ class DiagramServiceTest {
         // Metadata should indicate middleware used
         assertThat(result.getMetadata().getIntegrationMiddleware()).contains("API_GATEWAY");
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -817,7 +1137,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow2 = createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", null);
         system2.setIntegrationFlows(Arrays.asList(flow2));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-004");
@@ -879,7 +1199,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow = createIntegrationFlow("SYS-002", "CONSUMER", "REST_API", "Daily", null);
         system.setIntegrationFlows(Arrays.asList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system));
+        stubSystemDependencies(Arrays.asList(system));
 
         // When/Then - Nonexistent start system
         assertThatThrownBy(() -> diagramService.findAllPathsDiagram("NONEXISTENT", "SYS-002"))
@@ -901,7 +1221,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow middlewareFlow = createIntegrationFlow("SYS-002", "CONSUMER", "MESSAGING", "Hourly", "MESSAGE_QUEUE");
         system.setIntegrationFlows(Arrays.asList(directFlow, middlewareFlow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system));
+        stubSystemDependencies(Arrays.asList(system));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -941,7 +1261,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow2 = createIntegrationFlow("SYS-001", "CONSUMER", "REST_API", "Daily", null);
         system2.setIntegrationFlows(Arrays.asList(flow2));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -963,7 +1283,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system2 = createSystemDependency("SYS-002", "System Two", "REV-002");
         system2.setIntegrationFlows(null); // Explicitly set to null
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -979,7 +1299,7 @@ class DiagramServiceTest {
     @DisplayName("Should handle empty system dependencies list")
     void testFindAllPathsDiagram_EmptyDependencies() {
         // Given: Empty dependencies list
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Collections.emptyList());
+        stubSystemDependencies(Collections.emptyList());
 
         // When/Then - Should throw exception for nonexistent systems
         assertThatThrownBy(() -> diagramService.findAllPathsDiagram("SYS-001", "SYS-002"))
@@ -1006,7 +1326,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system4 = createSystemDependency("SYS-004", "System Four", "REV-004");
         system4.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2, system3, system4));
+        stubSystemDependencies(Arrays.asList(system1, system2, system3, system4));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-004");
@@ -1031,7 +1351,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system2 = createSystemDependency("SYS-002", "System Two", "REV-002");
         system2.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -1054,7 +1374,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system2 = createSystemDependency("SYS-002", "System Two", "REV-002");
         system2.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -1070,7 +1390,7 @@ class DiagramServiceTest {
     @DisplayName("Should handle CoreServiceClient exceptions")
     void testFindAllPathsDiagram_CoreServiceException() {
         // Given: CoreServiceClient throws exception
-        when(coreServiceClient.getSystemDependencies())
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
                 .thenThrow(new RuntimeException("Service unavailable"));
 
         // When/Then - Exception should propagate
@@ -1090,7 +1410,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system2 = createSystemDependency("SYS-002-PROD", "System Two Production", "REV-002");
         system2.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001_TEST", "SYS-002-PROD");
@@ -1123,7 +1443,7 @@ class DiagramServiceTest {
         system3.setIntegrationFlows(Arrays.asList(flow5));
 
         List<SystemDependencyDTO> systems = Arrays.asList(system1, system2, system3);
-        when(coreServiceClient.getSystemDependencies()).thenReturn(systems);
+        stubSystemDependencies(systems);
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1148,14 +1468,14 @@ class DiagramServiceTest {
         // Verify links are deduplicated and have counts
         assertThat(result.getLinks()).allMatch(link -> link.getCount() > 0);
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
     @DisplayName("Should generate diagram with empty systems list")
     void testGenerateAllSystemDependenciesDiagrams_EmptySystemsList() {
         // Given: Empty systems list
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Collections.emptyList());
+        stubSystemDependencies(Collections.emptyList());
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1170,7 +1490,7 @@ class DiagramServiceTest {
                     assertThat(r.getMetadata().getGeneratedDate()).isEqualTo(LocalDate.now());
                 });
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1183,7 +1503,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system2 = createSystemDependency("SYS-002", "Isolated System B", "REV-002");
         system2.setIntegrationFlows(Collections.emptyList());
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1196,7 +1516,7 @@ class DiagramServiceTest {
                     assertThat(r.getLinks()).isEmpty();
                 });
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1211,7 +1531,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow2 = createIntegrationFlow("SYS-001", "PROVIDER", "REST_API", "Daily", null);
         system2.setIntegrationFlows(Arrays.asList(flow2));
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1227,7 +1547,7 @@ class DiagramServiceTest {
         assertThat(link.getTarget()).isIn("SYS-001", "SYS-002");
         assertThat(link.getSource()).isNotEqualTo(link.getTarget());
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1243,7 +1563,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system2 = createSystemDependency("SYS-002", "System B", "REV-002");
         system2.setIntegrationFlows(Collections.emptyList());
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1258,7 +1578,30 @@ class DiagramServiceTest {
         assertThat(link.getSource()).isEqualTo("SYS-001");
         assertThat(link.getTarget()).isEqualTo("SYS-002");
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep links apart when hyphenated system codes concatenate to the same text")
+    void testGenerateAllSystemDependenciesDiagrams_HyphenatedCodesDoNotCollide() {
+        // Given: "A-B" -> "C" and "A" -> "B-C" would both read "A-B-C" as a joined identifier
+        SystemDependencyDTO system1 = createSystemDependency("A-B", "System AB", "REV-001");
+        system1.setIntegrationFlows(Arrays.asList(createIntegrationFlow("C", "CONSUMER", "REST_API", "Daily", null)));
+
+        SystemDependencyDTO system2 = createSystemDependency("A", "System A", "REV-002");
+        system2.setIntegrationFlows(Arrays.asList(createIntegrationFlow("B-C", "CONSUMER", "REST_API", "Daily", null)));
+
+        stubSystemDependencies(Arrays.asList(system1, system2));
+
+        // When
+        OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
+
+        // Then
+        assertThat(result.getLinks()).hasSize(2);
+        assertThat(result.getLinks())
+            .extracting(CommonDiagramDTO.SimpleLinkDTO::getSource, CommonDiagramDTO.SimpleLinkDTO::getTarget,
+                CommonDiagramDTO.SimpleLinkDTO::getCount)
+            .containsExactly(tuple("A-B", "C", 1), tuple("A", "B-C", 1));
     }
 
     @Test
@@ -1270,7 +1613,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flowToExternal2 = createIntegrationFlow("EXT-002", "PROVIDER", "MESSAGING", "Hourly", null);
         coreSystem.setIntegrationFlows(Arrays.asList(flowToExternal1, flowToExternal2));
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(coreSystem));
+        stubSystemDependencies(Arrays.asList(coreSystem));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1301,7 +1644,7 @@ class DiagramServiceTest {
         // External systems use their ID as the name (as per the implementation: node.setName(flow.getCounterpartSystemCode()))
         assertThat(externalNodes).allMatch(n -> n.getName().equals(n.getId()));
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1311,7 +1654,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system = createSystemDependency("SYS-001", "System with Null Flows", "REV-001");
         system.setIntegrationFlows(null);
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system));
+        stubSystemDependencies(Arrays.asList(system));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1321,7 +1664,7 @@ class DiagramServiceTest {
         assertThat(result.getNodes()).isEmpty(); // No nodes created because no integration flows
         assertThat(result.getLinks()).isEmpty();
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1333,7 +1676,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow invalidFlow = createIntegrationFlow(null, "PROVIDER", "MESSAGING", "Hourly", null);
         system.setIntegrationFlows(Arrays.asList(validFlow, invalidFlow));
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system));
+        stubSystemDependencies(Arrays.asList(system));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1350,21 +1693,21 @@ class DiagramServiceTest {
                 .filter(Objects::nonNull))
             .containsExactlyInAnyOrder("SYS-001", "SYS-002");
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
     @DisplayName("Should handle CoreServiceClient exception")
     void testGenerateAllSystemDependenciesDiagrams_ServiceException() {
         // Given: CoreServiceClient throws exception
-        when(coreServiceClient.getSystemDependencies()).thenThrow(new RuntimeException("Service unavailable"));
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any())).thenThrow(new RuntimeException("Service unavailable"));
 
         // When & Then
         assertThatThrownBy(() -> diagramService.generateAllSystemDependenciesDiagrams())
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Service unavailable");
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1392,7 +1735,7 @@ class DiagramServiceTest {
             createIntegrationFlow("EMAIL-001", "CONSUMER", "SMTP", "Batch", null)
         ));
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(paymentService, userService, notificationService));
+        stubSystemDependencies(Arrays.asList(paymentService, userService, notificationService));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1419,7 +1762,7 @@ class DiagramServiceTest {
         assertThat(result.getLinks()).hasSizeGreaterThan(0);
         assertThat(result.getLinks()).allMatch(link -> link.getCount() > 0);
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1433,7 +1776,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow4 = createIntegrationFlow("SYS-002", "CONSUMER", "FILE_TRANSFER", "Weekly", "SFTP");
         system.setIntegrationFlows(Arrays.asList(flow1, flow2, flow3, flow4));
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system));
+        stubSystemDependencies(Arrays.asList(system));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -1448,7 +1791,7 @@ class DiagramServiceTest {
         assertThat(link.getTarget()).isEqualTo("SYS-002");
         assertThat(link.getCount()).isEqualTo(4); // All 4 different integration patterns counted
 
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     // Tests for path finding link deduplication
@@ -1471,7 +1814,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system3 = createSystemDependency("SYS-003", "System Three", "REV-003");
         system3.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2, system3));
+        stubSystemDependencies(Arrays.asList(system1, system2, system3));
 
         // When: Finding paths from SYS-001 to SYS-003
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-003");
@@ -1496,7 +1839,7 @@ class DiagramServiceTest {
         // Should have found all path combinations: 2 × 3 = 6 paths
         assertThat(result.getMetadata().getReview()).isEqualTo("6 paths found");
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1512,7 +1855,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system2 = createSystemDependency("SYS-002", "System Two", "REV-002");
         system2.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When: Finding paths from SYS-001 to SYS-002
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -1530,7 +1873,7 @@ class DiagramServiceTest {
         // Should find 2 unique paths (flow1 and flow2 are identical, so only count as one path in the graph)
         assertThat(result.getMetadata().getReview()).isEqualTo("2 paths found");
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1549,7 +1892,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system3 = createSystemDependency("SYS-003", "System Three", "REV-003");
         system3.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2, system3));
+        stubSystemDependencies(Arrays.asList(system1, system2, system3));
 
         // When: Finding paths from SYS-001 to SYS-003
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-003");
@@ -1571,7 +1914,7 @@ class DiagramServiceTest {
         // Should find 1 path: SYS-001 -> SYS-002 -> SYS-003
         assertThat(result.getMetadata().getReview()).isEqualTo("1 path found");
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1592,7 +1935,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system3 = createSystemDependency("SYS-003", "System Three", "REV-003");
         system3.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2, system3));
+        stubSystemDependencies(Arrays.asList(system1, system2, system3));
 
         // When: Finding paths from SYS-001 to SYS-003
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-003");
@@ -1619,7 +1962,7 @@ class DiagramServiceTest {
         // Should find paths: 1 direct + (1 × 2) = 3 total paths (indirectFlow2 is identical to indirectFlow1)
         assertThat(result.getMetadata().getReview()).isEqualTo("3 paths found");
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1635,7 +1978,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system2 = createSystemDependency("SYS-002", "System Two", "REV-002");
         system2.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When: Finding paths from SYS-001 to SYS-002
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-002");
@@ -1653,7 +1996,7 @@ class DiagramServiceTest {
         assertThat(result.getMetadata().getIntegrationMiddleware())
             .containsExactlyInAnyOrder("API_GATEWAY", "ESB");
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -1679,7 +2022,7 @@ class DiagramServiceTest {
         SystemDependencyDTO system3 = createSystemDependency("SYS-003", "System Three", "REV-003");
         system3.setIntegrationFlows(Collections.emptyList());
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2, system3));
+        stubSystemDependencies(Arrays.asList(system1, system2, system3));
 
         // When: Finding paths from SYS-001 to SYS-003
         PathDiagramDTO result = diagramService.findAllPathsDiagram("SYS-001", "SYS-003");
@@ -1707,7 +2050,7 @@ class DiagramServiceTest {
         assertThat(result.getMetadata().getIntegrationMiddleware())
             .containsExactlyInAnyOrder("API_GATEWAY", "MESSAGE_QUEUE", "ESB", "SFTP_SERVER");
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     // ========================================
@@ -2222,6 +2565,58 @@ class DiagramServiceTest {
             .hasCauseInstanceOf(RuntimeException.class);
     }
 
+    @Test
+    @DisplayName("Should fetch both capability sources concurrently")
+    void testGetBusinessCapabilitiesTree_FetchesConcurrently() {
+        // Given - each call only returns once the other one has started
+        CountDownLatch allStarted = new CountDownLatch(1);
+        CountDownLatch systemsStarted = new CountDownLatch(1);
+        when(coreServiceClient.getAllBusinessCapabilities()).thenAnswer(invocation -> {
+            allStarted.countDown();
+            assertThat(systemsStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return List.of(createCapabilityDTO("Finance", "Accounting", "General Ledger"));
+        });
+        when(coreServiceClient.getBusinessCapabilities()).thenAnswer(invocation -> {
+            systemsStarted.countDown();
+            assertThat(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return Collections.emptyList();
+        });
+
+        // When
+        BusinessCapabilitiesTreeDTO result = diagramService.getBusinessCapabilitiesTree();
+
+        // Then
+        assertThat(result.getCapabilities()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should cancel the other capability call when one fails")
+    void testGetBusinessCapabilitiesTree_CancelsOnFailure() {
+        // Given - the solution review call blocks until it is interrupted
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(coreServiceClient.getBusinessCapabilities()).thenAnswer(invocation -> {
+            try {
+                blocked.countDown();
+                new CountDownLatch(1).await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return Collections.emptyList();
+        });
+        when(coreServiceClient.getAllBusinessCapabilities()).thenAnswer(invocation -> {
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+            throw new RuntimeException("Database connection failed");
+        });
+
+        // When & Then
+        assertThatThrownBy(() -> diagramService.getBusinessCapabilitiesTree())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Failed to generate business capabilities tree")
+            .hasRootCauseMessage("Database connection failed");
+        assertThat(interrupted).isTrue();
+    }
+
     @Test
     @DisplayName("Should include capabilities without systems in tree (two-phase approach)")
     void testCapabilitiesWithoutSystems() {
@@ -3039,7 +3434,7 @@ class DiagramServiceTest {
         String targetSystemCode = "SYS-001";
         primarySystem.setIntegrationFlows(Collections.emptyList()); // Empty list instead of null
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(primarySystem));
+        stubSystemDependencies(Arrays.asList(primarySystem));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -3062,7 +3457,7 @@ class DiagramServiceTest {
         );
         primarySystem.setIntegrationFlows(Collections.singletonList(flow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(primarySystem, externalSystem));
+        stubSystemDependencies(Arrays.asList(primarySystem, externalSystem));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(targetSystemCode);
@@ -3122,7 +3517,7 @@ class DiagramServiceTest {
             createIntegrationFlow("EXT-001", "PRODUCER", "REST_API", "Weekly", null) // Same external system
         ));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -3278,7 +3673,7 @@ class DiagramServiceTest {
     void testSystemExistenceValidation() {
         // Given - Limited system data
         SystemDependencyDTO system1 = createSystemDependency("SYS-EXIST", "Existing System", "REV-001");
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1));
+        stubSystemDependencies(Arrays.asList(system1));
 
         // Test non-existent start system
         assertThatThrownBy(() -> diagramService.findAllPathsDiagram("SYS-MISSING", "SYS-EXIST"))
@@ -3301,7 +3696,7 @@ class DiagramServiceTest {
         );
         system.setIntegrationFlows(Arrays.asList(flowWithSuffix));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system));
+        stubSystemDependencies(Arrays.asList(system));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram("SYS-001");
@@ -3330,7 +3725,7 @@ class DiagramServiceTest {
             createIntegrationFlow("EXT-003-C", "CONSUMER", "FILE_TRANSFER", "Weekly", null)
         ));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2));
+        stubSystemDependencies(Arrays.asList(system1, system2));
 
         // When & Then - Test that system validation correctly extracts all system codes
         // This should succeed because all systems exist in the extracted codes
@@ -3362,7 +3757,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow reverseFlow = createIntegrationFlow("SYS-001", "PRODUCER", "REST_API", "Daily", null);
         externalSystem2.setIntegrationFlows(Arrays.asList(reverseFlow));
         
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(primarySystem, externalSystem2));
+        stubSystemDependencies(Arrays.asList(primarySystem, externalSystem2));
 
         // When
         SpecificSystemDependenciesDiagramDTO result = diagramService.generateSystemDependenciesDiagram(systemCode);
@@ -3384,7 +3779,7 @@ class DiagramServiceTest {
             linkSignatures.add(signature);
         }
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 
     @Test
@@ -3403,7 +3798,7 @@ class DiagramServiceTest {
         SystemDependencyDTO.IntegrationFlow flow3 = createIntegrationFlow("SYS-002", "PRODUCER", "MESSAGE_QUEUE", "Hourly", null); // Reverse of flow2
         system3.setIntegrationFlows(Arrays.asList(flow3));
 
-        when(coreServiceClient.getSystemDependencies()).thenReturn(Arrays.asList(system1, system2, system3));
+        stubSystemDependencies(Arrays.asList(system1, system2, system3));
 
         // When
         OverallSystemDependenciesDiagramDTO result = diagramService.generateAllSystemDependenciesDiagrams();
@@ -3424,6 +3819,6 @@ class DiagramServiceTest {
         // Should have count = 2 due to reverse link handling
         assertThat(bidirectionalLink.getCount()).isEqualTo(2);
         
-        verify(coreServiceClient).getSystemDependencies();
+        verify(coreServiceClient).streamSystemDependencies(anyBoolean(), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.snapshot.DependencySnapshot;
+import com.project.diagram_service.snapshot.IntegrationGraph;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.randomLandscape;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Compares the iterative {@link PathFinder} with the recursive search it replaced, which
+ * materialized every path found as segment records with names and middleware.
+ *
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("PathFinder Benchmark")
+@Slf4j
+class PathFinderBenchmarkTest {
+
+    private static final int SYSTEMS = 4_000;
+    private static final int FLOWS_PER_SYSTEM = 8;
+    private static final int SEARCHES = 50;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final PathSearchLimits LIMITS = new PathSearchLimits(7, 100_000, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("Iterative search should find the same paths as the recursive one, no slower")
+    void testFind_ComparedWithRecursiveSearch() {
+        // Given
+        IntegrationGraph graph = DependencySnapshot.of(1, Instant.EPOCH,
+                randomLandscape(SYSTEMS, FLOWS_PER_SYSTEM, SYSTEMS)).getGraph();
+        Random random = new Random(42);
+        int[][] pairs = new int[SEARCHES][];
+        for (int i = 0; i < SEARCHES; i++) {
+            int start = random.nextInt(graph.nodeCount());
+            int target = random.nextInt(graph.nodeCount());
+            pairs[i] = new int[] {start, target == start ? (target + 1) % graph.nodeCount() : target};
+        }
+
+        // Then - both searches agree on every pair
+        long totalPaths = 0;
+        for (int[] pair : pairs) {
+            PathFinder.Result iterative = PathFinder.find(graph, pair[0], pair[1], LIMITS);
+            List<List<Segment>> recursive = RecursiveSearch.find(graph, pair[0], pair[1], LIMITS.maxDepth());
+            assertThat(iterative.paths()).hasSameSizeAs(recursive);
+            for (int p = 0; p < recursive.size(); p++) {
+                assertThat(iterative.paths().get(p))
+                    .containsExactly(recursive.get(p).stream().mapToInt(Segment::edge).toArray());
+            }
+            totalPaths += recursive.size();
+        }
+
+        // When
+        long recursiveBest = measure(() -> {
+            for (int[] pair : pairs) {
+                RecursiveSearch.find(graph, pair[0], pair[1], LIMITS.maxDepth());
+            }
+        });
+        long iterativeBest = measure(() -> {
+            for (int[] pair : pairs) {
+                PathFinder.find(graph, pair[0], pair[1], LIMITS);
+            }
+        });
+
+        log.info(String.format("searches=%d paths=%d recursive=%8.2fms iterative=%8.2fms",
+                SEARCHES, totalPaths, recursiveBest / 1_000_000.0, iterativeBest / 1_000_000.0));
+
+        // Allow noise, not a regression
+        assertThat(iterativeBest).isLessThan(recursiveBest * 3 / 2);
+    }
+
+    private long measure(Runnable searches) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            searches.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            searches.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private record Segment(String source, String target, String middleware, int flow, int edge) {
+    }
+
+    /**
+     * The recursive search as it was before {@link PathFinder}: a boolean visited array, a
+     * call frame per step and a list of segment records per path found.
+     */
+    private static final class RecursiveSearch {
+
+        private final IntegrationGraph graph;
+        private final int target;
+        private final int maxDepth;
+        private final int[] distances;
+        private final boolean[] visited;
+        private final int[] pathEdges;
+        private final int[] pathSources;
+        private final List<List<Segment>> paths = new ArrayList<>();
+
+        private RecursiveSearch(IntegrationGraph graph, int target, int maxDepth) {
+            this.graph = graph;
+            this.target = target;
+            this.maxDepth = maxDepth;
+            this.distances = graph.distancesTo(target);
+            this.visited = new boolean[graph.nodeCount()];
+            this.pathEdges = new int[graph.nodeCount()];
+            this.pathSources = new int[graph.nodeCount()];
+        }
+
+        static List<List<Segment>> find(IntegrationGraph graph, int start, int target, int maxDepth) {
+            RecursiveSearch search = new RecursiveSearch(graph, target, maxDepth);
+            int distance = search.distances[start];
+            if (distance >= 0 && distance <= maxDepth) {
+                search.dfs(start, 0);
+            }
+            return search.paths;
+        }
+
+        private void dfs(int current, int depth) {
+            if (current == target) {
+                List<Segment> segments = new ArrayList<>(depth);
+                for (int i = 0; i < depth; i++) {
+                    int edge = pathEdges[i];
+                    segments.add(new Segment(graph.nodeName(pathSources[i]), graph.nodeName(graph.edgeTarget(edge)),
+                            graph.edgeMiddleware(edge), graph.edgeFlow(edge), edge));
+                }
+                paths.add(segments);
+                return;
+            }
+
+            visited[current] = true;
+            for (int edge = graph.firstEdge(current); edge < graph.endEdge(current); edge++) {
+                int next = graph.edgeTarget(edge);
+                int remaining = distances[next];
+                if (remaining >= 0 && !visited[next] && depth + 1 + remaining <= maxDepth) {
+                    pathEdges[depth] = edge;
+                    pathSources[depth] = current;
+                    dfs(next, depth + 1);
+                }
+            }
+            visited[current] = false;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import com.project.diagram_service.snapshot.DependencySnapshot;
+import com.project.diagram_service.snapshot.IntegrationGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.system;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PathFinder Tests")
+class PathFinderTest {
+
+    private static final PathSearchLimits UNBOUNDED = new PathSearchLimits(100_000, 100_000, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("Should find every simple path in depth-first order")
+    void testFind_AllPathsInOrder() {
+        // Given
+        IntegrationGraph graph = graph(
+            system("SYS-001", "SYS-A", "SYS-002", "SYS-B"),
+            system("SYS-A", "SYS-B", "SYS-002"),
+            system("SYS-B", "SYS-002"));
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-001", "SYS-002", UNBOUNDED);
+
+        // Then
+        assertThat(names(graph, result)).containsExactly(
+            List.of("SYS-001", "SYS-A", "SYS-B", "SYS-002"),
+            List.of("SYS-001", "SYS-A", "SYS-002"),
+            List.of("SYS-001", "SYS-002"),
+            List.of("SYS-001", "SYS-B", "SYS-002"));
+        assertThat(result.truncatedBy()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not revisit a node on a cycle")
+    void testFind_Cycle() {
+        // Given
+        IntegrationGraph graph = graph(
+            system("SYS-001", "SYS-A"),
+            system("SYS-A", "SYS-B"),
+            system("SYS-B", "SYS-001", "SYS-A", "SYS-002"));
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-001", "SYS-002", UNBOUNDED);
+
+        // Then
+        assertThat(names(graph, result)).containsExactly(List.of("SYS-001", "SYS-A", "SYS-B", "SYS-002"));
+    }
+
+    @Test
+    @DisplayName("Should follow a chain far longer than a recursive search could")
+    void testFind_LongChain() {
+        // Given
+        List<SystemDependencyDTO> chain = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            chain.add(system("SYS-" + i, "SYS-" + (i + 1)));
+        }
+        IntegrationGraph graph = graph(chain.toArray(SystemDependencyDTO[]::new));
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-0", "SYS-50000", UNBOUNDED);
+
+        // Then
+        assertThat(result.paths()).hasSize(1);
+        assertThat(result.paths().get(0)).hasSize(50_000);
+        assertThat(result.truncatedBy()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should stop once more paths exist than requested")
+    void testFind_MaxPaths() {
+        // Given
+        IntegrationGraph graph = graph(
+            system("SYS-001", "SYS-A", "SYS-B", "SYS-002"),
+            system("SYS-A", "SYS-002"),
+            system("SYS-B", "SYS-002"));
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-001", "SYS-002",
+            new PathSearchLimits(10, 2, Duration.ofSeconds(5)));
+
+        // Then
+        assertThat(names(graph, result)).containsExactly(
+            List.of("SYS-001", "SYS-A", "SYS-002"),
+            List.of("SYS-001", "SYS-B", "SYS-002"));
+        assertThat(result.truncatedBy()).isEqualTo(PathSearchLimits.Limit.MAX_PATHS);
+    }
+
+    @Test
+    @DisplayName("Should report a complete search when the target cannot be reached")
+    void testFind_Unreachable() {
+        // Given
+        IntegrationGraph graph = graph(
+            system("SYS-001", "SYS-A"),
+            system("SYS-002", "SYS-001"));
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-001", "SYS-002", UNBOUNDED);
+
+        // Then
+        assertThat(result.paths()).isEmpty();
+        assertThat(result.truncatedBy()).isNull();
+    }
+
+    private PathFinder.Result find(IntegrationGraph graph, String start, String end, PathSearchLimits limits) {
+        return PathFinder.find(graph, graph.nodeId(start), graph.nodeId(end), limits);
+    }
+
+    private List<List<String>> names(IntegrationGraph graph, PathFinder.Result result) {
+        List<List<String>> paths = new ArrayList<>();
+        for (int[] path : result.paths()) {
+            List<String> names = new ArrayList<>();
+            names.add(graph.nodeName(result.start()));
+            for (int edge : path) {
+                names.add(graph.nodeName(graph.edgeTarget(edge)));
+            }
+            paths.add(names);
+        }
+        return paths;
+    }
+
+    private IntegrationGraph graph(SystemDependencyDTO... systems) {
+        return DependencySnapshot.of(1, Instant.EPOCH, List.of(systems)).getGraph();
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.config.PathSearchProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PathSearchLimits Tests")
+class PathSearchLimitsTest {
+
+    private static final PathSearchProperties CEILINGS = new PathSearchProperties(10, 1000, Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("Should use the ceilings for limits that were not requested")
+    void testWithin_DefaultsToCeilings() {
+        // When
+        PathSearchLimits limits = PathSearchLimits.NONE.within(CEILINGS);
+
+        // Then
+        assertThat(limits).isEqualTo(new PathSearchLimits(10, 1000, Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @DisplayName("Should keep tighter limits and lower looser ones to the ceilings")
+    void testWithin_CapsAtCeilings() {
+        // When
+        PathSearchLimits tighter = new PathSearchLimits(3, 20, Duration.ofMillis(100)).within(CEILINGS);
+        PathSearchLimits looser = new PathSearchLimits(50, 100_000, Duration.ofMinutes(1)).within(CEILINGS);
+
+        // Then
+        assertThat(tighter).isEqualTo(new PathSearchLimits(3, 20, Duration.ofMillis(100)));
+        assertThat(looser).isEqualTo(new PathSearchLimits(10, 1000, Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive limits")
+    void testConstructor_RejectsNonPositiveLimits() {
+        assertThatThrownBy(() -> new PathSearchLimits(0, null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PathSearchLimits(null, -1, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PathSearchLimits(null, null, Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
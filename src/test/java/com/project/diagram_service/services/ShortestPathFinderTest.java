@@ -0,0 +1,146 @@
+package com.project.diagram_service.services;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import com.project.diagram_service.snapshot.DependencySnapshot;
+import com.project.diagram_service.snapshot.IntegrationGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.system;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ShortestPathFinder Tests")
+class ShortestPathFinderTest {
+
+    @Test
+    @DisplayName("Should return the k shortest paths by hop count and report that more exist")
+    void testFind_KShortest() {
+        // Given
+        IntegrationGraph graph = diamond();
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-001", "SYS-002", limits(10, 3));
+
+        // Then
+        assertThat(names(graph, result)).containsExactly(
+            List.of("SYS-001", "SYS-002"),
+            List.of("SYS-001", "SYS-A", "SYS-002"),
+            List.of("SYS-001", "SYS-B", "SYS-002"));
+        assertThat(result.truncatedBy()).isEqualTo(PathSearchLimits.Limit.MAX_PATHS);
+    }
+
+    @Test
+    @DisplayName("Should report a complete search when fewer than k paths exist")
+    void testFind_FewerThanK() {
+        // Given
+        IntegrationGraph graph = diamond();
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-001", "SYS-002", limits(10, 10));
+
+        // Then
+        assertThat(names(graph, result)).hasSize(4)
+            .last().isEqualTo(List.of("SYS-001", "SYS-A", "SYS-B", "SYS-002"));
+        assertThat(result.truncatedBy()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should leave out paths longer than the maximum depth")
+    void testFind_MaxDepth() {
+        // Given
+        IntegrationGraph graph = diamond();
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-001", "SYS-002", limits(2, 10));
+
+        // Then
+        assertThat(result.paths()).hasSize(3);
+        assertThat(result.truncatedBy()).isEqualTo(PathSearchLimits.Limit.MAX_DEPTH);
+    }
+
+    @Test
+    @DisplayName("Should report a complete search when the target cannot be reached")
+    void testFind_Unreachable() {
+        // Given
+        IntegrationGraph graph = graph(List.of(system("SYS-001", "SYS-A"), system("SYS-002", "SYS-001")));
+
+        // When
+        PathFinder.Result result = find(graph, "SYS-001", "SYS-002", limits(10, 10));
+
+        // Then
+        assertThat(result.paths()).isEmpty();
+        assertThat(result.truncatedBy()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should find the same paths as the all-paths search, shortest first")
+    void testFind_AgreesWithAllPaths() {
+        // Given
+        Random random = new Random(7);
+        List<SystemDependencyDTO> landscape = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            landscape.add(system("SYS-" + i, "SYS-" + random.nextInt(60), "SYS-" + random.nextInt(60),
+                "SYS-" + random.nextInt(60)));
+        }
+        IntegrationGraph graph = graph(landscape);
+        PathSearchLimits limits = limits(5, 100_000);
+
+        for (int pair = 0; pair < 20; pair++) {
+            int start = graph.nodeId("SYS-" + random.nextInt(30));
+            int target = graph.nodeId("SYS-" + (30 + random.nextInt(30)));
+
+            // When
+            PathFinder.Result shortest = ShortestPathFinder.find(graph, start, target, limits);
+            PathFinder.Result all = PathFinder.find(graph, start, target, limits);
+
+            // Then
+            assertThat(shortest.paths()).containsExactlyInAnyOrderElementsOf(all.paths());
+            for (int p = 1; p < shortest.paths().size(); p++) {
+                assertThat(shortest.paths().get(p).length)
+                    .isGreaterThanOrEqualTo(shortest.paths().get(p - 1).length);
+            }
+            assertThat(shortest.truncatedBy()).isNotEqualTo(PathSearchLimits.Limit.MAX_PATHS);
+        }
+    }
+
+    /**
+     * SYS-001 reaches SYS-002 directly, through SYS-A, through SYS-B and through SYS-A then SYS-B.
+     */
+    private IntegrationGraph diamond() {
+        return graph(List.of(
+            system("SYS-001", "SYS-A", "SYS-002", "SYS-B"),
+            system("SYS-A", "SYS-B", "SYS-002"),
+            system("SYS-B", "SYS-002")));
+    }
+
+    private PathSearchLimits limits(int maxDepth, int k) {
+        return new PathSearchLimits(maxDepth, k, Duration.ofMinutes(1));
+    }
+
+    private PathFinder.Result find(IntegrationGraph graph, String start, String end, PathSearchLimits limits) {
+        return ShortestPathFinder.find(graph, graph.nodeId(start), graph.nodeId(end), limits);
+    }
+
+    private List<List<String>> names(IntegrationGraph graph, PathFinder.Result result) {
+        List<List<String>> paths = new ArrayList<>();
+        for (int[] path : result.paths()) {
+            List<String> names = new ArrayList<>();
+            names.add(graph.nodeName(result.start()));
+            for (int edge : path) {
+                names.add(graph.nodeName(graph.edgeTarget(edge)));
+            }
+            paths.add(names);
+        }
+        return paths;
+    }
+
+    private IntegrationGraph graph(List<SystemDependencyDTO> systems) {
+        return DependencySnapshot.of(1, Instant.EPOCH, systems).getGraph();
+    }
+}
@@ -0,0 +1,490 @@
+package com.project.diagram_service.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.diagram_service.client.CoreServiceClient;
+import com.project.diagram_service.client.SystemDependencySink;
+import com.project.diagram_service.dto.SystemDependencyChangesDTO;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DependencySnapshotHolder Tests")
+class DependencySnapshotHolderTest {
+
+    @Mock
+    private CoreServiceClient coreServiceClient;
+
+    private DependencySnapshotHolder snapshotHolder;
+
+    private final SnapshotFileStore disabledStore = new SnapshotFileStore(new ObjectMapper(), "", Duration.ZERO);
+
+    @BeforeEach
+    void setUp() {
+        snapshotHolder = new DependencySnapshotHolder(coreServiceClient, disabledStore, Duration.ofMinutes(2),
+            SnapshotStorage.HEAP, 0);
+    }
+
+    @Test
+    @DisplayName("Should load the snapshot once and reuse it for subsequent reads")
+    void testCurrent_LoadsOnce() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001", "SYS-002")));
+
+        // When
+        DependencySnapshot first = snapshotHolder.current();
+        DependencySnapshot second = snapshotHolder.current();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.getVersion()).isEqualTo(1L);
+        assertThat(first.getFetchedAt()).isNotNull();
+        assertThat(first.getDependencies()).hasSize(2);
+        verify(coreServiceClient, times(1)).streamSystemDependencies(eq(false), any());
+    }
+
+    @Test
+    @DisplayName("Should swap in a new version on refresh")
+    void testRefresh_IncrementsVersion() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001")))
+            .thenAnswer(streaming(createDependencies("SYS-001", "SYS-002")));
+        DependencySnapshot initial = snapshotHolder.current();
+
+        // When
+        DependencySnapshot refreshed = snapshotHolder.refresh();
+
+        // Then
+        assertThat(refreshed.getVersion()).isGreaterThan(initial.getVersion());
+        assertThat(refreshed.getDependencies()).hasSize(2);
+        assertThat(snapshotHolder.current()).isSameAs(refreshed);
+    }
+
+    @Test
+    @DisplayName("Should keep the version when the core service reports unchanged data")
+    void testRefresh_UnchangedDataKeepsVersion() {
+        // Given - the second stream is answered with 304 Not Modified
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001")))
+            .thenReturn(false);
+        DependencySnapshot initial = snapshotHolder.current();
+
+        // When
+        DependencySnapshot revalidated = snapshotHolder.refresh();
+
+        // Then
+        assertThat(revalidated.getVersion()).isEqualTo(initial.getVersion());
+        assertThat(revalidated.getSystems()).isSameAs(initial.getSystems());
+        assertThat(revalidated.getFlows()).isSameAs(initial.getFlows());
+        assertThat(revalidated.getGraph()).isSameAs(initial.getGraph());
+        assertThat(revalidated.getFetchedAt()).isAfterOrEqualTo(initial.getFetchedAt());
+        verify(coreServiceClient).streamSystemDependencies(eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Should keep the previous snapshot when a scheduled refresh fails")
+    void testScheduledRefresh_KeepsPreviousOnFailure() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001")))
+            .thenThrow(new RuntimeException("Core service unavailable"));
+        DependencySnapshot initial = snapshotHolder.current();
+
+        // When
+        snapshotHolder.scheduledRefresh();
+
+        // Then
+        assertThat(snapshotHolder.current()).isSameAs(initial);
+    }
+
+    @Test
+    @DisplayName("Should reject a null response from the core service")
+    void testCurrent_NullResponse() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenThrow(new IllegalStateException("Core service returned no system dependencies"));
+
+        // When & Then
+        assertThatThrownBy(() -> snapshotHolder.current())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Core service returned no system dependencies");
+    }
+
+    @Test
+    @DisplayName("Should reject an unchanged answer when no snapshot has been loaded")
+    void testCurrent_NotModifiedWithoutSnapshot() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any())).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> snapshotHolder.current())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("before any snapshot was loaded");
+    }
+
+    @Test
+    @DisplayName("Should serve a stale snapshot immediately and revalidate it in the background")
+    void testCurrent_StaleWhileRevalidate() throws InterruptedException {
+        // Given - every snapshot is stale as soon as it is loaded
+        DependencySnapshotHolder staleHolder = new DependencySnapshotHolder(coreServiceClient, disabledStore, Duration.ZERO,
+            SnapshotStorage.HEAP, 0);
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001")))
+            .thenThrow(new RuntimeException("Core service unavailable"));
+        DependencySnapshot initial = staleHolder.current();
+        Thread.sleep(5);
+
+        // When
+        DependencySnapshot served = staleHolder.current();
+
+        // Then - the old snapshot is kept while the background refresh fails
+        assertThat(served).isSameAs(initial);
+        verify(coreServiceClient, timeout(1000)).streamSystemDependencies(eq(true), any());
+        assertThat(staleHolder.status().stale()).isTrue();
+        assertThat(staleHolder.status().version()).isEqualTo(initial.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should report the age of a fresh snapshot")
+    void testStatus_FreshSnapshot() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001")));
+
+        // When
+        SnapshotStatus before = snapshotHolder.status();
+        snapshotHolder.current();
+        SnapshotStatus after = snapshotHolder.status();
+
+        // Then
+        assertThat(before).isNull();
+        assertThat(after.version()).isEqualTo(1L);
+        assertThat(after.ageSeconds()).isLessThan(5);
+        assertThat(after.stale()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should warm-start from the persisted snapshot without calling the core service")
+    void testWarmStart_ServesPersistedSnapshot(@TempDir Path directory) {
+        // Given - a previous instance persisted version 1
+        SnapshotFileStore fileStore = new SnapshotFileStore(new ObjectMapper(), directory.resolve("snapshot.bin").toString(),
+            Duration.ofHours(1));
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001", "SYS-002")));
+        new DependencySnapshotHolder(coreServiceClient, fileStore, Duration.ofMinutes(2), SnapshotStorage.HEAP, 0).current();
+        fileStore.flush();
+        reset(coreServiceClient);
+
+        DependencySnapshotHolder restarted = new DependencySnapshotHolder(coreServiceClient, fileStore, Duration.ofMinutes(2),
+            SnapshotStorage.HEAP, 0);
+
+        // When
+        restarted.warmStart();
+        DependencySnapshot snapshot = restarted.current();
+
+        // Then
+        assertThat(snapshot.getVersion()).isEqualTo(1L);
+        assertThat(snapshot.getDependencies())
+            .extracting(SystemDependencyDTO::getSystemCode)
+            .containsExactly("SYS-001", "SYS-002");
+        verifyNoInteractions(coreServiceClient);
+    }
+
+    @Test
+    @DisplayName("Should continue the version sequence after a warm start")
+    void testWarmStart_ContinuesVersionSequence(@TempDir Path directory) {
+        // Given
+        SnapshotFileStore fileStore = new SnapshotFileStore(new ObjectMapper(), directory.resolve("snapshot.bin").toString(),
+            Duration.ofHours(1));
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001")));
+        DependencySnapshotHolder previous = new DependencySnapshotHolder(coreServiceClient, fileStore, Duration.ofMinutes(2),
+            SnapshotStorage.HEAP, 0);
+        previous.current();
+        previous.refresh();
+        fileStore.flush();
+
+        DependencySnapshotHolder restarted = new DependencySnapshotHolder(coreServiceClient, fileStore, Duration.ofMinutes(2),
+            SnapshotStorage.HEAP, 0);
+        restarted.warmStart();
+
+        // When
+        DependencySnapshot refreshed = restarted.refresh();
+
+        // Then
+        assertThat(refreshed.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should build the integration graph while the response is streamed")
+    void testCurrent_BuildsIntegrationGraph() {
+        // Given
+        SystemDependencyDTO producer = createDependencies("SYS-001").get(0);
+        SystemDependencyDTO.IntegrationFlow toConsumer = new SystemDependencyDTO.IntegrationFlow();
+        toConsumer.setCounterpartSystemCode("SYS-002");
+        toConsumer.setCounterpartSystemRole("CONSUMER");
+        toConsumer.setMiddleware("API_GATEWAY");
+        SystemDependencyDTO.IntegrationFlow unclearRole = new SystemDependencyDTO.IntegrationFlow();
+        unclearRole.setCounterpartSystemCode("SYS-003");
+        unclearRole.setCounterpartSystemRole("UNKNOWN");
+        producer.setIntegrationFlows(List.of(toConsumer, unclearRole));
+
+        SystemDependencyDTO consumer = createDependencies("SYS-004").get(0);
+        SystemDependencyDTO.IntegrationFlow fromMiddleware = new SystemDependencyDTO.IntegrationFlow();
+        fromMiddleware.setCounterpartSystemCode("SYS-001-P");
+        fromMiddleware.setCounterpartSystemRole("PRODUCER");
+        fromMiddleware.setMiddleware("NONE");
+        consumer.setIntegrationFlows(List.of(fromMiddleware));
+
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(List.of(producer, consumer)));
+
+        // When
+        IntegrationGraph graph = snapshotHolder.current().getGraph();
+
+        // Then
+        assertThat(edgesFrom(graph, "SYS-001"))
+            .containsExactlyInAnyOrder(tuple("SYS-002", "API_GATEWAY"), tuple("SYS-004", null));
+        assertThat(edgesFrom(graph, "SYS-002")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply the change feed instead of reloading once a landscape version is known")
+    void testRefresh_AppliesChanges() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(7L, createDependencies("SYS-001", "SYS-002", "SYS-003")));
+        DependencySnapshot initial = snapshotHolder.current();
+
+        SystemDependencyDTO updated = createDependencies("SYS-002").get(0);
+        updated.setIntegrationFlows(List.of(consumerFlow("SYS-003")));
+        SystemDependencyChangesDTO changes = new SystemDependencyChangesDTO();
+        changes.setFromVersion(7L);
+        changes.setToVersion(9L);
+        changes.setUpserted(List.of(updated, createDependencies("SYS-004").get(0)));
+        changes.setRemoved(List.of("SYS-001"));
+        when(coreServiceClient.getSystemDependencyChanges(7L)).thenReturn(Optional.of(changes));
+
+        // When
+        DependencySnapshot refreshed = snapshotHolder.refresh();
+
+        // Then
+        assertThat(refreshed.getVersion()).isEqualTo(initial.getVersion() + 1);
+        assertThat(refreshed.getUpstreamVersion()).isEqualTo(9L);
+        assertThat(refreshed.getDependencies())
+            .extracting(SystemDependencyDTO::getSystemCode)
+            .containsExactly("SYS-002", "SYS-003", "SYS-004");
+        assertThat(edgesFrom(refreshed.getGraph(), "SYS-002")).containsExactly(tuple("SYS-003", null));
+        assertThat(initial.getDependencies()).hasSize(3);
+        assertThat(edgesFrom(initial.getGraph(), "SYS-002")).isEmpty();
+        verify(coreServiceClient, times(1)).streamSystemDependencies(anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("Should hand a delta refresh to the file store without serializing the landscape")
+    void testRefresh_ChangesPersistedInBackground() {
+        // Given
+        SnapshotFileStore fileStore = mock(SnapshotFileStore.class);
+        DependencySnapshotHolder holder = new DependencySnapshotHolder(coreServiceClient, fileStore, Duration.ofMinutes(2),
+            SnapshotStorage.HEAP, 0);
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(7L, createDependencies("SYS-001", "SYS-002")));
+        holder.current();
+
+        SystemDependencyChangesDTO changes = new SystemDependencyChangesDTO();
+        changes.setFromVersion(7L);
+        changes.setToVersion(8L);
+        changes.setUpserted(createDependencies("SYS-003"));
+        when(coreServiceClient.getSystemDependencyChanges(7L)).thenReturn(Optional.of(changes));
+
+        // When
+        DependencySnapshot refreshed = holder.refresh();
+
+        // Then - the refresh only queues the snapshot; nothing is encoded on the refresh path
+        verify(fileStore).writeLater(refreshed);
+        verify(fileStore, never()).write(any());
+        verify(fileStore, never()).flush();
+    }
+
+    @Test
+    @DisplayName("Should keep the snapshot version when the change feed reports nothing new")
+    void testRefresh_NoChanges() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(7L, createDependencies("SYS-001")));
+        DependencySnapshot initial = snapshotHolder.current();
+
+        SystemDependencyChangesDTO changes = new SystemDependencyChangesDTO();
+        changes.setFromVersion(7L);
+        changes.setToVersion(7L);
+        when(coreServiceClient.getSystemDependencyChanges(7L)).thenReturn(Optional.of(changes));
+
+        // When
+        DependencySnapshot refreshed = snapshotHolder.refresh();
+
+        // Then
+        assertThat(refreshed.getVersion()).isEqualTo(initial.getVersion());
+        assertThat(refreshed.getSystems()).isSameAs(initial.getSystems());
+        assertThat(refreshed.getFlows()).isSameAs(initial.getFlows());
+    }
+
+    @Test
+    @DisplayName("Should fall back to an unconditional full reload when the change feed has a gap")
+    void testRefresh_ChangeFeedGap() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(7L, createDependencies("SYS-001")))
+            .thenAnswer(streaming(12L, createDependencies("SYS-001", "SYS-002")));
+        snapshotHolder.current();
+        when(coreServiceClient.getSystemDependencyChanges(7L)).thenReturn(Optional.empty());
+
+        // When
+        DependencySnapshot refreshed = snapshotHolder.refresh();
+
+        // Then
+        assertThat(refreshed.getUpstreamVersion()).isEqualTo(12L);
+        assertThat(refreshed.getDependencies()).hasSize(2);
+        verify(coreServiceClient, times(2)).streamSystemDependencies(eq(false), any());
+    }
+
+    @Test
+    @DisplayName("Should treat changes from a different base version as a gap")
+    void testRefresh_ChangeFeedFromOtherVersion() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(7L, createDependencies("SYS-001")))
+            .thenAnswer(streaming(12L, createDependencies("SYS-005")));
+        snapshotHolder.current();
+
+        SystemDependencyChangesDTO changes = new SystemDependencyChangesDTO();
+        changes.setFromVersion(3L);
+        changes.setToVersion(12L);
+        changes.setUpserted(createDependencies("SYS-002"));
+        when(coreServiceClient.getSystemDependencyChanges(7L)).thenReturn(Optional.of(changes));
+
+        // When
+        DependencySnapshot refreshed = snapshotHolder.refresh();
+
+        // Then
+        assertThat(refreshed.getDependencies())
+            .extracting(SystemDependencyDTO::getSystemCode)
+            .containsExactly("SYS-005");
+    }
+
+    @Test
+    @DisplayName("Should serve a retained earlier version by version number and by instant")
+    void testSelect_RetainedVersion() {
+        // Given
+        DependencySnapshotHolder retainingHolder = new DependencySnapshotHolder(coreServiceClient, disabledStore,
+            Duration.ofMinutes(2), SnapshotStorage.HEAP, 3);
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001")))
+            .thenAnswer(streaming(createDependencies("SYS-001", "SYS-002")));
+        DependencySnapshot initial = retainingHolder.current();
+        DependencySnapshot refreshed = retainingHolder.refresh();
+
+        // When
+        DependencySnapshot byVersion = retainingHolder.select(new SnapshotSelector(initial.getVersion(), null));
+        DependencySnapshot byInstant = retainingHolder.select(new SnapshotSelector(null, initial.getFetchedAt()));
+
+        // Then
+        assertThat(byVersion.getVersion()).isEqualTo(initial.getVersion());
+        assertThat(byVersion.getDependencies()).isEqualTo(initial.getDependencies());
+        assertThat(byInstant.getVersion()).isEqualTo(initial.getVersion());
+        assertThat(retainingHolder.select(SnapshotSelector.LATEST)).isSameAs(refreshed);
+        assertThat(retainingHolder.select(new SnapshotSelector(refreshed.getVersion(), null))).isSameAs(refreshed);
+    }
+
+    @Test
+    @DisplayName("Should reject a version that is no longer retained")
+    void testSelect_VersionNotRetained() {
+        // Given
+        when(coreServiceClient.streamSystemDependencies(anyBoolean(), any()))
+            .thenAnswer(streaming(createDependencies("SYS-001")))
+            .thenAnswer(streaming(createDependencies("SYS-002")));
+        DependencySnapshot initial = snapshotHolder.current();
+        snapshotHolder.refresh();
+
+        // When & Then
+        assertThatThrownBy(() -> snapshotHolder.select(new SnapshotSelector(initial.getVersion(), null)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("not retained");
+        assertThatThrownBy(() -> snapshotHolder.select(new SnapshotSelector(null, initial.getFetchedAt().minusSeconds(1))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a selector with both a version and an instant")
+    void testSelect_VersionAndInstant() {
+        assertThatThrownBy(() -> new SnapshotSelector(1L, Instant.now()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Answer<Boolean> streaming(long landscapeVersion, List<SystemDependencyDTO> dependencies) {
+        return invocation -> {
+            SystemDependencySink sink = invocation.getArgument(1);
+            sink.landscapeVersion(landscapeVersion);
+            dependencies.forEach(sink);
+            return true;
+        };
+    }
+
+    private SystemDependencyDTO.IntegrationFlow consumerFlow(String counterpart) {
+        SystemDependencyDTO.IntegrationFlow flow = new SystemDependencyDTO.IntegrationFlow();
+        flow.setCounterpartSystemCode(counterpart);
+        flow.setCounterpartSystemRole("CONSUMER");
+        return flow;
+    }
+
+    private Answer<Boolean> streaming(List<SystemDependencyDTO> dependencies) {
+        return invocation -> {
+            Consumer<SystemDependencyDTO> consumer = invocation.getArgument(1);
+            dependencies.forEach(consumer);
+            return true;
+        };
+    }
+
+    private List<SystemDependencyDTO> createDependencies(String... systemCodes) {
+        return Arrays.stream(systemCodes)
+            .map(code -> {
+                SystemDependencyDTO dependency = new SystemDependencyDTO();
+                dependency.setSystemCode(code);
+                return dependency;
+            })
+            .toList();
+    }
+
+    private List<Tuple> edgesFrom(IntegrationGraph graph, String node) {
+        List<Tuple> edges = new ArrayList<>();
+        int id = graph.nodeId(node);
+        if (id >= 0) {
+            for (int edge = graph.firstEdge(id); edge < graph.endEdge(id); edge++) {
+                edges.add(tuple(graph.nodeName(graph.edgeTarget(edge)), graph.edgeMiddleware(edge)));
+            }
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.diagram_service.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("FlowDictionary Tests")
+class FlowDictionaryTest {
+
+    @Test
+    @DisplayName("Should reserve fixed codes for the counterpart roles")
+    void testRoleCodes() {
+        // Given
+        FlowDictionary dictionary = new FlowDictionary.Builder().build();
+
+        // When & Then
+        assertThat(dictionary.code(IntegrationFlowUtils.PRODUCER_ROLE)).isEqualTo(FlowDictionary.PRODUCER_ROLE_CODE);
+        assertThat(dictionary.code(IntegrationFlowUtils.CONSUMER_ROLE)).isEqualTo(FlowDictionary.CONSUMER_ROLE_CODE);
+        assertThat(dictionary.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should encode equal values to one code and decode it back")
+    void testEncodeDecode() {
+        // Given
+        FlowDictionary.Builder builder = new FlowDictionary.Builder();
+
+        // When
+        int rest = builder.encode("REST_API");
+        int restAgain = builder.encode(new String("REST_API"));
+        int daily = builder.encode("Daily");
+        FlowDictionary dictionary = builder.build();
+
+        // Then
+        assertThat(restAgain).isEqualTo(rest);
+        assertThat(daily).isNotEqualTo(rest);
+        assertThat(dictionary.value(rest)).isEqualTo("REST_API");
+        assertThat(dictionary.code("Daily")).isEqualTo(daily);
+        assertThat(builder.encode(null)).isEqualTo(FlowDictionary.NULL_CODE);
+        assertThat(dictionary.value(FlowDictionary.NULL_CODE)).isNull();
+        assertThat(dictionary.code("Hourly")).isEqualTo(FlowDictionary.NULL_CODE);
+    }
+
+    @Test
+    @DisplayName("Should decide middleware validity once per code")
+    void testValidMiddleware() {
+        // Given
+        FlowDictionary.Builder builder = new FlowDictionary.Builder();
+        int gateway = builder.encode("API_GATEWAY");
+        int none = builder.encode("none");
+        int blank = builder.encode("  ");
+        FlowDictionary dictionary = builder.build();
+
+        // When & Then
+        assertThat(dictionary.isValidMiddleware(gateway)).isTrue();
+        assertThat(dictionary.isValidMiddleware(none)).isFalse();
+        assertThat(dictionary.isValidMiddleware(blank)).isFalse();
+        assertThat(dictionary.isValidMiddleware(FlowDictionary.NULL_CODE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep existing codes when a dictionary is extended")
+    void testToBuilder() {
+        // Given
+        FlowDictionary.Builder builder = new FlowDictionary.Builder();
+        int mq = builder.encode("MQ");
+        FlowDictionary original = builder.build();
+
+        // When
+        FlowDictionary.Builder extension = original.toBuilder();
+        int esb = extension.encode("ESB");
+        FlowDictionary extended = extension.build();
+
+        // Then
+        assertThat(extended.code("MQ")).isEqualTo(mq);
+        assertThat(extended.value(esb)).isEqualTo("ESB");
+        assertThat(extended.isValidMiddleware(mq)).isTrue();
+        assertThat(original.size()).isEqualTo(3);
+    }
+}
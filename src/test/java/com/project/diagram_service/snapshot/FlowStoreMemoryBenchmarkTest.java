@@ -0,0 +1,49 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.randomLandscape;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Compares the retained heap of the snapshot's flow store with the flow DTOs it replaces.
+ *
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("FlowStore Memory Benchmark")
+@Slf4j
+class FlowStoreMemoryBenchmarkTest {
+
+    private static final int SYSTEMS = 4_000;
+    private static final int FLOWS_PER_SYSTEM = 8;
+
+    @Test
+    @DisplayName("Flow store should retain far less heap than the parsed flow DTOs")
+    void testFootprint_ColumnsVersusDtos() {
+        // Given
+        List<SystemDependencyDTO> landscape = randomLandscape(SYSTEMS, FLOWS_PER_SYSTEM, SYSTEMS);
+        List<List<SystemDependencyDTO.IntegrationFlow>> dtoFlows = new ArrayList<>(SYSTEMS);
+        landscape.forEach(system -> dtoFlows.add(system.getIntegrationFlows()));
+
+        // When
+        FlowStore flows = FlowStore.of(landscape);
+        long dtoBytes = GraphLayout.parseInstance(dtoFlows).totalSize();
+        long storeBytes = GraphLayout.parseInstance(flows).totalSize();
+
+        // Then
+        int flowCount = SYSTEMS * FLOWS_PER_SYSTEM;
+        log.info(String.format("flows=%d dtos=%dKB (%.1fB/flow) store=%dKB (%.1fB/flow)", flowCount,
+                dtoBytes / 1024, (double) dtoBytes / flowCount, storeBytes / 1024, (double) storeBytes / flowCount));
+        assertThat(flows.size()).isEqualTo(flowCount);
+        assertThat(storeBytes).isLessThan(dtoBytes / 2);
+    }
+}
@@ -0,0 +1,153 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.flow;
+import static com.project.diagram_service.dto.SystemDependencyFixtures.systemWithFlows;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("FlowStore Tests")
+class FlowStoreTest {
+
+    @Test
+    @DisplayName("Should store flows as dictionary codes addressed by index")
+    void testOf_EncodesColumns() {
+        // Given
+        SystemDependencyDTO system = systemWithFlows("SYS-001",
+            flow("IF-1", "SYS-002", "CONSUMER", "MQ-P"),
+            flow("IF-2", "SYS-003", "PRODUCER", "NONE"));
+
+        // When
+        FlowStore flows = FlowStore.of(List.of(system));
+
+        // Then
+        assertThat(flows.size()).isEqualTo(2);
+        assertThat(flows.owner(1)).isEqualTo("SYS-001");
+        assertThat(flows.counterpart(1)).isEqualTo("SYS-003");
+        assertThat(flows.roleCode(0)).isEqualTo(FlowDictionary.CONSUMER_ROLE_CODE);
+        assertThat(flows.roleCode(1)).isEqualTo(FlowDictionary.PRODUCER_ROLE_CODE);
+        assertThat(flows.method(0)).isEqualTo("REST_API");
+        assertThat(flows.id(1)).isEqualTo("IF-2");
+        assertThat(flows.hasValidMiddleware(0)).isTrue();
+        assertThat(flows.middleware(0)).isEqualTo("MQ-P");
+        assertThat(flows.middlewareNodeCode(0)).isEqualTo(flows.dictionary().code("MQ"));
+        assertThat(flows.hasValidMiddleware(1)).isFalse();
+        assertThat(flows.middleware(1)).isEqualTo("NONE");
+        assertThat(flows.middlewareNodeCode(1)).isEqualTo(FlowDictionary.NULL_CODE);
+    }
+
+    @Test
+    @DisplayName("Should recreate flow DTOs equal to the ingested ones")
+    void testToDto_RoundTrip() {
+        // Given
+        SystemDependencyDTO.IntegrationFlow original = flow("IF-1", "SYS-002", "CONSUMER", null);
+        original.setComponentName("payments-api");
+        original.setPurpose("Settlement");
+        FlowStore flows = FlowStore.of(List.of(systemWithFlows("SYS-001", original)));
+
+        // When
+        SystemDependencyDTO.IntegrationFlow rebuilt = flows.toDto(0);
+
+        // Then
+        assertThat(rebuilt).isEqualTo(original).isNotSameAs(original);
+    }
+
+    @Test
+    @DisplayName("Should keep the codes of a store when copying its flows into the next one")
+    void testNextBuilder_CopyKeepsCodes() {
+        // Given
+        FlowStore flows = FlowStore.of(List.of(systemWithFlows("SYS-001", flow("IF-1", "SYS-002", "CONSUMER", "MQ"))));
+        int mqCode = flows.dictionary().code("MQ");
+
+        // When
+        FlowStore.Builder builder = flows.nextBuilder();
+        builder.add("SYS-003", flow("IF-2", "SYS-002", "CONSUMER", "ESB"));
+        int copied = builder.copy(flows, 0);
+        FlowStore next = builder.build();
+
+        // Then
+        assertThat(copied).isEqualTo(1);
+        assertThat(next.dictionary().code("MQ")).isEqualTo(mqCode);
+        assertThat(next.toDto(copied)).isEqualTo(flows.toDto(0));
+        assertThat(next.owner(copied)).isEqualTo("SYS-001");
+        assertThat(flows.dictionary().code("ESB")).isEqualTo(FlowDictionary.NULL_CODE);
+    }
+
+    @Test
+    @DisplayName("Should drop the codes no flow uses any more once too many are unused")
+    void testNextBuilder_CompactsUnusedCodes() {
+        // Given - ten flows with their own counterpart and middleware, of which one is kept
+        List<SystemDependencyDTO.IntegrationFlow> originals = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            originals.add(flow("IF-" + i, "SYS-1" + i, "CONSUMER", "MQ-" + i));
+        }
+        FlowStore flows = FlowStore.of(List.of(systemWithFlows("SYS-001",
+            originals.toArray(SystemDependencyDTO.IntegrationFlow[]::new))));
+
+        // When
+        FlowStore.Builder builder = flows.nextBuilder();
+        int copied = builder.copy(flows, 7);
+        FlowStore next = builder.build();
+
+        // Then
+        assertThat(next.dictionary().size()).isLessThan(flows.dictionary().size() / 2);
+        assertThat(next.dictionary().code("SYS-10")).isEqualTo(FlowDictionary.NULL_CODE);
+        assertThat(next.toDto(copied)).isEqualTo(originals.get(7));
+        assertThat(next.owner(copied)).isEqualTo("SYS-001");
+        assertThat(next.roleCode(copied)).isEqualTo(FlowDictionary.CONSUMER_ROLE_CODE);
+        assertThat(next.hasValidMiddleware(copied)).isTrue();
+        assertThat(next.dictionary().value(next.middlewareNodeCode(copied))).isEqualTo("MQ-7");
+    }
+
+    @Test
+    @DisplayName("Should keep the dictionary bounded while the change feed keeps replacing flows")
+    void testWithChanges_DictionaryStaysBounded() {
+        // Given
+        DependencySnapshot snapshot = DependencySnapshot.of(1L, Instant.now(),
+            List.of(systemWithFlows("SYS-001", flow("IF-0", "SYS-100", "CONSUMER", "MQ-0"))));
+
+        // When - every version points the flow at a counterpart and middleware never seen before
+        for (int version = 2; version <= 200; version++) {
+            snapshot = snapshot.withChanges(version, Instant.now(), version,
+                List.of(systemWithFlows("SYS-001", flow("IF-" + version, "SYS-" + (100 + version), "CONSUMER",
+                    "MQ-" + version))),
+                List.of());
+        }
+
+        // Then
+        FlowStore flows = snapshot.getFlows();
+        assertThat(flows.dictionary().size()).isLessThan(20);
+        assertThat(flows.counterpart(0)).isEqualTo("SYS-300");
+        assertThat(snapshot.getGraph().nodeId("SYS-300")).isNotNegative();
+    }
+
+    @Test
+    @DisplayName("Should rebuild a snapshot's dependencies from its columns, null flow lists included")
+    void testSnapshot_RebuildsDependencies() {
+        // Given
+        SystemDependencyDTO withFlows = systemWithFlows("SYS-001",
+            flow("IF-1", "SYS-002", "CONSUMER", "API_GATEWAY"),
+            flow("IF-2", "SYS-003", "PRODUCER", null));
+        SystemDependencyDTO withoutFlows = new SystemDependencyDTO();
+        withoutFlows.setSystemCode("SYS-002");
+        SystemDependencyDTO empty = systemWithFlows("SYS-003");
+        List<SystemDependencyDTO> dependencies = Arrays.asList(withFlows, withoutFlows, empty);
+
+        // When
+        DependencySnapshot snapshot = DependencySnapshot.of(1L, Instant.now(), dependencies);
+
+        // Then
+        assertThat(snapshot.getDependencies()).containsExactlyElementsOf(dependencies);
+        assertThat(snapshot.getSystems().get(0).getIntegrationFlows()).isNull();
+        assertThat(snapshot.firstFlow(0)).isZero();
+        assertThat(snapshot.endFlow(0)).isEqualTo(2);
+        assertThat(snapshot.firstFlow(2)).isEqualTo(snapshot.endFlow(2));
+    }
+}
@@ -0,0 +1,151 @@
+package com.project.diagram_service.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.flow;
+import static com.project.diagram_service.dto.SystemDependencyFixtures.systemWithFlows;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("IntegrationGraph Tests")
+class IntegrationGraphTest {
+
+    @Test
+    @DisplayName("Should assign dense ids and lay out each producer's edges contiguously")
+    void testBuild_CompressedLayout() {
+        // Given
+        FlowStore flows = FlowStore.of(List.of(
+            systemWithFlows("SYS-001", flow("SYS-002", "CONSUMER", "API_GATEWAY"), flow("SYS-003", "CONSUMER", null)),
+            systemWithFlows("SYS-002", flow("SYS-003", "CONSUMER", "NONE"))));
+
+        // When
+        IntegrationGraph graph = IntegrationGraph.of(flows);
+
+        // Then
+        assertThat(graph.nodeCount()).isEqualTo(3);
+        assertThat(graph.edgeCount()).isEqualTo(3);
+        assertThat(List.of(graph.nodeId("SYS-001"), graph.nodeId("SYS-002"), graph.nodeId("SYS-003")))
+            .containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(graph.nodeId("SYS-404")).isEqualTo(-1);
+        assertThat(targets(graph, "SYS-001")).containsExactly("SYS-002", "SYS-003");
+        assertThat(targets(graph, "SYS-002")).containsExactly("SYS-003");
+        assertThat(targets(graph, "SYS-003")).isEmpty();
+
+        int first = graph.firstEdge(graph.nodeId("SYS-001"));
+        assertThat(graph.edgeMiddleware(first)).isEqualTo("API_GATEWAY");
+        assertThat(graph.edgeMiddleware(first + 1)).isNull();
+        assertThat(graph.edgeFlow(first)).isZero();
+        assertThat(flows.counterpart(graph.edgeFlow(first + 1))).isEqualTo("SYS-003");
+    }
+
+    @Test
+    @DisplayName("Should drop duplicate flows of the same system")
+    void testBuild_DeduplicatesEdges() {
+        // Given
+        FlowStore flows = FlowStore.of(List.of(
+            systemWithFlows("SYS-001", flow("SYS-002", "CONSUMER", "MQ"), flow("SYS-002", "CONSUMER", "MQ"))));
+
+        // When
+        IntegrationGraph graph = IntegrationGraph.of(flows);
+
+        // Then
+        assertThat(targets(graph, "SYS-001")).containsExactly("SYS-002");
+        assertThat(graph.edgeFlow(graph.firstEdge(graph.nodeId("SYS-001")))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should encode edge middleware through the dictionary")
+    void testBuild_DictionaryEncodesMiddleware() {
+        // Given
+        FlowStore flows = FlowStore.of(List.of(
+            systemWithFlows("SYS-001", flow("SYS-002", "CONSUMER", "MQ-P"), flow("SYS-003", "CONSUMER", "MQ-C"))));
+
+        // When
+        IntegrationGraph graph = IntegrationGraph.of(flows);
+
+        // Then
+        int edge = graph.firstEdge(graph.nodeId("SYS-001"));
+        assertThat(graph.dictionary()).isSameAs(flows.dictionary());
+        assertThat(graph.edgeMiddlewareCode(edge)).isEqualTo(graph.dictionary().code("MQ"));
+        assertThat(graph.edgeMiddlewareCode(edge + 1)).isEqualTo(graph.edgeMiddlewareCode(edge));
+        assertThat(graph.edgeMiddleware(edge)).isEqualTo("MQ");
+    }
+
+    @Test
+    @DisplayName("Should reverse producer flows and skip flows with an unknown role")
+    void testBuild_Roles() {
+        // Given
+        FlowStore flows = FlowStore.of(List.of(
+            systemWithFlows("SYS-001", flow("SYS-002", "PRODUCER", null), flow("SYS-003", "OBSERVER", null))));
+
+        // When
+        IntegrationGraph graph = IntegrationGraph.of(flows);
+
+        // Then
+        assertThat(targets(graph, "SYS-002")).containsExactly("SYS-001");
+        assertThat(targets(graph, "SYS-001")).isEmpty();
+        assertThat(graph.nodeId("SYS-003")).isEqualTo(-1);
+        assertThat(graph.edgeCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should group incoming edges by consumer")
+    void testBuild_IncomingEdges() {
+        // Given
+        FlowStore flows = FlowStore.of(List.of(
+            systemWithFlows("SYS-001", flow("SYS-002", "CONSUMER", null), flow("SYS-003", "CONSUMER", null)),
+            systemWithFlows("SYS-002", flow("SYS-003", "CONSUMER", null))));
+
+        // When
+        IntegrationGraph graph = IntegrationGraph.of(flows);
+
+        // Then
+        assertThat(sources(graph, "SYS-001")).isEmpty();
+        assertThat(sources(graph, "SYS-002")).containsExactly("SYS-001");
+        assertThat(sources(graph, "SYS-003")).containsExactlyInAnyOrder("SYS-001", "SYS-002");
+    }
+
+    @Test
+    @DisplayName("Should compute shortest distances to a target and -1 for nodes that cannot reach it")
+    void testDistancesTo() {
+        // Given
+        IntegrationGraph graph = IntegrationGraph.of(FlowStore.of(List.of(
+            systemWithFlows("SYS-001", flow("SYS-002", "CONSUMER", null), flow("SYS-004", "CONSUMER", null)),
+            systemWithFlows("SYS-002", flow("SYS-003", "CONSUMER", null)),
+            systemWithFlows("SYS-003", flow("SYS-004", "CONSUMER", null)),
+            systemWithFlows("SYS-004", flow("SYS-005", "CONSUMER", null)))));
+
+        // When
+        int[] distances = graph.distancesTo(graph.nodeId("SYS-004"));
+
+        // Then
+        assertThat(distances[graph.nodeId("SYS-004")]).isZero();
+        assertThat(distances[graph.nodeId("SYS-001")]).isEqualTo(1);
+        assertThat(distances[graph.nodeId("SYS-002")]).isEqualTo(2);
+        assertThat(distances[graph.nodeId("SYS-003")]).isEqualTo(1);
+        assertThat(distances[graph.nodeId("SYS-005")]).isEqualTo(-1);
+    }
+
+    private List<String> sources(IntegrationGraph graph, String node) {
+        List<String> sources = new ArrayList<>();
+        int id = graph.nodeId(node);
+        for (int position = graph.firstIncoming(id); position < graph.endIncoming(id); position++) {
+            sources.add(graph.nodeName(graph.incomingSource(position)));
+        }
+        return sources;
+    }
+
+    private List<String> targets(IntegrationGraph graph, String node) {
+        List<String> targets = new ArrayList<>();
+        int id = graph.nodeId(node);
+        if (id >= 0) {
+            for (int edge = graph.firstEdge(id); edge < graph.endEdge(id); edge++) {
+                targets.add(graph.nodeName(graph.edgeTarget(edge)));
+            }
+        }
+        return targets;
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.diagram_service.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.flow;
+import static com.project.diagram_service.dto.SystemDependencyFixtures.systemWithFlows;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MiddlewareIndex Tests")
+class MiddlewareIndexTest {
+
+    @Test
+    @DisplayName("Should group flows by normalized middleware in response order")
+    void testFlowsThrough() {
+        // Given
+        FlowStore flows = FlowStore.of(List.of(
+            systemWithFlows("SYS-001", flow("SYS-002", "CONSUMER", "OSB"), flow("SYS-003", "CONSUMER", "API_GATEWAY")),
+            systemWithFlows("SYS-002", flow("SYS-003", "CONSUMER", "OSB-C"), flow("SYS-004", "CONSUMER", "NONE"), flow("SYS-005", "CONSUMER", null))));
+
+        // When
+        MiddlewareIndex index = MiddlewareIndex.of(flows);
+
+        // Then
+        assertThat(index.flowsThrough("OSB")).containsExactly(0, 2);
+        assertThat(index.flowsThrough("OSB-P")).containsExactly(0, 2);
+        assertThat(index.flowsThrough("API_GATEWAY")).containsExactly(1);
+        assertThat(index.flowsThrough("NONE")).isEmpty();
+        assertThat(index.flowsThrough("SYS-002")).isEmpty();
+        assertThat(index.flowsThrough("ESB")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should be rebuilt with the snapshot when changes are applied")
+    void testSnapshotWithChanges() {
+        // Given
+        DependencySnapshot snapshot = DependencySnapshot.of(1L, Instant.now(),
+            List.of(systemWithFlows("SYS-001", flow("SYS-002", "CONSUMER", "OSB"))));
+
+        // When
+        DependencySnapshot updated = snapshot.withChanges(2L, Instant.now(), 5L,
+            List.of(systemWithFlows("SYS-003", flow("SYS-002", "CONSUMER", "OSB"))), List.of("SYS-001"));
+
+        // Then
+        assertThat(snapshot.getMiddlewareIndex().flowsThrough("OSB")).containsExactly(0);
+        assertThat(updated.getMiddlewareIndex().flowsThrough("OSB")).containsExactly(0);
+        assertThat(updated.getFlows().owner(0)).isEqualTo("SYS-003");
+    }
+}
@@ -0,0 +1,180 @@
+package com.project.diagram_service.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.diagram_service.dto.CommonSolutionReviewDTO;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SnapshotFileStore Tests")
+class SnapshotFileStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private SnapshotFileStore fileStore;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("snapshots").resolve("dependency-snapshot.bin");
+        fileStore = new SnapshotFileStore(new ObjectMapper(), file.toString(), Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Should round-trip a snapshot including its graph")
+    void testWriteAndRead_RoundTrip() {
+        // Given
+        Instant fetchedAt = Instant.parse("2026-03-01T10:15:30.123456789Z");
+        DependencySnapshot snapshot = DependencySnapshot.of(7L, fetchedAt, createDependencies());
+
+        // When
+        fileStore.write(snapshot);
+        DependencySnapshot restored = fileStore.read(SnapshotStorage.HEAP).orElseThrow();
+
+        // Then
+        assertThat(restored.getVersion()).isEqualTo(7L);
+        assertThat(restored.getFetchedAt()).isEqualTo(fetchedAt);
+        assertThat(restored.getUpstreamVersion()).isNull();
+        assertThat(restored.getDependencies()).isEqualTo(snapshot.getDependencies());
+        IntegrationGraph graph = restored.getGraph();
+        int producer = graph.nodeId("SYS-001");
+        assertThat(graph.endEdge(producer) - graph.firstEdge(producer)).isEqualTo(1);
+        assertThat(graph.nodeName(graph.edgeTarget(graph.firstEdge(producer)))).isEqualTo("SYS-002");
+    }
+
+    @Test
+    @DisplayName("Should write only the latest of several snapshots handed over for a later write")
+    void testWriteLater_WritesLatestOnce() {
+        // Given
+        SnapshotFileStore delayed = new SnapshotFileStore(new ObjectMapper(), file.toString(), Duration.ofHours(1));
+
+        // When
+        delayed.writeLater(DependencySnapshot.of(1L, Instant.now(), createDependencies()));
+        delayed.writeLater(DependencySnapshot.of(2L, Instant.now(), createDependencies()));
+
+        // Then - nothing is written until the delay has passed, then only version 2
+        assertThat(Files.exists(file)).isFalse();
+        delayed.flush();
+        assertThat(delayed.read(SnapshotStorage.HEAP).orElseThrow().getVersion()).isEqualTo(2L);
+        delayed.close();
+    }
+
+    @Test
+    @DisplayName("Should round-trip the upstream landscape version")
+    void testWriteAndRead_UpstreamVersion() {
+        // Given
+        DependencySnapshot.Builder builder = new DependencySnapshot.Builder();
+        builder.landscapeVersion(42L);
+        createDependencies().forEach(builder);
+        DependencySnapshot snapshot = builder.build(3L, Instant.now());
+
+        // When
+        fileStore.write(snapshot);
+        DependencySnapshot restored = fileStore.read(SnapshotStorage.HEAP).orElseThrow();
+
+        // Then
+        assertThat(restored.getUpstreamVersion()).isEqualTo(42L);
+        assertThat(restored.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should return empty when no snapshot has been written")
+    void testRead_MissingFile() {
+        // When & Then
+        assertThat(fileStore.read(SnapshotStorage.HEAP)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore a file whose payload does not match its checksum")
+    void testRead_ChecksumMismatch() throws IOException {
+        // Given
+        fileStore.write(DependencySnapshot.of(1L, Instant.now(), createDependencies()));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 3);
+            int original = raf.read();
+            raf.seek(raf.length() - 3);
+            raf.write(original ^ 0xFF);
+        }
+
+        // When & Then
+        assertThat(fileStore.read(SnapshotStorage.HEAP)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore a file written with another format version")
+    void testRead_UnsupportedFormatVersion() throws IOException {
+        // Given
+        fileStore.write(DependencySnapshot.of(1L, Instant.now(), createDependencies()));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(4);
+            raf.writeInt(SnapshotFileStore.FORMAT_VERSION + 1);
+        }
+
+        // When & Then
+        assertThat(fileStore.read(SnapshotStorage.HEAP)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore a file that is not a snapshot")
+    void testRead_NotASnapshot() throws IOException {
+        // Given
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "[]");
+
+        // When & Then
+        assertThat(fileStore.read(SnapshotStorage.HEAP)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should do nothing when persistence is disabled")
+    void testDisabled() {
+        // Given
+        SnapshotFileStore disabled = new SnapshotFileStore(new ObjectMapper(), " ", Duration.ZERO);
+
+        // When
+        disabled.write(DependencySnapshot.of(1L, Instant.now(), createDependencies()));
+
+        // Then
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.read(SnapshotStorage.HEAP)).isEmpty();
+    }
+
+    private List<SystemDependencyDTO> createDependencies() {
+        SystemDependencyDTO system = new SystemDependencyDTO();
+        system.setSystemCode("SYS-001");
+
+        CommonSolutionReviewDTO.SolutionDetails details = new CommonSolutionReviewDTO.SolutionDetails();
+        details.setSolutionName("Payment Service");
+        details.setSolutionReviewCode("REV-001");
+        CommonSolutionReviewDTO.SolutionOverview overview = new CommonSolutionReviewDTO.SolutionOverview();
+        overview.setSolutionDetails(details);
+        overview.setApplicationUsers(List.of("ops"));
+        system.setSolutionOverview(overview);
+
+        SystemDependencyDTO.IntegrationFlow flow = new SystemDependencyDTO.IntegrationFlow();
+        flow.setCounterpartSystemCode("SYS-002");
+        flow.setCounterpartSystemRole("CONSUMER");
+        flow.setIntegrationMethod("REST_API");
+        flow.setFrequency("Daily");
+        flow.setMiddleware("API_GATEWAY");
+        system.setIntegrationFlows(List.of(flow));
+
+        SystemDependencyDTO counterpart = new SystemDependencyDTO();
+        counterpart.setSystemCode("SYS-002");
+
+        return List.of(system, counterpart);
+    }
+}
@@ -0,0 +1,189 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.system;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SnapshotHistory Tests")
+class SnapshotHistoryTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Should rebuild an earlier version with its systems and flows in order")
+    void testVersion_RebuildsEarlierVersion() {
+        // Given
+        SnapshotHistory history = new SnapshotHistory(5);
+        DependencySnapshot first = DependencySnapshot.of(1, T0,
+            List.of(system("SYS-001", "SYS-002"), system("SYS-002", "SYS-003"), system("SYS-003")));
+        history.record(first);
+        history.record(first.withChanges(2, T0.plusSeconds(60), 2,
+            List.of(system("SYS-002", "SYS-004"), system("SYS-005")), List.of("SYS-001")));
+
+        // When
+        DependencySnapshot rebuilt = history.version(1).orElseThrow();
+
+        // Then
+        assertThat(rebuilt.getVersion()).isEqualTo(1L);
+        assertThat(rebuilt.getFetchedAt()).isEqualTo(T0);
+        assertThat(rebuilt.getDependencies()).isEqualTo(first.getDependencies());
+        assertThat(rebuilt.getSystemIndex().incidentFlows("SYS-003")).hasSize(1);
+        assertThat(rebuilt.getGraph().nodeId("SYS-004")).isNegative();
+    }
+
+    @Test
+    @DisplayName("Should rebuild a version that was replaced by a full reload in a different order")
+    void testVersion_AfterFullReload() {
+        // Given
+        SnapshotHistory history = new SnapshotHistory(5);
+        DependencySnapshot first = DependencySnapshot.of(1, T0,
+            List.of(system("SYS-001", "SYS-002"), system("SYS-002"), system("SYS-003", "SYS-001")));
+        history.record(first);
+        history.record(DependencySnapshot.of(2, T0.plusSeconds(60),
+            List.of(system("SYS-003", "SYS-001"), system("SYS-001", "SYS-002"))));
+
+        // When
+        DependencySnapshot rebuilt = history.version(1).orElseThrow();
+
+        // Then
+        assertThat(rebuilt.getDependencies()).isEqualTo(first.getDependencies());
+        assertThat(history.retainedChangedSystems()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep only the systems that changed between versions")
+    void testRecord_RetainsOnlyChangedSystems() {
+        // Given
+        SnapshotHistory history = new SnapshotHistory(10);
+        List<SystemDependencyDTO> landscape = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            landscape.add(system("SYS-" + i, "SYS-" + (i + 1)));
+        }
+        DependencySnapshot snapshot = DependencySnapshot.of(1, T0, landscape);
+        history.record(snapshot);
+
+        // When - each version changes one system
+        for (int version = 2; version <= 6; version++) {
+            snapshot = snapshot.withChanges(version, T0.plusSeconds(version), version,
+                List.of(system("SYS-" + version, "SYS-0")), List.of());
+            history.record(snapshot);
+        }
+
+        // Then
+        assertThat(history.retainedChangedSystems()).isEqualTo(5);
+        assertThat(history.version(3).orElseThrow().getDependencies().get(4).getIntegrationFlows())
+            .extracting(SystemDependencyDTO.IntegrationFlow::getCounterpartSystemCode)
+            .containsExactly("SYS-5");
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest version beyond the retained count")
+    void testRecord_DropsOldestVersion() {
+        // Given
+        SnapshotHistory history = new SnapshotHistory(2);
+        for (int version = 1; version <= 4; version++) {
+            history.record(DependencySnapshot.of(version, T0.plusSeconds(version), List.of(system("SYS-" + version))));
+        }
+
+        // When & Then
+        assertThat(history.version(1)).isEmpty();
+        assertThat(history.version(2).orElseThrow().getSystems())
+            .extracting(SystemDependencyDTO::getSystemCode)
+            .containsExactly("SYS-2");
+        assertThat(history.version(3)).isPresent();
+        assertThat(history.version(4)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should keep no earlier versions when none are retained")
+    void testRecord_NoRetention() {
+        // Given
+        SnapshotHistory history = new SnapshotHistory(0);
+        history.record(DependencySnapshot.of(1, T0, List.of(system("SYS-001"))));
+        DependencySnapshot latest = DependencySnapshot.of(2, T0.plusSeconds(60), List.of(system("SYS-002")));
+        history.record(latest);
+
+        // When & Then
+        assertThat(history.version(1)).isEmpty();
+        assertThat(history.version(2)).containsSame(latest);
+    }
+
+    @Test
+    @DisplayName("Should return the version that was current at an instant")
+    void testAsOf_ReturnsThenCurrentVersion() {
+        // Given
+        SnapshotHistory history = new SnapshotHistory(5);
+        DependencySnapshot first = DependencySnapshot.of(1, T0, List.of(system("SYS-001")));
+        history.record(first);
+        history.record(first.revalidated(T0.plusSeconds(30)));
+        DependencySnapshot second = DependencySnapshot.of(2, T0.plusSeconds(60), List.of(system("SYS-002")));
+        history.record(second);
+
+        // When & Then
+        assertThat(history.asOf(T0.minusSeconds(1))).isEmpty();
+        assertThat(history.asOf(T0).orElseThrow().getVersion()).isEqualTo(1L);
+        assertThat(history.asOf(T0.plusSeconds(45)).orElseThrow().getFetchedAt()).isEqualTo(T0.plusSeconds(30));
+        assertThat(history.asOf(T0.plusSeconds(60))).containsSame(second);
+        assertThat(history.asOf(T0.plusSeconds(3600))).containsSame(second);
+    }
+
+    @Test
+    @DisplayName("Should reuse a rebuilt version for repeated requests")
+    void testVersion_CachesRebuiltVersion() {
+        // Given
+        SnapshotHistory history = new SnapshotHistory(5);
+        history.record(DependencySnapshot.of(1, T0, List.of(system("SYS-001"))));
+        history.record(DependencySnapshot.of(2, T0.plusSeconds(60), List.of(system("SYS-002"))));
+
+        // When
+        DependencySnapshot first = history.version(1).orElseThrow();
+        DependencySnapshot second = history.version(1).orElseThrow();
+
+        // Then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should keep every few versions in full and rebuild each version from the nearest one")
+    void testVersion_RebuildsFromCheckpoints() {
+        // Given
+        SnapshotHistory history = new SnapshotHistory(10, 3);
+        SystemDependencyDTO withoutFlowList = system("SYS-000");
+        withoutFlowList.setIntegrationFlows(null);
+        DependencySnapshot snapshot = DependencySnapshot.of(1, T0,
+            List.of(withoutFlowList, system("SYS-001", "SYS-002"), system("SYS-002")));
+        List<DependencySnapshot> versions = new ArrayList<>(List.of(snapshot));
+        history.record(snapshot);
+
+        // When - each version changes one system and drops or restores the one without flows
+        for (int version = 2; version <= 8; version++) {
+            snapshot = snapshot.withChanges(version, T0.plusSeconds(version), version,
+                List.of(system("SYS-00" + (version % 3), "SYS-00" + version), withoutFlowList),
+                version % 2 == 0 ? List.of("SYS-000") : List.of());
+            versions.add(snapshot);
+            history.record(snapshot);
+        }
+
+        // Then
+        assertThat(history.checkpoints()).isEqualTo(2);
+        for (DependencySnapshot expected : versions) {
+            assertThat(history.version(expected.getVersion()).orElseThrow().getDependencies())
+                .as("version %d", expected.getVersion())
+                .isEqualTo(expected.getDependencies());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a negative number of retained versions")
+    void testConstructor_NegativeRetention() {
+        assertThatThrownBy(() -> new SnapshotHistory(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
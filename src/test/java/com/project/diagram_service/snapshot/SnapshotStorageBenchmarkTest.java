@@ -0,0 +1,90 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.randomLandscape;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Compares on-heap and off-heap snapshot storage for a large landscape: the heap the
+ * snapshot retains, and the cost of walking every graph edge and reading its flow.
+ *
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("SnapshotStorage Benchmark")
+@Slf4j
+class SnapshotStorageBenchmarkTest {
+
+    private static final int SYSTEMS = 20_000;
+    private static final int FLOWS_PER_SYSTEM = 10;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    @DisplayName("Off-heap storage should retain far less heap at a bounded traversal cost")
+    void testStorage_HeapVersusOffHeap() {
+        List<SystemDependencyDTO> landscape = randomLandscape(SYSTEMS, FLOWS_PER_SYSTEM, SYSTEMS);
+
+        DependencySnapshot heap = build(SnapshotStorage.HEAP, landscape);
+        DependencySnapshot offHeap = build(SnapshotStorage.OFF_HEAP, landscape);
+        long heapBytes = GraphLayout.parseInstance(heap.getFlows(), heap.getGraph()).totalSize();
+        long offHeapBytes = GraphLayout.parseInstance(offHeap.getFlows(), offHeap.getGraph()).totalSize();
+        long heapNanos = bestTraversal(heap);
+        long offHeapNanos = bestTraversal(offHeap);
+
+        int edges = heap.getGraph().edgeCount();
+        log.info(String.format("storage=HEAP     retained=%7dKB traversal=%7.2fms (%5.1fns/edge)",
+                heapBytes / 1024, heapNanos / 1_000_000.0, (double) heapNanos / edges));
+        log.info(String.format("storage=OFF_HEAP retained=%7dKB traversal=%7.2fms (%5.1fns/edge)",
+                offHeapBytes / 1024, offHeapNanos / 1_000_000.0, (double) offHeapNanos / edges));
+
+        assertThat(offHeapBytes).isLessThan(heapBytes / 4);
+        assertThat(offHeapNanos).isLessThan(heapNanos * 4);
+    }
+
+    private long bestTraversal(DependencySnapshot snapshot) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            traverse(snapshot);
+        }
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            checksum += traverse(snapshot);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        assertThat(checksum).isNotZero();
+        return best;
+    }
+
+    /**
+     * Walks every edge like a path search does and reads the method code of its flow.
+     */
+    private long traverse(DependencySnapshot snapshot) {
+        IntegrationGraph graph = snapshot.getGraph();
+        FlowStore flows = snapshot.getFlows();
+        long checksum = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                checksum += graph.edgeTarget(edge) + graph.edgeMiddlewareCode(edge)
+                        + flows.roleCode(graph.edgeFlow(edge));
+            }
+        }
+        return checksum;
+    }
+
+    private DependencySnapshot build(SnapshotStorage storage, List<SystemDependencyDTO> landscape) {
+        DependencySnapshot.Builder builder = new DependencySnapshot.Builder(storage);
+        landscape.forEach(builder);
+        return builder.build(1L, Instant.now());
+    }
+}
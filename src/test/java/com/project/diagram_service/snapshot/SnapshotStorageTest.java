@@ -0,0 +1,98 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.IntBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.project.diagram_service.dto.SystemDependencyFixtures.flow;
+import static com.project.diagram_service.dto.SystemDependencyFixtures.systemWithFlows;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SnapshotStorage Tests")
+class SnapshotStorageTest {
+
+    @ParameterizedTest
+    @EnumSource(SnapshotStorage.class)
+    @DisplayName("Should read back int and String columns as they were written")
+    void testColumns_RoundTrip(SnapshotStorage storage) {
+        // When
+        IntBuffer ints = storage.ints(new int[] {7, -1, 42});
+        SnapshotStorage.StringColumn strings = storage.strings(Arrays.asList("IF-1", null, "", "Zahlungsverkehr → Ü"));
+
+        // Then
+        assertThat(ints.get(0)).isEqualTo(7);
+        assertThat(ints.get(1)).isEqualTo(-1);
+        assertThat(ints.get(2)).isEqualTo(42);
+        assertThat(strings.get(0)).isEqualTo("IF-1");
+        assertThat(strings.get(1)).isNull();
+        assertThat(strings.get(2)).isEmpty();
+        assertThat(strings.get(3)).isEqualTo("Zahlungsverkehr → Ü");
+    }
+
+    @Test
+    @DisplayName("Should keep off-heap columns in direct buffers")
+    void testOffHeap_UsesDirectBuffers() {
+        // When & Then
+        assertThat(SnapshotStorage.OFF_HEAP.ints(new int[] {1}).isDirect()).isTrue();
+        assertThat(SnapshotStorage.HEAP.ints(new int[] {1}).isDirect()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should serve an off-heap snapshot exactly like an on-heap one")
+    void testOffHeapSnapshot_MatchesHeap() {
+        // Given
+        List<SystemDependencyDTO> dependencies = List.of(
+            systemWithFlows("SYS-001", flow("IF-1", "SYS-002", "CONSUMER", "OSB"), flow("IF-2", "SYS-003", "PRODUCER", null)),
+            systemWithFlows("SYS-002", flow("IF-3", "SYS-003", "CONSUMER", "NONE")));
+
+        // When
+        DependencySnapshot heap = build(SnapshotStorage.HEAP, dependencies);
+        DependencySnapshot offHeap = build(SnapshotStorage.OFF_HEAP, dependencies);
+
+        // Then
+        assertThat(offHeap.getFlows().storage()).isEqualTo(SnapshotStorage.OFF_HEAP);
+        assertThat(offHeap.getDependencies()).isEqualTo(heap.getDependencies()).isEqualTo(dependencies);
+        IntegrationGraph heapGraph = heap.getGraph();
+        IntegrationGraph offHeapGraph = offHeap.getGraph();
+        assertThat(offHeapGraph.edgeCount()).isEqualTo(heapGraph.edgeCount());
+        for (int node = 0; node < heapGraph.nodeCount(); node++) {
+            assertThat(offHeapGraph.nodeName(node)).isEqualTo(heapGraph.nodeName(node));
+            assertThat(offHeapGraph.endEdge(node)).isEqualTo(heapGraph.endEdge(node));
+        }
+        for (int edge = 0; edge < heapGraph.edgeCount(); edge++) {
+            assertThat(offHeapGraph.edgeTarget(edge)).isEqualTo(heapGraph.edgeTarget(edge));
+            assertThat(offHeapGraph.edgeMiddleware(edge)).isEqualTo(heapGraph.edgeMiddleware(edge));
+            assertThat(offHeapGraph.edgeFlow(edge)).isEqualTo(heapGraph.edgeFlow(edge));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the storage of a snapshot when changes are applied")
+    void testWithChanges_KeepsStorage() {
+        // Given
+        DependencySnapshot snapshot = build(SnapshotStorage.OFF_HEAP,
+            List.of(systemWithFlows("SYS-001", flow("IF-1", "SYS-002", "CONSUMER", null))));
+
+        // When
+        DependencySnapshot updated = snapshot.withChanges(2L, Instant.now(), 3L,
+            List.of(systemWithFlows("SYS-003", flow("IF-2", "SYS-001", "CONSUMER", null))), List.of());
+
+        // Then
+        assertThat(updated.getFlows().storage()).isEqualTo(SnapshotStorage.OFF_HEAP);
+        assertThat(updated.getFlows().id(0)).isEqualTo("IF-1");
+        assertThat(updated.getFlows().id(1)).isEqualTo("IF-2");
+    }
+
+    private DependencySnapshot build(SnapshotStorage storage, List<SystemDependencyDTO> dependencies) {
+        DependencySnapshot.Builder builder = new DependencySnapshot.Builder(storage);
+        dependencies.forEach(builder);
+        return builder.build(1L, Instant.now());
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.CommonSolutionReviewDTO;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SolutionOverviews Tests")
+class SolutionOverviewsTest {
+
+    @Test
+    @DisplayName("Should decode an encoded overview to an equal copy")
+    void testEncodeDecode_RoundTrip() {
+        // Given
+        CommonSolutionReviewDTO.SolutionOverview overview = createOverview();
+
+        // When
+        CommonSolutionReviewDTO.SolutionOverview decoded = SolutionOverviews.decode(SolutionOverviews.encode(overview));
+
+        // Then
+        assertThat(decoded).isEqualTo(overview).isNotSameAs(overview);
+        assertThat(SolutionOverviews.encode(null)).isNull();
+        assertThat(SolutionOverviews.decode(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep only the solution name and review code in the summary")
+    void testSummary() {
+        // Given
+        CommonSolutionReviewDTO.SolutionOverview overview = createOverview();
+
+        // When
+        CommonSolutionReviewDTO.SolutionOverview summary = SolutionOverviews.summary(overview);
+
+        // Then
+        assertThat(summary.getSolutionDetails().getSolutionName()).isEqualTo("Payment Service");
+        assertThat(summary.getSolutionDetails().getSolutionReviewCode()).isEqualTo("REV-001");
+        assertThat(summary.getSolutionDetails().getProjectName()).isNull();
+        assertThat(summary.getConcerns()).isNull();
+        assertThat(summary.getApplicationUsers()).isNull();
+        assertThat(SolutionOverviews.summary(new CommonSolutionReviewDTO.SolutionOverview()).getSolutionDetails())
+            .isNull();
+    }
+
+    @Test
+    @DisplayName("Should serve summaries to diagrams and full overviews only on request")
+    void testSnapshot_LazyOverviews() {
+        // Given
+        SystemDependencyDTO system = new SystemDependencyDTO();
+        system.setSystemCode("SYS-001");
+        system.setSolutionOverview(createOverview());
+        system.setIntegrationFlows(List.of());
+
+        // When
+        DependencySnapshot snapshot = DependencySnapshot.of(1L, Instant.now(), List.of(system));
+
+        // Then
+        assertThat(snapshot.getSystems().get(0).getSolutionOverview().getConcerns()).isNull();
+        assertThat(snapshot.getSystemIndex().nameOrCode("SYS-001")).isEqualTo("Payment Service");
+        assertThat(snapshot.getSolutionOverview(0)).isEqualTo(system.getSolutionOverview());
+        assertThat(snapshot.getDependencies()).containsExactly(system);
+    }
+
+    private CommonSolutionReviewDTO.SolutionOverview createOverview() {
+        CommonSolutionReviewDTO.SolutionDetails details = new CommonSolutionReviewDTO.SolutionDetails();
+        details.setSolutionName("Payment Service");
+        details.setSolutionReviewCode("REV-001");
+        details.setProjectName("Payments Modernisation");
+
+        CommonSolutionReviewDTO.Concern concern = new CommonSolutionReviewDTO.Concern();
+        concern.setId("C-1");
+        concern.setDescription("Single point of failure");
+        concern.setFollowUpDate(LocalDateTime.of(2025, 3, 1, 9, 30));
+
+        CommonSolutionReviewDTO.SolutionOverview overview = new CommonSolutionReviewDTO.SolutionOverview();
+        overview.setId("SO-1");
+        overview.setSolutionDetails(details);
+        overview.setReviewStatus("APPROVED");
+        overview.setApplicationUsers(List.of("Finance", "Treasury"));
+        overview.setConcerns(List.of(concern));
+        return overview;
+    }
+}
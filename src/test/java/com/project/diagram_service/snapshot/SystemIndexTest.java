@@ -0,0 +1,112 @@
+package com.project.diagram_service.snapshot;
+
+import com.project.diagram_service.dto.CommonSolutionReviewDTO;
+import com.project.diagram_service.dto.SystemDependencyDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SystemIndex Tests")
+class SystemIndexTest {
+
+    @Test
+    @DisplayName("Should look up name, review code and system by code")
+    void testLookups() {
+        // Given
+        SystemDependencyDTO payments = system("SYS-001", "Payment Service", "REV-001");
+        SystemIndex index = index(List.of(payments, system("SYS-002", null, null)));
+
+        // When & Then
+        assertThat(index.system("SYS-001")).isSameAs(payments);
+        assertThat(index.contains("SYS-001")).isTrue();
+        assertThat(index.nameOrCode("SYS-001")).isEqualTo("Payment Service");
+        assertThat(index.reviewCode("SYS-001")).isEqualTo("REV-001");
+        assertThat(index.nameOrCode("SYS-002")).isEqualTo("SYS-002");
+        assertThat(index.system("SYS-404")).isNull();
+        assertThat(index.contains("SYS-404")).isFalse();
+        assertThat(index.nameOrCode("SYS-404")).isEqualTo("SYS-404");
+    }
+
+    @Test
+    @DisplayName("Should keep the first system when a code appears more than once")
+    void testDuplicateCodes_FirstWins() {
+        // Given
+        SystemIndex index = index(List.of(
+            system("SYS-001", "First", "REV-001"),
+            system("SYS-001", "Second", "REV-002")));
+
+        // When & Then
+        assertThat(index.nameOrCode("SYS-001")).isEqualTo("First");
+        assertThat(index.reviewCode("SYS-001")).isEqualTo("REV-001");
+    }
+
+    @Test
+    @DisplayName("Should know counterpart codes in raw and normalized form")
+    void testIsKnown_Counterparts() {
+        // Given
+        SystemDependencyDTO system = system("SYS-001", "Payment Service", "REV-001");
+        SystemDependencyDTO.IntegrationFlow flow = new SystemDependencyDTO.IntegrationFlow();
+        flow.setCounterpartSystemCode("EXT-001-C");
+        flow.setCounterpartSystemRole("CONSUMER");
+        system.setIntegrationFlows(Arrays.asList(flow));
+
+        SystemIndex index = index(List.of(system));
+
+        // When & Then
+        assertThat(index.isKnown("SYS-001")).isTrue();
+        assertThat(index.isKnown("EXT-001-C")).isTrue();
+        assertThat(index.isKnown("EXT-001")).isTrue();
+        assertThat(index.contains("EXT-001")).isFalse();
+        assertThat(index.isKnown("EXT-002")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should list the flows a system owns or is named in, in response order")
+    void testIncidentFlows() {
+        // Given
+        SystemDependencyDTO first = system("SYS-001", "Payment Service", "REV-001");
+        SystemDependencyDTO.IntegrationFlow toLedger = flow("SYS-002");
+        SystemDependencyDTO.IntegrationFlow toSelf = flow("SYS-001");
+        first.setIntegrationFlows(Arrays.asList(toLedger, toSelf));
+        SystemDependencyDTO second = system("SYS-003", "Reporting", "REV-003");
+        SystemDependencyDTO.IntegrationFlow fromReporting = flow("SYS-001");
+        SystemDependencyDTO.IntegrationFlow unrelated = flow("SYS-004");
+        second.setIntegrationFlows(Arrays.asList(fromReporting, unrelated));
+
+        FlowStore flows = FlowStore.of(List.of(first, second));
+        SystemIndex index = SystemIndex.of(List.of(first, second), flows);
+
+        // When & Then - flows are numbered toLedger, toSelf, fromReporting, unrelated
+        assertThat(index.incidentFlows("SYS-001")).containsExactly(0, 1, 2);
+        assertThat(flows.owner(2)).isEqualTo("SYS-003");
+        assertThat(index.incidentFlows("SYS-002")).containsExactly(0);
+        assertThat(index.incidentFlows("SYS-404")).isEmpty();
+    }
+
+    private SystemIndex index(List<SystemDependencyDTO> systems) {
+        return SystemIndex.of(systems, FlowStore.of(systems));
+    }
+
+    private SystemDependencyDTO.IntegrationFlow flow(String counterpart) {
+        SystemDependencyDTO.IntegrationFlow flow = new SystemDependencyDTO.IntegrationFlow();
+        flow.setCounterpartSystemCode(counterpart);
+        flow.setCounterpartSystemRole("CONSUMER");
+        return flow;
+    }
+
+    private SystemDependencyDTO system(String code, String name, String reviewCode) {
+        SystemDependencyDTO system = new SystemDependencyDTO();
+        system.setSystemCode(code);
+        CommonSolutionReviewDTO.SolutionDetails details = new CommonSolutionReviewDTO.SolutionDetails();
+        details.setSolutionName(name);
+        details.setSolutionReviewCode(reviewCode);
+        CommonSolutionReviewDTO.SolutionOverview overview = new CommonSolutionReviewDTO.SolutionOverview();
+        overview.setSolutionDetails(details);
+        system.setSolutionOverview(overview);
+        return system;
+    }
+}